@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# =============================================================
+# Mide el arranque del backend con y sin el perfil arranque-rapido
+# (AOT de Spring + archivo CDS). Requiere haber compilado con:
+#   ./mvnw -Parranque-rapido -DskipTests package
+#
+# Uso: scripts/medir-arranque.sh [repeticiones] [--primera-solicitud]
+#   sin --primera-solicitud: tiempo hasta refrescar el contexto
+#     (spring.context.exit=onRefresh); no necesita base de datos
+#   con --primera-solicitud: tiempo hasta la primera respuesta de
+#     GET /api/lotes/estado/DISPONIBLE; necesita PostgreSQL con el
+#     esquema ya migrado
+# =============================================================
+set -euo pipefail
+
+REPETICIONES=${1:-5}
+PRIMERA_SOLICITUD=${2:-}
+PUERTO=${PUERTO:-8089}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+DIRECTORIO="$(cd "$(dirname "$0")/.." && pwd)/target/arranque-rapido"
+JAR=inmobiliaria-backend-0.0.1-SNAPSHOT.jar
+
+if [[ ! -f "$DIRECTORIO/app.jsa" ]]; then
+    echo "No existe $DIRECTORIO/app.jsa; compile con -Parranque-rapido" >&2
+    exit 1
+fi
+cd "$DIRECTORIO"
+
+# Mismas propiedades en ambos modos para comparar solo AOT + CDS
+COMUNES=(-Dserver.port="$PUERTO"
+         -Dspring.jpa.hibernate.ddl-auto=none
+         -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false
+         -Dspring.flyway.enabled=false)
+NORMAL=()
+RAPIDO=(-XX:SharedArchiveFile=app.jsa -Xlog:cds=error
+        -Dspring.aot.enabled=true -Dspring.profiles.active=arranque-rapido)
+
+ahora_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Imprime los milisegundos de un arranque con las opciones dadas
+medir() {
+    local inicio fin pid
+    inicio=$(ahora_ms)
+    if [[ "$PRIMERA_SOLICITUD" == "--primera-solicitud" ]]; then
+        "$JAVA" "$@" "${COMUNES[@]}" -jar "$JAR" > arranque.log 2>&1 &
+        pid=$!
+        until curl -s -o /dev/null "http://localhost:$PUERTO/api/lotes/estado/DISPONIBLE"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "El backend termino antes de responder; ver $DIRECTORIO/arranque.log" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        fin=$(ahora_ms)
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    else
+        "$JAVA" "$@" "${COMUNES[@]}" -Dspring.context.exit=onRefresh -jar "$JAR" > arranque.log 2>&1 || {
+            echo "Fallo el arranque; ver $DIRECTORIO/arranque.log" >&2
+            exit 1
+        }
+        fin=$(ahora_ms)
+    fi
+    echo $(( fin - inicio ))
+}
+
+for modo in normal rapido; do
+    total=0
+    for ((i = 1; i <= REPETICIONES; i++)); do
+        if [[ $modo == normal ]]; then
+            # Con set -u, bash < 4.4 trata un arreglo vacio como variable sin definir
+            ms=$(medir ${NORMAL[@]+"${NORMAL[@]}"})
+        else
+            ms=$(medir ${RAPIDO[@]+"${RAPIDO[@]}"})
+        fi
+        echo "$modo #$i: $ms ms"
+        total=$(( total + ms ))
+    done
+    echo "$modo promedio: $(( total / REPETICIONES )) ms"
+done
@@ -0,0 +1,45 @@
+package com.inmobiliaria.configuracion;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configura el ejecutor acotado donde se generan las miniaturas.
+ * Decodificar imagenes consume mucha CPU y memoria, por eso se limita
+ * a pocos hilos; si la cola se llena la imagen queda PENDIENTE y la
+ * toma el reintento programado. Las tareas conservan la traza de la
+ * solicitud que subio la imagen.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+public class MediaConfiguracion {
+
+    /**
+     * Ejecutor con un numero fijo de hilos y una cola de tamano limitado.
+     *
+     * @param hilos cantidad de miniaturas que se generan en paralelo
+     * @param cola cantidad maxima de miniaturas en espera
+     * @return ejecutor de miniaturas
+     */
+    @Bean(name = "ejecutorMiniaturas")
+    public ThreadPoolTaskExecutor ejecutorMiniaturas(
+            @Value("${inmobiliaria.media.hilos:2}") int hilos,
+            @Value("${inmobiliaria.media.cola:100}") int cola) {
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(cola);
+        ejecutor.setThreadNamePrefix("miniatura-");
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ejecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        ejecutor.setWaitForTasksToCompleteOnShutdown(false);
+        return ejecutor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.inmobiliaria.configuracion;
+
+import com.inmobiliaria.dto.CompraMultiple;
+import com.inmobiliaria.dto.ResultadoCompraMultiple;
+import com.inmobiliaria.modelo.Agente;
+import com.inmobiliaria.modelo.Cliente;
+import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.modelo.MediaLote;
+import com.inmobiliaria.modelo.Venta;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Pistas para la imagen nativa de GraalVM (perfil Maven native).
+ * Spring registra solo los tipos de los parametros y respuestas de los
+ * controladores y las entidades JPA; aqui se agregan los que Jackson
+ * serializa por fuera de los controladores: el catalogo publico en
+ * disco y las respuestas guardadas de las claves de idempotencia.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+@ImportRuntimeHints(NativoConfiguracion.PistasJson.class)
+public class NativoConfiguracion {
+
+    /**
+     * Reflexion de constructores, campos y accesores de los tipos que se
+     * convierten a JSON y desde JSON con el JsonMapper.
+     */
+    static class PistasJson implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                /* CatalogoPublicoServicio */
+                Lote.class, MediaLote.class,
+                /* IdempotenciaServicio: solicitudes y respuestas */
+                Venta.class, Cliente.class, Agente.class,
+                CompraMultiple.class, ResultadoCompraMultiple.class);
+        }
+    }
+}
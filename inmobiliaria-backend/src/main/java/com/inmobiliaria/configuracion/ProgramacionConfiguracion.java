@@ -0,0 +1,16 @@
+package com.inmobiliaria.configuracion;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) de la aplicacion,
+ * como la limpieza de reportes vencidos.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+@EnableScheduling
+public class ProgramacionConfiguracion {
+}
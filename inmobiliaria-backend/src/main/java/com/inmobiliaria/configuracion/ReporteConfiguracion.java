@@ -0,0 +1,52 @@
+package com.inmobiliaria.configuracion;
+
+import com.inmobiliaria.servicio.CompartimentosServicio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configura el ejecutor acotado donde se generan los reportes.
+ * Los reportes nunca ocupan hilos de peticiones HTTP: se encolan aqui
+ * y, si la cola esta llena, la solicitud se rechaza de inmediato.
+ * Cada reporte ocupa un lugar del compartimento MASIVA mientras se genera
+ * (y usa su statement_timeout), asi los reportes y los listados masivos
+ * comparten un mismo tope de conexiones. Sus spans y logs conservan la
+ * traza de la solicitud que pidio el reporte.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+public class ReporteConfiguracion {
+
+    /**
+     * Ejecutor con un numero fijo de hilos y una cola de tamano limitado.
+     *
+     * @param hilos cantidad de reportes que se generan en paralelo
+     * @param cola cantidad maxima de reportes en espera
+     * @param compartimentos servicio de compartimentos
+     * @return ejecutor de reportes
+     */
+    @Bean(name = "ejecutorReportes")
+    public ThreadPoolTaskExecutor ejecutorReportes(
+            @Value("${inmobiliaria.reportes.hilos:2}") int hilos,
+            @Value("${inmobiliaria.reportes.cola:20}") int cola,
+            CompartimentosServicio compartimentos) {
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(cola);
+        ejecutor.setThreadNamePrefix("reporte-");
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ContextPropagatingTaskDecorator traza = new ContextPropagatingTaskDecorator();
+        ejecutor.setTaskDecorator(tarea -> compartimentos.enCompartimento(
+            CompartimentosServicio.Compartimento.MASIVA, traza.decorate(tarea)));
+        ejecutor.setWaitForTasksToCompleteOnShutdown(false);
+        return ejecutor;
+    }
+}
@@ -0,0 +1,153 @@
+package com.inmobiliaria.configuracion;
+
+import com.inmobiliaria.servicio.CompartimentosServicio;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conecta el pool con los compartimentos (CompartimentosServicio):
+ * antes de pedir una conexion, un hilo sin compartimento espera su
+ * lugar de FONDO (y lo devuelve al cerrarla), y a cada conexion se le
+ * aplica el statement_timeout del compartimento del hilo actual.
+ * Se recuerda el valor ya aplicado en cada conexion fisica, asi el SET
+ * solo se envia cuando la conexion cambia de compartimento.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+public class TiempoLimiteConsultasConfiguracion {
+
+    /**
+     * Envuelve el DataSource de la aplicacion.
+     *
+     * @param compartimentos servicio de compartimentos (se resuelve al usarlo)
+     * @return post-procesador del DataSource
+     */
+    @Bean
+    public static BeanPostProcessor tiempoLimiteConsultas(ObjectProvider<CompartimentosServicio> compartimentos) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceConTiempoLimite)) {
+                    return new DataSourceConTiempoLimite(dataSource, compartimentos);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * DataSource que ocupa el lugar de FONDO y fija statement_timeout al
+     * entregar cada conexion.
+     */
+    static class DataSourceConTiempoLimite extends DelegatingDataSource {
+
+        private final ObjectProvider<CompartimentosServicio> compartimentos;
+
+        /** Ultimo statement_timeout aplicado en cada conexion fisica */
+        private final Map<Object, Integer> aplicados = Collections.synchronizedMap(new WeakHashMap<>());
+
+        DataSourceConTiempoLimite(DataSource dataSource, ObjectProvider<CompartimentosServicio> compartimentos) {
+            super(dataSource);
+            this.compartimentos = compartimentos;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return entregar(null, null);
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String clave) throws SQLException {
+            return entregar(usuario, clave);
+        }
+
+        /**
+         * El lugar se ocupa antes de pedir la conexion al pool, para no
+         * retener una conexion mientras se espera.
+         */
+        private Connection entregar(String usuario, String clave) throws SQLException {
+            Runnable liberar;
+            try {
+                liberar = compartimentos.getObject().ocuparConexion();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido mientras esperaba una conexion", e);
+            }
+            try {
+                Connection conexion = aplicar(usuario == null
+                    ? super.getConnection() : super.getConnection(usuario, clave));
+                return liberar == null ? conexion : conLiberacion(conexion, liberar);
+            } catch (SQLException | RuntimeException e) {
+                if (liberar != null) {
+                    liberar.run();
+                }
+                throw e;
+            }
+        }
+
+        /** Envuelve la conexion para devolver el lugar al cerrarla (una sola vez) */
+        private static Connection conLiberacion(Connection conexion, Runnable liberar) {
+            AtomicBoolean cerrada = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "getTargetConnection" -> conexion;
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Conexion de fondo [" + conexion + "]";
+                    default -> {
+                        try {
+                            yield metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if ("close".equals(metodo.getName()) && cerrada.compareAndSet(false, true)) {
+                                liberar.run();
+                            }
+                        }
+                    }
+                });
+        }
+
+        /**
+         * El SET se hace antes de que Spring abra la transaccion, con la
+         * conexion en autocommit, asi no se pierde si la transaccion se revierte.
+         */
+        private Connection aplicar(Connection conexion) throws SQLException {
+            int deseado = compartimentos.getObject().tiempoLimiteActualMs();
+            Object fisica = conexion.isWrapperFor(PGConnection.class)
+                ? conexion.unwrap(PGConnection.class) : conexion;
+            Integer aplicado = aplicados.get(fisica);
+            if (aplicado != null && aplicado == deseado) {
+                return conexion;
+            }
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("SET statement_timeout = " + deseado);
+            } catch (SQLException e) {
+                conexion.close();
+                throw e;
+            }
+            aplicados.put(fisica, deseado);
+            return conexion;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.inmobiliaria.configuracion;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea un span por cada llamada a un metodo publico de los controladores
+ * y servicios (por ejemplo "VentaServicio.registrarVenta" dentro de
+ * "VentaControlador.registrarVenta"). Junto con el span HTTP de Spring MVC
+ * y los spans JDBC de datasource-micrometer se ve en que se va el tiempo
+ * de una solicitud: enlace del JSON, cada servicio y cada sentencia.
+ *
+ * Se ejecuta por fuera de @Transactional, asi el span del servicio
+ * incluye el flush y el commit. Los servicios que los filtros llaman en
+ * cada solicitud (admision y compartimentos) no se trazan.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class TrazasAspecto {
+
+    /** Registro de observaciones conectado a OpenTelemetry */
+    private final ObservationRegistry registro;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param registro registro de observaciones
+     */
+    public TrazasAspecto(ObservationRegistry registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Span de cada metodo de un controlador REST.
+     *
+     * @param punto llamada interceptada
+     * @return resultado del metodo
+     * @throws Throwable la excepcion del metodo, sin cambios
+     */
+    @Around("within(com.inmobiliaria.controlador..*) "
+        + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object trazarControlador(ProceedingJoinPoint punto) throws Throwable {
+        return trazar("inmobiliaria.controlador", punto);
+    }
+
+    /**
+     * Span de cada metodo de un servicio.
+     *
+     * @param punto llamada interceptada
+     * @return resultado del metodo
+     * @throws Throwable la excepcion del metodo, sin cambios
+     */
+    @Around("within(com.inmobiliaria.servicio..*) "
+        + "&& @within(org.springframework.stereotype.Service) "
+        + "&& !within(com.inmobiliaria.servicio.AdmisionServicio) "
+        + "&& !within(com.inmobiliaria.servicio.CompartimentosServicio)")
+    public Object trazarServicio(ProceedingJoinPoint punto) throws Throwable {
+        return trazar("inmobiliaria.servicio", punto);
+    }
+
+    private Object trazar(String nombre, ProceedingJoinPoint punto) throws Throwable {
+        if (registro.isNoop()) {
+            return punto.proceed();
+        }
+        String clase = punto.getSignature().getDeclaringType().getSimpleName();
+        String metodo = punto.getSignature().getName();
+        Observation observacion = Observation.createNotStarted(nombre, registro)
+            .contextualName(clase + "." + metodo)
+            .lowCardinalityKeyValue("clase", clase)
+            .lowCardinalityKeyValue("metodo", metodo)
+            .start();
+        try (Observation.Scope alcance = observacion.openScope()) {
+            return punto.proceed();
+        } catch (Throwable e) {
+            observacion.error(e);
+            throw e;
+        } finally {
+            observacion.stop();
+        }
+    }
+}
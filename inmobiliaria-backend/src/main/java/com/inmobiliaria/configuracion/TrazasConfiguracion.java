@@ -0,0 +1,36 @@
+package com.inmobiliaria.configuracion;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exportador local de trazas para trabajar sin un colector: cada span
+ * terminado se escribe en el log como una linea JSON en formato OTLP
+ * (logger io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter).
+ * Con logging.file.name esas lineas quedan tambien en archivo.
+ *
+ * Para enviar a un colector OTLP basta con fijar
+ * management.opentelemetry.tracing.export.otlp.endpoint; ambos
+ * exportadores pueden convivir. El muestreo se controla con
+ * management.tracing.sampling.probability.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Configuration
+public class TrazasConfiguracion {
+
+    /**
+     * Exportador de spans al log en JSON OTLP.
+     *
+     * @return exportador que Spring Boot agrega al procesador de spans
+     */
+    @Bean
+    @ConditionalOnProperty(name = "inmobiliaria.trazas.exportar-log", havingValue = "true")
+    public SpanExporter exportadorTrazasLog() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,46 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.EstadoAdmision;
+import com.inmobiliaria.servicio.AdmisionServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST de consulta del control de admision.
+ * Expone los endpoints en la ruta base: /api/admision
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/admision")
+@CrossOrigin(origins = "*")
+public class AdmisionControlador {
+
+    /** Servicio de control de admision */
+    private final AdmisionServicio admisionServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param admisionServicio servicio de control de admision
+     */
+    public AdmisionControlador(AdmisionServicio admisionServicio) {
+        this.admisionServicio = admisionServicio;
+    }
+
+    /**
+     * GET /api/admision/estado
+     * Retorna el limite adaptativo actual, las solicitudes en curso, la
+     * latencia observada y las respuestas 429 y 503 desde el arranque.
+     *
+     * @return estado del control de admision
+     */
+    @GetMapping("/estado")
+    public ResponseEntity<EstadoAdmision> obtenerEstado() {
+        return ResponseEntity.ok(admisionServicio.obtenerEstado());
+    }
+}
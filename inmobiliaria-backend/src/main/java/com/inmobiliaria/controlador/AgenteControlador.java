@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para operaciones CRUD de agentes inmobiliarios.
@@ -65,6 +67,33 @@ public class AgenteControlador {
         return ResponseEntity.ok(agenteServicio.obtenerTodosLosAgentes());
     }
 
+    /**
+     * GET /api/agentes?ids=1,2,3
+     * Retorna varios agentes en una sola consulta, indexados por ID.
+     *
+     * @param ids identificadores de los agentes
+     * @return mapa id -> agente con estado HTTP 200
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Integer, Agente>> obtenerPorIds(
+            @RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(agenteServicio.obtenerAgentesPorIds(ids));
+    }
+
+    /**
+     * POST /api/agentes/por-ids
+     * Igual que GET con ?ids pero recibe la lista en el cuerpo,
+     * util cuando la lista no cabe en la URL.
+     *
+     * @param ids identificadores de los agentes
+     * @return mapa id -> agente con estado HTTP 200
+     */
+    @PostMapping("/por-ids")
+    public ResponseEntity<Map<Integer, Agente>> obtenerPorIdsEnCuerpo(
+            @RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(agenteServicio.obtenerAgentesPorIds(ids));
+    }
+
     /**
      * GET /api/agentes/{id}
      * Retorna un agente especifico por su ID.
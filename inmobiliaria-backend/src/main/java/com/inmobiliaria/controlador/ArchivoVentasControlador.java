@@ -0,0 +1,102 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.VentasArchivadasAgente;
+import com.inmobiliaria.dto.VentasArchivadasMes;
+import com.inmobiliaria.servicio.ArchivoVentasServicio;
+import com.inmobiliaria.servicio.ParticionesVentasServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST del archivo historico de ventas.
+ * Expone los endpoints en la ruta base: /api/ventas/archivo
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/ventas/archivo")
+@CrossOrigin(origins = "*")
+public class ArchivoVentasControlador {
+
+    /** Servicio de lectura de ventas archivadas */
+    private final ArchivoVentasServicio archivoVentasServicio;
+
+    /** Servicio de particiones de ventas */
+    private final ParticionesVentasServicio particionesVentasServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param archivoVentasServicio servicio de ventas archivadas
+     * @param particionesVentasServicio servicio de particiones de ventas
+     */
+    public ArchivoVentasControlador(ArchivoVentasServicio archivoVentasServicio,
+                                    ParticionesVentasServicio particionesVentasServicio) {
+        this.archivoVentasServicio = archivoVentasServicio;
+        this.particionesVentasServicio = particionesVentasServicio;
+    }
+
+    /**
+     * GET /api/ventas/archivo
+     * Retorna los meses archivados y los que siguen en la tabla ventas.
+     *
+     * @return meses archivados y particionados
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, List<YearMonth>>> obtenerMeses() {
+        return ResponseEntity.ok(Map.of(
+            "archivados", archivoVentasServicio.obtenerMesesArchivados(),
+            "activos", particionesVentasServicio.obtenerMesesParticionados()));
+    }
+
+    /**
+     * GET /api/ventas/archivo/resumen-meses?desde=2020-01&hasta=2020-12
+     * Cantidad y total vendido de cada mes archivado.
+     *
+     * @param desde primer mes (opcional)
+     * @param hasta ultimo mes (opcional)
+     * @return resumen por mes
+     */
+    @GetMapping("/resumen-meses")
+    public ResponseEntity<List<VentasArchivadasMes>> resumirPorMes(
+            @RequestParam(required = false) YearMonth desde,
+            @RequestParam(required = false) YearMonth hasta) {
+        return ResponseEntity.ok(archivoVentasServicio.resumirPorMes(desde, hasta));
+    }
+
+    /**
+     * GET /api/ventas/archivo/resumen-agentes?desde=2020-01&hasta=2020-12
+     * Cantidad y total vendido de cada agente en los meses archivados.
+     *
+     * @param desde primer mes (opcional)
+     * @param hasta ultimo mes (opcional)
+     * @return resumen por agente, mayor total primero
+     */
+    @GetMapping("/resumen-agentes")
+    public ResponseEntity<List<VentasArchivadasAgente>> resumirPorAgente(
+            @RequestParam(required = false) YearMonth desde,
+            @RequestParam(required = false) YearMonth hasta) {
+        return ResponseEntity.ok(archivoVentasServicio.resumirPorAgente(desde, hasta));
+    }
+
+    /**
+     * POST /api/ventas/archivo/archivar
+     * Archiva de inmediato los meses fuera de la ventana activa.
+     *
+     * @return meses archivados
+     */
+    @PostMapping("/archivar")
+    public ResponseEntity<Map<String, List<YearMonth>>> archivar() {
+        return ResponseEntity.ok(Map.of("archivados", particionesVentasServicio.archivarMesesCerrados()));
+    }
+}
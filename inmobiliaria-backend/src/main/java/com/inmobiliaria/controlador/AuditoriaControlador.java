@@ -0,0 +1,67 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.EstadoAuditoria;
+import com.inmobiliaria.dto.RegistroAuditoria;
+import com.inmobiliaria.servicio.AuditoriaServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST de consulta de la auditoria.
+ * Expone los endpoints en la ruta base: /api/auditoria
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/auditoria")
+@CrossOrigin(origins = "*")
+public class AuditoriaControlador {
+
+    /** Servicio de auditoria */
+    private final AuditoriaServicio auditoriaServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param auditoriaServicio servicio de auditoria
+     */
+    public AuditoriaControlador(AuditoriaServicio auditoriaServicio) {
+        this.auditoriaServicio = auditoriaServicio;
+    }
+
+    /**
+     * GET /api/auditoria?entidad=Lote&id=5&limite=50
+     * Retorna los ultimos cambios registrados, del mas reciente al mas antiguo.
+     *
+     * @param entidad Lote, Cliente, Agente o Venta (opcional)
+     * @param id ID de la entidad (opcional, requiere entidad)
+     * @param limite cantidad de registros (por defecto 50)
+     * @return registros de auditoria con estado HTTP 200
+     */
+    @GetMapping
+    public ResponseEntity<List<RegistroAuditoria>> consultar(
+            @RequestParam(required = false) String entidad,
+            @RequestParam(required = false) String id,
+            @RequestParam(defaultValue = "50") int limite) {
+        return ResponseEntity.ok(auditoriaServicio.consultar(entidad, id, limite));
+    }
+
+    /**
+     * GET /api/auditoria/estado
+     * Retorna el estado de la cola de auditoria: capacidad, pendientes,
+     * escritos y descartados desde el arranque.
+     *
+     * @return estado de la cola
+     */
+    @GetMapping("/estado")
+    public ResponseEntity<EstadoAuditoria> obtenerEstado() {
+        return ResponseEntity.ok(auditoriaServicio.obtenerEstado());
+    }
+}
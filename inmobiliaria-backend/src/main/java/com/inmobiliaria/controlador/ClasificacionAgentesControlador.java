@@ -0,0 +1,53 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.PosicionAgente;
+import com.inmobiliaria.servicio.ClasificacionAgentesServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST de la clasificacion de agentes por ventas.
+ * Las respuestas salen de memoria, sin consultar la base de datos.
+ * Expone los endpoints en la ruta base: /api/clasificacion-agentes
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/clasificacion-agentes")
+@CrossOrigin(origins = "*")
+public class ClasificacionAgentesControlador {
+
+    /** Servicio que mantiene la clasificacion */
+    private final ClasificacionAgentesServicio clasificacionAgentesServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param clasificacionAgentesServicio servicio de clasificacion
+     */
+    public ClasificacionAgentesControlador(ClasificacionAgentesServicio clasificacionAgentesServicio) {
+        this.clasificacionAgentesServicio = clasificacionAgentesServicio;
+    }
+
+    /**
+     * GET /api/clasificacion-agentes?ventana=MES&limite=10
+     * Retorna los primeros agentes por total vendido en la ventana.
+     *
+     * @param ventana DIA, MES o TOTAL (por defecto MES)
+     * @param limite cantidad de posiciones (por defecto 10)
+     * @return posiciones en orden
+     */
+    @GetMapping
+    public ResponseEntity<List<PosicionAgente>> obtenerClasificacion(
+            @RequestParam(defaultValue = "MES") String ventana,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(clasificacionAgentesServicio.obtenerClasificacion(ventana, limite));
+    }
+}
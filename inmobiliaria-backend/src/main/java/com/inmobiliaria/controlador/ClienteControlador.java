@@ -2,6 +2,7 @@ package com.inmobiliaria.controlador;
 
 import com.inmobiliaria.modelo.Cliente;
 import com.inmobiliaria.servicio.ClienteServicio;
+import com.inmobiliaria.servicio.IdempotenciaServicio;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,11 +13,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para operaciones CRUD de clientes.
@@ -34,25 +37,39 @@ public class ClienteControlador {
     /** Servicio con la logica de negocio de clientes */
     private final ClienteServicio clienteServicio;
 
+    /** Servicio que evita repetir la creacion en los reintentos */
+    private final IdempotenciaServicio idempotenciaServicio;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param clienteServicio servicio de clientes
+     * @param idempotenciaServicio servicio de claves de idempotencia
      */
-    public ClienteControlador(ClienteServicio clienteServicio) {
+    public ClienteControlador(ClienteServicio clienteServicio,
+                              IdempotenciaServicio idempotenciaServicio) {
         this.clienteServicio = clienteServicio;
+        this.idempotenciaServicio = idempotenciaServicio;
     }
 
     /**
      * POST /api/clientes
      * Crea un nuevo cliente en el sistema.
      *
+     * Con el encabezado Idempotency-Key un reintento recibe la misma
+     * respuesta sin crear otro cliente.
+     *
+     * @param claveIdempotencia clave opcional del encabezado Idempotency-Key
      * @param cliente datos del cliente a crear
      * @return cliente creado con estado HTTP 201
      */
     @PostMapping
-    public ResponseEntity<Cliente> crearCliente(@Valid @RequestBody Cliente cliente) {
-        Cliente clienteCreado = clienteServicio.crearCliente(cliente);
+    public ResponseEntity<Cliente> crearCliente(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody Cliente cliente) {
+        Cliente clienteCreado = idempotenciaServicio.ejecutar(
+            claveIdempotencia, "POST /api/clientes", cliente, Cliente.class,
+            () -> clienteServicio.crearCliente(cliente));
         return ResponseEntity.status(HttpStatus.CREATED).body(clienteCreado);
     }
 
@@ -67,6 +84,33 @@ public class ClienteControlador {
         return ResponseEntity.ok(clienteServicio.obtenerTodosLosClientes());
     }
 
+    /**
+     * GET /api/clientes?ids=1,2,3
+     * Retorna varios clientes en una sola consulta, indexados por ID.
+     *
+     * @param ids identificadores de los clientes
+     * @return mapa id -> cliente con estado HTTP 200
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Integer, Cliente>> obtenerPorIds(
+            @RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(clienteServicio.obtenerClientesPorIds(ids));
+    }
+
+    /**
+     * POST /api/clientes/por-ids
+     * Igual que GET con ?ids pero recibe la lista en el cuerpo,
+     * util cuando la lista no cabe en la URL.
+     *
+     * @param ids identificadores de los clientes
+     * @return mapa id -> cliente con estado HTTP 200
+     */
+    @PostMapping("/por-ids")
+    public ResponseEntity<Map<Integer, Cliente>> obtenerPorIdsEnCuerpo(
+            @RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(clienteServicio.obtenerClientesPorIds(ids));
+    }
+
     /**
      * GET /api/clientes/{id}
      * Retorna un cliente especifico por su ID.
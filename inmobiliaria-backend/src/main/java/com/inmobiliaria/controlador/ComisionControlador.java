@@ -0,0 +1,123 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.LiquidacionComision;
+import com.inmobiliaria.modelo.ReglaComision;
+import com.inmobiliaria.servicio.ComisionServicio;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST de comisiones de agentes.
+ * Los extractos se leen de las liquidaciones ya calculadas.
+ * Expone los endpoints en la ruta base: /api/comisiones
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/comisiones")
+@CrossOrigin(origins = "*")
+public class ComisionControlador {
+
+    /** Servicio con la logica de comisiones */
+    private final ComisionServicio comisionServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param comisionServicio servicio de comisiones
+     */
+    public ComisionControlador(ComisionServicio comisionServicio) {
+        this.comisionServicio = comisionServicio;
+    }
+
+    /**
+     * GET /api/comisiones?periodo=2024-05
+     * Retorna las liquidaciones de un mes, la comision mas alta primero.
+     *
+     * @param periodo mes en formato yyyy-MM
+     * @return liquidaciones del mes
+     */
+    @GetMapping
+    public ResponseEntity<List<LiquidacionComision>> obtenerLiquidacionesDePeriodo(
+            @RequestParam YearMonth periodo) {
+        return ResponseEntity.ok(comisionServicio.obtenerLiquidacionesDePeriodo(periodo));
+    }
+
+    /**
+     * GET /api/comisiones/agente/{idAgente}
+     * Retorna todas las liquidaciones de un agente.
+     *
+     * @param idAgente ID del agente
+     * @return liquidaciones del agente, la mas reciente primero
+     */
+    @GetMapping("/agente/{idAgente}")
+    public ResponseEntity<List<LiquidacionComision>> obtenerLiquidacionesDeAgente(
+            @PathVariable Integer idAgente) {
+        return ResponseEntity.ok(comisionServicio.obtenerLiquidacionesDeAgente(idAgente));
+    }
+
+    /**
+     * GET /api/comisiones/agente/{idAgente}/{periodo}
+     * Retorna el extracto de comision de un agente en un mes.
+     *
+     * @param idAgente ID del agente
+     * @param periodo mes en formato yyyy-MM
+     * @return liquidacion del agente en el mes
+     */
+    @GetMapping("/agente/{idAgente}/{periodo}")
+    public ResponseEntity<LiquidacionComision> obtenerLiquidacion(
+            @PathVariable Integer idAgente,
+            @PathVariable YearMonth periodo) {
+        return ResponseEntity.ok(comisionServicio.obtenerLiquidacion(idAgente, periodo));
+    }
+
+    /**
+     * POST /api/comisiones/liquidar?periodo=2024-05
+     * Liquida (o vuelve a liquidar) un mes para todos los agentes.
+     *
+     * @param periodo mes en formato yyyy-MM
+     * @return cantidad de agentes liquidados
+     */
+    @PostMapping("/liquidar")
+    public ResponseEntity<Map<String, Object>> liquidarPeriodo(@RequestParam YearMonth periodo) {
+        int agentes = comisionServicio.liquidarPeriodo(periodo);
+        return ResponseEntity.ok(Map.of("periodo", periodo.toString(), "agentes", agentes));
+    }
+
+    /**
+     * GET /api/comisiones/reglas
+     * Retorna todas las reglas de comision.
+     *
+     * @return reglas de comision
+     */
+    @GetMapping("/reglas")
+    public ResponseEntity<List<ReglaComision>> obtenerReglas() {
+        return ResponseEntity.ok(comisionServicio.obtenerReglas());
+    }
+
+    /**
+     * POST /api/comisiones/reglas
+     * Crea una regla de comision general (sin idAgente) o de un agente.
+     *
+     * @param regla datos de la regla
+     * @return regla creada con codigo 201
+     */
+    @PostMapping("/reglas")
+    public ResponseEntity<ReglaComision> crearRegla(@Valid @RequestBody ReglaComision regla) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(comisionServicio.crearRegla(regla));
+    }
+}
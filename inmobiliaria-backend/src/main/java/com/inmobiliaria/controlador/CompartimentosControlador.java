@@ -0,0 +1,48 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.EstadoCompartimento;
+import com.inmobiliaria.servicio.CompartimentosServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST de consulta de los compartimentos de trafico.
+ * Expone los endpoints en la ruta base: /api/compartimentos
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/compartimentos")
+@CrossOrigin(origins = "*")
+public class CompartimentosControlador {
+
+    /** Servicio de compartimentos */
+    private final CompartimentosServicio compartimentosServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param compartimentosServicio servicio de compartimentos
+     */
+    public CompartimentosControlador(CompartimentosServicio compartimentosServicio) {
+        this.compartimentosServicio = compartimentosServicio;
+    }
+
+    /**
+     * GET /api/compartimentos/estado
+     * Retorna la ocupacion de cada compartimento: en curso, en espera,
+     * rechazadas desde el arranque y statement_timeout.
+     *
+     * @return estado de los compartimentos
+     */
+    @GetMapping("/estado")
+    public ResponseEntity<List<EstadoCompartimento>> obtenerEstado() {
+        return ResponseEntity.ok(compartimentosServicio.obtenerEstado());
+    }
+}
@@ -0,0 +1,176 @@
+package com.inmobiliaria.controlador;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Envia un archivo del disco como cuerpo de la respuesta sin pasarlo
+ * por el heap. Con Tomcat usa sendfile: el conector copia el archivo
+ * al socket desde el kernel despues de que termina el filtro o el
+ * controlador. Si el contenedor no ofrece sendfile se copia con
+ * FileChannel.transferTo.
+ *
+ * Como con sendfile el archivo se abre por su nombre despues de salir
+ * de aqui, quien lo publica no debe borrarlo ni reemplazarlo en cuanto
+ * deja de estar vigente (ver CatalogoPublicoServicio).
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public final class EnvioArchivo {
+
+    /** Atributo con el que Tomcat indica que el conector soporta sendfile */
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+
+    /** Ruta absoluta del archivo que Tomcat debe enviar */
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+
+    /** Primer byte a enviar (Long) */
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+
+    /** Byte final exclusivo (Long) */
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private EnvioArchivo() {}
+
+    /**
+     * Envia un archivo completo o el tramo pedido en Range (un solo tramo).
+     * Responde 304 si If-None-Match coincide con el ETag, 206 con
+     * Content-Range para un tramo valido y 416 si el tramo no existe.
+     * Con If-Range distinto del ETag se envia el archivo completo.
+     * Content-Type y Cache-Control deben fijarse antes.
+     *
+     * @param solicitud solicitud HTTP
+     * @param respuesta respuesta HTTP
+     * @param archivo archivo a enviar
+     * @param tamano tamano del archivo en bytes
+     * @param etag ETag fuerte entre comillas
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public static void enviarConRango(HttpServletRequest solicitud, HttpServletResponse respuesta,
+                                      Path archivo, long tamano, String etag) throws IOException {
+        respuesta.setHeader(HttpHeaders.ETAG, etag);
+        respuesta.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = solicitud.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || "*".equals(ifNoneMatch.trim()))) {
+            respuesta.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String rango = solicitud.getHeader(HttpHeaders.RANGE);
+        String ifRange = solicitud.getHeader(HttpHeaders.IF_RANGE);
+        if (rango == null || (ifRange != null && !ifRange.trim().equals(etag))) {
+            respuesta.setStatus(HttpServletResponse.SC_OK);
+            enviar(solicitud, respuesta, archivo, 0, tamano);
+            return;
+        }
+
+        long[] tramo = interpretarRango(rango, tamano);
+        if (tramo == null) {
+            /* Varios tramos o sintaxis desconocida: se envia completo */
+            respuesta.setStatus(HttpServletResponse.SC_OK);
+            enviar(solicitud, respuesta, archivo, 0, tamano);
+        } else if (tramo.length == 0) {
+            respuesta.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            respuesta.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamano);
+        } else {
+            respuesta.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            respuesta.setHeader(HttpHeaders.CONTENT_RANGE,
+                "bytes " + tramo[0] + "-" + tramo[1] + "/" + tamano);
+            enviar(solicitud, respuesta, archivo, tramo[0], tramo[1] - tramo[0] + 1);
+        }
+    }
+
+    /**
+     * Interpreta un encabezado Range de un solo tramo en bytes:
+     * "bytes=a-b", "bytes=a-" o "bytes=-n" (ultimos n bytes).
+     *
+     * @param rango valor del encabezado
+     * @param tamano tamano del archivo
+     * @return {inicio, fin} inclusivos; arreglo vacio si el tramo no se
+     *         puede satisfacer; null si el encabezado no se soporta
+     */
+    static long[] interpretarRango(String rango, long tamano) {
+        if (!rango.startsWith("bytes=") || rango.indexOf(',') >= 0) {
+            return null;
+        }
+        String valor = rango.substring(6).trim();
+        int guion = valor.indexOf('-');
+        if (guion < 0) {
+            return null;
+        }
+        try {
+            String desde = valor.substring(0, guion).trim();
+            String hasta = valor.substring(guion + 1).trim();
+            long inicio;
+            long fin;
+            if (desde.isEmpty()) {
+                long ultimos = Long.parseLong(hasta);
+                if (ultimos <= 0) {
+                    return new long[0];
+                }
+                inicio = Math.max(0, tamano - ultimos);
+                fin = tamano - 1;
+            } else {
+                inicio = Long.parseLong(desde);
+                fin = hasta.isEmpty() ? tamano - 1 : Math.min(Long.parseLong(hasta), tamano - 1);
+                if (fin < inicio) {
+                    return hasta.isEmpty() || Long.parseLong(hasta) >= inicio ? new long[0] : null;
+                }
+            }
+            if (inicio >= tamano) {
+                return new long[0];
+            }
+            return new long[] {inicio, fin};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Escribe un tramo del archivo en la respuesta y fija Content-Length.
+     * Los demas encabezados (tipo, ETag, codigo) deben fijarse antes.
+     *
+     * @param solicitud solicitud HTTP
+     * @param respuesta respuesta HTTP
+     * @param archivo archivo a enviar
+     * @param inicio primer byte del tramo
+     * @param longitud cantidad de bytes del tramo
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public static void enviar(HttpServletRequest solicitud, HttpServletResponse respuesta,
+                              Path archivo, long inicio, long longitud) throws IOException {
+        respuesta.setContentLengthLong(longitud);
+        if ("HEAD".equals(solicitud.getMethod()) || longitud == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(solicitud.getAttribute(SENDFILE_SOPORTADO))) {
+            solicitud.setAttribute(SENDFILE_ARCHIVO, archivo.toAbsolutePath().toString());
+            solicitud.setAttribute(SENDFILE_INICIO, inicio);
+            solicitud.setAttribute(SENDFILE_FIN, inicio + longitud);
+            return;
+        }
+
+        try (FileChannel origen = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(respuesta.getOutputStream());
+            long enviado = 0;
+            while (enviado < longitud) {
+                long n = origen.transferTo(inicio + enviado, longitud - enviado, destino);
+                if (n <= 0) {
+                    break;
+                }
+                enviado += n;
+            }
+        }
+    }
+}
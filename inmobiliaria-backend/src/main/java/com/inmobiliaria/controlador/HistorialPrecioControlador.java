@@ -0,0 +1,79 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.TendenciaPrecio;
+import com.inmobiliaria.modelo.HistorialPrecioLote;
+import com.inmobiliaria.servicio.HistorialPrecioServicio;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST de consulta del historial de precios de lotes.
+ * Expone los endpoints en la ruta base: /api/historial-precios
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/historial-precios")
+@CrossOrigin(origins = "*")
+public class HistorialPrecioControlador {
+
+    /** Servicio con la logica del historial de precios */
+    private final HistorialPrecioServicio historialPrecioServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param historialPrecioServicio servicio del historial de precios
+     */
+    public HistorialPrecioControlador(HistorialPrecioServicio historialPrecioServicio) {
+        this.historialPrecioServicio = historialPrecioServicio;
+    }
+
+    /**
+     * GET /api/historial-precios/lote/{idLote}?desde=2024-01-01&hasta=2024-12-31
+     * Retorna la serie de precios de un lote.
+     *
+     * @param idLote identificador del lote
+     * @param desde fecha inicial opcional
+     * @param hasta fecha final opcional
+     * @return cambios de precio ordenados por fecha
+     */
+    @GetMapping("/lote/{idLote}")
+    public ResponseEntity<List<HistorialPrecioLote>> obtenerSerieDeLote(
+            @PathVariable Integer idLote,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(
+            historialPrecioServicio.obtenerSerieDeLote(idLote, desde, hasta));
+    }
+
+    /**
+     * GET /api/historial-precios/tendencias?municipio=Rionegro&intervalo=month
+     * Retorna el precio por m2 de un municipio agrupado por periodo.
+     *
+     * @param municipio nombre del municipio
+     * @param intervalo week, month, quarter o year (por defecto month)
+     * @param desde fecha inicial opcional
+     * @param hasta fecha final opcional
+     * @return tendencia del precio por m2
+     */
+    @GetMapping("/tendencias")
+    public ResponseEntity<List<TendenciaPrecio>> obtenerTendencia(
+            @RequestParam String municipio,
+            @RequestParam(defaultValue = "month") String intervalo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(
+            historialPrecioServicio.obtenerTendenciaMunicipio(municipio, intervalo, desde, hasta));
+    }
+}
@@ -0,0 +1,67 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.EventoVenta;
+import com.inmobiliaria.dto.PaginaEventosVenta;
+import com.inmobiliaria.servicio.LibroVentasServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST del libro de eventos de venta.
+ * Expone los endpoints en la ruta base: /api/ventas
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/ventas")
+@CrossOrigin(origins = "*")
+public class LibroVentasControlador {
+
+    /** Servicio del libro de eventos de venta */
+    private final LibroVentasServicio libroVentasServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param libroVentasServicio servicio del libro de eventos
+     */
+    public LibroVentasControlador(LibroVentasServicio libroVentasServicio) {
+        this.libroVentasServicio = libroVentasServicio;
+    }
+
+    /**
+     * GET /api/ventas/eventos?desde=0&limite=500
+     * Retorna los eventos posteriores a una posicion del libro. Para
+     * seguir el libro se repite la consulta con desde = siguiente.
+     *
+     * @param desde ultima posicion procesada (por defecto 0)
+     * @param limite cantidad maxima de eventos (por defecto 500)
+     * @return eventos y posicion siguiente con estado HTTP 200
+     */
+    @GetMapping("/eventos")
+    public ResponseEntity<PaginaEventosVenta> leerDesde(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "500") int limite) {
+        return ResponseEntity.ok(libroVentasServicio.leerDesde(desde, limite));
+    }
+
+    /**
+     * GET /api/ventas/{id}/eventos
+     * Retorna el historial de una venta.
+     *
+     * @param id identificador de la venta
+     * @return eventos de la venta en orden
+     */
+    @GetMapping("/{id}/eventos")
+    public ResponseEntity<List<EventoVenta>> obtenerHistorial(@PathVariable Integer id) {
+        return ResponseEntity.ok(libroVentasServicio.obtenerHistorial(id));
+    }
+}
@@ -1,6 +1,11 @@
 package com.inmobiliaria.controlador;
 
+import com.inmobiliaria.dto.CambioEstadoMasivo;
+import com.inmobiliaria.dto.ResultadoBusquedaLote;
+import com.inmobiliaria.dto.ResultadoCambioEstadoMasivo;
+import com.inmobiliaria.modelo.EstadoLote;
 import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.servicio.IdempotenciaServicio;
 import com.inmobiliaria.servicio.LoteServicio;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -13,12 +18,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para operaciones CRUD de lotes inmobiliarios.
@@ -35,26 +42,40 @@ public class LoteControlador {
     /** Servicio con la logica de negocio de lotes */
     private final LoteServicio loteServicio;
 
+    /** Servicio que evita repetir la creacion en los reintentos */
+    private final IdempotenciaServicio idempotenciaServicio;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param loteServicio servicio de lotes
+     * @param idempotenciaServicio servicio de claves de idempotencia
      */
-    public LoteControlador(LoteServicio loteServicio) {
+    public LoteControlador(LoteServicio loteServicio,
+                           IdempotenciaServicio idempotenciaServicio) {
         this.loteServicio = loteServicio;
+        this.idempotenciaServicio = idempotenciaServicio;
     }
 
     /**
      * POST /api/lotes
      * Crea un nuevo lote en el sistema.
      *
+     * Con el encabezado Idempotency-Key un reintento recibe la misma
+     * respuesta sin crear otro lote.
+     *
+     * @param claveIdempotencia clave opcional del encabezado Idempotency-Key
      * @param lote datos del lote a crear
      * @return lote creado con estado HTTP 201
      */
     @PostMapping
-    public ResponseEntity<Lote> crearLote(@Valid @RequestBody Lote lote) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                             .body(loteServicio.crearLote(lote));
+    public ResponseEntity<Lote> crearLote(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody Lote lote) {
+        Lote loteCreado = idempotenciaServicio.ejecutar(
+            claveIdempotencia, "POST /api/lotes", lote, Lote.class,
+            () -> loteServicio.crearLote(lote));
+        return ResponseEntity.status(HttpStatus.CREATED).body(loteCreado);
     }
 
     /**
@@ -68,6 +89,56 @@ public class LoteControlador {
         return ResponseEntity.ok(loteServicio.obtenerTodosLosLotes());
     }
 
+    /**
+     * GET /api/lotes/buscar?q=casa campestre&estado=DISPONIBLE&min=100000000&max=300000000
+     * Busqueda de texto completo ordenada por relevancia, con el texto
+     * coincidente resaltado. Los filtros son opcionales.
+     *
+     * @param q texto a buscar (admite "frase", OR y -palabra)
+     * @param estado estado del lote
+     * @param min precio minimo
+     * @param max precio maximo
+     * @param limite maximo de resultados (por defecto 20)
+     * @return resultados con estado HTTP 200
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<List<ResultadoBusquedaLote>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) BigDecimal min,
+            @RequestParam(required = false) BigDecimal max,
+            @RequestParam(defaultValue = "20") int limite) {
+        EstadoLote filtroEstado = estado == null || estado.isBlank() ? null : EstadoLote.desdeTexto(estado);
+        return ResponseEntity.ok(loteServicio.buscarLotes(q, filtroEstado, min, max, limite));
+    }
+
+    /**
+     * GET /api/lotes?ids=1,2,3
+     * Retorna varios lotes en una sola consulta, indexados por ID.
+     *
+     * @param ids identificadores de los lotes
+     * @return mapa id -> lote con estado HTTP 200
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Integer, Lote>> obtenerPorIds(
+            @RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(loteServicio.obtenerLotesPorIds(ids));
+    }
+
+    /**
+     * POST /api/lotes/por-ids
+     * Igual que GET con ?ids pero recibe la lista en el cuerpo,
+     * util cuando la lista no cabe en la URL.
+     *
+     * @param ids identificadores de los lotes
+     * @return mapa id -> lote con estado HTTP 200
+     */
+    @PostMapping("/por-ids")
+    public ResponseEntity<Map<Integer, Lote>> obtenerPorIdsEnCuerpo(
+            @RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(loteServicio.obtenerLotesPorIds(ids));
+    }
+
     /**
      * GET /api/lotes/{id}
      * Retorna un lote especifico por su ID.
@@ -91,7 +162,7 @@ public class LoteControlador {
     @GetMapping("/estado/{estado}")
     public ResponseEntity<List<Lote>> obtenerPorEstado(
             @PathVariable String estado) {
-        return ResponseEntity.ok(loteServicio.obtenerLotesPorEstado(estado));
+        return ResponseEntity.ok(loteServicio.obtenerLotesPorEstado(EstadoLote.desdeTexto(estado)));
     }
 
     /**
@@ -137,7 +208,21 @@ public class LoteControlador {
     public ResponseEntity<Lote> cambiarEstado(
             @PathVariable Integer id,
             @RequestParam String nuevoEstado) {
-        return ResponseEntity.ok(loteServicio.cambiarEstado(id, nuevoEstado));
+        return ResponseEntity.ok(loteServicio.cambiarEstado(id, EstadoLote.desdeTexto(nuevoEstado)));
+    }
+
+    /**
+     * PATCH /api/lotes/estado
+     * Cambia el estado de muchos lotes a la vez (por IDs o por filtro).
+     * Ejemplo de cuerpo: {"prefijoReferencia": "MZ-07-", "nuevoEstado": "RESERVADO"}
+     *
+     * @param solicitud lotes a cambiar y nuevo estado
+     * @return resultado por lote con estado HTTP 200
+     */
+    @PatchMapping("/estado")
+    public ResponseEntity<ResultadoCambioEstadoMasivo> cambiarEstadoMasivo(
+            @Valid @RequestBody CambioEstadoMasivo solicitud) {
+        return ResponseEntity.ok(loteServicio.cambiarEstadoMasivo(solicitud));
     }
 
     /**
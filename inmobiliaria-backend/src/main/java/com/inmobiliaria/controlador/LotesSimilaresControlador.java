@@ -0,0 +1,54 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.LoteSimilar;
+import com.inmobiliaria.servicio.LotesSimilaresServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST de recomendacion de lotes similares.
+ * Expone los endpoints en la ruta base: /api/lotes/{id}/similares
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/lotes/{id}/similares")
+@CrossOrigin(origins = "*")
+public class LotesSimilaresControlador {
+
+    /** Servicio de lotes similares */
+    private final LotesSimilaresServicio lotesSimilaresServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param lotesSimilaresServicio servicio de lotes similares
+     */
+    public LotesSimilaresControlador(LotesSimilaresServicio lotesSimilaresServicio) {
+        this.lotesSimilaresServicio = lotesSimilaresServicio;
+    }
+
+    /**
+     * GET /api/lotes/5/similares?k=6
+     * Retorna los lotes disponibles del mismo municipio con area y precio
+     * mas parecidos al lote indicado, del mas al menos parecido.
+     *
+     * @param id ID del lote de referencia
+     * @param k cantidad de lotes (por defecto 6)
+     * @return lotes similares con estado HTTP 200
+     */
+    @GetMapping
+    public ResponseEntity<List<LoteSimilar>> obtenerSimilares(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "6") int k) {
+        return ResponseEntity.ok(lotesSimilaresServicio.obtenerSimilares(id, k));
+    }
+}
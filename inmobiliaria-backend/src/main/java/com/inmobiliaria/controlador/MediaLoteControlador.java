@@ -0,0 +1,139 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.modelo.MediaLote;
+import com.inmobiliaria.servicio.MediaLoteServicio;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Controlador REST de imagenes de lotes.
+ * Las imagenes se sirven desde disco con sendfile, soportan Range y se
+ * pueden guardar en cache indefinidamente porque su contenido no cambia
+ * (el ETag es el hash del contenido).
+ * Expone los endpoints en la ruta base: /api/lotes/{idLote}/media
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/lotes/{idLote}/media")
+@CrossOrigin(origins = "*")
+public class MediaLoteControlador {
+
+    /** Cache-Control de archivos cuyo contenido nunca cambia */
+    private static final String CACHE_INMUTABLE = "public, max-age=31536000, immutable";
+
+    /** Servicio con la logica de imagenes */
+    private final MediaLoteServicio mediaLoteServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param mediaLoteServicio servicio de imagenes de lotes
+     */
+    public MediaLoteControlador(MediaLoteServicio mediaLoteServicio) {
+        this.mediaLoteServicio = mediaLoteServicio;
+    }
+
+    /**
+     * POST /api/lotes/{idLote}/media (multipart, campo "archivo")
+     * Sube una imagen al lote.
+     *
+     * @param idLote ID del lote
+     * @param archivo imagen JPEG, PNG, GIF o WebP
+     * @return metadatos de la imagen con estado HTTP 201
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MediaLote> cargar(@PathVariable Integer idLote,
+                                            @RequestParam("archivo") MultipartFile archivo) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                             .body(mediaLoteServicio.cargar(idLote, archivo));
+    }
+
+    /**
+     * GET /api/lotes/{idLote}/media
+     * Retorna las imagenes del lote en orden de galeria.
+     *
+     * @param idLote ID del lote
+     * @return lista de imagenes
+     */
+    @GetMapping
+    public ResponseEntity<List<MediaLote>> obtenerMediaDeLote(@PathVariable Integer idLote) {
+        return ResponseEntity.ok(mediaLoteServicio.obtenerMediaDeLote(idLote));
+    }
+
+    /**
+     * GET /api/lotes/{idLote}/media/{idMedia}
+     * Descarga la imagen original (admite Range).
+     *
+     * @param idLote ID del lote
+     * @param idMedia ID de la imagen
+     * @param solicitud solicitud HTTP
+     * @param respuesta respuesta HTTP
+     * @throws IOException si falla el envio
+     */
+    @GetMapping("/{idMedia}")
+    public void descargar(@PathVariable Integer idLote, @PathVariable Integer idMedia,
+                          HttpServletRequest solicitud, HttpServletResponse respuesta) throws IOException {
+        MediaLote media = mediaLoteServicio.obtenerMedia(idLote, idMedia);
+        respuesta.setContentType(media.getTipoContenido());
+        respuesta.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_INMUTABLE);
+        EnvioArchivo.enviarConRango(solicitud, respuesta, mediaLoteServicio.archivo(media),
+            media.getTamano(), "\"" + media.getHashContenido() + "\"");
+    }
+
+    /**
+     * GET /api/lotes/{idLote}/media/{idMedia}/miniatura
+     * Descarga la miniatura JPEG de la imagen.
+     *
+     * @param idLote ID del lote
+     * @param idMedia ID de la imagen
+     * @param solicitud solicitud HTTP
+     * @param respuesta respuesta HTTP
+     * @throws IOException si falla el envio
+     */
+    @GetMapping("/{idMedia}/miniatura")
+    public void descargarMiniatura(@PathVariable Integer idLote, @PathVariable Integer idMedia,
+                                   HttpServletRequest solicitud, HttpServletResponse respuesta) throws IOException {
+        MediaLote media = mediaLoteServicio.obtenerMedia(idLote, idMedia);
+        if (!MediaLote.MINIATURA_LISTA.equals(media.getEstadoMiniatura())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "La miniatura de la imagen " + idMedia + " no esta disponible");
+        }
+        respuesta.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        respuesta.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_INMUTABLE);
+        EnvioArchivo.enviarConRango(solicitud, respuesta, mediaLoteServicio.archivoMiniatura(media),
+            media.getTamanoMiniatura(), "\"" + media.getHashContenido() + "-miniatura\"");
+    }
+
+    /**
+     * DELETE /api/lotes/{idLote}/media/{idMedia}
+     * Elimina una imagen del lote.
+     *
+     * @param idLote ID del lote
+     * @param idMedia ID de la imagen
+     * @return mensaje de confirmacion
+     */
+    @DeleteMapping("/{idMedia}")
+    public ResponseEntity<String> eliminar(@PathVariable Integer idLote, @PathVariable Integer idMedia) {
+        mediaLoteServicio.eliminarMedia(idLote, idMedia);
+        return ResponseEntity.ok("Imagen eliminada correctamente.");
+    }
+}
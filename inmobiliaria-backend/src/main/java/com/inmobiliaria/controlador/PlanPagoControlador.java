@@ -0,0 +1,78 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.DetallePlanPago;
+import com.inmobiliaria.servicio.PlanPagoServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Controlador REST de planes de pago de ventas a credito y financiadas.
+ * Expone los endpoints en la ruta base: /api/planes-pago
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/planes-pago")
+@CrossOrigin(origins = "*")
+public class PlanPagoControlador {
+
+    /** Servicio con la logica de planes de pago */
+    private final PlanPagoServicio planPagoServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param planPagoServicio servicio de planes de pago
+     */
+    public PlanPagoControlador(PlanPagoServicio planPagoServicio) {
+        this.planPagoServicio = planPagoServicio;
+    }
+
+    /**
+     * GET /api/planes-pago/{idVenta}
+     * Retorna el plan de pagos con el cronograma de cuotas.
+     *
+     * @param idVenta ID de la venta
+     * @return detalle del plan
+     */
+    @GetMapping("/{idVenta}")
+    public ResponseEntity<DetallePlanPago> obtenerDetalle(@PathVariable Integer idVenta) {
+        return ResponseEntity.ok(planPagoServicio.obtenerDetalle(idVenta));
+    }
+
+    /**
+     * POST /api/planes-pago/{idVenta}/pagos?monto=1500000
+     * Registra un pago sobre el credito de la venta.
+     *
+     * @param idVenta ID de la venta
+     * @param monto valor pagado
+     * @return detalle actualizado del plan
+     */
+    @PostMapping("/{idVenta}/pagos")
+    public ResponseEntity<DetallePlanPago> registrarPago(
+            @PathVariable Integer idVenta,
+            @RequestParam BigDecimal monto) {
+        return ResponseEntity.ok(planPagoServicio.registrarPago(idVenta, monto));
+    }
+
+    /**
+     * POST /api/planes-pago/calcular-mora
+     * Ejecuta de inmediato el calculo nocturno de mora.
+     *
+     * @return cantidad de creditos actualizados
+     */
+    @PostMapping("/calcular-mora")
+    public ResponseEntity<Map<String, Long>> calcularMora() {
+        return ResponseEntity.ok(Map.of("actualizados", planPagoServicio.calcularMora()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.EstadoReporte;
+import com.inmobiliaria.servicio.ReporteServicio;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Controlador REST para la generacion asincrona de reportes.
+ * Expone los endpoints en la ruta base: /api/reportes
+ * El cliente solicita el reporte, consulta su estado (o se suscribe
+ * a su finalizacion) y luego descarga el archivo.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/reportes")
+@CrossOrigin(origins = "*")
+public class ReporteControlador {
+
+    /** Tiempo maximo que se mantiene abierta una suscripcion */
+    private static final long TIEMPO_SUSCRIPCION_MS = 5 * 60 * 1000L;
+
+    /** Servicio con la logica de reportes */
+    private final ReporteServicio reporteServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param reporteServicio servicio de reportes
+     */
+    public ReporteControlador(ReporteServicio reporteServicio) {
+        this.reporteServicio = reporteServicio;
+    }
+
+    /**
+     * POST /api/reportes/{tipo}?formato=CSV&refrescar=false
+     * Encola un reporte y retorna de inmediato con HTTP 202.
+     * Tipos: VENTAS_POR_AGENTE, INVENTARIO_POR_MUNICIPIO
+     *
+     * @param tipo tipo de reporte
+     * @param formato formato del archivo (CSV)
+     * @param refrescar true para no reutilizar un reporte reciente
+     * @return estado del trabajo con la URL para consultarlo
+     */
+    @PostMapping("/{tipo}")
+    public ResponseEntity<EstadoReporte> solicitar(
+            @PathVariable String tipo,
+            @RequestParam(defaultValue = "CSV") String formato,
+            @RequestParam(defaultValue = "false") boolean refrescar) {
+        EstadoReporte estado = reporteServicio.solicitarReporte(tipo, formato, refrescar);
+        return ResponseEntity.accepted()
+                             .location(URI.create("/api/reportes/" + estado.idTrabajo()))
+                             .body(estado);
+    }
+
+    /**
+     * GET /api/reportes/{idTrabajo}
+     * Retorna el estado de un trabajo de reporte.
+     *
+     * @param idTrabajo identificador del trabajo
+     * @return estado del trabajo con estado HTTP 200
+     */
+    @GetMapping("/{idTrabajo}")
+    public ResponseEntity<EstadoReporte> obtenerEstado(@PathVariable String idTrabajo) {
+        return ResponseEntity.ok(reporteServicio.obtenerEstado(idTrabajo));
+    }
+
+    /**
+     * GET /api/reportes/{idTrabajo}/eventos
+     * Suscripcion (Server-Sent Events) que envia el estado actual y
+     * luego el estado final cuando el reporte termina.
+     *
+     * @param idTrabajo identificador del trabajo
+     * @return flujo de eventos
+     */
+    @GetMapping("/{idTrabajo}/eventos")
+    public SseEmitter suscribir(@PathVariable String idTrabajo) {
+        SseEmitter emisor = new SseEmitter(TIEMPO_SUSCRIPCION_MS);
+        try {
+            emisor.send(reporteServicio.obtenerEstado(idTrabajo));
+        } catch (IOException e) {
+            emisor.completeWithError(e);
+            return emisor;
+        }
+
+        reporteServicio.suscribir(idTrabajo, estadoFinal -> {
+            try {
+                emisor.send(estadoFinal);
+                emisor.complete();
+            } catch (IOException | IllegalStateException e) {
+                /* El cliente ya cerro la conexion */
+                emisor.completeWithError(e);
+            }
+        });
+        return emisor;
+    }
+
+    /**
+     * GET /api/reportes/{idTrabajo}/descarga
+     * Descarga el archivo de un reporte terminado.
+     * El ETag es el hash del contenido: If-None-Match responde 304.
+     *
+     * @param idTrabajo identificador del trabajo
+     * @return archivo del reporte
+     */
+    @GetMapping("/{idTrabajo}/descarga")
+    public ResponseEntity<Resource> descargar(@PathVariable String idTrabajo) {
+        EstadoReporte estado = reporteServicio.obtenerEstado(idTrabajo);
+        Path archivo = reporteServicio.obtenerArchivo(idTrabajo);
+        String nombre = estado.tipo().toLowerCase() + "-" +
+                        estado.fechaFin().toLocalDate() + ".csv";
+
+        return ResponseEntity.ok()
+                             .eTag("\"" + estado.hashContenido() + "\"")
+                             .contentType(new MediaType("text", "csv"))
+                             .header(HttpHeaders.CONTENT_DISPOSITION,
+                                     ContentDisposition.attachment().filename(nombre).build().toString())
+                             .body(new FileSystemResource(archivo));
+    }
+}
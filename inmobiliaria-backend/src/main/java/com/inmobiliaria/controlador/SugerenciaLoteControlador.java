@@ -0,0 +1,56 @@
+package com.inmobiliaria.controlador;
+
+import com.inmobiliaria.dto.SugerenciaLote;
+import com.inmobiliaria.servicio.SugerenciaLoteServicio;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST del autocompletado de la busqueda de lotes.
+ * Responde desde memoria, sin consultar la base de datos.
+ * Expone los endpoints en la ruta base: /api/lotes/sugerencias
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/lotes/sugerencias")
+@CrossOrigin(origins = "*")
+public class SugerenciaLoteControlador {
+
+    /** Servicio de sugerencias */
+    private final SugerenciaLoteServicio sugerenciaLoteServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param sugerenciaLoteServicio servicio de sugerencias
+     */
+    public SugerenciaLoteControlador(SugerenciaLoteServicio sugerenciaLoteServicio) {
+        this.sugerenciaLoteServicio = sugerenciaLoteServicio;
+    }
+
+    /**
+     * GET /api/lotes/sugerencias?q=mede&campo=municipio&limite=8
+     * Retorna valores que empiezan por el texto (sin importar mayusculas
+     * ni tildes) con la cantidad de lotes disponibles de cada uno.
+     *
+     * @param q texto escrito por el usuario
+     * @param campo municipio, departamento o referencia (opcional: todos)
+     * @param limite cantidad de sugerencias (por defecto 8)
+     * @return sugerencias con estado HTTP 200
+     */
+    @GetMapping
+    public ResponseEntity<List<SugerenciaLote>> sugerir(
+            @RequestParam String q,
+            @RequestParam(required = false) String campo,
+            @RequestParam(defaultValue = "8") int limite) {
+        return ResponseEntity.ok(sugerenciaLoteServicio.sugerir(q, campo, limite));
+    }
+}
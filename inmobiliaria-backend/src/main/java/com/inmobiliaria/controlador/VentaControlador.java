@@ -1,7 +1,10 @@
 package com.inmobiliaria.controlador;
 
+import com.inmobiliaria.dto.CompraMultiple;
+import com.inmobiliaria.dto.ResultadoCompraMultiple;
 import com.inmobiliaria.modelo.Venta;
 import com.inmobiliaria.servicio.VentaServicio;
+import com.inmobiliaria.servicio.IdempotenciaServicio;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,13 +37,19 @@ public class VentaControlador {
     /** Servicio con la logica de negocio de ventas */
     private final VentaServicio ventaServicio;
 
+    /** Servicio que evita repetir la creacion en los reintentos */
+    private final IdempotenciaServicio idempotenciaServicio;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param ventaServicio servicio de ventas
+     * @param idempotenciaServicio servicio de claves de idempotencia
      */
-    public VentaControlador(VentaServicio ventaServicio) {
+    public VentaControlador(VentaServicio ventaServicio,
+                            IdempotenciaServicio idempotenciaServicio) {
         this.ventaServicio = ventaServicio;
+        this.idempotenciaServicio = idempotenciaServicio;
     }
 
     /**
@@ -47,13 +57,42 @@ public class VentaControlador {
      * Registra una nueva venta y marca el lote como VENDIDO.
      * Si el lote no esta disponible retorna error.
      *
+     * Con el encabezado Idempotency-Key un reintento recibe la misma
+     * respuesta sin registrar otra venta.
+     *
+     * @param claveIdempotencia clave opcional del encabezado Idempotency-Key
      * @param venta datos de la venta a registrar
      * @return venta registrada con estado HTTP 201
      */
     @PostMapping
-    public ResponseEntity<Venta> registrarVenta(@Valid @RequestBody Venta venta) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                             .body(ventaServicio.registrarVenta(venta));
+    public ResponseEntity<Venta> registrarVenta(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody Venta venta) {
+        Venta ventaRegistrada = idempotenciaServicio.ejecutar(
+            claveIdempotencia, "POST /api/ventas", venta, Venta.class,
+            () -> ventaServicio.registrarVenta(venta));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ventaRegistrada);
+    }
+
+    /**
+     * POST /api/ventas/compra-multiple
+     * Registra la compra de varios lotes en una sola operacion:
+     * si algun lote no esta disponible no se registra ninguna venta.
+     * Acepta Idempotency-Key igual que POST /api/ventas.
+     *
+     * @param claveIdempotencia clave opcional del encabezado Idempotency-Key
+     * @param compra cliente, agente, forma de pago y lotes
+     * @return ventas registradas con estado HTTP 201
+     */
+    @PostMapping("/compra-multiple")
+    public ResponseEntity<ResultadoCompraMultiple> registrarCompraMultiple(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody CompraMultiple compra) {
+        ResultadoCompraMultiple resultado = idempotenciaServicio.ejecutar(
+            claveIdempotencia, "POST /api/ventas/compra-multiple", compra,
+            ResultadoCompraMultiple.class,
+            () -> ventaServicio.registrarCompraMultiple(compra));
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
     }
 
     /**
@@ -80,17 +119,19 @@ public class VentaControlador {
     }
 
     /**
-     * GET /api/ventas/cliente/{idCliente}
-     * Retorna todas las ventas de un cliente especifico.
+     * GET /api/ventas/cliente/{idCliente}?meses=12
+     * Retorna las ventas de un cliente de los ultimos meses.
      *
      * @param idCliente identificador del cliente
+     * @param meses meses hacia atras, incluido el actual (por defecto 12)
      * @return lista de ventas del cliente
      */
     @GetMapping("/cliente/{idCliente}")
     public ResponseEntity<List<Venta>> obtenerPorCliente(
-            @PathVariable Integer idCliente) {
+            @PathVariable Integer idCliente,
+            @RequestParam(defaultValue = "12") int meses) {
         return ResponseEntity.ok(
-            ventaServicio.obtenerVentasPorCliente(idCliente));
+            ventaServicio.obtenerVentasPorCliente(idCliente, meses));
     }
 
     /**
@@ -112,6 +153,7 @@ public class VentaControlador {
     /**
      * DELETE /api/ventas/{id}
      * Cancela una venta y deja el lote como DISPONIBLE nuevamente.
+     * La venta no se borra: queda CANCELADA y se conserva su historial.
      *
      * @param id identificador de la venta a cancelar
      * @return mensaje de confirmacion con estado HTTP 200
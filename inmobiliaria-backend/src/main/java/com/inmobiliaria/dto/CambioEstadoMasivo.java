@@ -0,0 +1,45 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.EstadoLote;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Solicitud de cambio de estado para muchos lotes a la vez.
+ * Los lotes se eligen por lista de IDs o por filtro (municipio y/o
+ * prefijo de referencia, por ejemplo una manzana completa).
+ *
+ * @param ids IDs de los lotes; si viene vacio se usa el filtro
+ * @param municipio municipio de los lotes (sin importar mayusculas)
+ * @param prefijoReferencia prefijo de la referencia, por ejemplo "MZ-07-"
+ * @param nuevoEstado estado destino: DISPONIBLE o RESERVADO
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record CambioEstadoMasivo(
+        List<Integer> ids,
+        String municipio,
+        String prefijoReferencia,
+        @NotNull(message = "El nuevo estado es obligatorio") EstadoLote nuevoEstado) {
+
+    /**
+     * Indica si la solicitud selecciona lotes por lista de IDs.
+     *
+     * @return true si trae al menos un ID
+     */
+    public boolean porIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    /**
+     * Indica si la solicitud trae algun criterio de filtro.
+     *
+     * @return true si trae municipio o prefijo de referencia
+     */
+    public boolean porFiltro() {
+        return (municipio != null && !municipio.isBlank())
+            || (prefijoReferencia != null && !prefijoReferencia.isBlank());
+    }
+}
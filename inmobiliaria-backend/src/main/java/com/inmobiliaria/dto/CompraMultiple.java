@@ -0,0 +1,46 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.FormaPago;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Solicitud de compra de varios lotes en una sola operacion
+ * (todos se venden o ninguno).
+ *
+ * @param idCliente cliente comprador
+ * @param idAgente agente que gestiona la compra
+ * @param formaPago CONTADO, CREDITO o FINANCIADO
+ * @param observaciones observaciones comunes a todas las ventas
+ * @param lotes lotes a comprar con su precio negociado
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record CompraMultiple(
+        @NotNull(message = "El cliente es obligatorio") Integer idCliente,
+        @NotNull(message = "El agente es obligatorio") Integer idAgente,
+        @NotNull(message = "La forma de pago es obligatoria") FormaPago formaPago,
+        String observaciones,
+        @NotEmpty(message = "Debe incluir al menos un lote")
+        @Size(max = 100, message = "No se pueden comprar mas de 100 lotes en una operacion")
+        List<@Valid LoteCompra> lotes) {
+
+    /**
+     * Lote incluido en la compra.
+     *
+     * @param idLote ID del lote
+     * @param precioFinal precio negociado para ese lote
+     */
+    public record LoteCompra(
+            @NotNull(message = "El ID del lote es obligatorio") Integer idLote,
+            @NotNull(message = "El precio final es obligatorio")
+            @Positive(message = "El precio debe ser positivo") BigDecimal precioFinal) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Una cuota del cronograma de un plan de pagos.
+ *
+ * @param numero numero de la cuota (desde 1)
+ * @param fechaVencimiento fecha en que vence
+ * @param valor valor total de la cuota
+ * @param interes parte de la cuota que corresponde a interes
+ * @param capital parte de la cuota que amortiza capital
+ * @param saldo saldo de capital despues de pagar la cuota
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record CuotaPlan(
+        int numero,
+        LocalDate fechaVencimiento,
+        BigDecimal valor,
+        BigDecimal interes,
+        BigDecimal capital,
+        BigDecimal saldo) {
+}
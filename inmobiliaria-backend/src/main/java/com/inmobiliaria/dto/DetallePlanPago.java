@@ -0,0 +1,37 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Plan de pagos de una venta con su cronograma completo.
+ *
+ * @param idVenta venta a la que pertenece
+ * @param montoFinanciado monto financiado
+ * @param tasaMensual tasa mensual en porcentaje
+ * @param numeroCuotas cantidad de cuotas
+ * @param totalAPagar suma de todas las cuotas
+ * @param pagado total pagado
+ * @param saldoVencido saldo vencido segun el ultimo calculo de mora
+ * @param cuotasVencidas cuotas vencidas sin pagar
+ * @param fechaCalculoMora fecha del ultimo calculo de mora
+ * @param abierto true si el credito tiene saldo pendiente
+ * @param cuotas cronograma cuota por cuota
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record DetallePlanPago(
+        Integer idVenta,
+        BigDecimal montoFinanciado,
+        BigDecimal tasaMensual,
+        int numeroCuotas,
+        BigDecimal totalAPagar,
+        BigDecimal pagado,
+        BigDecimal saldoVencido,
+        int cuotasVencidas,
+        LocalDate fechaCalculoMora,
+        boolean abierto,
+        List<CuotaPlan> cuotas) {
+}
@@ -0,0 +1,25 @@
+package com.inmobiliaria.dto;
+
+/**
+ * Estado del control de admision de la API.
+ *
+ * @param limiteConcurrencia solicitudes simultaneas admitidas ahora
+ * @param enCurso solicitudes atendiendose ahora
+ * @param latenciaRecienteMs promedio de las ultimas solicitudes
+ * @param latenciaHabitualMs promedio de largo plazo
+ * @param clientesEnMemoria cubos de fichas guardados (cliente y clase de ruta)
+ * @param rechazadasPorCliente respuestas 429 desde el arranque
+ * @param descartadasPorCarga respuestas 503 del limite adaptativo desde el arranque
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record EstadoAdmision(
+        int limiteConcurrencia,
+        int enCurso,
+        double latenciaRecienteMs,
+        double latenciaHabitualMs,
+        int clientesEnMemoria,
+        long rechazadasPorCliente,
+        long descartadasPorCarga) {
+}
@@ -0,0 +1,19 @@
+package com.inmobiliaria.dto;
+
+/**
+ * Estado de la cola de auditoria.
+ *
+ * @param capacidad maximo de registros en memoria
+ * @param pendientes registros en cola sin escribir
+ * @param escritos registros escritos desde el arranque
+ * @param descartados registros perdidos desde el arranque (cola llena o error al escribir)
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record EstadoAuditoria(
+        int capacidad,
+        int pendientes,
+        long escritos,
+        long descartados) {
+}
@@ -0,0 +1,25 @@
+package com.inmobiliaria.dto;
+
+/**
+ * Ocupacion de un compartimento de trafico (ESCRITURA, LECTURA o MASIVA).
+ *
+ * @param compartimento nombre del compartimento
+ * @param concurrentes maximo de solicitudes simultaneas
+ * @param enCurso solicitudes atendiendose ahora
+ * @param enEspera solicitudes esperando lugar
+ * @param cola maximo de solicitudes en espera
+ * @param rechazadas solicitudes rechazadas con 503 desde el arranque
+ * @param tiempoLimiteMs statement_timeout de sus consultas (0 = sin limite)
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record EstadoCompartimento(
+        String compartimento,
+        int concurrentes,
+        int enCurso,
+        int enEspera,
+        int cola,
+        long rechazadas,
+        int tiempoLimiteMs) {
+}
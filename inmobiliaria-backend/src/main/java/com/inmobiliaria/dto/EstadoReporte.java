@@ -0,0 +1,43 @@
+package com.inmobiliaria.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un trabajo de generacion de reporte.
+ *
+ * @param idTrabajo identificador del trabajo
+ * @param tipo VENTAS_POR_AGENTE o INVENTARIO_POR_MUNICIPIO
+ * @param formato formato del archivo generado
+ * @param estado EN_COLA, EN_PROCESO, COMPLETADO o FALLIDO
+ * @param fechaSolicitud momento en que se encolo
+ * @param fechaFin momento en que termino, null si no ha terminado
+ * @param hashContenido SHA-256 del archivo, usado tambien como ETag
+ * @param tamanoBytes tamano del archivo generado
+ * @param error mensaje de error si el trabajo fallo
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record EstadoReporte(
+        String idTrabajo,
+        String tipo,
+        String formato,
+        String estado,
+        LocalDateTime fechaSolicitud,
+        LocalDateTime fechaFin,
+        String hashContenido,
+        Long tamanoBytes,
+        String error) {
+
+    /** El trabajo espera un hilo libre */
+    public static final String EN_COLA = "EN_COLA";
+
+    /** El reporte se esta generando */
+    public static final String EN_PROCESO = "EN_PROCESO";
+
+    /** El archivo esta listo para descargar */
+    public static final String COMPLETADO = "COMPLETADO";
+
+    /** La generacion fallo */
+    public static final String FALLIDO = "FALLIDO";
+}
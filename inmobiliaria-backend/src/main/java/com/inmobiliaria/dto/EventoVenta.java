@@ -0,0 +1,35 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.TipoEventoVenta;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Evento del libro de ventas (tabla eventos_venta).
+ * Lleva los datos de la venta al momento del evento para que un
+ * consumidor pueda aplicarlo sin volver a leer la venta.
+ *
+ * @param idEvento posicion en el libro; crece en orden de confirmacion
+ * @param idVenta ID de la venta
+ * @param tipo REGISTRADA, CANCELADA u OBSERVACIONES
+ * @param fechaRegistro momento en que se escribio el evento
+ * @param idAgente ID del agente de la venta
+ * @param fechaVenta fecha de la venta
+ * @param precioFinal precio final de la venta
+ * @param observaciones observaciones de la venta
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record EventoVenta(
+        long idEvento,
+        int idVenta,
+        TipoEventoVenta tipo,
+        LocalDateTime fechaRegistro,
+        int idAgente,
+        LocalDate fechaVenta,
+        BigDecimal precioFinal,
+        String observaciones) {
+}
@@ -0,0 +1,32 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Liquidacion precalculada de la comision de un agente en un mes.
+ *
+ * @param idAgente ID del agente
+ * @param periodo primer dia del mes liquidado
+ * @param idRegla regla de comision aplicada
+ * @param cantidadVentas ventas del agente en el mes
+ * @param totalVentas total vendido en el mes
+ * @param comision comision total
+ * @param comisionPorTramo comision causada en cada tramo de la regla
+ * @param fechaCalculo fecha y hora en que se calculo
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record LiquidacionComision(
+        Integer idAgente,
+        LocalDate periodo,
+        Integer idRegla,
+        int cantidadVentas,
+        BigDecimal totalVentas,
+        BigDecimal comision,
+        List<BigDecimal> comisionPorTramo,
+        LocalDateTime fechaCalculo) {
+}
@@ -0,0 +1,18 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.Lote;
+
+/**
+ * Lote recomendado por parecido a otro lote.
+ *
+ * @param lote lote disponible recomendado
+ * @param distancia distancia en area y precio (0 = identico; 0.1 es
+ *                  aproximadamente un 10% de diferencia)
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record LoteSimilar(
+        Lote lote,
+        double distancia) {
+}
@@ -0,0 +1,18 @@
+package com.inmobiliaria.dto;
+
+import java.util.List;
+
+/**
+ * Tramo del libro de ventas leido a partir de una posicion.
+ *
+ * @param eventos eventos en orden de idEvento
+ * @param siguiente posicion para pedir el tramo siguiente
+ *                  (idEvento del ultimo evento, o la posicion pedida si no hubo eventos)
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record PaginaEventosVenta(
+        List<EventoVenta> eventos,
+        long siguiente) {
+}
@@ -0,0 +1,23 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Posicion de un agente en la clasificacion de ventas.
+ *
+ * @param posicion puesto en la clasificacion (desde 1)
+ * @param idAgente ID del agente
+ * @param nombre nombre y apellido del agente
+ * @param cantidadVentas ventas en la ventana
+ * @param totalVendido total vendido en la ventana
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record PosicionAgente(
+        int posicion,
+        Integer idAgente,
+        String nombre,
+        long cantidadVentas,
+        BigDecimal totalVendido) {
+}
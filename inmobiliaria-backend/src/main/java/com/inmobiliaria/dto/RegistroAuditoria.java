@@ -0,0 +1,28 @@
+package com.inmobiliaria.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Cambio auditado sobre un lote, cliente, agente o venta.
+ *
+ * @param idRegistro ID en la tabla auditoria (null antes de escribirlo)
+ * @param fecha momento en que se confirmo el cambio
+ * @param usuario cabecera X-Usuario de la solicitud, "anonimo" o "sistema"
+ * @param entidad Lote, Cliente, Agente o Venta
+ * @param idEntidad ID de la entidad modificada
+ * @param operacion CREAR, ACTUALIZAR, CAMBIAR_ESTADO, ELIMINAR, ...
+ * @param cambios por campo, {"antes": valor, "despues": valor}
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record RegistroAuditoria(
+        Long idRegistro,
+        LocalDateTime fecha,
+        String usuario,
+        String entidad,
+        String idEntidad,
+        String operacion,
+        Map<String, Map<String, Object>> cambios) {
+}
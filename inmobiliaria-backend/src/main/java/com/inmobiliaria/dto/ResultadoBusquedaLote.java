@@ -0,0 +1,20 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.Lote;
+
+/**
+ * Lote encontrado por la busqueda de texto completo.
+ *
+ * @param lote lote encontrado
+ * @param relevancia puntaje de ts_rank_cd (mayor es mas relevante)
+ * @param fragmento ubicacion/descripcion con las coincidencias entre
+ *                  etiquetas mark; el resto del texto va escapado para HTML
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record ResultadoBusquedaLote(
+        Lote lote,
+        float relevancia,
+        String fragmento) {
+}
@@ -0,0 +1,33 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.EstadoLote;
+
+/**
+ * Resultado del cambio de estado masivo para un lote.
+ *
+ * @param idLote ID del lote
+ * @param referencia referencia del lote, null si no existe
+ * @param estadoAnterior estado que tenia antes del cambio
+ * @param resultado ACTUALIZADO, SIN_CAMBIO, RECHAZADO o NO_ENCONTRADO
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record ResultadoCambioEstado(
+        Integer idLote,
+        String referencia,
+        EstadoLote estadoAnterior,
+        String resultado) {
+
+    /** El lote cambio al nuevo estado */
+    public static final String ACTUALIZADO = "ACTUALIZADO";
+
+    /** El lote ya estaba en el estado pedido */
+    public static final String SIN_CAMBIO = "SIN_CAMBIO";
+
+    /** La transicion desde el estado actual no esta permitida */
+    public static final String RECHAZADO = "RECHAZADO";
+
+    /** No existe un lote con ese ID */
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+}
@@ -0,0 +1,21 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.EstadoLote;
+
+import java.util.List;
+
+/**
+ * Respuesta del cambio de estado masivo de lotes.
+ *
+ * @param nuevoEstado estado destino aplicado
+ * @param actualizados cantidad de lotes que cambiaron de estado
+ * @param lotes resultado individual por lote
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record ResultadoCambioEstadoMasivo(
+        EstadoLote nuevoEstado,
+        int actualizados,
+        List<ResultadoCambioEstado> lotes) {
+}
@@ -0,0 +1,22 @@
+package com.inmobiliaria.dto;
+
+import com.inmobiliaria.modelo.Venta;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Respuesta de una compra de varios lotes.
+ *
+ * @param cantidad cantidad de lotes vendidos
+ * @param total suma de los precios finales
+ * @param ventas ventas registradas, una por lote
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record ResultadoCompraMultiple(
+        int cantidad,
+        BigDecimal total,
+        List<Venta> ventas) {
+}
@@ -0,0 +1,17 @@
+package com.inmobiliaria.dto;
+
+/**
+ * Sugerencia de autocompletado para la busqueda de lotes.
+ *
+ * @param campo municipio, departamento o referencia
+ * @param valor texto sugerido
+ * @param disponibles lotes disponibles con ese valor
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record SugerenciaLote(
+        String campo,
+        String valor,
+        int disponibles) {
+}
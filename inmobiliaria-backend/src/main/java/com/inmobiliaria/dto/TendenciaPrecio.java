@@ -0,0 +1,24 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Precio por metro cuadrado de un municipio en un periodo.
+ *
+ * @param periodo fecha de inicio del periodo
+ * @param cambios cantidad de cambios de precio registrados en el periodo
+ * @param precioM2Promedio precio promedio por m2
+ * @param precioM2Minimo precio minimo por m2
+ * @param precioM2Maximo precio maximo por m2
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record TendenciaPrecio(
+        LocalDate periodo,
+        long cambios,
+        BigDecimal precioM2Promedio,
+        BigDecimal precioM2Minimo,
+        BigDecimal precioM2Maximo) {
+}
@@ -0,0 +1,19 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Ventas archivadas de un agente en un rango de meses.
+ *
+ * @param idAgente ID del agente
+ * @param cantidadVentas ventas archivadas
+ * @param totalVendido total vendido
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record VentasArchivadasAgente(
+        Integer idAgente,
+        long cantidadVentas,
+        BigDecimal totalVendido) {
+}
@@ -0,0 +1,20 @@
+package com.inmobiliaria.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Ventas archivadas de un mes.
+ *
+ * @param mes mes archivado
+ * @param cantidadVentas ventas del mes
+ * @param totalVendido total vendido en el mes
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record VentasArchivadasMes(
+        YearMonth mes,
+        long cantidadVentas,
+        BigDecimal totalVendido) {
+}
@@ -0,0 +1,37 @@
+package com.inmobiliaria.evento;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando uno o varios agentes se crean, modifican o
+ * desactivan. Los componentes que guardan datos de agentes en memoria
+ * lo escuchan para descartarlos.
+ *
+ * @param idsAgentes IDs de los agentes afectados
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record AgentesModificadosEvento(List<Integer> idsAgentes) {
+
+    /**
+     * Crea el evento copiando la coleccion de ids.
+     *
+     * @param idsAgentes IDs de los agentes afectados
+     * @return evento inmutable
+     */
+    public static AgentesModificadosEvento de(Collection<Integer> idsAgentes) {
+        return new AgentesModificadosEvento(List.copyOf(idsAgentes));
+    }
+
+    /**
+     * Crea el evento para un solo agente.
+     *
+     * @param idAgente ID del agente afectado
+     * @return evento inmutable
+     */
+    public static AgentesModificadosEvento de(Integer idAgente) {
+        return new AgentesModificadosEvento(List.of(idAgente));
+    }
+}
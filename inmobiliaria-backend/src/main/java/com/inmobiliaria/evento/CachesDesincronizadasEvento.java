@@ -0,0 +1,13 @@
+package com.inmobiliaria.evento;
+
+/**
+ * Evento publicado cuando este nodo pudo perder invalidaciones de otros
+ * nodos (por ejemplo, mientras se reconectaba la escucha de NOTIFY).
+ * Los componentes con datos en memoria lo escuchan para recargarlos
+ * completos desde la base de datos.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record CachesDesincronizadasEvento() {
+}
@@ -0,0 +1,37 @@
+package com.inmobiliaria.evento;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando uno o varios clientes se crean, modifican o
+ * desactivan. Los componentes que guardan datos de clientes en memoria
+ * lo escuchan para descartarlos.
+ *
+ * @param idsClientes IDs de los clientes afectados
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record ClientesModificadosEvento(List<Integer> idsClientes) {
+
+    /**
+     * Crea el evento copiando la coleccion de ids.
+     *
+     * @param idsClientes IDs de los clientes afectados
+     * @return evento inmutable
+     */
+    public static ClientesModificadosEvento de(Collection<Integer> idsClientes) {
+        return new ClientesModificadosEvento(List.copyOf(idsClientes));
+    }
+
+    /**
+     * Crea el evento para un solo cliente.
+     *
+     * @param idCliente ID del cliente afectado
+     * @return evento inmutable
+     */
+    public static ClientesModificadosEvento de(Integer idCliente) {
+        return new ClientesModificadosEvento(List.of(idCliente));
+    }
+}
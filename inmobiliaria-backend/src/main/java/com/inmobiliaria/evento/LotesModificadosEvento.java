@@ -0,0 +1,37 @@
+package com.inmobiliaria.evento;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando uno o varios lotes se crean, modifican o eliminan.
+ * Los componentes que guardan copias de lotes en memoria lo escuchan
+ * para invalidar o recalcular sus datos una sola vez por operacion.
+ *
+ * @param idsLotes IDs de los lotes afectados
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record LotesModificadosEvento(List<Integer> idsLotes) {
+
+    /**
+     * Crea el evento copiando la coleccion de ids.
+     *
+     * @param idsLotes IDs de los lotes afectados
+     * @return evento inmutable
+     */
+    public static LotesModificadosEvento de(Collection<Integer> idsLotes) {
+        return new LotesModificadosEvento(List.copyOf(idsLotes));
+    }
+
+    /**
+     * Crea el evento para un solo lote.
+     *
+     * @param idLote ID del lote afectado
+     * @return evento inmutable
+     */
+    public static LotesModificadosEvento de(Integer idLote) {
+        return new LotesModificadosEvento(List.of(idLote));
+    }
+}
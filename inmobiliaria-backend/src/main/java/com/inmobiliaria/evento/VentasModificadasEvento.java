@@ -0,0 +1,60 @@
+package com.inmobiliaria.evento;
+
+import com.inmobiliaria.modelo.Venta;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando se registran o cancelan ventas.
+ * Lleva solo los datos que necesitan los acumulados en memoria
+ * (agente, fecha y precio), no las entidades.
+ *
+ * @param movimientos ventas afectadas
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public record VentasModificadasEvento(List<Movimiento> movimientos) {
+
+    /**
+     * Venta que suma (registro) o resta (cancelacion) en los acumulados.
+     *
+     * @param idAgente ID del agente de la venta
+     * @param fechaVenta fecha de la venta
+     * @param precioCent precio final en centavos
+     * @param cancelada true si la venta se cancelo
+     */
+    public record Movimiento(int idAgente, LocalDate fechaVenta, long precioCent, boolean cancelada) {
+    }
+
+    /**
+     * Crea el evento para ventas recien registradas.
+     *
+     * @param ventas ventas guardadas
+     * @return evento inmutable
+     */
+    public static VentasModificadasEvento registradas(Collection<Venta> ventas) {
+        return new VentasModificadasEvento(
+            ventas.stream().map(venta -> movimiento(venta, false)).toList());
+    }
+
+    /**
+     * Crea el evento para una venta cancelada.
+     *
+     * @param venta venta eliminada
+     * @return evento inmutable
+     */
+    public static VentasModificadasEvento cancelada(Venta venta) {
+        return new VentasModificadasEvento(List.of(movimiento(venta, true)));
+    }
+
+    private static Movimiento movimiento(Venta venta, boolean cancelada) {
+        return new Movimiento(
+            venta.getAgente().getIdAgente(),
+            venta.getFechaVenta(),
+            venta.getPrecioFinal().movePointRight(2).longValue(),
+            cancelada);
+    }
+}
@@ -0,0 +1,96 @@
+package com.inmobiliaria.filtro;
+
+import com.inmobiliaria.servicio.AdmisionServicio;
+import com.inmobiliaria.servicio.AdmisionServicio.ClaseRuta;
+import com.inmobiliaria.servicio.CompartimentosServicio;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Control de admision de /api antes de cualquier otro filtro de la
+ * aplicacion, incluido el catalogo publico: primero el limite por
+ * cliente (429 con Retry-After) y despues el limite global adaptativo
+ * (503). Las solicitudes OPTIONS de CORS no se limitan.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Component
+@Order(AdmisionFiltro.ORDEN)
+public class AdmisionFiltro extends OncePerRequestFilter {
+
+    /** Orden del filtro, antes del catalogo publico */
+    public static final int ORDEN = CatalogoPublicoFiltro.ORDEN - 10;
+
+    /** Servicio de control de admision */
+    private final AdmisionServicio admisionServicio;
+
+    /** Servicio de compartimentos, para no limitar dos veces las rutas masivas */
+    private final CompartimentosServicio compartimentosServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param admisionServicio servicio de control de admision
+     * @param compartimentosServicio servicio de compartimentos
+     */
+    public AdmisionFiltro(AdmisionServicio admisionServicio,
+                          CompartimentosServicio compartimentosServicio) {
+        this.admisionServicio = admisionServicio;
+        this.compartimentosServicio = compartimentosServicio;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest solicitud) {
+        return "OPTIONS".equals(solicitud.getMethod()) || !ruta(solicitud).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest solicitud, HttpServletResponse respuesta,
+                                    FilterChain cadena) throws ServletException, IOException {
+        String metodo = solicitud.getMethod();
+        String ruta = ruta(solicitud);
+        ClaseRuta clase = admisionServicio.clasificar(metodo, ruta);
+        String cliente = admisionServicio.identificarCliente(
+            solicitud.getRemoteAddr(), solicitud.getHeader("X-Forwarded-For"));
+
+        long inicio = System.nanoTime();
+        long espera = admisionServicio.consumirFicha(cliente, clase, inicio);
+        if (espera > 0) {
+            long segundos = AdmisionServicio.segundosReintento(espera);
+            respuesta.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            respuesta.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiadas solicitudes, intente de nuevo en " + segundos + " s");
+            return;
+        }
+
+        if (compartimentosServicio.clasificar(metodo, ruta) == CompartimentosServicio.Compartimento.MASIVA) {
+            cadena.doFilter(solicitud, respuesta);
+            return;
+        }
+        if (!admisionServicio.entrar(clase != ClaseRuta.ESCRITURA)) {
+            respuesta.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            respuesta.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Servidor con demasiada carga, intente de nuevo");
+            return;
+        }
+        try {
+            cadena.doFilter(solicitud, respuesta);
+        } finally {
+            admisionServicio.salir(solicitud.isAsyncStarted() ? -1 : System.nanoTime() - inicio);
+        }
+    }
+
+    private static String ruta(HttpServletRequest solicitud) {
+        return solicitud.getRequestURI().substring(solicitud.getContextPath().length());
+    }
+}
@@ -0,0 +1,154 @@
+package com.inmobiliaria.filtro;
+
+import com.inmobiliaria.controlador.EnvioArchivo;
+import com.inmobiliaria.servicio.CatalogoPublicoServicio;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sirve GET /api/lotes y GET /api/lotes/estado/DISPONIBLE desde los
+ * archivos publicados por CatalogoPublicoServicio, sin llegar al
+ * controlador. Elige la version gzip si el cliente la acepta, responde
+ * 304 cuando el ETag coincide y envia el archivo con sendfile.
+ * Mientras no haya instantanea publicada la solicitud sigue su curso normal.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Component
+@Order(CatalogoPublicoFiltro.ORDEN)
+public class CatalogoPublicoFiltro extends OncePerRequestFilter {
+
+    /** Orden del filtro entre los demas filtros de la aplicacion */
+    public static final int ORDEN = 0;
+
+    /** Servicio que publica los archivos del catalogo */
+    private final CatalogoPublicoServicio catalogoPublicoServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param catalogoPublicoServicio servicio del catalogo publico
+     */
+    public CatalogoPublicoFiltro(CatalogoPublicoServicio catalogoPublicoServicio) {
+        this.catalogoPublicoServicio = catalogoPublicoServicio;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest solicitud, HttpServletResponse respuesta,
+                                    FilterChain cadena) throws ServletException, IOException {
+        String catalogo = catalogoSolicitado(solicitud);
+        CatalogoPublicoServicio.Instantanea instantanea =
+            catalogo != null ? catalogoPublicoServicio.obtener(catalogo) : null;
+        if (instantanea == null) {
+            cadena.doFilter(solicitud, respuesta);
+            return;
+        }
+
+        boolean gzip = aceptaGzip(solicitud.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = "\"" + instantanea.hash() + (gzip ? "-gz" : "") + "\"";
+
+        respuesta.setHeader(HttpHeaders.ETAG, etag);
+        respuesta.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        respuesta.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (solicitud.getHeader(HttpHeaders.ORIGIN) != null) {
+            respuesta.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        }
+
+        if (coincideEtag(solicitud.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            respuesta.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        respuesta.setStatus(HttpServletResponse.SC_OK);
+        respuesta.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            respuesta.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            EnvioArchivo.enviar(solicitud, respuesta,
+                instantanea.archivoGzip(), 0, instantanea.tamanoGzip());
+        } else {
+            EnvioArchivo.enviar(solicitud, respuesta,
+                instantanea.archivo(), 0, instantanea.tamano());
+        }
+    }
+
+    /**
+     * Identifica el catalogo pedido; solo GET/HEAD sin parametros.
+     *
+     * @param solicitud solicitud HTTP
+     * @return nombre del catalogo o null si la ruta no es del catalogo
+     */
+    private static String catalogoSolicitado(HttpServletRequest solicitud) {
+        String metodo = solicitud.getMethod();
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo) || solicitud.getQueryString() != null) {
+            return null;
+        }
+        String ruta = solicitud.getRequestURI().substring(solicitud.getContextPath().length());
+        if (ruta.endsWith("/")) {
+            ruta = ruta.substring(0, ruta.length() - 1);
+        }
+        if ("/api/lotes".equals(ruta)) {
+            return CatalogoPublicoServicio.CATALOGO_TODOS;
+        }
+        if ("/api/lotes/estado/disponible".equalsIgnoreCase(ruta)) {
+            return CatalogoPublicoServicio.CATALOGO_DISPONIBLES;
+        }
+        return null;
+    }
+
+    /**
+     * Indica si Accept-Encoding admite gzip (gzip o * con q distinto de 0).
+     */
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String parte : acceptEncoding.split(",")) {
+            String[] elementos = parte.trim().split(";");
+            String codificacion = elementos[0].trim();
+            if (!"gzip".equalsIgnoreCase(codificacion) && !"*".equals(codificacion)) {
+                continue;
+            }
+            boolean rechazada = false;
+            for (int i = 1; i < elementos.length; i++) {
+                String parametro = elementos[i].trim().replace(" ", "");
+                if (parametro.startsWith("q=")) {
+                    rechazada = parametro.substring(2).matches("0(\\.0{0,3})?");
+                }
+            }
+            if (!rechazada) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compara If-None-Match con el ETag actual (comparacion debil, como
+     * indica la especificacion para If-None-Match).
+     */
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if ("*".equals(valor) || etag.equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
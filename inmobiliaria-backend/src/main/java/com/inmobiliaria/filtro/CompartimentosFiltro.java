@@ -0,0 +1,77 @@
+package com.inmobiliaria.filtro;
+
+import com.inmobiliaria.servicio.CompartimentosServicio;
+import com.inmobiliaria.servicio.CompartimentosServicio.Compartimento;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Hace pasar cada solicitud de /api por su compartimento (ESCRITURA,
+ * LECTURA o MASIVA) antes de llegar al controlador. Si el compartimento
+ * esta lleno y su cola tambien, responde 503 con Retry-After sin tocar
+ * el pool de conexiones. Mientras la solicitud se atiende, el hilo queda
+ * marcado para que sus consultas usen el statement_timeout de la clase.
+ *
+ * Corre despues de CatalogoPublicoFiltro: el catalogo servido desde
+ * disco no usa la base de datos y no ocupa lugar.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Component
+@Order(CompartimentosFiltro.ORDEN)
+public class CompartimentosFiltro extends OncePerRequestFilter {
+
+    /** Orden del filtro, despues del catalogo publico */
+    public static final int ORDEN = CatalogoPublicoFiltro.ORDEN + 10;
+
+    /** Servicio de compartimentos */
+    private final CompartimentosServicio compartimentosServicio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param compartimentosServicio servicio de compartimentos
+     */
+    public CompartimentosFiltro(CompartimentosServicio compartimentosServicio) {
+        this.compartimentosServicio = compartimentosServicio;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest solicitud) {
+        return !ruta(solicitud).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest solicitud, HttpServletResponse respuesta,
+                                    FilterChain cadena) throws ServletException, IOException {
+        Compartimento compartimento =
+            compartimentosServicio.clasificar(solicitud.getMethod(), ruta(solicitud));
+        if (!compartimentosServicio.entrar(compartimento)) {
+            respuesta.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(compartimentosServicio.segundosReintento(compartimento)));
+            respuesta.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Servidor ocupado (" + compartimento + "), intente de nuevo");
+            return;
+        }
+        CompartimentosServicio.establecer(compartimento);
+        try {
+            cadena.doFilter(solicitud, respuesta);
+        } finally {
+            CompartimentosServicio.establecer(null);
+            compartimentosServicio.salir(compartimento);
+        }
+    }
+
+    private static String ruta(HttpServletRequest solicitud) {
+        return solicitud.getRequestURI().substring(solicitud.getContextPath().length());
+    }
+}
@@ -0,0 +1,95 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada de una operacion de creacion identificada por
+ * el encabezado Idempotency-Key. Un reintento con la misma clave
+ * recibe esta respuesta sin volver a ejecutar la operacion.
+ * Mapea la tabla claves_idempotencia de PostgreSQL.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Entity
+@Table(name = "claves_idempotencia")
+public class ClaveIdempotencia {
+
+    /** Clave enviada por el cliente */
+    @Id
+    @Column(name = "clave", length = 100)
+    private String clave;
+
+    /** Operacion que uso la clave, por ejemplo POST /api/ventas */
+    @Column(name = "operacion", nullable = false, length = 50)
+    private String operacion;
+
+    /** SHA-256 del cuerpo de la solicitud original */
+    @Column(name = "huella_solicitud", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String huellaSolicitud;
+
+    /** Cuerpo JSON de la respuesta original */
+    @Column(name = "respuesta", nullable = false, columnDefinition = "TEXT")
+    private String respuesta;
+
+    /** Fecha en que se ejecuto la operacion original */
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    /** Fecha a partir de la cual la clave se puede borrar */
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    /** Constructor vacio requerido por JPA */
+    public ClaveIdempotencia() {}
+
+    /**
+     * Crea el registro de una operacion ya ejecutada.
+     *
+     * @param clave clave enviada por el cliente
+     * @param operacion operacion que uso la clave
+     * @param huellaSolicitud SHA-256 del cuerpo de la solicitud
+     * @param respuesta JSON de la respuesta
+     * @param fechaExpiracion fecha de vencimiento
+     */
+    public ClaveIdempotencia(String clave, String operacion, String huellaSolicitud,
+                             String respuesta, LocalDateTime fechaExpiracion) {
+        this.clave = clave;
+        this.operacion = operacion;
+        this.huellaSolicitud = huellaSolicitud;
+        this.respuesta = respuesta;
+        this.fechaCreacion = LocalDateTime.now();
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    /* Getters */
+
+    public String getClave() {
+        return clave;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public String getHuellaSolicitud() {
+        return huellaSolicitud;
+    }
+
+    public String getRespuesta() {
+        return respuesta;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public LocalDateTime getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+}
@@ -0,0 +1,107 @@
+package com.inmobiliaria.modelo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Estados de un lote. Se guarda en la columna lotes.estado como
+ * SMALLINT con el codigo de cada estado (ver EstadoLoteConvertidor).
+ * Las transiciones permitidas se validan con una mascara de bits por
+ * estado, sin crear objetos en cada solicitud.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public enum EstadoLote {
+
+    /** Lote disponible para la venta */
+    DISPONIBLE((short) 1),
+
+    /** Lote reservado por un cliente */
+    RESERVADO((short) 2),
+
+    /** Lote ya vendido */
+    VENDIDO((short) 3);
+
+    /** Copia de values() para no clonar el arreglo en cada busqueda */
+    private static final EstadoLote[] VALORES = values();
+
+    static {
+        DISPONIBLE.destinos = mascara(RESERVADO, VENDIDO);
+        RESERVADO.destinos = mascara(DISPONIBLE, VENDIDO);
+        /* Cancelar la venta devuelve el lote */
+        VENDIDO.destinos = mascara(DISPONIBLE);
+    }
+
+    /** Codigo guardado en la base de datos */
+    private final short codigo;
+
+    /** Bit (1 << ordinal) de cada estado al que se puede pasar */
+    private int destinos;
+
+    EstadoLote(short codigo) {
+        this.codigo = codigo;
+    }
+
+    /**
+     * Codigo guardado en la base de datos.
+     *
+     * @return codigo del estado
+     */
+    public short codigo() {
+        return codigo;
+    }
+
+    /**
+     * Indica si un lote en este estado puede pasar al destino.
+     * Quedarse en el mismo estado siempre se permite.
+     *
+     * @param destino estado nuevo
+     * @return true si la transicion esta permitida
+     */
+    public boolean puedeCambiarA(EstadoLote destino) {
+        return destino == this || (destinos & (1 << destino.ordinal())) != 0;
+    }
+
+    /**
+     * Estado correspondiente a un codigo de la base de datos.
+     *
+     * @param codigo codigo guardado
+     * @return estado del codigo
+     * @throws IllegalArgumentException si el codigo no existe
+     */
+    public static EstadoLote desdeCodigo(short codigo) {
+        for (EstadoLote estado : VALORES) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Codigo de estado de lote no valido: " + codigo);
+    }
+
+    /**
+     * Estado a partir de su nombre sin importar mayusculas. Lo usa
+     * Jackson al leer JSON y los controladores al leer parametros.
+     *
+     * @param texto DISPONIBLE, RESERVADO o VENDIDO
+     * @return estado con ese nombre
+     * @throws RuntimeException si el texto no es un estado valido
+     */
+    @JsonCreator
+    public static EstadoLote desdeTexto(String texto) {
+        for (EstadoLote estado : VALORES) {
+            if (estado.name().equalsIgnoreCase(texto)) {
+                return estado;
+            }
+        }
+        throw new RuntimeException(
+            "Estado no valido: " + texto + ". Use DISPONIBLE, RESERVADO o VENDIDO");
+    }
+
+    private static int mascara(EstadoLote... estados) {
+        int mascara = 0;
+        for (EstadoLote estado : estados) {
+            mascara |= 1 << estado.ordinal();
+        }
+        return mascara;
+    }
+}
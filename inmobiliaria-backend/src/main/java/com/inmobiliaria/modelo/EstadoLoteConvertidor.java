@@ -0,0 +1,25 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte EstadoLote al codigo SMALLINT de la columna lotes.estado.
+ * Short.valueOf usa su cache para valores pequenos: no crea objetos.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Converter(autoApply = true)
+public class EstadoLoteConvertidor implements AttributeConverter<EstadoLote, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(EstadoLote estado) {
+        return estado == null ? null : estado.codigo();
+    }
+
+    @Override
+    public EstadoLote convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : EstadoLote.desdeCodigo(codigo);
+    }
+}
@@ -0,0 +1,53 @@
+package com.inmobiliaria.modelo;
+
+/**
+ * Estado de una venta. Se guarda en la columna ventas.estado como
+ * SMALLINT (ver EstadoVentaConvertidor). Cancelar una venta no la
+ * borra: pasa a CANCELADA y deja de contar en los acumulados.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public enum EstadoVenta {
+
+    /** Venta vigente */
+    ACTIVA((short) 1),
+
+    /** Venta cancelada; el lote volvio a estar disponible */
+    CANCELADA((short) 2);
+
+    /** Copia de values() para no clonar el arreglo en cada busqueda */
+    private static final EstadoVenta[] VALORES = values();
+
+    /** Codigo guardado en la base de datos */
+    private final short codigo;
+
+    EstadoVenta(short codigo) {
+        this.codigo = codigo;
+    }
+
+    /**
+     * Codigo guardado en la base de datos.
+     *
+     * @return codigo del estado
+     */
+    public short codigo() {
+        return codigo;
+    }
+
+    /**
+     * Estado correspondiente a un codigo de la base de datos.
+     *
+     * @param codigo codigo guardado
+     * @return estado del codigo
+     * @throws IllegalArgumentException si el codigo no existe
+     */
+    public static EstadoVenta desdeCodigo(short codigo) {
+        for (EstadoVenta estado : VALORES) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Codigo de estado de venta no valido: " + codigo);
+    }
+}
@@ -0,0 +1,24 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte EstadoVenta al codigo SMALLINT de la columna ventas.estado.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Converter(autoApply = true)
+public class EstadoVentaConvertidor implements AttributeConverter<EstadoVenta, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(EstadoVenta estado) {
+        return estado == null ? null : estado.codigo();
+    }
+
+    @Override
+    public EstadoVenta convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : EstadoVenta.desdeCodigo(codigo);
+    }
+}
@@ -0,0 +1,76 @@
+package com.inmobiliaria.modelo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Formas de pago de una venta. Se guarda en la columna
+ * ventas.forma_pago como SMALLINT (ver FormaPagoConvertidor).
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public enum FormaPago {
+
+    /** Pago total al contado */
+    CONTADO((short) 1),
+
+    /** Pago a credito con la inmobiliaria */
+    CREDITO((short) 2),
+
+    /** Pago financiado con entidad bancaria */
+    FINANCIADO((short) 3);
+
+    /** Copia de values() para no clonar el arreglo en cada busqueda */
+    private static final FormaPago[] VALORES = values();
+
+    /** Codigo guardado en la base de datos */
+    private final short codigo;
+
+    FormaPago(short codigo) {
+        this.codigo = codigo;
+    }
+
+    /**
+     * Codigo guardado en la base de datos.
+     *
+     * @return codigo de la forma de pago
+     */
+    public short codigo() {
+        return codigo;
+    }
+
+    /**
+     * Forma de pago correspondiente a un codigo de la base de datos.
+     *
+     * @param codigo codigo guardado
+     * @return forma de pago del codigo
+     * @throws IllegalArgumentException si el codigo no existe
+     */
+    public static FormaPago desdeCodigo(short codigo) {
+        for (FormaPago formaPago : VALORES) {
+            if (formaPago.codigo == codigo) {
+                return formaPago;
+            }
+        }
+        throw new IllegalArgumentException("Codigo de forma de pago no valido: " + codigo);
+    }
+
+    /**
+     * Forma de pago a partir de su nombre sin importar mayusculas.
+     * Lo usa Jackson al leer JSON.
+     *
+     * @param texto CONTADO, CREDITO o FINANCIADO
+     * @return forma de pago con ese nombre
+     * @throws RuntimeException si el texto no es una forma de pago valida
+     */
+    @JsonCreator
+    public static FormaPago desdeTexto(String texto) {
+        for (FormaPago formaPago : VALORES) {
+            if (formaPago.name().equalsIgnoreCase(texto)) {
+                return formaPago;
+            }
+        }
+        throw new RuntimeException(
+            "Forma de pago no valida: " + texto + ". Use CONTADO, CREDITO o FINANCIADO");
+    }
+}
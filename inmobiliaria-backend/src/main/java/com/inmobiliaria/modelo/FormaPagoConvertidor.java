@@ -0,0 +1,24 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte FormaPago al codigo SMALLINT de la columna ventas.forma_pago.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Converter(autoApply = true)
+public class FormaPagoConvertidor implements AttributeConverter<FormaPago, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(FormaPago formaPago) {
+        return formaPago == null ? null : formaPago.codigo();
+    }
+
+    @Override
+    public FormaPago convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : FormaPago.desdeCodigo(codigo);
+    }
+}
@@ -0,0 +1,103 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de solo insercion con el precio de un lote en un momento dado.
+ * Se guarda una fila cada vez que cambia el precio del lote.
+ * Mapea la tabla historial_precios_lote (particionada por anio).
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Entity
+@Table(name = "historial_precios_lote")
+public class HistorialPrecioLote {
+
+    /** Identificador unico generado automaticamente */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_historial")
+    private Long idHistorial;
+
+    /** Lote al que pertenece el precio */
+    @Column(name = "id_lote", nullable = false, updatable = false)
+    private Integer idLote;
+
+    /** Municipio del lote al momento del cambio */
+    @Column(name = "municipio", nullable = false, updatable = false, length = 100)
+    private String municipio;
+
+    /** Precio del lote a partir de la fecha del cambio */
+    @Column(name = "precio", nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal precio;
+
+    /** Area del lote al momento del cambio, para calcular precio por m2 */
+    @Column(name = "area_m2", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal areaM2;
+
+    /** Fecha y hora del cambio de precio */
+    @Column(name = "fecha_cambio", nullable = false, updatable = false)
+    private LocalDateTime fechaCambio;
+
+    /** Constructor vacio requerido por JPA */
+    public HistorialPrecioLote() {}
+
+    /**
+     * Crea el registro con los datos actuales de un lote.
+     *
+     * @param lote lote cuyo precio se registra
+     */
+    public HistorialPrecioLote(Lote lote) {
+        this.idLote = lote.getIdLote();
+        this.municipio = lote.getMunicipio();
+        this.precio = lote.getPrecio();
+        this.areaM2 = lote.getAreaM2();
+    }
+
+    /**
+     * Metodo que se ejecuta antes de insertar en la BD.
+     * Asigna la fecha y hora actual del cambio.
+     */
+    @PrePersist
+    public void antesDeInsertar() {
+        if (this.fechaCambio == null) {
+            this.fechaCambio = LocalDateTime.now();
+        }
+    }
+
+    /* Getters (el registro no se modifica despues de insertarse) */
+
+    public Long getIdHistorial() {
+        return idHistorial;
+    }
+
+    public Integer getIdLote() {
+        return idLote;
+    }
+
+    public String getMunicipio() {
+        return municipio;
+    }
+
+    public BigDecimal getPrecio() {
+        return precio;
+    }
+
+    public BigDecimal getAreaM2() {
+        return areaM2;
+    }
+
+    public LocalDateTime getFechaCambio() {
+        return fechaCambio;
+    }
+}
@@ -1,18 +1,25 @@
 package com.inmobiliaria.modelo;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Entidad que representa un lote inmobiliario disponible para la venta.
@@ -25,15 +32,6 @@ import java.time.LocalDate;
 @Table(name = "lotes")
 public class Lote {
 
-    /** Estado: lote disponible para la venta */
-    public static final String ESTADO_DISPONIBLE = "DISPONIBLE";
-
-    /** Estado: lote reservado por un cliente */
-    public static final String ESTADO_RESERVADO = "RESERVADO";
-
-    /** Estado: lote ya vendido */
-    public static final String ESTADO_VENDIDO = "VENDIDO";
-
     /** Identificador unico generado automaticamente */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -77,13 +75,25 @@ public class Lote {
     private String descripcion;
 
     /** Estado actual: DISPONIBLE, RESERVADO o VENDIDO */
-    @Column(name = "estado", length = 20)
-    private String estado;
+    @Column(name = "estado", nullable = false)
+    private EstadoLote estado;
 
     /** Fecha de registro del lote */
     @Column(name = "fecha_registro")
     private LocalDate fechaRegistro;
 
+    /**
+     * Imagenes del lote en orden de galeria. Se cargan en lotes de 100
+     * lotes por consulta al serializar listados; se administran con los
+     * endpoints de media y se ignoran al crear o actualizar el lote.
+     */
+    @OneToMany
+    @JoinColumn(name = "id_lote", insertable = false, updatable = false)
+    @OrderBy("orden ASC, idMedia ASC")
+    @BatchSize(size = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<MediaLote> media = new ArrayList<>();
+
     /** Constructor vacio requerido por JPA */
     public Lote() {}
 
@@ -95,7 +105,7 @@ public class Lote {
     public void antesDeInsertar() {
         this.fechaRegistro = LocalDate.now();
         if (this.estado == null) {
-            this.estado = ESTADO_DISPONIBLE;
+            this.estado = EstadoLote.DISPONIBLE;
         }
     }
 
@@ -165,11 +175,11 @@ public class Lote {
         this.descripcion = descripcion;
     }
 
-    public String getEstado() {
+    public EstadoLote getEstado() {
         return estado;
     }
 
-    public void setEstado(String estado) {
+    public void setEstado(EstadoLote estado) {
         this.estado = estado;
     }
 
@@ -180,4 +190,8 @@ public class Lote {
     public void setFechaRegistro(LocalDate fechaRegistro) {
         this.fechaRegistro = fechaRegistro;
     }
+
+    public List<MediaLote> getMedia() {
+        return media;
+    }
 }
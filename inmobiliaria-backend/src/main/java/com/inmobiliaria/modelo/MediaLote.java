@@ -0,0 +1,213 @@
+package com.inmobiliaria.modelo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Imagen asociada a un lote. El archivo vive en disco con el hash de su
+ * contenido como nombre; esta entidad guarda los metadatos.
+ * Mapea la tabla media_lotes.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Entity
+@Table(name = "media_lotes")
+public class MediaLote {
+
+    /** Miniatura: aun no generada */
+    public static final String MINIATURA_PENDIENTE = "PENDIENTE";
+
+    /** Miniatura: generada y disponible */
+    public static final String MINIATURA_LISTA = "LISTA";
+
+    /** Miniatura: no se pudo generar (imagen ilegible) */
+    public static final String MINIATURA_FALLIDA = "FALLIDA";
+
+    /** Identificador unico generado automaticamente */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_media")
+    private Integer idMedia;
+
+    /** Lote al que pertenece la imagen */
+    @Column(name = "id_lote", nullable = false, updatable = false)
+    private Integer idLote;
+
+    /** Nombre del archivo tal como lo envio el cliente */
+    @Column(name = "nombre_original", nullable = false)
+    private String nombreOriginal;
+
+    /** Tipo MIME de la imagen */
+    @Column(name = "tipo_contenido", nullable = false, length = 100)
+    private String tipoContenido;
+
+    /** Tamano del archivo en bytes */
+    @Column(name = "tamano", nullable = false)
+    private long tamano;
+
+    /** SHA-256 del contenido: nombre del archivo y ETag */
+    @JsonIgnore
+    @Column(name = "hash_contenido", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String hashContenido;
+
+    /** Ancho en pixeles (se conoce al generar la miniatura) */
+    @Column(name = "ancho")
+    private Integer ancho;
+
+    /** Alto en pixeles (se conoce al generar la miniatura) */
+    @Column(name = "alto")
+    private Integer alto;
+
+    /** Estado de la miniatura: PENDIENTE, LISTA o FALLIDA */
+    @Column(name = "estado_miniatura", nullable = false, length = 20)
+    private String estadoMiniatura;
+
+    /** Tamano de la miniatura en bytes */
+    @JsonIgnore
+    @Column(name = "tamano_miniatura")
+    private Long tamanoMiniatura;
+
+    /** Posicion de la imagen en la galeria del lote */
+    @Column(name = "orden", nullable = false)
+    private int orden;
+
+    /** Fecha y hora de carga */
+    @Column(name = "fecha_carga", nullable = false, updatable = false)
+    private LocalDateTime fechaCarga;
+
+    /** Constructor vacio requerido por JPA */
+    public MediaLote() {}
+
+    /**
+     * Metodo que se ejecuta antes de insertar en la BD.
+     * Asigna la fecha de carga y deja la miniatura pendiente.
+     */
+    @PrePersist
+    public void antesDeInsertar() {
+        this.fechaCarga = LocalDateTime.now();
+        if (this.estadoMiniatura == null) {
+            this.estadoMiniatura = MINIATURA_PENDIENTE;
+        }
+    }
+
+    /**
+     * Ruta para descargar la imagen original.
+     *
+     * @return URL relativa de la imagen
+     */
+    public String getUrl() {
+        return "/api/lotes/" + idLote + "/media/" + idMedia;
+    }
+
+    /**
+     * Ruta de la miniatura, solo cuando ya esta generada.
+     *
+     * @return URL relativa de la miniatura o null
+     */
+    public String getUrlMiniatura() {
+        return MINIATURA_LISTA.equals(estadoMiniatura) ? getUrl() + "/miniatura" : null;
+    }
+
+    /* Getters y Setters */
+
+    public Integer getIdMedia() {
+        return idMedia;
+    }
+
+    public void setIdMedia(Integer idMedia) {
+        this.idMedia = idMedia;
+    }
+
+    public Integer getIdLote() {
+        return idLote;
+    }
+
+    public void setIdLote(Integer idLote) {
+        this.idLote = idLote;
+    }
+
+    public String getNombreOriginal() {
+        return nombreOriginal;
+    }
+
+    public void setNombreOriginal(String nombreOriginal) {
+        this.nombreOriginal = nombreOriginal;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public void setTipoContenido(String tipoContenido) {
+        this.tipoContenido = tipoContenido;
+    }
+
+    public long getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(long tamano) {
+        this.tamano = tamano;
+    }
+
+    public String getHashContenido() {
+        return hashContenido;
+    }
+
+    public void setHashContenido(String hashContenido) {
+        this.hashContenido = hashContenido;
+    }
+
+    public Integer getAncho() {
+        return ancho;
+    }
+
+    public void setAncho(Integer ancho) {
+        this.ancho = ancho;
+    }
+
+    public Integer getAlto() {
+        return alto;
+    }
+
+    public void setAlto(Integer alto) {
+        this.alto = alto;
+    }
+
+    public String getEstadoMiniatura() {
+        return estadoMiniatura;
+    }
+
+    public void setEstadoMiniatura(String estadoMiniatura) {
+        this.estadoMiniatura = estadoMiniatura;
+    }
+
+    public Long getTamanoMiniatura() {
+        return tamanoMiniatura;
+    }
+
+    public void setTamanoMiniatura(Long tamanoMiniatura) {
+        this.tamanoMiniatura = tamanoMiniatura;
+    }
+
+    public int getOrden() {
+        return orden;
+    }
+
+    public void setOrden(int orden) {
+        this.orden = orden;
+    }
+
+    public LocalDateTime getFechaCarga() {
+        return fechaCarga;
+    }
+}
@@ -0,0 +1,204 @@
+package com.inmobiliaria.modelo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+
+/**
+ * Plan de pagos en cuotas de una venta a CREDITO o FINANCIADO.
+ * Solo guarda los parametros del credito y los acumulados; el
+ * cronograma cuota por cuota se recalcula con CalculadoraAmortizacion.
+ * Los montos estan en centavos y la tasa en partes por millon.
+ * Mapea la tabla planes_pago de PostgreSQL.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Entity
+@Table(name = "planes_pago")
+public class PlanPago implements Persistable<Integer> {
+
+    /** Mismo identificador de la venta a la que pertenece */
+    @Id
+    @Column(name = "id_venta")
+    private Integer idVenta;
+
+    /** Monto financiado (precio menos cuota inicial) en centavos */
+    @Column(name = "monto_financiado_cent", nullable = false)
+    private long montoFinanciadoCent;
+
+    /** Tasa de interes mensual en partes por millon */
+    @Column(name = "tasa_mensual_ppm", nullable = false)
+    private int tasaMensualPpm;
+
+    /** Numero de cuotas mensuales */
+    @Column(name = "numero_cuotas", nullable = false)
+    private short numeroCuotas;
+
+    /** Valor de la cuota fija en centavos */
+    @Column(name = "cuota_cent", nullable = false)
+    private long cuotaCent;
+
+    /** Valor de la ultima cuota (ajuste de redondeo) en centavos */
+    @Column(name = "ultima_cuota_cent", nullable = false)
+    private long ultimaCuotaCent;
+
+    /** Fecha de vencimiento de la primera cuota */
+    @Column(name = "fecha_primera_cuota", nullable = false)
+    private LocalDate fechaPrimeraCuota;
+
+    /** Total pagado hasta la fecha en centavos */
+    @Column(name = "pagado_cent", nullable = false)
+    private long pagadoCent;
+
+    /** Saldo vencido segun el ultimo calculo de mora, en centavos */
+    @Column(name = "saldo_vencido_cent", nullable = false)
+    private long saldoVencidoCent;
+
+    /** Cuotas vencidas sin pagar segun el ultimo calculo de mora */
+    @Column(name = "cuotas_vencidas", nullable = false)
+    private short cuotasVencidas;
+
+    /** Fecha del ultimo calculo de mora */
+    @Column(name = "fecha_calculo_mora")
+    private LocalDate fechaCalculoMora;
+
+    /** true mientras el credito tenga saldo por pagar */
+    @Column(name = "abierto", nullable = false)
+    private boolean abierto = true;
+
+    /** Indica si el plan aun no se ha insertado (el ID viene asignado) */
+    @Transient
+    private boolean nuevo = true;
+
+    /** Constructor vacio requerido por JPA */
+    public PlanPago() {}
+
+    @Override
+    @JsonIgnore
+    public Integer getId() {
+        return idVenta;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    /**
+     * Despues de cargar o insertar el plan deja de ser nuevo, asi
+     * save() hace UPDATE en lugar de intentar otro INSERT.
+     */
+    @PostLoad
+    @PostPersist
+    void marcarExistente() {
+        this.nuevo = false;
+    }
+
+    /* Getters y Setters */
+
+    public Integer getIdVenta() {
+        return idVenta;
+    }
+
+    public void setIdVenta(Integer idVenta) {
+        this.idVenta = idVenta;
+    }
+
+    public long getMontoFinanciadoCent() {
+        return montoFinanciadoCent;
+    }
+
+    public void setMontoFinanciadoCent(long montoFinanciadoCent) {
+        this.montoFinanciadoCent = montoFinanciadoCent;
+    }
+
+    public int getTasaMensualPpm() {
+        return tasaMensualPpm;
+    }
+
+    public void setTasaMensualPpm(int tasaMensualPpm) {
+        this.tasaMensualPpm = tasaMensualPpm;
+    }
+
+    public short getNumeroCuotas() {
+        return numeroCuotas;
+    }
+
+    public void setNumeroCuotas(short numeroCuotas) {
+        this.numeroCuotas = numeroCuotas;
+    }
+
+    public long getCuotaCent() {
+        return cuotaCent;
+    }
+
+    public void setCuotaCent(long cuotaCent) {
+        this.cuotaCent = cuotaCent;
+    }
+
+    public long getUltimaCuotaCent() {
+        return ultimaCuotaCent;
+    }
+
+    public void setUltimaCuotaCent(long ultimaCuotaCent) {
+        this.ultimaCuotaCent = ultimaCuotaCent;
+    }
+
+    public LocalDate getFechaPrimeraCuota() {
+        return fechaPrimeraCuota;
+    }
+
+    public void setFechaPrimeraCuota(LocalDate fechaPrimeraCuota) {
+        this.fechaPrimeraCuota = fechaPrimeraCuota;
+    }
+
+    public long getPagadoCent() {
+        return pagadoCent;
+    }
+
+    public void setPagadoCent(long pagadoCent) {
+        this.pagadoCent = pagadoCent;
+    }
+
+    public long getSaldoVencidoCent() {
+        return saldoVencidoCent;
+    }
+
+    public void setSaldoVencidoCent(long saldoVencidoCent) {
+        this.saldoVencidoCent = saldoVencidoCent;
+    }
+
+    public short getCuotasVencidas() {
+        return cuotasVencidas;
+    }
+
+    public void setCuotasVencidas(short cuotasVencidas) {
+        this.cuotasVencidas = cuotasVencidas;
+    }
+
+    public LocalDate getFechaCalculoMora() {
+        return fechaCalculoMora;
+    }
+
+    public void setFechaCalculoMora(LocalDate fechaCalculoMora) {
+        this.fechaCalculoMora = fechaCalculoMora;
+    }
+
+    public boolean isAbierto() {
+        return abierto;
+    }
+
+    public void setAbierto(boolean abierto) {
+        this.abierto = abierto;
+    }
+}
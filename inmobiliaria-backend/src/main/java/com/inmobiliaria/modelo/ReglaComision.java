@@ -0,0 +1,118 @@
+package com.inmobiliaria.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Regla de comision escalonada por tramos de total vendido en el mes.
+ * Cada tramo paga su propia tasa sobre la parte del total que cae en el.
+ * Si idAgente es nulo la regla aplica a todos los agentes sin regla propia.
+ * Mapea la tabla reglas_comision.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Entity
+@Table(name = "reglas_comision")
+public class ReglaComision {
+
+    /** Identificador unico generado automaticamente */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_regla")
+    private Integer idRegla;
+
+    /** Agente al que aplica la regla; nulo para la regla general */
+    @Column(name = "id_agente")
+    private Integer idAgente;
+
+    /** Fecha desde la cual aplica la regla */
+    @NotNull(message = "La fecha de vigencia es obligatoria")
+    @Column(name = "vigente_desde", nullable = false)
+    private LocalDate vigenteDesde;
+
+    /** Tope de cada tramo en centavos, en orden ascendente */
+    @NotNull(message = "Los limites de los tramos son obligatorios")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "limites_cent", nullable = false)
+    private long[] limitesCent;
+
+    /** Tasa de cada tramo en partes por millon (uno mas que los limites) */
+    @NotNull(message = "Las tasas de los tramos son obligatorias")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "tasas_ppm", nullable = false)
+    private int[] tasasPpm;
+
+    /** Fecha y hora de creacion de la regla */
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /** Constructor vacio requerido por JPA */
+    public ReglaComision() {}
+
+    /**
+     * Metodo que se ejecuta antes de insertar en la BD.
+     * Asigna la fecha de creacion.
+     */
+    @PrePersist
+    public void antesDeInsertar() {
+        this.fechaCreacion = LocalDateTime.now();
+    }
+
+    /* Getters y Setters */
+
+    public Integer getIdRegla() {
+        return idRegla;
+    }
+
+    public void setIdRegla(Integer idRegla) {
+        this.idRegla = idRegla;
+    }
+
+    public Integer getIdAgente() {
+        return idAgente;
+    }
+
+    public void setIdAgente(Integer idAgente) {
+        this.idAgente = idAgente;
+    }
+
+    public LocalDate getVigenteDesde() {
+        return vigenteDesde;
+    }
+
+    public void setVigenteDesde(LocalDate vigenteDesde) {
+        this.vigenteDesde = vigenteDesde;
+    }
+
+    public long[] getLimitesCent() {
+        return limitesCent;
+    }
+
+    public void setLimitesCent(long[] limitesCent) {
+        this.limitesCent = limitesCent;
+    }
+
+    public int[] getTasasPpm() {
+        return tasasPpm;
+    }
+
+    public void setTasasPpm(int[] tasasPpm) {
+        this.tasasPpm = tasasPpm;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+}
@@ -0,0 +1,55 @@
+package com.inmobiliaria.modelo;
+
+/**
+ * Tipos de evento del libro de ventas (tabla eventos_venta, columna
+ * tipo como SMALLINT).
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public enum TipoEventoVenta {
+
+    /** Venta registrada */
+    REGISTRADA((short) 1),
+
+    /** Venta cancelada */
+    CANCELADA((short) 2),
+
+    /** Observaciones de la venta modificadas */
+    OBSERVACIONES((short) 3);
+
+    /** Copia de values() para no clonar el arreglo en cada busqueda */
+    private static final TipoEventoVenta[] VALORES = values();
+
+    /** Codigo guardado en la base de datos */
+    private final short codigo;
+
+    TipoEventoVenta(short codigo) {
+        this.codigo = codigo;
+    }
+
+    /**
+     * Codigo guardado en la base de datos.
+     *
+     * @return codigo del tipo
+     */
+    public short codigo() {
+        return codigo;
+    }
+
+    /**
+     * Tipo correspondiente a un codigo de la base de datos.
+     *
+     * @param codigo codigo guardado
+     * @return tipo del codigo
+     * @throws IllegalArgumentException si el codigo no existe
+     */
+    public static TipoEventoVenta desdeCodigo(short codigo) {
+        for (TipoEventoVenta tipo : VALORES) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Codigo de evento de venta no valido: " + codigo);
+    }
+}
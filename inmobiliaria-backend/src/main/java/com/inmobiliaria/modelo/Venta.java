@@ -8,8 +8,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -28,18 +28,13 @@ import java.time.LocalDate;
 @Table(name = "ventas")
 public class Venta {
 
-    /** Forma de pago: pago total al contado */
-    public static final String PAGO_CONTADO = "CONTADO";
-
-    /** Forma de pago: pago a credito */
-    public static final String PAGO_CREDITO = "CREDITO";
-
-    /** Forma de pago: pago financiado con entidad bancaria */
-    public static final String PAGO_FINANCIADO = "FINANCIADO";
-
-    /** Identificador unico generado automaticamente */
+    /**
+     * Identificador unico generado con la secuencia de la tabla.
+     * Se reservan 50 ids por consulta para poder insertar en lote.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ventas_seq")
+    @SequenceGenerator(name = "ventas_seq", sequenceName = "ventas_id_venta_seq", allocationSize = 50)
     @Column(name = "id_venta")
     private Integer idVenta;
 
@@ -67,8 +62,8 @@ public class Venta {
     @JoinColumn(name = "id_agente", nullable = false)
     private Agente agente;
 
-    /** Fecha en que se realizo la venta */
-    @Column(name = "fecha_venta")
+    /** Fecha en que se realizo la venta; clave de particion de la tabla ventas */
+    @Column(name = "fecha_venta", nullable = false)
     private LocalDate fechaVenta;
 
     /** Precio final negociado de la venta */
@@ -78,24 +73,29 @@ public class Venta {
     private BigDecimal precioFinal;
 
     /** Forma de pago: CONTADO, CREDITO o FINANCIADO */
-    @NotBlank(message = "La forma de pago es obligatoria")
-    @Column(name = "forma_pago", nullable = false, length = 20)
-    private String formaPago;
+    @NotNull(message = "La forma de pago es obligatoria")
+    @Column(name = "forma_pago", nullable = false)
+    private FormaPago formaPago;
 
     /** Observaciones adicionales sobre la venta */
     @Column(name = "observaciones", columnDefinition = "TEXT")
     private String observaciones;
 
+    /** Estado de la venta: ACTIVA o CANCELADA */
+    @Column(name = "estado", nullable = false)
+    private EstadoVenta estado;
+
     /** Constructor vacio requerido por JPA */
     public Venta() {}
 
     /**
      * Metodo que se ejecuta antes de insertar en la BD.
-     * Asigna la fecha actual como fecha de la venta.
+     * Asigna la fecha actual como fecha de la venta y la deja ACTIVA.
      */
     @PrePersist
     public void antesDeInsertar() {
         this.fechaVenta = LocalDate.now();
+        this.estado = EstadoVenta.ACTIVA;
     }
 
     /* Getters y Setters */
@@ -148,11 +148,11 @@ public class Venta {
         this.precioFinal = precioFinal;
     }
 
-    public String getFormaPago() {
+    public FormaPago getFormaPago() {
         return formaPago;
     }
 
-    public void setFormaPago(String formaPago) {
+    public void setFormaPago(FormaPago formaPago) {
         this.formaPago = formaPago;
     }
 
@@ -163,4 +163,12 @@ public class Venta {
     public void setObservaciones(String observaciones) {
         this.observaciones = observaciones;
     }
+
+    public EstadoVenta getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoVenta estado) {
+        this.estado = estado;
+    }
 }
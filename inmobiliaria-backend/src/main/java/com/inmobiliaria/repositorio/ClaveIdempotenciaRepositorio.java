@@ -0,0 +1,30 @@
+package com.inmobiliaria.repositorio;
+
+import com.inmobiliaria.modelo.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio JPA para las claves de idempotencia.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Repository
+public interface ClaveIdempotenciaRepositorio extends JpaRepository<ClaveIdempotencia, String> {
+
+    /**
+     * Borra con un solo DELETE las claves vencidas.
+     *
+     * @param fecha fecha de corte
+     * @return cantidad de claves borradas
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.fechaExpiracion < :fecha")
+    int borrarVencidas(@Param("fecha") LocalDateTime fecha);
+}
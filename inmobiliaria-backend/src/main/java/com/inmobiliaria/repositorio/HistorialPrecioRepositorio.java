@@ -0,0 +1,63 @@
+package com.inmobiliaria.repositorio;
+
+import com.inmobiliaria.modelo.HistorialPrecioLote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio JPA para el historial de precios de lotes.
+ * Solo se usan inserciones y consultas: la tabla rechaza UPDATE y DELETE.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Repository
+public interface HistorialPrecioRepositorio extends JpaRepository<HistorialPrecioLote, Long> {
+
+    /**
+     * Serie de precios de un lote en un rango de fechas.
+     * El filtro por fecha_cambio descarta las particiones fuera del rango.
+     *
+     * @param idLote identificador del lote
+     * @param desde inicio del rango (incluido)
+     * @param hasta fin del rango (excluido)
+     * @return cambios de precio ordenados por fecha
+     */
+    @Query("SELECT h FROM HistorialPrecioLote h " +
+           "WHERE h.idLote = :idLote " +
+           "AND h.fechaCambio >= :desde AND h.fechaCambio < :hasta " +
+           "ORDER BY h.fechaCambio")
+    List<HistorialPrecioLote> buscarSerieDeLote(
+            @Param("idLote") Integer idLote,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Tendencia del precio por m2 de un municipio agrupada por periodo.
+     * Retorna periodo, cantidad de cambios, promedio, minimo y maximo.
+     *
+     * @param municipio nombre del municipio sin importar mayusculas
+     * @param intervalo unidad de date_trunc: week, month, quarter o year
+     * @param desde inicio del rango (incluido)
+     * @param hasta fin del rango (excluido)
+     * @return lista de arrays con los datos de cada periodo
+     */
+    @Query(value = "SELECT date_trunc(:intervalo, h.fecha_cambio) AS periodo, " +
+                   "COUNT(*), AVG(h.precio / h.area_m2), " +
+                   "MIN(h.precio / h.area_m2), MAX(h.precio / h.area_m2) " +
+                   "FROM historial_precios_lote h " +
+                   "WHERE upper(h.municipio) = upper(:municipio) " +
+                   "AND h.fecha_cambio >= :desde AND h.fecha_cambio < :hasta " +
+                   "GROUP BY 1 ORDER BY 1",
+           nativeQuery = true)
+    List<Object[]> obtenerTendenciaPrecioM2(
+            @Param("municipio") String municipio,
+            @Param("intervalo") String intervalo,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+}
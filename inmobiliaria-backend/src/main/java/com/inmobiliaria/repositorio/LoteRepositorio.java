@@ -1,14 +1,24 @@
 package com.inmobiliaria.repositorio;
 
+import com.inmobiliaria.modelo.EstadoLote;
 import com.inmobiliaria.modelo.Lote;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad Lote.
@@ -26,7 +36,7 @@ public interface LoteRepositorio extends JpaRepository<Lote, Integer> {
      * @param estado DISPONIBLE, RESERVADO o VENDIDO
      * @return lista de lotes con ese estado
      */
-    List<Lote> findByEstadoOrderByPrecioAsc(String estado);
+    List<Lote> findByEstadoOrderByPrecioAsc(EstadoLote estado);
 
     /**
      * Busca un lote por su referencia unica.
@@ -53,7 +63,7 @@ public interface LoteRepositorio extends JpaRepository<Lote, Integer> {
      */
     @Query("SELECT l FROM Lote l " +
            "WHERE l.precio BETWEEN :precioMin AND :precioMax " +
-           "AND l.estado = 'DISPONIBLE' " +
+           "AND l.estado = com.inmobiliaria.modelo.EstadoLote.DISPONIBLE " +
            "ORDER BY l.precio ASC")
     List<Lote> buscarDisponiblesPorRangoPrecio(
             @Param("precioMin") BigDecimal precioMin,
@@ -66,5 +76,147 @@ public interface LoteRepositorio extends JpaRepository<Lote, Integer> {
      * @param estado estado del lote
      * @return lista de lotes que coinciden
      */
-    List<Lote> findByMunicipioIgnoreCaseAndEstado(String municipio, String estado);
+    List<Lote> findByMunicipioIgnoreCaseAndEstado(String municipio, EstadoLote estado);
+
+    /**
+     * Bloquea (SELECT ... FOR UPDATE) los lotes con esos IDs.
+     * Se ordena por ID para que dos operaciones masivas concurrentes
+     * tomen los bloqueos en el mismo orden y no se produzca deadlock.
+     *
+     * @param ids IDs de los lotes
+     * @return lotes encontrados ordenados por ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lote l WHERE l.idLote IN :ids ORDER BY l.idLote")
+    List<Lote> bloquearPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Bloquea los lotes de un municipio y/o con un prefijo de referencia.
+     * Los parametros nulos no filtran. El prefijo debe llegar con %, _ y
+     * la barra invertida escapados con una barra invertida. El limite
+     * evita bloquear todo un filtro demasiado amplio que luego se rechaza.
+     *
+     * @param municipio municipio sin importar mayusculas, o null
+     * @param prefijoReferencia prefijo de la referencia ya escapado, o null
+     * @param limite maximo de lotes a bloquear
+     * @return lotes encontrados ordenados por ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lote l " +
+           "WHERE upper(l.municipio) = upper(coalesce(:municipio, l.municipio)) " +
+           "AND l.referencia LIKE CONCAT(coalesce(:prefijo, ''), '%') ESCAPE '\\' " +
+           "ORDER BY l.idLote")
+    List<Lote> bloquearPorFiltro(
+            @Param("municipio") String municipio,
+            @Param("prefijo") String prefijoReferencia,
+            Limit limite);
+
+    /**
+     * Cambia el estado de muchos lotes con un solo UPDATE.
+     * Solo se modifican los lotes cuyo estado actual esta en la lista
+     * de estados de origen permitidos para la transicion.
+     *
+     * @param ids IDs de los lotes
+     * @param estadosOrigen estados desde los que se permite el cambio
+     * @param nuevoEstado estado destino
+     * @return cantidad de lotes actualizados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lote l SET l.estado = :nuevoEstado " +
+           "WHERE l.idLote IN :ids AND l.estado IN :estadosOrigen")
+    int cambiarEstadoMasivo(
+            @Param("ids") Collection<Integer> ids,
+            @Param("estadosOrigen") Collection<EstadoLote> estadosOrigen,
+            @Param("nuevoEstado") EstadoLote nuevoEstado);
+
+    /**
+     * Recorre el inventario disponible agrupado por departamento y municipio
+     * sin cargarlo en memoria. Retorna departamento, municipio, referencia,
+     * area y precio. Debe consumirse dentro de una transaccion.
+     *
+     * @return cursor sobre las filas del reporte
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.departamento, l.municipio, l.referencia, l.areaM2, l.precio " +
+           "FROM Lote l " +
+           "WHERE l.estado = com.inmobiliaria.modelo.EstadoLote.DISPONIBLE " +
+           "ORDER BY l.departamento, l.municipio, l.precio")
+    Stream<Object[]> recorrerInventarioDisponible();
+
+    /**
+     * Busqueda de texto completo sobre la columna busqueda (tsvector).
+     * Acepta la sintaxis de buscadores web: palabras, "frase exacta",
+     * OR y -excluir. Combina el texto con filtros opcionales de estado y
+     * precio, ordena por relevancia y solo calcula el fragmento resaltado
+     * de las filas que se retornan. El resaltado se marca con los
+     * caracteres de control U+0002 (inicio) y U+0003 (fin).
+     * Retorna id del lote, relevancia y fragmento.
+     *
+     * @param texto texto a buscar
+     * @param estado codigo del estado del lote (EstadoLote.codigo) o null
+     * @param precioMin precio minimo o null
+     * @param precioMax precio maximo o null
+     * @param limite maximo de resultados
+     * @return lista de arrays con los resultados en orden de relevancia
+     */
+    @Query(value = "SELECT r.id_lote, r.relevancia, " +
+                   "ts_headline('spanish', coalesce(l.ubicacion, '') || ' - ' || coalesce(l.descripcion, ''), " +
+                   "r.consulta, 'StartSel=\u0002, StopSel=\u0003, MaxFragments=2, MaxWords=25, MinWords=10') " +
+                   "FROM (SELECT l2.id_lote, ts_rank_cd(l2.busqueda, c.consulta) AS relevancia, c.consulta " +
+                   "      FROM lotes l2, websearch_to_tsquery('spanish', :texto) c " +
+                   "      WHERE l2.busqueda @@ c.consulta " +
+                   "      AND (CAST(:estado AS smallint) IS NULL OR l2.estado = CAST(:estado AS smallint)) " +
+                   "      AND (CAST(:precioMin AS numeric) IS NULL OR l2.precio >= CAST(:precioMin AS numeric)) " +
+                   "      AND (CAST(:precioMax AS numeric) IS NULL OR l2.precio <= CAST(:precioMax AS numeric)) " +
+                   "      ORDER BY relevancia DESC, l2.id_lote " +
+                   "      LIMIT :limite) r " +
+                   "JOIN lotes l ON l.id_lote = r.id_lote " +
+                   "ORDER BY r.relevancia DESC, r.id_lote",
+           nativeQuery = true)
+    List<Object[]> buscarTextoCompleto(@Param("texto") String texto,
+                                       @Param("estado") Short estado,
+                                       @Param("precioMin") BigDecimal precioMin,
+                                       @Param("precioMax") BigDecimal precioMax,
+                                       @Param("limite") int limite);
+
+    /**
+     * Datos de todos los lotes que alimentan las sugerencias de busqueda.
+     * Retorna id, referencia, municipio, departamento y estado.
+     *
+     * @return lista de arrays con los datos de cada lote
+     */
+    @Query("SELECT l.idLote, l.referencia, l.municipio, l.departamento, l.estado FROM Lote l")
+    List<Object[]> obtenerDatosSugerencias();
+
+    /**
+     * Datos para sugerencias de algunos lotes (tras modificarlos).
+     * Retorna id, referencia, municipio, departamento y estado.
+     *
+     * @param ids identificadores de los lotes
+     * @return lista de arrays con los datos de los lotes que existen
+     */
+    @Query("SELECT l.idLote, l.referencia, l.municipio, l.departamento, l.estado " +
+           "FROM Lote l WHERE l.idLote IN :ids")
+    List<Object[]> obtenerDatosSugerenciasPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Caracteristicas de los lotes disponibles para el indice de similares.
+     * Retorna id, municipio, area y precio.
+     *
+     * @return lista de arrays con los datos de cada lote disponible
+     */
+    @Query("SELECT l.idLote, l.municipio, l.areaM2, l.precio FROM Lote l " +
+           "WHERE l.estado = com.inmobiliaria.modelo.EstadoLote.DISPONIBLE")
+    List<Object[]> obtenerCaracteristicasDisponibles();
+
+    /**
+     * Caracteristicas de algunos lotes (tras modificarlos).
+     * Retorna id, municipio, area, precio y estado.
+     *
+     * @param ids identificadores de los lotes
+     * @return lista de arrays con los datos de los lotes que existen
+     */
+    @Query("SELECT l.idLote, l.municipio, l.areaM2, l.precio, l.estado " +
+           "FROM Lote l WHERE l.idLote IN :ids")
+    List<Object[]> obtenerCaracteristicasPorIds(@Param("ids") Collection<Integer> ids);
 }
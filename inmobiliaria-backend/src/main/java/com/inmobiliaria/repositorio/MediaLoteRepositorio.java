@@ -0,0 +1,107 @@
+package com.inmobiliaria.repositorio;
+
+import com.inmobiliaria.modelo.MediaLote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repositorio JPA para la entidad MediaLote.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Repository
+public interface MediaLoteRepositorio extends JpaRepository<MediaLote, Integer> {
+
+    /**
+     * Obtiene las imagenes de un lote en orden de galeria.
+     *
+     * @param idLote identificador del lote
+     * @return imagenes del lote
+     */
+    List<MediaLote> findByIdLoteOrderByOrdenAscIdMediaAsc(Integer idLote);
+
+    /**
+     * Busca una imagen verificando que pertenezca al lote.
+     *
+     * @param idMedia identificador de la imagen
+     * @param idLote identificador del lote
+     * @return Optional con la imagen o vacio
+     */
+    Optional<MediaLote> findByIdMediaAndIdLote(Integer idMedia, Integer idLote);
+
+    /**
+     * Busca otra imagen con el mismo contenido, para reutilizar su miniatura.
+     *
+     * @param hashContenido SHA-256 del contenido
+     * @return Optional con la primera imagen con ese contenido
+     */
+    Optional<MediaLote> findFirstByHashContenido(String hashContenido);
+
+    /**
+     * Siguiente posicion libre en la galeria de un lote.
+     *
+     * @param idLote identificador del lote
+     * @return posicion para la nueva imagen
+     */
+    @Query("SELECT coalesce(max(m.orden) + 1, 0) FROM MediaLote m WHERE m.idLote = :idLote")
+    int obtenerSiguienteOrden(@Param("idLote") Integer idLote);
+
+    /**
+     * Imagenes con miniatura pendiente cargadas antes de una fecha.
+     *
+     * @param estado estado de la miniatura
+     * @param fecha fecha limite de carga
+     * @return hasta 100 imagenes pendientes
+     */
+    List<MediaLote> findTop100ByEstadoMiniaturaAndFechaCargaBeforeOrderByIdMediaAsc(
+        String estado, LocalDateTime fecha);
+
+    /**
+     * Hashes de contenido en uso, para borrar los archivos huerfanos.
+     *
+     * @return hashes distintos
+     */
+    @Query("SELECT DISTINCT m.hashContenido FROM MediaLote m")
+    Set<String> obtenerHashesEnUso();
+
+    /**
+     * Lotes que usan un contenido, para avisar a las caches de lotes.
+     *
+     * @param hashContenido SHA-256 del contenido
+     * @return IDs de lotes
+     */
+    @Query("SELECT DISTINCT m.idLote FROM MediaLote m WHERE m.hashContenido = :hash")
+    List<Integer> obtenerLotesConContenido(@Param("hash") String hashContenido);
+
+    /**
+     * Registra el resultado de la miniatura en todas las imagenes con
+     * el mismo contenido.
+     *
+     * @param hashContenido SHA-256 del contenido
+     * @param estado LISTA o FALLIDA
+     * @param ancho ancho de la imagen original
+     * @param alto alto de la imagen original
+     * @param tamanoMiniatura bytes de la miniatura
+     * @return filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaLote m SET m.estadoMiniatura = :estado, m.ancho = :ancho, " +
+           "m.alto = :alto, m.tamanoMiniatura = :tamanoMiniatura " +
+           "WHERE m.hashContenido = :hash")
+    int registrarMiniatura(@Param("hash") String hashContenido,
+                           @Param("estado") String estado,
+                           @Param("ancho") Integer ancho,
+                           @Param("alto") Integer alto,
+                           @Param("tamanoMiniatura") Long tamanoMiniatura);
+}
@@ -0,0 +1,33 @@
+package com.inmobiliaria.repositorio;
+
+import com.inmobiliaria.modelo.PlanPago;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para los planes de pago.
+ * El calculo masivo de mora no pasa por aqui: usa JDBC directo
+ * sobre rangos de id para no crear una entidad por credito.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Repository
+public interface PlanPagoRepositorio extends JpaRepository<PlanPago, Integer> {
+
+    /**
+     * Carga un plan bloqueandolo para registrar un pago.
+     *
+     * @param idVenta identificador de la venta
+     * @return Optional con el plan o vacio si no existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PlanPago p WHERE p.idVenta = :idVenta")
+    Optional<PlanPago> bloquearPorId(@Param("idVenta") Integer idVenta);
+}
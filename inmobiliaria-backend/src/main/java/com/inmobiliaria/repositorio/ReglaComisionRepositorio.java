@@ -0,0 +1,38 @@
+package com.inmobiliaria.repositorio;
+
+import com.inmobiliaria.modelo.ReglaComision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio JPA para la entidad ReglaComision.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Repository
+public interface ReglaComisionRepositorio extends JpaRepository<ReglaComision, Integer> {
+
+    /**
+     * Obtiene las reglas vigentes a una fecha, la mas reciente primero.
+     * Incluye reglas de agente y generales; el servicio elige la que aplica.
+     *
+     * @param fecha fecha de referencia
+     * @return reglas con vigencia iniciada a esa fecha
+     */
+    @Query("SELECT r FROM ReglaComision r WHERE r.vigenteDesde <= :fecha " +
+           "ORDER BY r.vigenteDesde DESC")
+    List<ReglaComision> buscarVigentesA(@Param("fecha") LocalDate fecha);
+
+    /**
+     * Obtiene todas las reglas ordenadas por agente y vigencia.
+     *
+     * @return lista de reglas
+     */
+    List<ReglaComision> findAllByOrderByIdAgenteAscVigenteDesdeDesc();
+}
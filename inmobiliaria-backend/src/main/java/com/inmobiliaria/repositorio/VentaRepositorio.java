@@ -1,15 +1,24 @@
 package com.inmobiliaria.repositorio;
 
 import com.inmobiliaria.modelo.Venta;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad Venta.
  * Spring Data JPA genera la implementacion SQL automaticamente.
+ * Los acumulados y reportes solo cuentan ventas ACTIVA.
  *
  * @author [Tu nombre]
  * @version 1.0
@@ -18,29 +27,59 @@ import java.util.List;
 public interface VentaRepositorio extends JpaRepository<Venta, Integer> {
 
     /**
-     * Obtiene todas las ventas de un cliente ordenadas por fecha descendente.
+     * Obtiene las ventas de un cliente desde una fecha, de la mas reciente
+     * a la mas antigua. El limite sobre fecha_venta deja fuera las
+     * particiones mensuales anteriores.
      *
      * @param idCliente identificador del cliente
+     * @param desde primer dia incluido
      * @return lista de ventas del cliente
      */
-    List<Venta> findByClienteIdClienteOrderByFechaVentaDesc(Integer idCliente);
+    List<Venta> findByClienteIdClienteAndFechaVentaGreaterThanEqualOrderByFechaVentaDesc(
+        Integer idCliente, LocalDate desde);
 
     /**
-     * Obtiene todas las ventas gestionadas por un agente ordenadas por fecha.
+     * Obtiene las ventas gestionadas por un agente desde una fecha,
+     * ordenadas por fecha descendente.
      *
      * @param idAgente identificador del agente
+     * @param desde primer dia incluido
      * @return lista de ventas del agente
      */
-    List<Venta> findByAgenteIdAgenteOrderByFechaVentaDesc(Integer idAgente);
+    List<Venta> findByAgenteIdAgenteAndFechaVentaGreaterThanEqualOrderByFechaVentaDesc(
+        Integer idAgente, LocalDate desde);
 
     /**
-     * Verifica si un lote ya tiene una venta registrada.
+     * Verifica si un lote figura en alguna venta, activa o cancelada.
      *
      * @param idLote identificador del lote
-     * @return true si el lote ya fue vendido
+     * @return true si alguna venta apunta al lote
      */
     boolean existsByLoteIdLote(Integer idLote);
 
+    /**
+     * Verifica si un lote figura en alguna venta de un mes ya archivado
+     * (esas ventas ya no estan en la tabla ventas).
+     *
+     * @param idLote identificador del lote
+     * @return true si el lote tiene ventas archivadas
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM lotes_ventas_archivadas WHERE id_lote = :idLote)",
+           nativeQuery = true)
+    boolean existeVentaArchivadaDeLote(@Param("idLote") Integer idLote);
+
+    /**
+     * Pasa una venta de ACTIVA a CANCELADA. La condicion sobre el estado
+     * hace que de dos cancelaciones simultaneas solo una tenga efecto.
+     *
+     * @param idVenta identificador de la venta
+     * @return 1 si se cancelo, 0 si ya estaba cancelada
+     */
+    @Modifying
+    @Query("UPDATE Venta v SET v.estado = com.inmobiliaria.modelo.EstadoVenta.CANCELADA " +
+           "WHERE v.idVenta = :idVenta AND v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA")
+    int cancelar(@Param("idVenta") Integer idVenta);
+
     /**
      * Consulta el resumen de ventas agrupado por agente.
      * Retorna nombre, apellido, cantidad de ventas y total vendido.
@@ -50,7 +89,84 @@ public interface VentaRepositorio extends JpaRepository<Venta, Integer> {
     @Query("SELECT a.nombre, a.apellido, COUNT(v), SUM(v.precioFinal) " +
            "FROM Venta v " +
            "JOIN v.agente a " +
+           "WHERE v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA " +
            "GROUP BY a.nombre, a.apellido " +
            "ORDER BY SUM(v.precioFinal) DESC")
     List<Object[]> obtenerResumenVentasPorAgente();
+
+    /**
+     * Consulta cantidad y total vendido por agente desde una fecha.
+     * Retorna id, nombre y apellido del agente, cantidad y total.
+     *
+     * @param desde fecha inicial (incluida)
+     * @return lista de arrays con los acumulados por agente
+     */
+    @Query("SELECT a.idAgente, a.nombre, a.apellido, COUNT(v), SUM(v.precioFinal) " +
+           "FROM Venta v " +
+           "JOIN v.agente a " +
+           "WHERE v.fechaVenta >= :desde AND v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA " +
+           "GROUP BY a.idAgente, a.nombre, a.apellido")
+    List<Object[]> obtenerAcumuladosPorAgenteDesde(@Param("desde") LocalDate desde);
+
+    /**
+     * Consulta cantidad y total vendido por agente de todas las ventas.
+     * Retorna id, nombre y apellido del agente, cantidad y total.
+     *
+     * @return lista de arrays con los acumulados por agente
+     */
+    @Query("SELECT a.idAgente, a.nombre, a.apellido, COUNT(v), SUM(v.precioFinal) " +
+           "FROM Venta v " +
+           "JOIN v.agente a " +
+           "WHERE v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA " +
+           "GROUP BY a.idAgente, a.nombre, a.apellido")
+    List<Object[]> obtenerAcumuladosPorAgente();
+
+    /**
+     * Recorre todas las ventas agrupadas por agente sin cargarlas en memoria.
+     * Retorna id, nombre y apellido del agente, id y fecha de la venta,
+     * referencia y municipio del lote, forma de pago y precio final.
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @return cursor sobre las filas del reporte
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.idAgente, a.nombre, a.apellido, v.idVenta, v.fechaVenta, " +
+           "l.referencia, l.municipio, v.formaPago, v.precioFinal " +
+           "FROM Venta v " +
+           "JOIN v.agente a " +
+           "JOIN v.lote l " +
+           "WHERE v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA " +
+           "ORDER BY a.apellido, a.nombre, a.idAgente, v.fechaVenta")
+    Stream<Object[]> recorrerVentasPorAgente();
+
+    /**
+     * Obtiene los agentes con al menos una venta entre dos fechas.
+     *
+     * @param desde fecha inicial (incluida)
+     * @param hasta fecha final (incluida)
+     * @return IDs de los agentes
+     */
+    @Query("SELECT DISTINCT v.agente.idAgente FROM Venta v " +
+           "WHERE v.fechaVenta BETWEEN :desde AND :hasta AND v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA")
+    List<Integer> buscarAgentesConVentasEntre(@Param("desde") LocalDate desde,
+                                              @Param("hasta") LocalDate hasta);
+
+    /**
+     * Recorre los precios de las ventas de un agente entre dos fechas
+     * sin cargar las entidades (usa el indice por agente y fecha).
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @param idAgente identificador del agente
+     * @param desde fecha inicial (incluida)
+     * @param hasta fecha final (incluida)
+     * @return cursor sobre los precios finales
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT v.precioFinal FROM Venta v " +
+           "WHERE v.agente.idAgente = :idAgente AND v.fechaVenta BETWEEN :desde AND :hasta " +
+           "AND v.estado = com.inmobiliaria.modelo.EstadoVenta.ACTIVA " +
+           "ORDER BY v.fechaVenta")
+    Stream<BigDecimal> recorrerPreciosDeAgente(@Param("idAgente") Integer idAgente,
+                                               @Param("desde") LocalDate desde,
+                                               @Param("hasta") LocalDate hasta);
 }
@@ -0,0 +1,262 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EstadoAdmision;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Control de admision de la API en dos pasos:
+ *
+ * 1. Limite por cliente (cubo de fichas): cada cliente, identificado por
+ *    su IP, tiene un cubo por clase de ruta (CATALOGO, BUSQUEDA, ESCRITURA
+ *    y GENERAL) con una rafaga maxima y una recarga por segundo. Sin
+ *    fichas se responde 429. Los cubos viven en segmentos LRU de tamano
+ *    fijo: la memoria no crece con la cantidad de clientes distintos y
+ *    un cliente olvidado vuelve con el cubo lleno.
+ *
+ * 2. Limite global adaptativo (LimiteConcurrenciaAdaptativo): si hay mas
+ *    solicitudes en curso que el limite calculado con la latencia
+ *    observada, se descartan con 503. Las escrituras nunca se descartan
+ *    aqui (las protege su compartimento) pero cuentan en la carga; las
+ *    rutas del compartimento MASIVA no entran, ya tienen su propio tope.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class AdmisionServicio {
+
+    /** Clases de ruta con limites por cliente distintos */
+    public enum ClaseRuta { CATALOGO, BUSQUEDA, ESCRITURA, GENERAL }
+
+    private static final int SEGMENTOS = 16;
+
+    /** Limite de cada clase */
+    private final Map<ClaseRuta, Tasa> tasas = new EnumMap<>(ClaseRuta.class);
+
+    private final ReglasRuta rutasCatalogo;
+    private final ReglasRuta rutasBusqueda;
+
+    /** Cubos de fichas por cliente y clase, repartidos en segmentos LRU */
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    /** Limite global de solicitudes simultaneas */
+    private final LimiteConcurrenciaAdaptativo limiteConcurrencia;
+
+    /** Balanceadores propios delante de la aplicacion; 0 ignora X-Forwarded-For */
+    private final int proxiesConfiables;
+
+    private final AtomicLong rechazadasPorCliente = new AtomicLong();
+    private final AtomicLong descartadasPorCarga = new AtomicLong();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param entorno propiedades de cada clase de ruta y del limite adaptativo
+     * @param rutasCatalogo rutas de la clase CATALOGO ("GET /api/lotes")
+     * @param rutasBusqueda rutas de la clase BUSQUEDA ("GET /api/lotes/buscar")
+     * @param clientesMaximos cubos que se guardan en memoria como maximo
+     * @param proxiesConfiables balanceadores propios que agregan su entrada
+     *                          a X-Forwarded-For (0 si no hay ninguno)
+     */
+    public AdmisionServicio(Environment entorno,
+                            @Value("${inmobiliaria.admision.rutas-catalogo:}") List<String> rutasCatalogo,
+                            @Value("${inmobiliaria.admision.rutas-busqueda:}") List<String> rutasBusqueda,
+                            @Value("${inmobiliaria.admision.clientes-maximos:10000}") int clientesMaximos,
+                            @Value("${inmobiliaria.admision.proxies-confiables:0}") int proxiesConfiables) {
+        for (ClaseRuta clase : ClaseRuta.values()) {
+            String prefijo = "inmobiliaria.admision." + clase.name().toLowerCase(Locale.ROOT) + ".";
+            tasas.put(clase, new Tasa(
+                entorno.getProperty(prefijo + "rafaga", Integer.class, 60),
+                entorno.getProperty(prefijo + "por-segundo", Double.class, 10.0)));
+        }
+        this.rutasCatalogo = new ReglasRuta(rutasCatalogo);
+        this.rutasBusqueda = new ReglasRuta(rutasBusqueda);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(Math.max(1, clientesMaximos / SEGMENTOS));
+        }
+        this.limiteConcurrencia = new LimiteConcurrenciaAdaptativo(
+            entorno.getProperty("inmobiliaria.admision.concurrencia.inicial", Integer.class, 20),
+            entorno.getProperty("inmobiliaria.admision.concurrencia.minimo", Integer.class, 5),
+            entorno.getProperty("inmobiliaria.admision.concurrencia.maximo", Integer.class, 200),
+            entorno.getProperty("inmobiliaria.admision.concurrencia.tolerancia", Double.class, 1.5),
+            entorno.getProperty("inmobiliaria.admision.concurrencia.suavizado", Double.class, 0.2));
+        this.proxiesConfiables = Math.max(0, proxiesConfiables);
+    }
+
+    /**
+     * Clasifica una solicitud por metodo y ruta (sin el context path).
+     * BUSQUEDA se revisa antes que CATALOGO porque /api/lotes/{id}
+     * tambien coincide con /api/lotes/buscar.
+     *
+     * @param metodo metodo HTTP
+     * @param ruta ruta de la solicitud
+     * @return clase de la ruta
+     */
+    public ClaseRuta clasificar(String metodo, String ruta) {
+        PathContainer camino = PathContainer.parsePath(ruta);
+        if (rutasBusqueda.coincide(metodo, camino)) {
+            return ClaseRuta.BUSQUEDA;
+        }
+        if (rutasCatalogo.coincide(metodo, camino)) {
+            return ClaseRuta.CATALOGO;
+        }
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+            return ClaseRuta.ESCRITURA;
+        }
+        return ClaseRuta.GENERAL;
+    }
+
+    /**
+     * Identifica al cliente: la IP remota o, detras de balanceadores de
+     * confianza, la IP que agrego el primero de ellos. Cada balanceador
+     * agrega su entrada al final de X-Forwarded-For, asi que se cuenta
+     * desde la derecha: las entradas de la izquierda las escribe el
+     * cliente y no sirven para identificarlo.
+     *
+     * @param direccionRemota IP de la conexion
+     * @param xForwardedFor cabecera X-Forwarded-For o null
+     * @return identificador del cliente
+     */
+    public String identificarCliente(String direccionRemota, String xForwardedFor) {
+        if (proxiesConfiables > 0 && xForwardedFor != null && !xForwardedFor.isBlank()) {
+            String[] saltos = xForwardedFor.split(",");
+            return saltos[Math.max(0, saltos.length - proxiesConfiables)].trim();
+        }
+        return direccionRemota;
+    }
+
+    /**
+     * Consume una ficha del cubo del cliente para la clase de ruta.
+     *
+     * @param cliente identificador del cliente
+     * @param clase clase de la ruta
+     * @param ahoraNanos System.nanoTime() actual
+     * @return 0 si se admite; si no, nanosegundos hasta la proxima ficha
+     */
+    public long consumirFicha(String cliente, ClaseRuta clase, long ahoraNanos) {
+        Tasa tasa = tasas.get(clase);
+        String clave = clase.ordinal() + "|" + cliente;
+        Segmento segmento = segmentos[Math.floorMod(clave.hashCode(), SEGMENTOS)];
+        long espera;
+        synchronized (segmento) {
+            Cubo cubo = segmento.computeIfAbsent(clave, k -> new Cubo(tasa.rafaga(), ahoraNanos));
+            espera = cubo.consumir(tasa, ahoraNanos);
+        }
+        if (espera > 0) {
+            rechazadasPorCliente.incrementAndGet();
+        }
+        return espera;
+    }
+
+    /**
+     * Pide lugar en el limite global adaptativo.
+     *
+     * @param descartable false para las escrituras, que solo cuentan en la carga
+     * @return true si se admite; false si hay que responder 503
+     */
+    public boolean entrar(boolean descartable) {
+        if (!descartable) {
+            limiteConcurrencia.adquirirSiempre();
+            return true;
+        }
+        if (limiteConcurrencia.adquirir()) {
+            return true;
+        }
+        descartadasPorCarga.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Libera el lugar y registra la duracion de la solicitud.
+     *
+     * @param duracionNanos duracion medida; negativa si no se debe medir
+     *                      (por ejemplo, una respuesta asincrona)
+     */
+    public void salir(long duracionNanos) {
+        limiteConcurrencia.liberar(duracionNanos < 0 ? -1 : duracionNanos / 1_000_000.0);
+    }
+
+    /**
+     * Estado del control de admision.
+     *
+     * @return limites, carga y contadores desde el arranque
+     */
+    public EstadoAdmision obtenerEstado() {
+        int cubos = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                cubos += segmento.size();
+            }
+        }
+        return new EstadoAdmision(
+            limiteConcurrencia.getLimite(),
+            limiteConcurrencia.getEnCurso(),
+            limiteConcurrencia.getLatenciaRecienteMs(),
+            limiteConcurrencia.getLatenciaHabitualMs(),
+            cubos,
+            rechazadasPorCliente.get(),
+            descartadasPorCarga.get());
+    }
+
+    /**
+     * Segundos para el Retry-After a partir de la espera en nanosegundos.
+     *
+     * @param esperaNanos espera hasta la proxima ficha
+     * @return segundos redondeados hacia arriba (al menos 1)
+     */
+    public static long segundosReintento(long esperaNanos) {
+        return Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /** Rafaga maxima y recarga de una clase */
+    private record Tasa(int rafaga, double porSegundo) {
+    }
+
+    /** Cubo de fichas; se accede con el bloqueo de su segmento */
+    private static final class Cubo {
+        private double fichas;
+        private long ultimaNanos;
+
+        Cubo(int fichas, long ahoraNanos) {
+            this.fichas = fichas;
+            this.ultimaNanos = ahoraNanos;
+        }
+
+        long consumir(Tasa tasa, long ahoraNanos) {
+            double recargadas = (ahoraNanos - ultimaNanos) / 1e9 * tasa.porSegundo();
+            fichas = Math.min(tasa.rafaga(), fichas + recargadas);
+            ultimaNanos = ahoraNanos;
+            if (fichas >= 1) {
+                fichas -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - fichas) / tasa.porSegundo() * 1e9);
+        }
+    }
+
+    /** Mapa LRU de cubos con tamano maximo */
+    private static final class Segmento extends LinkedHashMap<String, Cubo> {
+        private final int maximo;
+
+        Segmento(int maximo) {
+            super(16, 0.75f, true);
+            this.maximo = maximo;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cubo> mayor) {
+            return size() > maximo;
+        }
+    }
+}
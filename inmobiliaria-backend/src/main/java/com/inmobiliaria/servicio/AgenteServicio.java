@@ -1,11 +1,18 @@
 package com.inmobiliaria.servicio;
 
+import com.inmobiliaria.evento.AgentesModificadosEvento;
 import com.inmobiliaria.modelo.Agente;
 import com.inmobiliaria.repositorio.AgenteRepositorio;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Servicio que implementa la logica de negocio para agentes inmobiliarios.
@@ -16,16 +23,30 @@ import java.util.List;
 @Service
 public class AgenteServicio {
 
+    /** Maximo de ids aceptados en una consulta por lote */
+    public static final int MAXIMO_IDS_POR_CONSULTA = 500;
+
     /** Repositorio para acceder a los datos de agentes */
     private final AgenteRepositorio agenteRepositorio;
 
+    /** Auditoria de los cambios de agentes */
+    private final AuditoriaServicio auditoriaServicio;
+
+    /** Publicador de eventos para avisar a las caches de agentes */
+    private final ApplicationEventPublisher eventos;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param agenteRepositorio repositorio de agentes
+     * @param auditoriaServicio servicio de auditoria
+     * @param eventos publicador de eventos de Spring
      */
-    public AgenteServicio(AgenteRepositorio agenteRepositorio) {
+    public AgenteServicio(AgenteRepositorio agenteRepositorio, AuditoriaServicio auditoriaServicio,
+                          ApplicationEventPublisher eventos) {
         this.agenteRepositorio = agenteRepositorio;
+        this.auditoriaServicio = auditoriaServicio;
+        this.eventos = eventos;
     }
 
     /**
@@ -44,7 +65,11 @@ public class AgenteServicio {
                 "Ya existe un agente con la cedula: " + agente.getCedula());
         }
 
-        return agenteRepositorio.save(agente);
+        Agente agenteGuardado = agenteRepositorio.save(agente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_AGENTE, agenteGuardado.getIdAgente(),
+            AuditoriaServicio.OPERACION_CREAR, null, InstantaneaAuditoria.de(agenteGuardado));
+        eventos.publishEvent(AgentesModificadosEvento.de(agenteGuardado.getIdAgente()));
+        return agenteGuardado;
     }
 
     /**
@@ -71,6 +96,40 @@ public class AgenteServicio {
                 "Agente no encontrado con ID: " + idAgente));
     }
 
+    /**
+     * Busca varios agentes en una sola consulta (IN sobre la llave primaria).
+     * Los ids repetidos o inexistentes se ignoran.
+     *
+     * @param ids IDs de los agentes a buscar
+     * @return mapa id -> agente, en el orden de los ids solicitados
+     * @throws RuntimeException si se piden mas de {@value #MAXIMO_IDS_POR_CONSULTA} ids
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Agente> obtenerAgentesPorIds(Collection<Integer> ids) {
+        Set<Integer> idsUnicos = new LinkedHashSet<>(ids);
+
+        if (idsUnicos.size() > MAXIMO_IDS_POR_CONSULTA) {
+            throw new RuntimeException(
+                "No se pueden consultar mas de " + MAXIMO_IDS_POR_CONSULTA +
+                " agentes a la vez. Solicitados: " + idsUnicos.size());
+        }
+
+        Map<Integer, Agente> encontrados = new LinkedHashMap<>();
+        for (Agente agente : agenteRepositorio.findAllById(idsUnicos)) {
+            encontrados.put(agente.getIdAgente(), agente);
+        }
+
+        /* Reordenar segun el orden de la solicitud */
+        Map<Integer, Agente> resultado = new LinkedHashMap<>();
+        for (Integer id : idsUnicos) {
+            Agente agente = encontrados.get(id);
+            if (agente != null) {
+                resultado.put(id, agente);
+            }
+        }
+        return resultado;
+    }
+
     /**
      * Actualiza los datos de un agente existente.
      *
@@ -83,6 +142,7 @@ public class AgenteServicio {
 
         /* Verificar que el agente existe antes de actualizar */
         Agente agenteExistente = obtenerAgentePorId(idAgente);
+        Map<String, Object> antes = InstantaneaAuditoria.de(agenteExistente);
 
         /* Actualizar los campos del agente */
         agenteExistente.setNombre(datosNuevos.getNombre());
@@ -90,7 +150,11 @@ public class AgenteServicio {
         agenteExistente.setCorreo(datosNuevos.getCorreo());
         agenteExistente.setTelefono(datosNuevos.getTelefono());
 
-        return agenteRepositorio.save(agenteExistente);
+        Agente agenteGuardado = agenteRepositorio.save(agenteExistente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_AGENTE, idAgente,
+            AuditoriaServicio.OPERACION_ACTUALIZAR, antes, InstantaneaAuditoria.de(agenteGuardado));
+        eventos.publishEvent(AgentesModificadosEvento.de(idAgente));
+        return agenteGuardado;
     }
 
     /**
@@ -101,7 +165,11 @@ public class AgenteServicio {
     @Transactional
     public void eliminarAgente(Integer idAgente) {
         Agente agente = obtenerAgentePorId(idAgente);
+        Map<String, Object> antes = InstantaneaAuditoria.de(agente);
         agente.setActivo(false);
         agenteRepositorio.save(agente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_AGENTE, idAgente,
+            AuditoriaServicio.OPERACION_ELIMINAR, antes, InstantaneaAuditoria.de(agente));
+        eventos.publishEvent(AgentesModificadosEvento.de(idAgente));
     }
 }
@@ -0,0 +1,135 @@
+package com.inmobiliaria.servicio;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola circular acotada sin bloqueos para muchos productores y un solo
+ * consumidor. Cada casilla lleva un numero de secuencia que dice si
+ * esta libre para la vuelta actual o ya tiene un elemento publicado:
+ * los productores reservan la posicion con un compareAndSet sobre la
+ * cola y publican escribiendo la secuencia; el consumidor solo lee las
+ * casillas publicadas y las libera para la vuelta siguiente.
+ * La memoria es fija: si la cola esta llena, ofrecer retorna false y
+ * quien produce decide si espera o descarta.
+ *
+ * @param <T> tipo de los elementos
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public final class AnilloMpsc<T> {
+
+    /** Capacidad - 1; la capacidad es potencia de dos */
+    private final int mascara;
+
+    /** Elementos; se publican y liberan a traves de las secuencias */
+    private final Object[] elementos;
+
+    /**
+     * Secuencia de cada casilla: igual a la posicion si esta libre para
+     * esa posicion, posicion + 1 si ya tiene el elemento publicado.
+     */
+    private final AtomicLongArray secuencias;
+
+    /** Siguiente posicion a reservar por los productores */
+    private final AtomicLong cola = new AtomicLong();
+
+    /** Siguiente posicion a consumir; solo la escribe el consumidor */
+    private final AtomicLong cabeza = new AtomicLong();
+
+    /**
+     * Crea la cola con la capacidad indicada.
+     *
+     * @param capacidad cantidad maxima de elementos (potencia de dos)
+     * @throws IllegalArgumentException si la capacidad no es potencia de dos
+     */
+    public AnilloMpsc(int capacidad) {
+        if (capacidad < 2 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de dos: " + capacidad);
+        }
+        this.mascara = capacidad - 1;
+        this.elementos = new Object[capacidad];
+        this.secuencias = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Agrega un elemento si hay espacio. Seguro para varios hilos.
+     *
+     * @param elemento elemento a agregar (no nulo)
+     * @return false si la cola esta llena
+     */
+    public boolean ofrecer(T elemento) {
+        long posicion = cola.get();
+        while (true) {
+            int casilla = (int) posicion & mascara;
+            long diferencia = secuencias.get(casilla) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    elementos[casilla] = elemento;
+                    /* Publica el elemento: el consumidor lo ve al leer la secuencia */
+                    secuencias.set(casilla, posicion + 1);
+                    return true;
+                }
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                /* La casilla sigue ocupada desde la vuelta anterior */
+                return false;
+            } else {
+                /* Otro productor reservo esta posicion */
+                posicion = cola.get();
+            }
+        }
+    }
+
+    /**
+     * Saca hasta maximo elementos en orden de reserva. Solo debe
+     * llamarla el hilo consumidor.
+     *
+     * @param destino lista donde se agregan los elementos
+     * @param maximo cantidad maxima a sacar
+     * @return cantidad de elementos sacados
+     */
+    @SuppressWarnings("unchecked")
+    public int drenar(List<? super T> destino, int maximo) {
+        long posicion = cabeza.get();
+        int sacados = 0;
+        while (sacados < maximo) {
+            int casilla = (int) posicion & mascara;
+            if (secuencias.get(casilla) != posicion + 1) {
+                /* Vacia, o el productor aun no publica esta casilla */
+                break;
+            }
+            destino.add((T) elementos[casilla]);
+            elementos[casilla] = null;
+            /* Libera la casilla para la siguiente vuelta */
+            secuencias.set(casilla, posicion + mascara + 1);
+            posicion++;
+            sacados++;
+        }
+        cabeza.set(posicion);
+        return sacados;
+    }
+
+    /**
+     * Cantidad aproximada de elementos en la cola.
+     *
+     * @return elementos reservados y aun no consumidos
+     */
+    public int tamano() {
+        return (int) Math.max(0, cola.get() - cabeza.get());
+    }
+
+    /**
+     * Capacidad de la cola.
+     *
+     * @return cantidad maxima de elementos
+     */
+    public int capacidad() {
+        return mascara + 1;
+    }
+}
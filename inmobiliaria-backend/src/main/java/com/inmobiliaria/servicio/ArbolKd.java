@@ -0,0 +1,275 @@
+package com.inmobiliaria.servicio;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Arbol KD de dos dimensiones sobre arreglos primitivos para buscar los
+ * k vecinos mas cercanos de un punto.
+ * El arbol es implicito: en cada tramo [desde, hasta) el elemento del
+ * medio es el nodo y las mitades son sus subarboles, alternando el eje.
+ * Las eliminaciones solo marcan el punto como inactivo y las inserciones
+ * van a un bufer que se recorre completo en cada busqueda; cuando el
+ * bufer o los inactivos crecen demasiado se reconstruye el arbol.
+ * No es seguro para hilos: quien lo use debe sincronizar el acceso.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public class ArbolKd {
+
+    /**
+     * Vecino encontrado.
+     *
+     * @param id identificador del punto
+     * @param distancia distancia euclidiana al punto consultado
+     */
+    public record Vecino(int id, double distancia) {
+    }
+
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int[] ids = new int[0];
+    private boolean[] activos = new boolean[0];
+    private int inactivos;
+
+    private double[] bx = new double[16];
+    private double[] by = new double[16];
+    private int[] bIds = new int[16];
+    private int enBufer;
+
+    /** Posicion de cada id: >= 0 en el arbol, -(i + 1) en el bufer */
+    private final Map<Integer, Integer> posiciones = new HashMap<>();
+
+    /**
+     * Agrega un punto o mueve uno existente.
+     *
+     * @param id identificador del punto
+     * @param x primera coordenada
+     * @param y segunda coordenada
+     */
+    public void agregar(int id, double x, double y) {
+        quitar(id);
+        if (enBufer == bIds.length) {
+            bx = Arrays.copyOf(bx, enBufer * 2);
+            by = Arrays.copyOf(by, enBufer * 2);
+            bIds = Arrays.copyOf(bIds, enBufer * 2);
+        }
+        bx[enBufer] = x;
+        by[enBufer] = y;
+        bIds[enBufer] = id;
+        posiciones.put(id, -(enBufer + 1));
+        enBufer++;
+        if (enBufer > 32 + ids.length / 8) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Quita un punto si existe.
+     *
+     * @param id identificador del punto
+     */
+    public void quitar(int id) {
+        Integer posicion = posiciones.remove(id);
+        if (posicion == null) {
+            return;
+        }
+        if (posicion >= 0) {
+            activos[posicion] = false;
+            inactivos++;
+            if (inactivos > 32 && inactivos > ids.length / 2) {
+                reconstruir();
+            }
+        } else {
+            int i = -posicion - 1;
+            int ultimo = --enBufer;
+            if (i != ultimo) {
+                bx[i] = bx[ultimo];
+                by[i] = by[ultimo];
+                bIds[i] = bIds[ultimo];
+                posiciones.put(bIds[i], -(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Cantidad de puntos activos.
+     *
+     * @return puntos en el indice
+     */
+    public int tamano() {
+        return posiciones.size();
+    }
+
+    /**
+     * Busca los k puntos mas cercanos.
+     *
+     * @param x primera coordenada de la consulta
+     * @param y segunda coordenada de la consulta
+     * @param k cantidad de vecinos
+     * @param excluido id que no se debe retornar (el propio punto) o -1
+     * @return vecinos del mas cercano al mas lejano
+     */
+    public Vecino[] buscar(double x, double y, int k, int excluido) {
+        if (k <= 0) {
+            return new Vecino[0];
+        }
+        Busqueda busqueda = new Busqueda(x, y, k, excluido);
+        busqueda.recorrer(0, ids.length, 0);
+        for (int i = 0; i < enBufer; i++) {
+            if (bIds[i] != excluido) {
+                busqueda.considerar(bIds[i], bx[i], by[i]);
+            }
+        }
+        Vecino[] vecinos = new Vecino[busqueda.cantidad];
+        for (int i = 0; i < busqueda.cantidad; i++) {
+            vecinos[i] = new Vecino(busqueda.mejoresIds[i], Math.sqrt(busqueda.mejoresDist[i]));
+        }
+        return vecinos;
+    }
+
+    /** Estado de una busqueda: los k mejores ordenados por distancia */
+    private final class Busqueda {
+        private final double x;
+        private final double y;
+        private final int excluido;
+        private final double[] mejoresDist;
+        private final int[] mejoresIds;
+        private int cantidad;
+
+        private Busqueda(double x, double y, int k, int excluido) {
+            this.x = x;
+            this.y = y;
+            this.excluido = excluido;
+            this.mejoresDist = new double[k];
+            this.mejoresIds = new int[k];
+        }
+
+        private void recorrer(int desde, int hasta, int eje) {
+            if (desde >= hasta) {
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            if (activos[medio] && ids[medio] != excluido) {
+                considerar(ids[medio], xs[medio], ys[medio]);
+            }
+            double diferencia = eje == 0 ? x - xs[medio] : y - ys[medio];
+            if (diferencia < 0) {
+                recorrer(desde, medio, 1 - eje);
+                if (cantidad < mejoresDist.length || diferencia * diferencia < mejoresDist[cantidad - 1]) {
+                    recorrer(medio + 1, hasta, 1 - eje);
+                }
+            } else {
+                recorrer(medio + 1, hasta, 1 - eje);
+                if (cantidad < mejoresDist.length || diferencia * diferencia < mejoresDist[cantidad - 1]) {
+                    recorrer(desde, medio, 1 - eje);
+                }
+            }
+        }
+
+        private void considerar(int id, double px, double py) {
+            double dx = px - x;
+            double dy = py - y;
+            double distancia = dx * dx + dy * dy;
+            if (cantidad == mejoresDist.length && distancia >= mejoresDist[cantidad - 1]) {
+                return;
+            }
+            /* Insercion ordenada: k es pequeno */
+            int i = cantidad < mejoresDist.length ? cantidad++ : cantidad - 1;
+            while (i > 0 && mejoresDist[i - 1] > distancia) {
+                mejoresDist[i] = mejoresDist[i - 1];
+                mejoresIds[i] = mejoresIds[i - 1];
+                i--;
+            }
+            mejoresDist[i] = distancia;
+            mejoresIds[i] = id;
+        }
+    }
+
+    /** Reune los puntos activos del arbol y del bufer y arma un arbol nuevo */
+    private void reconstruir() {
+        int total = posiciones.size();
+        double[] nx = new double[total];
+        double[] ny = new double[total];
+        int[] nIds = new int[total];
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (activos[i]) {
+                nx[n] = xs[i];
+                ny[n] = ys[i];
+                nIds[n++] = ids[i];
+            }
+        }
+        for (int i = 0; i < enBufer; i++) {
+            nx[n] = bx[i];
+            ny[n] = by[i];
+            nIds[n++] = bIds[i];
+        }
+
+        xs = nx;
+        ys = ny;
+        ids = nIds;
+        activos = new boolean[total];
+        Arrays.fill(activos, true);
+        inactivos = 0;
+        enBufer = 0;
+
+        construir(0, total, 0);
+        for (int i = 0; i < total; i++) {
+            posiciones.put(ids[i], i);
+        }
+    }
+
+    /** Ubica la mediana del tramo en el medio y repite en cada mitad */
+    private void construir(int desde, int hasta, int eje) {
+        if (hasta - desde <= 1) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        seleccionar(desde, hasta - 1, medio, eje);
+        construir(desde, medio, 1 - eje);
+        construir(medio + 1, hasta, 1 - eje);
+    }
+
+    /** Quickselect: deja en k el elemento que ocuparia esa posicion ordenado por el eje */
+    private void seleccionar(int izquierda, int derecha, int k, int eje) {
+        double[] valores = eje == 0 ? xs : ys;
+        while (izquierda < derecha) {
+            double pivote = valores[(izquierda + derecha) >>> 1];
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (valores[i] < pivote) {
+                    i++;
+                }
+                while (valores[j] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    intercambiar(i++, j--);
+                }
+            }
+            if (k <= j) {
+                derecha = j;
+            } else if (k >= i) {
+                izquierda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        double tx = xs[a];
+        xs[a] = xs[b];
+        xs[b] = tx;
+        double ty = ys[a];
+        ys[a] = ys[b];
+        ys[b] = ty;
+        int ti = ids[a];
+        ids[a] = ids[b];
+        ids[b] = ti;
+    }
+}
@@ -0,0 +1,346 @@
+package com.inmobiliaria.servicio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Formato columnar comprimido para archivar las ventas de un mes.
+ * Cada columna se guarda en un bloque comprimido (deflate) propio y el
+ * encabezado indica donde empieza cada bloque, de modo que una consulta
+ * solo lee y descomprime las columnas que usa.
+ *
+ * Estructura: magic "VCOL", version, filas, columnas, y por columna
+ * (posicion, longitud) del bloque; despues los bloques. Los enteros se
+ * guardan con DataOutputStream (big endian), la fecha como dia epoch,
+ * el precio en centavos y los textos como longitud UTF-8 (-1 = null)
+ * seguida de los bytes.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public final class ArchivoColumnarVentas {
+
+    /** Columna: ID de la venta (int) */
+    public static final int ID_VENTA = 0;
+
+    /** Columna: ID del cliente (int) */
+    public static final int ID_CLIENTE = 1;
+
+    /** Columna: ID del lote (int) */
+    public static final int ID_LOTE = 2;
+
+    /** Columna: ID del agente (int) */
+    public static final int ID_AGENTE = 3;
+
+    /** Columna: fecha de la venta como dia epoch (int) */
+    public static final int FECHA_VENTA = 4;
+
+    /** Columna: precio final en centavos (long) */
+    public static final int PRECIO_CENT = 5;
+
+    /** Columna: codigo de la forma de pago (short) */
+    public static final int FORMA_PAGO = 6;
+
+    /** Columna: observaciones (texto, puede ser null) */
+    public static final int OBSERVACIONES = 7;
+
+    /** Columna: codigo del estado de la venta (short) */
+    public static final int ESTADO = 8;
+
+    private static final int MAGIC = 0x56434F4C;
+    private static final int VERSION = 1;
+    private static final int COLUMNAS = 9;
+    private static final int TAMANO_ENCABEZADO = 16 + COLUMNAS * 12;
+
+    /**
+     * Ventas de un mes en arreglos paralelos, una posicion por venta.
+     */
+    public record Ventas(int[] idVenta, int[] idCliente, int[] idLote, int[] idAgente,
+                         int[] fechaEpochDia, long[] precioCent, short[] formaPago,
+                         String[] observaciones, short[] estado) {
+
+        /**
+         * Cantidad de ventas.
+         *
+         * @return filas del bloque
+         */
+        public int filas() {
+            return idVenta.length;
+        }
+    }
+
+    private ArchivoColumnarVentas() {
+    }
+
+    /**
+     * Escribe el archivo completo en un temporal y lo mueve al destino,
+     * para que un lector nunca vea un archivo a medias.
+     *
+     * @param destino archivo final
+     * @param ventas ventas a guardar
+     * @throws IOException si falla la escritura
+     */
+    public static void escribir(Path destino, Ventas ventas) throws IOException {
+        int filas = ventas.filas();
+        byte[][] bloques = new byte[COLUMNAS][];
+        bloques[ID_VENTA] = comprimir(salida -> escribirEnteros(salida, ventas.idVenta()));
+        bloques[ID_CLIENTE] = comprimir(salida -> escribirEnteros(salida, ventas.idCliente()));
+        bloques[ID_LOTE] = comprimir(salida -> escribirEnteros(salida, ventas.idLote()));
+        bloques[ID_AGENTE] = comprimir(salida -> escribirEnteros(salida, ventas.idAgente()));
+        bloques[FECHA_VENTA] = comprimir(salida -> escribirEnteros(salida, ventas.fechaEpochDia()));
+        bloques[PRECIO_CENT] = comprimir(salida -> {
+            for (long valor : ventas.precioCent()) {
+                salida.writeLong(valor);
+            }
+        });
+        bloques[FORMA_PAGO] = comprimir(salida -> escribirCortos(salida, ventas.formaPago()));
+        bloques[OBSERVACIONES] = comprimir(salida -> {
+            for (String valor : ventas.observaciones()) {
+                if (valor == null) {
+                    salida.writeInt(-1);
+                } else {
+                    byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+                    salida.writeInt(bytes.length);
+                    salida.write(bytes);
+                }
+            }
+        });
+        bloques[ESTADO] = comprimir(salida -> escribirCortos(salida, ventas.estado()));
+
+        Files.createDirectories(destino.toAbsolutePath().getParent());
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporal)))) {
+            salida.writeInt(MAGIC);
+            salida.writeInt(VERSION);
+            salida.writeInt(filas);
+            salida.writeInt(COLUMNAS);
+            long posicion = TAMANO_ENCABEZADO;
+            for (byte[] bloque : bloques) {
+                salida.writeLong(posicion);
+                salida.writeInt(bloque.length);
+                posicion += bloque.length;
+            }
+            for (byte[] bloque : bloques) {
+                salida.write(bloque);
+            }
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Cantidad de ventas del archivo (solo lee el encabezado).
+     *
+     * @param archivo archivo columnar
+     * @return filas
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static int filas(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return encabezado(canal, archivo).getInt(8);
+        }
+    }
+
+    /**
+     * Lee una columna de enteros.
+     *
+     * @param archivo archivo columnar
+     * @param columna ID_VENTA, ID_CLIENTE, ID_LOTE, ID_AGENTE o FECHA_VENTA
+     * @return valores de la columna
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static int[] leerEnteros(Path archivo, int columna) throws IOException {
+        return leer(archivo, columna, (entrada, filas) -> {
+            int[] valores = new int[filas];
+            for (int i = 0; i < filas; i++) {
+                valores[i] = entrada.readInt();
+            }
+            return valores;
+        });
+    }
+
+    /**
+     * Lee la columna de precios en centavos.
+     *
+     * @param archivo archivo columnar
+     * @return precios de las ventas
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static long[] leerPrecios(Path archivo) throws IOException {
+        return leer(archivo, PRECIO_CENT, (entrada, filas) -> {
+            long[] valores = new long[filas];
+            for (int i = 0; i < filas; i++) {
+                valores[i] = entrada.readLong();
+            }
+            return valores;
+        });
+    }
+
+    /**
+     * Lee la columna de codigos de forma de pago.
+     *
+     * @param archivo archivo columnar
+     * @return codigos de forma de pago
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static short[] leerFormasPago(Path archivo) throws IOException {
+        return leer(archivo, FORMA_PAGO, ArchivoColumnarVentas::leerCortos);
+    }
+
+    /**
+     * Lee la columna de codigos de estado de la venta.
+     *
+     * @param archivo archivo columnar
+     * @return codigos de estado (ver EstadoVenta)
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static short[] leerEstados(Path archivo) throws IOException {
+        return leer(archivo, ESTADO, ArchivoColumnarVentas::leerCortos);
+    }
+
+    /**
+     * Lee la columna de observaciones.
+     *
+     * @param archivo archivo columnar
+     * @return observaciones (null donde no habia)
+     * @throws IOException si el archivo no se puede leer o no es valido
+     */
+    public static String[] leerObservaciones(Path archivo) throws IOException {
+        return leer(archivo, OBSERVACIONES, (entrada, filas) -> {
+            String[] valores = new String[filas];
+            for (int i = 0; i < filas; i++) {
+                int longitud = entrada.readInt();
+                if (longitud >= 0) {
+                    valores[i] = new String(entrada.readNBytes(longitud), StandardCharsets.UTF_8);
+                }
+            }
+            return valores;
+        });
+    }
+
+    /** Escribe un bloque en una salida de datos */
+    @FunctionalInterface
+    private interface EscritorBloque {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+
+    /** Decodifica un bloque ya descomprimido */
+    @FunctionalInterface
+    private interface LectorBloque<T> {
+        T leer(DataInputStream entrada, int filas) throws IOException;
+    }
+
+    private static byte[] comprimir(EscritorBloque escritor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(bytes, deflater), 64 * 1024))) {
+            escritor.escribir(salida);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void escribirEnteros(DataOutputStream salida, int[] valores) throws IOException {
+        for (int valor : valores) {
+            salida.writeInt(valor);
+        }
+    }
+
+    private static void escribirCortos(DataOutputStream salida, short[] valores) throws IOException {
+        for (short valor : valores) {
+            salida.writeShort(valor);
+        }
+    }
+
+    private static short[] leerCortos(DataInputStream entrada, int filas) throws IOException {
+        short[] valores = new short[filas];
+        for (int i = 0; i < filas; i++) {
+            valores[i] = entrada.readShort();
+        }
+        return valores;
+    }
+
+    /** Ubica el bloque de la columna en el encabezado y lo descomprime */
+    private static <T> T leer(Path archivo, int columna, LectorBloque<T> lector) throws IOException {
+        if (columna < 0 || columna >= COLUMNAS) {
+            throw new IllegalArgumentException("Columna no valida: " + columna);
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer encabezado = encabezado(canal, archivo);
+            int filas = encabezado.getInt(8);
+            long posicion = encabezado.getLong(16 + columna * 12);
+            int longitud = encabezado.getInt(16 + columna * 12 + 8);
+
+            InputStream bloque = new LimiteEntrada(Channels.newInputStream(canal.position(posicion)), longitud);
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(bloque), 64 * 1024))) {
+                return lector.leer(entrada, filas);
+            }
+        }
+    }
+
+    private static ByteBuffer encabezado(FileChannel canal, Path archivo) throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMANO_ENCABEZADO);
+        while (encabezado.hasRemaining() && canal.read(encabezado) >= 0) {
+            /* leer hasta completar el encabezado */
+        }
+        if (encabezado.hasRemaining() || encabezado.getInt(0) != MAGIC
+                || encabezado.getInt(4) != VERSION || encabezado.getInt(12) != COLUMNAS) {
+            throw new IOException("No es un archivo columnar de ventas valido: " + archivo);
+        }
+        return encabezado;
+    }
+
+    /** Entrada que no lee mas alla de la longitud del bloque */
+    private static final class LimiteEntrada extends InputStream {
+        private final InputStream entrada;
+        private long restantes;
+
+        private LimiteEntrada(InputStream entrada, long longitud) {
+            this.entrada = entrada;
+            this.restantes = longitud;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (restantes <= 0) {
+                return -1;
+            }
+            int valor = entrada.read();
+            if (valor >= 0) {
+                restantes--;
+            }
+            return valor;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            if (restantes <= 0) {
+                return -1;
+            }
+            int leidos = entrada.read(destino, desde, (int) Math.min(cantidad, restantes));
+            if (leidos > 0) {
+                restantes -= leidos;
+            }
+            return leidos;
+        }
+    }
+}
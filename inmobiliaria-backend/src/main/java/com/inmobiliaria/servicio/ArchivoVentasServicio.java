@@ -0,0 +1,185 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.VentasArchivadasAgente;
+import com.inmobiliaria.dto.VentasArchivadasMes;
+import com.inmobiliaria.modelo.EstadoVenta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Lectura analitica de las ventas archivadas: los meses que salieron de
+ * la tabla ventas se guardan en archivos columnares (uno por mes, ver
+ * ArchivoColumnarVentas) y los resumenes solo leen las columnas que
+ * necesitan, sin tocar la base de datos. Las ventas canceladas se
+ * archivan pero no cuentan en los resumenes.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class ArchivoVentasServicio {
+
+    private static final String PREFIJO = "ventas-";
+    private static final String EXTENSION = ".vcol";
+
+    /** Codigo de EstadoVenta.ACTIVA en la columna de estado */
+    private static final short ACTIVA = EstadoVenta.ACTIVA.codigo();
+
+    /** Carpeta de los archivos columnares */
+    private final Path directorio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param directorio carpeta de los archivos columnares
+     */
+    public ArchivoVentasServicio(@Value("${inmobiliaria.ventas.archivo.directorio}") String directorio) {
+        this.directorio = Paths.get(directorio);
+        try {
+            Files.createDirectories(this.directorio);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                "No se pudo crear el directorio del archivo de ventas: " + directorio, e);
+        }
+    }
+
+    /**
+     * Archivo columnar de un mes (exista o no).
+     *
+     * @param mes mes de las ventas
+     * @return ruta del archivo
+     */
+    public Path archivoDeMes(YearMonth mes) {
+        return directorio.resolve(PREFIJO + mes + EXTENSION);
+    }
+
+    /**
+     * Meses archivados en orden.
+     *
+     * @return meses con archivo columnar
+     */
+    public List<YearMonth> obtenerMesesArchivados() {
+        TreeSet<YearMonth> meses = new TreeSet<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*" + EXTENSION)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                try {
+                    meses.add(YearMonth.parse(
+                        nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length())));
+                } catch (DateTimeParseException e) {
+                    /* Archivo ajeno con un nombre parecido */
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo listar el archivo de ventas", e);
+        }
+        return new ArrayList<>(meses);
+    }
+
+    /**
+     * Cantidad y total vendido de cada mes archivado en el rango.
+     *
+     * @param desde primer mes o null para el primero archivado
+     * @param hasta ultimo mes o null para el ultimo archivado
+     * @return resumen por mes en orden
+     */
+    public List<VentasArchivadasMes> resumirPorMes(YearMonth desde, YearMonth hasta) {
+        List<VentasArchivadasMes> resumen = new ArrayList<>();
+        for (YearMonth mes : mesesEnRango(desde, hasta)) {
+            long[] precios = leerPrecios(mes);
+            short[] estados = leerEstados(mes);
+            long cantidad = 0;
+            long totalCent = 0;
+            for (int i = 0; i < precios.length; i++) {
+                if (estados[i] == ACTIVA) {
+                    cantidad++;
+                    totalCent += precios[i];
+                }
+            }
+            resumen.add(new VentasArchivadasMes(mes, cantidad, BigDecimal.valueOf(totalCent, 2)));
+        }
+        return resumen;
+    }
+
+    /**
+     * Cantidad y total vendido de cada agente en los meses archivados del
+     * rango. Solo lee las columnas de agente, precio y estado.
+     *
+     * @param desde primer mes o null para el primero archivado
+     * @param hasta ultimo mes o null para el ultimo archivado
+     * @return resumen por agente, mayor total primero
+     */
+    public List<VentasArchivadasAgente> resumirPorAgente(YearMonth desde, YearMonth hasta) {
+        /* {cantidad, total en centavos} por agente */
+        Map<Integer, long[]> porAgente = new HashMap<>();
+        for (YearMonth mes : mesesEnRango(desde, hasta)) {
+            int[] agentes;
+            try {
+                agentes = ArchivoColumnarVentas.leerEnteros(archivoDeMes(mes), ArchivoColumnarVentas.ID_AGENTE);
+            } catch (IOException e) {
+                throw new RuntimeException("No se pudo leer el archivo de ventas de " + mes, e);
+            }
+            long[] precios = leerPrecios(mes);
+            short[] estados = leerEstados(mes);
+            for (int i = 0; i < agentes.length; i++) {
+                if (estados[i] != ACTIVA) {
+                    continue;
+                }
+                long[] acumulado = porAgente.computeIfAbsent(agentes[i], id -> new long[2]);
+                acumulado[0]++;
+                acumulado[1] += precios[i];
+            }
+        }
+
+        List<VentasArchivadasAgente> resumen = new ArrayList<>(porAgente.size());
+        porAgente.forEach((idAgente, acumulado) -> resumen.add(
+            new VentasArchivadasAgente(idAgente, acumulado[0], BigDecimal.valueOf(acumulado[1], 2))));
+        resumen.sort(Comparator.comparing(VentasArchivadasAgente::totalVendido).reversed()
+            .thenComparing(VentasArchivadasAgente::idAgente));
+        return resumen;
+    }
+
+    private List<YearMonth> mesesEnRango(YearMonth desde, YearMonth hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new RuntimeException("El mes inicial no puede ser posterior al final");
+        }
+        List<YearMonth> meses = new ArrayList<>();
+        for (YearMonth mes : obtenerMesesArchivados()) {
+            if ((desde == null || !mes.isBefore(desde)) && (hasta == null || !mes.isAfter(hasta))) {
+                meses.add(mes);
+            }
+        }
+        return meses;
+    }
+
+    private long[] leerPrecios(YearMonth mes) {
+        try {
+            return ArchivoColumnarVentas.leerPrecios(archivoDeMes(mes));
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo de ventas de " + mes, e);
+        }
+    }
+
+    private short[] leerEstados(YearMonth mes) {
+        try {
+            return ArchivoColumnarVentas.leerEstados(archivoDeMes(mes));
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo de ventas de " + mes, e);
+        }
+    }
+}
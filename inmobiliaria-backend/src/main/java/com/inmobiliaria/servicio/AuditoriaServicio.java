@@ -0,0 +1,337 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EstadoAuditoria;
+import com.inmobiliaria.dto.RegistroAuditoria;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Auditoria asincrona de los cambios sobre lotes, clientes, agentes y
+ * ventas. Los servicios pasan la instantanea anterior y posterior de la
+ * entidad (InstantaneaAuditoria); aqui se calcula la diferencia y, al
+ * confirmar la transaccion, el registro entra a una cola circular de
+ * memoria fija. Un hilo escritor la vacia en lotes JDBC sobre la tabla
+ * auditoria, asi la escritura no suma latencia a la operacion.
+ *
+ * Politica con la cola llena: quien registra espera hasta
+ * inmobiliaria.auditoria.espera-maxima-ms (0 = nada) a que el escritor
+ * libere espacio y, si no lo hay, el registro se descarta y se cuenta.
+ * Un lote que falla al escribirse tambien se descarta y se cuenta.
+ * Los descartes se informan en el log y en GET /api/auditoria/estado.
+ * Los registros aun en cola se pierden si el proceso termina de golpe;
+ * en un cierre ordenado el escritor vacia la cola antes de terminar.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class AuditoriaServicio {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaServicio.class);
+
+    /** Cabecera con el usuario que hace la solicitud */
+    public static final String CABECERA_USUARIO = "X-Usuario";
+
+    /** Maximo de registros por consulta */
+    public static final int MAXIMO_REGISTROS = 500;
+
+    /** Entidades auditadas */
+    public static final String ENTIDAD_LOTE = "Lote";
+    public static final String ENTIDAD_CLIENTE = "Cliente";
+    public static final String ENTIDAD_AGENTE = "Agente";
+    public static final String ENTIDAD_VENTA = "Venta";
+
+    /** Operaciones auditadas */
+    public static final String OPERACION_CREAR = "CREAR";
+    public static final String OPERACION_ACTUALIZAR = "ACTUALIZAR";
+    public static final String OPERACION_CAMBIAR_ESTADO = "CAMBIAR_ESTADO";
+    public static final String OPERACION_ELIMINAR = "ELIMINAR";
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO auditoria (fecha, usuario, entidad, id_entidad, operacion, cambios) " +
+        "VALUES (?, ?, ?, ?, ?, ?::jsonb)";
+
+    private static final TypeReference<Map<String, Map<String, Object>>> TIPO_CAMBIOS =
+        new TypeReference<>() { };
+
+    /** Acceso JDBC para escribir y consultar la auditoria */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Serializa los cambios a JSON */
+    private final JsonMapper jsonMapper;
+
+    /** Cola de registros confirmados pendientes de escribir */
+    private final AnilloMpsc<RegistroAuditoria> anillo;
+
+    /** Registros por lote JDBC */
+    private final int tamanoLote;
+
+    /** Espera del escritor cuando la cola esta vacia */
+    private final long esperaNanos;
+
+    /** Espera maxima de quien registra con la cola llena */
+    private final long esperaMaximaNanos;
+
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+
+    /** Descartados ya informados en el log */
+    private long descartadosInformados;
+
+    private volatile boolean activo = true;
+    private Thread escritor;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param jdbcTemplate acceso JDBC
+     * @param jsonMapper serializador JSON de la aplicacion
+     * @param capacidad registros en memoria (potencia de dos)
+     * @param tamanoLote registros por lote JDBC
+     * @param esperaMs espera del escritor con la cola vacia
+     * @param esperaMaximaMs espera de quien registra con la cola llena
+     */
+    public AuditoriaServicio(JdbcTemplate jdbcTemplate,
+                             JsonMapper jsonMapper,
+                             @Value("${inmobiliaria.auditoria.capacidad:8192}") int capacidad,
+                             @Value("${inmobiliaria.auditoria.tamano-lote:500}") int tamanoLote,
+                             @Value("${inmobiliaria.auditoria.espera-ms:200}") long esperaMs,
+                             @Value("${inmobiliaria.auditoria.espera-maxima-ms:0}") long esperaMaximaMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.anillo = new AnilloMpsc<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+    }
+
+    /**
+     * Inicia el hilo escritor.
+     */
+    @PostConstruct
+    public void iniciar() {
+        escritor = new Thread(this::escribirPendientes, "auditoria-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Detiene el escritor despues de vaciar la cola.
+     */
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Registra un cambio sobre una entidad. Si hay una transaccion activa
+     * el registro se encola al confirmarla (y se olvida si se revierte);
+     * si no, se encola de inmediato. Sin campos cambiados no se registra.
+     *
+     * @param entidad Lote, Cliente, Agente o Venta
+     * @param idEntidad ID de la entidad
+     * @param operacion nombre de la operacion
+     * @param antes instantanea previa o null en un alta
+     * @param despues instantanea posterior o null en una baja
+     */
+    public void registrar(String entidad, Object idEntidad, String operacion,
+                          Map<String, Object> antes, Map<String, Object> despues) {
+        Map<String, Map<String, Object>> cambios = InstantaneaAuditoria.diferencias(antes, despues);
+        if (cambios.isEmpty()) {
+            return;
+        }
+        RegistroAuditoria registro = new RegistroAuditoria(
+            null, null, usuarioActual(), entidad, String.valueOf(idEntidad), operacion, cambios);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            encolar(List.of(registro));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<RegistroAuditoria> pendientes =
+            (List<RegistroAuditoria>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<RegistroAuditoria> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditoriaServicio.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.add(registro);
+    }
+
+    /**
+     * Ultimos registros de auditoria, opcionalmente de una entidad.
+     *
+     * @param entidad Lote, Cliente, Agente, Venta o null para todas
+     * @param idEntidad ID de la entidad o null para todas (solo con entidad)
+     * @param limite cantidad de registros (1 a 500)
+     * @return registros del mas reciente al mas antiguo
+     * @throws RuntimeException si el limite no es valido
+     */
+    public List<RegistroAuditoria> consultar(String entidad, String idEntidad, int limite) {
+        if (limite < 1 || limite > MAXIMO_REGISTROS) {
+            throw new RuntimeException("El limite debe estar entre 1 y " + MAXIMO_REGISTROS);
+        }
+        /* Una consulta por combinacion de filtros para que use idx_auditoria_entidad */
+        List<Object> parametros = new ArrayList<>(3);
+        StringBuilder sql = new StringBuilder(
+            "SELECT id_registro, fecha, usuario, entidad, id_entidad, operacion, cambios::text FROM auditoria ");
+        if (entidad != null) {
+            sql.append("WHERE entidad = ? ");
+            parametros.add(entidad);
+            if (idEntidad != null) {
+                sql.append("AND id_entidad = ? ");
+                parametros.add(idEntidad);
+            }
+        }
+        sql.append("ORDER BY id_registro DESC LIMIT ?");
+        parametros.add(limite);
+
+        return jdbcTemplate.query(sql.toString(),
+            (rs, n) -> new RegistroAuditoria(
+                rs.getLong(1),
+                rs.getObject(2, LocalDateTime.class),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                jsonMapper.readValue(rs.getString(7), TIPO_CAMBIOS)),
+            parametros.toArray());
+    }
+
+    /**
+     * Estado de la cola y contadores desde el arranque.
+     *
+     * @return capacidad, pendientes, escritos y descartados
+     */
+    public EstadoAuditoria obtenerEstado() {
+        return new EstadoAuditoria(anillo.capacidad(), anillo.tamano(), escritos.get(), descartados.get());
+    }
+
+    /** Pone la fecha de confirmacion y agrega los registros a la cola */
+    private void encolar(List<RegistroAuditoria> registros) {
+        LocalDateTime fecha = LocalDateTime.now();
+        for (RegistroAuditoria registro : registros) {
+            RegistroAuditoria confirmado = new RegistroAuditoria(null, fecha, registro.usuario(),
+                registro.entidad(), registro.idEntidad(), registro.operacion(), registro.cambios());
+            if (!anillo.ofrecer(confirmado) && !esperarEspacio(confirmado)) {
+                descartados.incrementAndGet();
+            }
+        }
+        if (anillo.tamano() >= tamanoLote) {
+            LockSupport.unpark(escritor);
+        }
+    }
+
+    /** Con la cola llena despierta al escritor y reintenta hasta la espera maxima */
+    private boolean esperarEspacio(RegistroAuditoria registro) {
+        if (esperaMaximaNanos <= 0) {
+            return false;
+        }
+        long limite = System.nanoTime() + esperaMaximaNanos;
+        do {
+            LockSupport.unpark(escritor);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (anillo.ofrecer(registro)) {
+                return true;
+            }
+        } while (System.nanoTime() - limite < 0);
+        return false;
+    }
+
+    /** Bucle del hilo escritor: vacia la cola en lotes hasta que se detiene */
+    private void escribirPendientes() {
+        List<RegistroAuditoria> lote = new ArrayList<>(tamanoLote);
+        while (true) {
+            lote.clear();
+            if (anillo.drenar(lote, tamanoLote) == 0) {
+                if (!activo) {
+                    return;
+                }
+                informarDescartes();
+                LockSupport.parkNanos(this, esperaNanos);
+                continue;
+            }
+            escribir(lote);
+        }
+    }
+
+    private void escribir(List<RegistroAuditoria> lote) {
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, lote, lote.size(), (ps, registro) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(registro.fecha()));
+                ps.setString(2, registro.usuario());
+                ps.setString(3, registro.entidad());
+                ps.setString(4, registro.idEntidad());
+                ps.setString(5, registro.operacion());
+                ps.setString(6, jsonMapper.writeValueAsString(registro.cambios()));
+            });
+            escritos.addAndGet(lote.size());
+        } catch (RuntimeException e) {
+            descartados.addAndGet(lote.size());
+            log.error("No se pudieron escribir {} registros de auditoria", lote.size(), e);
+        }
+    }
+
+    private void informarDescartes() {
+        long total = descartados.get();
+        if (total != descartadosInformados) {
+            log.warn("Auditoria: {} registros descartados (total desde el arranque: {})",
+                total - descartadosInformados, total);
+            descartadosInformados = total;
+        }
+    }
+
+    /** Usuario de la solicitud en curso; "sistema" en tareas programadas */
+    private static String usuarioActual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes servlet)) {
+            return "sistema";
+        }
+        HttpServletRequest solicitud = servlet.getRequest();
+        String usuario = solicitud.getHeader(CABECERA_USUARIO);
+        if (usuario == null || usuario.isBlank()) {
+            return "anonimo";
+        }
+        usuario = usuario.trim();
+        return usuario.length() > 100 ? usuario.substring(0, 100) : usuario;
+    }
+}
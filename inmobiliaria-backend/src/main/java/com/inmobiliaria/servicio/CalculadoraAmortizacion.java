@@ -0,0 +1,144 @@
+package com.inmobiliaria.servicio;
+
+import java.time.LocalDate;
+
+/**
+ * Calculos de amortizacion con cuota fija (sistema frances) en aritmetica
+ * de punto fijo: montos en centavos (long) y tasas en partes por millon
+ * (15000 ppm = 1.5% mensual). Los metodos no crean objetos, por eso el
+ * calculo masivo de mora puede recorrer miles de creditos sin presion
+ * sobre el recolector de basura.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public final class CalculadoraAmortizacion {
+
+    /** Denominador de las tasas expresadas en partes por millon */
+    public static final long PPM = 1_000_000L;
+
+    private CalculadoraAmortizacion() {}
+
+    /**
+     * Interes de un periodo redondeado al centavo (mitad hacia arriba).
+     *
+     * @param saldoCent saldo de capital en centavos
+     * @param tasaPpm tasa del periodo en partes por millon
+     * @return interes en centavos
+     */
+    public static long interes(long saldoCent, int tasaPpm) {
+        return (saldoCent * tasaPpm + PPM / 2) / PPM;
+    }
+
+    /**
+     * Cuota fija que amortiza el capital en n periodos.
+     * Se calcula una sola vez al crear el plan.
+     *
+     * @param capitalCent monto financiado en centavos
+     * @param tasaPpm tasa mensual en partes por millon
+     * @param cuotas numero de cuotas
+     * @return cuota en centavos
+     */
+    public static long cuotaFija(long capitalCent, int tasaPpm, int cuotas) {
+        if (tasaPpm == 0) {
+            return (capitalCent + cuotas - 1) / cuotas;
+        }
+        double r = (double) tasaPpm / PPM;
+        double cuota = capitalCent * r / (1 - Math.pow(1 + r, -cuotas));
+        return Math.round(cuota);
+    }
+
+    /**
+     * Ultima cuota: ajusta el redondeo para que el saldo final quede en cero.
+     *
+     * @param capitalCent monto financiado en centavos
+     * @param tasaPpm tasa mensual en partes por millon
+     * @param cuotas numero de cuotas
+     * @param cuotaCent cuota fija en centavos
+     * @return valor de la ultima cuota en centavos
+     */
+    public static long ultimaCuota(long capitalCent, int tasaPpm, int cuotas, long cuotaCent) {
+        long saldo = capitalCent;
+        for (int i = 1; i < cuotas; i++) {
+            saldo -= cuotaCent - interes(saldo, tasaPpm);
+        }
+        return saldo + interes(saldo, tasaPpm);
+    }
+
+    /**
+     * Total a pagar durante todo el credito.
+     *
+     * @param cuotas numero de cuotas
+     * @param cuotaCent cuota fija en centavos
+     * @param ultimaCuotaCent ultima cuota en centavos
+     * @return total en centavos
+     */
+    public static long totalAPagar(int cuotas, long cuotaCent, long ultimaCuotaCent) {
+        return (cuotas - 1) * cuotaCent + ultimaCuotaCent;
+    }
+
+    /**
+     * Cantidad de cuotas cuya fecha de pago ya llego. Las cuotas vencen
+     * el mismo dia de cada mes que la primera (o el ultimo dia del mes
+     * si ese dia no existe).
+     *
+     * @param primeraCuota fecha de la primera cuota
+     * @param cuotas numero total de cuotas
+     * @param fechaCorte fecha a la que se calcula
+     * @return cuotas exigibles a la fecha de corte
+     */
+    public static int cuotasExigibles(LocalDate primeraCuota, int cuotas, LocalDate fechaCorte) {
+        int meses = (fechaCorte.getYear() - primeraCuota.getYear()) * 12
+                  + (fechaCorte.getMonthValue() - primeraCuota.getMonthValue());
+        int diaVencimiento = Math.min(primeraCuota.getDayOfMonth(), fechaCorte.lengthOfMonth());
+        if (fechaCorte.getDayOfMonth() < diaVencimiento) {
+            meses--;
+        }
+        if (meses < 0) {
+            return 0;
+        }
+        return Math.min(meses + 1, cuotas);
+    }
+
+    /**
+     * Monto que el cliente deberia haber pagado tras k cuotas exigibles.
+     *
+     * @param exigibles cuotas exigibles
+     * @param cuotas numero total de cuotas
+     * @param cuotaCent cuota fija en centavos
+     * @param ultimaCuotaCent ultima cuota en centavos
+     * @return monto exigible en centavos
+     */
+    public static long montoExigible(int exigibles, int cuotas, long cuotaCent, long ultimaCuotaCent) {
+        if (exigibles >= cuotas) {
+            return totalAPagar(cuotas, cuotaCent, ultimaCuotaCent);
+        }
+        return exigibles * cuotaCent;
+    }
+
+    /**
+     * Cuotas exigibles que el monto pagado no alcanza a cubrir.
+     *
+     * @param exigibles cuotas exigibles
+     * @param pagadoCent monto pagado en centavos
+     * @param cuotaCent cuota fija en centavos
+     * @return cuotas vencidas
+     */
+    public static int cuotasVencidas(int exigibles, long pagadoCent, long cuotaCent) {
+        if (cuotaCent <= 0) {
+            return 0;
+        }
+        return exigibles - (int) Math.min(exigibles, pagadoCent / cuotaCent);
+    }
+
+    /**
+     * Saldo vencido: lo exigible menos lo pagado, nunca negativo.
+     *
+     * @param exigibleCent monto exigible en centavos
+     * @param pagadoCent monto pagado en centavos
+     * @return saldo vencido en centavos
+     */
+    public static long saldoVencido(long exigibleCent, long pagadoCent) {
+        return Math.max(0, exigibleCent - pagadoCent);
+    }
+}
@@ -0,0 +1,305 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.evento.CachesDesincronizadasEvento;
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.modelo.EstadoLote;
+import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.repositorio.LoteRepositorio;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Publica el catalogo publico de lotes como archivos JSON ya generados.
+ * Despues de cada cambio de lotes (agrupando los cambios seguidos) vuelve
+ * a generar el JSON de GET /api/lotes y /api/lotes/estado/DISPONIBLE y
+ * lo escribe en disco sin comprimir y en gzip, con el hash del contenido
+ * en el nombre. El filtro del catalogo sirve esos archivos directamente,
+ * sin pasar por Hibernate ni por la base de datos.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class CatalogoPublicoServicio {
+
+    /** Catalogo de GET /api/lotes */
+    public static final String CATALOGO_TODOS = "todos";
+
+    /** Catalogo de GET /api/lotes/estado/DISPONIBLE */
+    public static final String CATALOGO_DISPONIBLES = "disponibles";
+
+    /** Registro de errores de la publicacion en segundo plano */
+    private static final Logger log = LoggerFactory.getLogger(CatalogoPublicoServicio.class);
+
+    /**
+     * Archivos publicados de un catalogo.
+     *
+     * @param archivo JSON sin comprimir
+     * @param tamano bytes del JSON sin comprimir
+     * @param archivoGzip JSON comprimido con gzip
+     * @param tamanoGzip bytes del JSON comprimido
+     * @param hash SHA-256 del JSON sin comprimir, base del ETag
+     */
+    public record Instantanea(Path archivo, long tamano, Path archivoGzip, long tamanoGzip, String hash) {
+    }
+
+    /** Repositorio de lotes para generar el catalogo */
+    private final LoteRepositorio loteRepositorio;
+
+    /** Mismo serializador JSON que usan los controladores */
+    private final JsonMapper jsonMapper;
+
+    /** Transaccion de solo lectura para generar el catalogo */
+    private final TransactionTemplate transaccionLectura;
+
+    /** Carpeta donde se escriben los archivos */
+    private final Path directorio;
+
+    /** Milisegundos que se espera tras un cambio antes de regenerar */
+    private final long esperaMs;
+
+    /** Milisegundos que se conserva un archivo despues de dejar de estar vigente */
+    private final long graciaMs;
+
+    /** Instantanea vigente de cada catalogo */
+    private final Map<String, Instantanea> publicadas = new ConcurrentHashMap<>();
+
+    /**
+     * Archivos que dejaron de estar vigentes y el momento en que eso paso.
+     * Solo lo usa el hilo del programador.
+     */
+    private final Map<Path, Long> retirados = new HashMap<>();
+
+    /** Indica si ya hay una pasada de borrado programada (solo el hilo del programador) */
+    private boolean limpiezaProgramada;
+
+    /** Indica si ya hay una regeneracion programada */
+    private final AtomicBoolean programada = new AtomicBoolean();
+
+    /** Hilo unico que regenera el catalogo */
+    private final ScheduledExecutorService programador =
+        Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "catalogo-publico");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param loteRepositorio repositorio de lotes
+     * @param jsonMapper serializador JSON de la aplicacion
+     * @param transactionManager administrador de transacciones
+     * @param directorio carpeta de los archivos publicados
+     * @param esperaMs espera tras un cambio antes de regenerar
+     * @param graciaMs tiempo que se conserva un archivo reemplazado; debe
+     *                 superar la transferencia mas larga del catalogo
+     */
+    public CatalogoPublicoServicio(LoteRepositorio loteRepositorio,
+                                   JsonMapper jsonMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${inmobiliaria.catalogo.directorio}") String directorio,
+                                   @Value("${inmobiliaria.catalogo.espera-ms:500}") long esperaMs,
+                                   @Value("${inmobiliaria.catalogo.gracia-borrado-ms:600000}") long graciaMs) {
+        this.loteRepositorio = loteRepositorio;
+        this.jsonMapper = jsonMapper;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.directorio = Paths.get(directorio);
+        this.esperaMs = esperaMs;
+        this.graciaMs = graciaMs;
+        try {
+            Files.createDirectories(this.directorio);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                "No se pudo crear el directorio del catalogo: " + directorio, e);
+        }
+    }
+
+    /**
+     * Retorna la instantanea vigente de un catalogo.
+     *
+     * @param catalogo CATALOGO_TODOS o CATALOGO_DISPONIBLES
+     * @return instantanea o null si todavia no se ha publicado
+     */
+    public Instantanea obtener(String catalogo) {
+        return publicadas.get(catalogo);
+    }
+
+    /**
+     * Publica el catalogo al arrancar la aplicacion, o de nuevo si se
+     * pudieron perder invalidaciones de otros nodos.
+     */
+    @EventListener({ApplicationReadyEvent.class, CachesDesincronizadasEvento.class})
+    public void alArrancar() {
+        programar(0);
+    }
+
+    /**
+     * Programa la regeneracion cuando cambian lotes. Los cambios que
+     * llegan mientras hay una regeneracion pendiente se agrupan en ella.
+     *
+     * @param evento lotes modificados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarLotes(LotesModificadosEvento evento) {
+        programar(esperaMs);
+    }
+
+    /**
+     * Detiene el hilo de regeneracion al cerrar la aplicacion.
+     */
+    @PreDestroy
+    public void detener() {
+        programador.shutdownNow();
+    }
+
+    private void programar(long demoraMs) {
+        if (programada.compareAndSet(false, true)) {
+            programador.schedule(this::publicar, demoraMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Genera y publica los dos catalogos. Se libera la marca de
+     * programada antes de leer, para que un cambio que llegue durante
+     * la generacion programe otra.
+     */
+    private void publicar() {
+        programada.set(false);
+        try {
+            byte[][] contenidos = transaccionLectura.execute(estado -> {
+                List<Lote> todos = loteRepositorio.findAll();
+                List<Lote> disponibles =
+                    loteRepositorio.findByEstadoOrderByPrecioAsc(EstadoLote.DISPONIBLE);
+                return new byte[][] {
+                    jsonMapper.writeValueAsBytes(todos),
+                    jsonMapper.writeValueAsBytes(disponibles)
+                };
+            });
+            publicadas.put(CATALOGO_TODOS, escribir(CATALOGO_TODOS, contenidos[0]));
+            publicadas.put(CATALOGO_DISPONIBLES, escribir(CATALOGO_DISPONIBLES, contenidos[1]));
+        } catch (Exception e) {
+            /* Se sigue sirviendo la instantanea anterior; el proximo cambio reintenta */
+            log.error("No se pudo publicar el catalogo de lotes", e);
+        }
+        borrarArchivosViejos();
+    }
+
+    /**
+     * Escribe un catalogo en disco (plano y gzip) con el hash en el nombre.
+     * Si el contenido no cambio se reutilizan los archivos existentes.
+     */
+    private Instantanea escribir(String catalogo, byte[] json) throws IOException {
+        String hash = sha256(json);
+        Path archivo = directorio.resolve(catalogo + "-" + hash + ".json");
+        Path archivoGzip = directorio.resolve(catalogo + "-" + hash + ".json.gz");
+
+        if (!Files.exists(archivo)) {
+            moverAtomico(json, archivo);
+        }
+        if (!Files.exists(archivoGzip)) {
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(json);
+            }
+            moverAtomico(comprimido.toByteArray(), archivoGzip);
+        }
+        return new Instantanea(archivo, Files.size(archivo), archivoGzip, Files.size(archivoGzip), hash);
+    }
+
+    private void moverAtomico(byte[] contenido, Path destino) throws IOException {
+        Path temporal = Files.createTempFile(directorio, "catalogo-", ".tmp");
+        try {
+            Files.write(temporal, contenido);
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Borra los archivos que dejaron de pertenecer a una instantanea hace
+     * mas de graciaMs. No se pueden borrar enseguida: con sendfile, Tomcat
+     * abre el archivo por su nombre despues de que el filtro termina, asi
+     * que una solicitud que leyo la instantanea anterior todavia puede
+     * necesitarlo. Si quedan archivos en espera se programa otra pasada.
+     */
+    private void borrarArchivosViejos() {
+        Set<Path> vigentes = new HashSet<>();
+        for (Instantanea instantanea : publicadas.values()) {
+            vigentes.add(instantanea.archivo());
+            vigentes.add(instantanea.archivoGzip());
+        }
+        long ahora = System.currentTimeMillis();
+        retirados.keySet().removeAll(vigentes);
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*.{json,gz}")) {
+            for (Path archivo : archivos) {
+                if (vigentes.contains(archivo)) {
+                    continue;
+                }
+                /* Un archivo que no se conocia (de un arranque anterior) empieza su gracia ahora */
+                long retirado = retirados.computeIfAbsent(archivo, a -> ahora);
+                if (ahora - retirado >= graciaMs) {
+                    Files.deleteIfExists(archivo);
+                    retirados.remove(archivo);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron borrar archivos viejos del catalogo", e);
+        }
+        retirados.keySet().removeIf(archivo -> !Files.exists(archivo));
+        if (!retirados.isEmpty() && !limpiezaProgramada) {
+            limpiezaProgramada = true;
+            programador.schedule(() -> {
+                limpiezaProgramada = false;
+                borrarArchivosViejos();
+            }, graciaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static String sha256(byte[] contenido) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(contenido));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EventoVenta;
+import com.inmobiliaria.dto.PaginaEventosVenta;
+import com.inmobiliaria.dto.PosicionAgente;
+import com.inmobiliaria.evento.AgentesModificadosEvento;
+import com.inmobiliaria.evento.CachesDesincronizadasEvento;
+import com.inmobiliaria.evento.VentasModificadasEvento;
+import com.inmobiliaria.modelo.TipoEventoVenta;
+import com.inmobiliaria.repositorio.AgenteRepositorio;
+import com.inmobiliaria.repositorio.VentaRepositorio;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clasificacion de agentes por total vendido mantenida en memoria.
+ * Se carga una vez al arrancar, anotando la posicion del libro de
+ * eventos de venta en ese momento, y despues se pone al dia leyendo
+ * solo los eventos posteriores a la ultima posicion aplicada cada vez
+ * que se confirma una venta registrada o cancelada. Las consultas no
+ * tocan la base de datos y ningun evento se aplica dos veces.
+ * Cada ventana guarda un mapa por agente y un arbol ordenado por total,
+ * asi actualizar un agente cuesta O(log n) y el top N se lee en orden.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class ClasificacionAgentesServicio {
+
+    /** Maximo de posiciones que se retornan en una consulta */
+    public static final int MAXIMO_POSICIONES = 100;
+
+    /** Periodo que cubre una clasificacion */
+    public enum Ventana {
+        /** Ventas del dia en curso */
+        DIA,
+        /** Ventas del mes en curso */
+        MES,
+        /** Todas las ventas */
+        TOTAL
+    }
+
+    /** Orden de la clasificacion: total, luego cantidad, luego ID del agente */
+    private static final Comparator<Acumulado> ORDEN = Comparator
+        .comparingLong(Acumulado::totalCent).reversed()
+        .thenComparing(Comparator.comparingLong(Acumulado::cantidad).reversed())
+        .thenComparingInt(Acumulado::idAgente);
+
+    /** Repositorio de ventas para la carga inicial */
+    private final VentaRepositorio ventaRepositorio;
+
+    /** Repositorio de agentes para el nombre de agentes nuevos */
+    private final AgenteRepositorio agenteRepositorio;
+
+    /** Libro de eventos de venta del que se leen los cambios */
+    private final LibroVentasServicio libroVentasServicio;
+
+    /** Carga inicial en una sola foto de la base (REPEATABLE READ) */
+    private final TransactionTemplate lecturaConsistente;
+
+    /** Una sola puesta al dia a la vez; no bloquea las consultas */
+    private final ReentrantLock sincronizacion = new ReentrantLock();
+
+    /** Ultima posicion del libro aplicada; se accede con el bloqueo de la instancia */
+    private long posicion;
+
+    /** Estado de cada ventana; se accede solo con el bloqueo de la instancia */
+    private final Map<Ventana, EstadoVentana> ventanas = new EnumMap<>(Ventana.class);
+
+    /** Nombre para mostrar de cada agente */
+    private final Map<Integer, String> nombres = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param ventaRepositorio repositorio de ventas
+     * @param agenteRepositorio repositorio de agentes
+     * @param libroVentasServicio libro de eventos de venta
+     * @param transactionManager administrador de transacciones
+     */
+    public ClasificacionAgentesServicio(VentaRepositorio ventaRepositorio,
+                                        AgenteRepositorio agenteRepositorio,
+                                        LibroVentasServicio libroVentasServicio,
+                                        PlatformTransactionManager transactionManager) {
+        this.ventaRepositorio = ventaRepositorio;
+        this.agenteRepositorio = agenteRepositorio;
+        this.libroVentasServicio = libroVentasServicio;
+        this.lecturaConsistente = new TransactionTemplate(transactionManager);
+        this.lecturaConsistente.setReadOnly(true);
+        this.lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        for (Ventana ventana : Ventana.values()) {
+            ventanas.put(ventana, new EstadoVentana());
+        }
+    }
+
+    /**
+     * Carga las tres ventanas desde la base de datos al arrancar, o de
+     * nuevo si se pudieron perder invalidaciones de otros nodos.
+     * Los acumulados y la posicion del libro se leen en la misma foto,
+     * asi los eventos posteriores a esa posicion son justo los que faltan.
+     */
+    @EventListener({ApplicationReadyEvent.class, CachesDesincronizadasEvento.class})
+    public void cargar() {
+        LocalDate hoy = LocalDate.now();
+        sincronizacion.lock();
+        try {
+            lecturaConsistente.executeWithoutResult(estado -> {
+                long ultima = libroVentasServicio.obtenerUltimaPosicion();
+                List<Object[]> total = ventaRepositorio.obtenerAcumuladosPorAgente();
+                List<Object[]> mes = ventaRepositorio.obtenerAcumuladosPorAgenteDesde(hoy.withDayOfMonth(1));
+                List<Object[]> dia = ventaRepositorio.obtenerAcumuladosPorAgenteDesde(hoy);
+
+                synchronized (this) {
+                    cargarVentana(Ventana.TOTAL, null, total);
+                    cargarVentana(Ventana.MES, hoy.withDayOfMonth(1), mes);
+                    cargarVentana(Ventana.DIA, hoy, dia);
+                    posicion = ultima;
+                }
+            });
+        } finally {
+            sincronizacion.unlock();
+        }
+    }
+
+    /**
+     * Se pone al dia con el libro una vez confirmada la transaccion que
+     * registro o cancelo ventas.
+     *
+     * @param evento ventas afectadas
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarVentas(VentasModificadasEvento evento) {
+        sincronizar();
+    }
+
+    /**
+     * Actualiza el nombre guardado de los agentes modificados que ya
+     * aparecen en la clasificacion.
+     *
+     * @param evento agentes afectados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarAgentes(AgentesModificadosEvento evento) {
+        agenteRepositorio.findAllById(evento.idsAgentes()).forEach(agente ->
+            nombres.computeIfPresent(agente.getIdAgente(),
+                (id, anterior) -> agente.getNombre() + " " + agente.getApellido()));
+    }
+
+    /**
+     * Aplica los eventos del libro posteriores a la ultima posicion
+     * aplicada: REGISTRADA suma y CANCELADA resta en cada ventana que
+     * incluye la fecha de la venta.
+     *
+     * @return cantidad de eventos leidos
+     */
+    public int sincronizar() {
+        int leidos = 0;
+        sincronizacion.lock();
+        try {
+            PaginaEventosVenta pagina;
+            do {
+                long desde;
+                synchronized (this) {
+                    desde = posicion;
+                }
+                pagina = libroVentasServicio.leerDesde(desde, LibroVentasServicio.MAXIMO_EVENTOS);
+                for (EventoVenta evento : pagina.eventos()) {
+                    nombres.computeIfAbsent(evento.idAgente(), id -> agenteRepositorio.findById(id)
+                        .map(agente -> agente.getNombre() + " " + agente.getApellido())
+                        .orElse("Agente " + id));
+                }
+
+                synchronized (this) {
+                    avanzarVentanas(LocalDate.now());
+                    for (EventoVenta evento : pagina.eventos()) {
+                        aplicar(evento);
+                    }
+                    posicion = pagina.siguiente();
+                }
+                leidos += pagina.eventos().size();
+            } while (pagina.eventos().size() == LibroVentasServicio.MAXIMO_EVENTOS);
+        } finally {
+            sincronizacion.unlock();
+        }
+        return leidos;
+    }
+
+    /**
+     * Obtiene los primeros agentes de una ventana.
+     *
+     * @param ventana DIA, MES o TOTAL
+     * @param limite cantidad de posiciones (1 a 100)
+     * @return posiciones en orden
+     * @throws RuntimeException si la ventana o el limite no son validos
+     */
+    public List<PosicionAgente> obtenerClasificacion(String ventana, int limite) {
+        Ventana tipo;
+        try {
+            tipo = Ventana.valueOf(ventana.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Ventana no valida: " + ventana + ". Use DIA, MES o TOTAL");
+        }
+        if (limite < 1 || limite > MAXIMO_POSICIONES) {
+            throw new RuntimeException("El limite debe estar entre 1 y " + MAXIMO_POSICIONES);
+        }
+
+        List<Acumulado> primeros = new ArrayList<>(limite);
+        synchronized (this) {
+            avanzarVentanas(LocalDate.now());
+            for (Acumulado acumulado : ventanas.get(tipo).ranking) {
+                if (primeros.size() == limite) {
+                    break;
+                }
+                primeros.add(acumulado);
+            }
+        }
+
+        List<PosicionAgente> posiciones = new ArrayList<>(primeros.size());
+        for (Acumulado acumulado : primeros) {
+            posiciones.add(new PosicionAgente(
+                posiciones.size() + 1,
+                acumulado.idAgente(),
+                nombres.get(acumulado.idAgente()),
+                acumulado.cantidad(),
+                BigDecimal.valueOf(acumulado.totalCent(), 2)));
+        }
+        return posiciones;
+    }
+
+    /**
+     * Suma o resta un evento en las ventanas que incluyen su fecha.
+     * Debe llamarse con el bloqueo de la instancia.
+     */
+    private void aplicar(EventoVenta evento) {
+        int signo;
+        if (evento.tipo() == TipoEventoVenta.REGISTRADA) {
+            signo = 1;
+        } else if (evento.tipo() == TipoEventoVenta.CANCELADA) {
+            signo = -1;
+        } else {
+            return;
+        }
+        long precioCent = evento.precioFinal().movePointRight(2).longValue();
+        for (EstadoVentana estado : ventanas.values()) {
+            if (estado.incluye(evento.fechaVenta())) {
+                estado.sumar(evento.idAgente(), signo, signo * precioCent);
+            }
+        }
+    }
+
+    /**
+     * Reinicia las ventanas de dia y mes cuando cambia la fecha.
+     * Debe llamarse con el bloqueo de la instancia.
+     *
+     * @param hoy fecha actual
+     */
+    private void avanzarVentanas(LocalDate hoy) {
+        EstadoVentana dia = ventanas.get(Ventana.DIA);
+        if (!hoy.equals(dia.inicio)) {
+            dia.reiniciar(hoy);
+        }
+        EstadoVentana mes = ventanas.get(Ventana.MES);
+        if (!hoy.withDayOfMonth(1).equals(mes.inicio)) {
+            mes.reiniciar(hoy.withDayOfMonth(1));
+        }
+    }
+
+    /**
+     * Reemplaza el contenido de una ventana con filas de acumulados.
+     * Debe llamarse con el bloqueo de la instancia.
+     */
+    private void cargarVentana(Ventana ventana, LocalDate inicio, List<Object[]> filas) {
+        EstadoVentana estado = ventanas.get(ventana);
+        estado.reiniciar(inicio);
+        for (Object[] fila : filas) {
+            int idAgente = (Integer) fila[0];
+            nombres.put(idAgente, fila[1] + " " + fila[2]);
+            estado.sumar(idAgente, ((Number) fila[3]).longValue(),
+                ((BigDecimal) fila[4]).movePointRight(2).longValue());
+        }
+    }
+
+    /** Cantidad y total en centavos de un agente; inmutable para poder ordenarlo */
+    private record Acumulado(int idAgente, long cantidad, long totalCent) {
+    }
+
+    /** Acumulados de una ventana: mapa por agente y arbol ordenado */
+    private static final class EstadoVentana {
+
+        /** Primer dia de la ventana; nulo para TOTAL */
+        private LocalDate inicio;
+
+        /** Acumulado actual de cada agente */
+        private final Map<Integer, Acumulado> porAgente = new HashMap<>();
+
+        /** Acumulados ordenados por la clasificacion */
+        private final TreeSet<Acumulado> ranking = new TreeSet<>(ORDEN);
+
+        boolean incluye(LocalDate fecha) {
+            return inicio == null || (fecha != null && !fecha.isBefore(inicio));
+        }
+
+        void reiniciar(LocalDate nuevoInicio) {
+            inicio = nuevoInicio;
+            porAgente.clear();
+            ranking.clear();
+        }
+
+        void sumar(int idAgente, long cantidad, long totalCent) {
+            Acumulado anterior = porAgente.remove(idAgente);
+            if (anterior != null) {
+                ranking.remove(anterior);
+                cantidad += anterior.cantidad();
+                totalCent += anterior.totalCent();
+            }
+            if (cantidad > 0) {
+                Acumulado nuevo = new Acumulado(idAgente, cantidad, totalCent);
+                porAgente.put(idAgente, nuevo);
+                ranking.add(nuevo);
+            }
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.inmobiliaria.servicio;
 
+import com.inmobiliaria.evento.ClientesModificadosEvento;
 import com.inmobiliaria.modelo.Cliente;
 import com.inmobiliaria.repositorio.ClienteRepositorio;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Servicio que implementa la logica de negocio para clientes.
@@ -17,16 +24,30 @@ import java.util.List;
 @Service
 public class ClienteServicio {
 
+    /** Maximo de ids aceptados en una consulta por lote */
+    public static final int MAXIMO_IDS_POR_CONSULTA = 500;
+
     /** Repositorio para acceder a los datos de clientes */
     private final ClienteRepositorio clienteRepositorio;
 
+    /** Auditoria de los cambios de clientes */
+    private final AuditoriaServicio auditoriaServicio;
+
+    /** Publicador de eventos para avisar a las caches de clientes */
+    private final ApplicationEventPublisher eventos;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param clienteRepositorio repositorio de clientes
+     * @param auditoriaServicio servicio de auditoria
+     * @param eventos publicador de eventos de Spring
      */
-    public ClienteServicio(ClienteRepositorio clienteRepositorio) {
+    public ClienteServicio(ClienteRepositorio clienteRepositorio, AuditoriaServicio auditoriaServicio,
+                           ApplicationEventPublisher eventos) {
         this.clienteRepositorio = clienteRepositorio;
+        this.auditoriaServicio = auditoriaServicio;
+        this.eventos = eventos;
     }
 
     /**
@@ -52,7 +73,11 @@ public class ClienteServicio {
         }
 
         /* Guardar el cliente en la base de datos */
-        return clienteRepositorio.save(cliente);
+        Cliente clienteGuardado = clienteRepositorio.save(cliente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_CLIENTE, clienteGuardado.getIdCliente(),
+            AuditoriaServicio.OPERACION_CREAR, null, InstantaneaAuditoria.de(clienteGuardado));
+        eventos.publishEvent(ClientesModificadosEvento.de(clienteGuardado.getIdCliente()));
+        return clienteGuardado;
     }
 
     /**
@@ -79,6 +104,40 @@ public class ClienteServicio {
                 "Cliente no encontrado con ID: " + idCliente));
     }
 
+    /**
+     * Busca varios clientes en una sola consulta (IN sobre la llave primaria).
+     * Los ids repetidos o inexistentes se ignoran.
+     *
+     * @param ids IDs de los clientes a buscar
+     * @return mapa id -> cliente, en el orden de los ids solicitados
+     * @throws RuntimeException si se piden mas de {@value #MAXIMO_IDS_POR_CONSULTA} ids
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Cliente> obtenerClientesPorIds(Collection<Integer> ids) {
+        Set<Integer> idsUnicos = new LinkedHashSet<>(ids);
+
+        if (idsUnicos.size() > MAXIMO_IDS_POR_CONSULTA) {
+            throw new RuntimeException(
+                "No se pueden consultar mas de " + MAXIMO_IDS_POR_CONSULTA +
+                " clientes a la vez. Solicitados: " + idsUnicos.size());
+        }
+
+        Map<Integer, Cliente> encontrados = new LinkedHashMap<>();
+        for (Cliente cliente : clienteRepositorio.findAllById(idsUnicos)) {
+            encontrados.put(cliente.getIdCliente(), cliente);
+        }
+
+        /* Reordenar segun el orden de la solicitud */
+        Map<Integer, Cliente> resultado = new LinkedHashMap<>();
+        for (Integer id : idsUnicos) {
+            Cliente cliente = encontrados.get(id);
+            if (cliente != null) {
+                resultado.put(id, cliente);
+            }
+        }
+        return resultado;
+    }
+
     /**
      * Busca clientes por nombre o apellido usando busqueda parcial.
      *
@@ -102,6 +161,7 @@ public class ClienteServicio {
 
         /* Verificar que el cliente existe antes de actualizar */
         Cliente clienteExistente = obtenerClientePorId(idCliente);
+        Map<String, Object> antes = InstantaneaAuditoria.de(clienteExistente);
 
         /* Actualizar solo los campos permitidos */
         clienteExistente.setNombre(datosNuevos.getNombre());
@@ -110,7 +170,11 @@ public class ClienteServicio {
         clienteExistente.setTelefono(datosNuevos.getTelefono());
         clienteExistente.setDireccion(datosNuevos.getDireccion());
 
-        return clienteRepositorio.save(clienteExistente);
+        Cliente clienteGuardado = clienteRepositorio.save(clienteExistente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_CLIENTE, idCliente,
+            AuditoriaServicio.OPERACION_ACTUALIZAR, antes, InstantaneaAuditoria.de(clienteGuardado));
+        eventos.publishEvent(ClientesModificadosEvento.de(idCliente));
+        return clienteGuardado;
     }
 
     /**
@@ -121,7 +185,11 @@ public class ClienteServicio {
     @Transactional
     public void eliminarCliente(Integer idCliente) {
         Cliente cliente = obtenerClientePorId(idCliente);
+        Map<String, Object> antes = InstantaneaAuditoria.de(cliente);
         cliente.setActivo(false);
         clienteRepositorio.save(cliente);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_CLIENTE, idCliente,
+            AuditoriaServicio.OPERACION_ELIMINAR, antes, InstantaneaAuditoria.de(cliente));
+        eventos.publishEvent(ClientesModificadosEvento.de(idCliente));
     }
 }
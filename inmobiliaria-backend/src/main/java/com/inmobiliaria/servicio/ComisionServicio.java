@@ -0,0 +1,335 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.LiquidacionComision;
+import com.inmobiliaria.modelo.ReglaComision;
+import com.inmobiliaria.repositorio.ReglaComisionRepositorio;
+import com.inmobiliaria.repositorio.VentaRepositorio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de comisiones de agentes.
+ * Liquida cada mes la comision de todos los agentes con reglas escalonadas
+ * y guarda el resultado en liquidaciones_comision, de donde se sirven los
+ * extractos sin recalcular.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class ComisionServicio {
+
+    /** Inserta o reemplaza la liquidacion de un agente en un mes */
+    private static final String SQL_GUARDAR_LIQUIDACION =
+        "INSERT INTO liquidaciones_comision (id_agente, periodo, id_regla, cantidad_ventas, " +
+        "total_ventas_cent, comision_cent, comision_tramos_cent, fecha_calculo) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id_agente, periodo) DO UPDATE SET " +
+        "id_regla = EXCLUDED.id_regla, cantidad_ventas = EXCLUDED.cantidad_ventas, " +
+        "total_ventas_cent = EXCLUDED.total_ventas_cent, comision_cent = EXCLUDED.comision_cent, " +
+        "comision_tramos_cent = EXCLUDED.comision_tramos_cent, fecha_calculo = EXCLUDED.fecha_calculo";
+
+    /** Columnas de lectura de una liquidacion */
+    private static final String SQL_LIQUIDACIONES =
+        "SELECT id_agente, periodo, id_regla, cantidad_ventas, total_ventas_cent, " +
+        "comision_cent, comision_tramos_cent, fecha_calculo FROM liquidaciones_comision ";
+
+    /** Convierte una fila de liquidaciones_comision en su DTO */
+    private static final RowMapper<LiquidacionComision> MAPEO_LIQUIDACION = (rs, fila) -> {
+        Array arreglo = rs.getArray("comision_tramos_cent");
+        Object[] valores = (Object[]) arreglo.getArray();
+        List<BigDecimal> tramos = new ArrayList<>(valores.length);
+        for (Object valor : valores) {
+            tramos.add(BigDecimal.valueOf(((Number) valor).longValue(), 2));
+        }
+        arreglo.free();
+        return new LiquidacionComision(
+            rs.getInt("id_agente"),
+            rs.getObject("periodo", LocalDate.class),
+            rs.getInt("id_regla"),
+            rs.getInt("cantidad_ventas"),
+            BigDecimal.valueOf(rs.getLong("total_ventas_cent"), 2),
+            BigDecimal.valueOf(rs.getLong("comision_cent"), 2),
+            tramos,
+            rs.getObject("fecha_calculo", LocalDateTime.class));
+    };
+
+    /** Repositorio de ventas, fuente de la liquidacion */
+    private final VentaRepositorio ventaRepositorio;
+
+    /** Repositorio de reglas de comision */
+    private final ReglaComisionRepositorio reglaComisionRepositorio;
+
+    /** Servicio de agentes para validar reglas propias */
+    private final AgenteServicio agenteServicio;
+
+    /** Acceso JDBC para guardar y leer liquidaciones */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transaccion por agente durante la liquidacion */
+    private final TransactionTemplate transaccionAgente;
+
+    /** Hilos de la liquidacion */
+    private final int paralelismo;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param ventaRepositorio repositorio de ventas
+     * @param reglaComisionRepositorio repositorio de reglas de comision
+     * @param agenteServicio servicio de agentes
+     * @param jdbcTemplate acceso JDBC
+     * @param transactionManager administrador de transacciones
+     * @param paralelismo hilos de la liquidacion
+     */
+    public ComisionServicio(VentaRepositorio ventaRepositorio,
+                            ReglaComisionRepositorio reglaComisionRepositorio,
+                            AgenteServicio agenteServicio,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inmobiliaria.comisiones.paralelismo:4}") int paralelismo) {
+        this.ventaRepositorio = ventaRepositorio;
+        this.reglaComisionRepositorio = reglaComisionRepositorio;
+        this.agenteServicio = agenteServicio;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccionAgente = new TransactionTemplate(transactionManager);
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Liquida las comisiones de un mes para todos los agentes.
+     * Cada agente se procesa en su propia transaccion dentro de un pool
+     * fork-join: sus ventas se recorren con un cursor y el resultado se
+     * guarda con INSERT ... ON CONFLICT, de modo que repetir la liquidacion
+     * reemplaza la anterior. Los agentes que ya tenian liquidacion y ya no
+     * tienen ventas en el mes quedan en cero.
+     *
+     * @param periodo mes a liquidar
+     * @return cantidad de agentes liquidados
+     * @throws RuntimeException si no hay regla de comision aplicable
+     */
+    public int liquidarPeriodo(YearMonth periodo) {
+        LocalDate desde = periodo.atDay(1);
+        LocalDate hasta = periodo.atEndOfMonth();
+
+        /* Regla de cada agente: la propia mas reciente o la general */
+        Map<Integer, ReglaComision> reglaPorAgente = new HashMap<>();
+        ReglaComision reglaGeneral = null;
+        for (ReglaComision regla : reglaComisionRepositorio.buscarVigentesA(desde)) {
+            if (regla.getIdAgente() == null) {
+                if (reglaGeneral == null) {
+                    reglaGeneral = regla;
+                }
+            } else {
+                reglaPorAgente.putIfAbsent(regla.getIdAgente(), regla);
+            }
+        }
+
+        TreeSet<Integer> agentes = new TreeSet<>(
+            ventaRepositorio.buscarAgentesConVentasEntre(desde, hasta));
+        agentes.addAll(jdbcTemplate.queryForList(
+            "SELECT id_agente FROM liquidaciones_comision WHERE periodo = ?", Integer.class, desde));
+
+        for (Integer idAgente : agentes) {
+            if (!reglaPorAgente.containsKey(idAgente)) {
+                if (reglaGeneral == null) {
+                    throw new RuntimeException(
+                        "No hay regla de comision vigente para el agente " + idAgente +
+                        " en " + periodo);
+                }
+                reglaPorAgente.put(idAgente, reglaGeneral);
+            }
+        }
+
+        LocalDateTime fechaCalculo = LocalDateTime.now();
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.submit(() -> agentes.parallelStream().forEach(idAgente ->
+                    liquidarAgente(idAgente, desde, hasta, reglaPorAgente.get(idAgente), fechaCalculo)))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Liquidacion de comisiones interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(
+                "Fallo la liquidacion de comisiones: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return agentes.size();
+    }
+
+    /**
+     * Liquidacion programada: recalcula el mes en curso y el anterior
+     * (para recoger ventas registradas o canceladas despues del cierre).
+     */
+    @Scheduled(cron = "${inmobiliaria.comisiones.cron:0 0 3 * * *}")
+    public void liquidarPeriodosRecientes() {
+        YearMonth actual = YearMonth.now();
+        liquidarPeriodo(actual.minusMonths(1));
+        liquidarPeriodo(actual);
+    }
+
+    /**
+     * Obtiene la liquidacion de un agente en un mes.
+     *
+     * @param idAgente ID del agente
+     * @param periodo mes liquidado
+     * @return liquidacion guardada
+     * @throws RuntimeException si el mes no se ha liquidado para el agente
+     */
+    public LiquidacionComision obtenerLiquidacion(Integer idAgente, YearMonth periodo) {
+        List<LiquidacionComision> liquidaciones = jdbcTemplate.query(
+            SQL_LIQUIDACIONES + "WHERE id_agente = ? AND periodo = ?",
+            MAPEO_LIQUIDACION, idAgente, periodo.atDay(1));
+        if (liquidaciones.isEmpty()) {
+            throw new RuntimeException(
+                "No hay liquidacion de comision para el agente " + idAgente + " en " + periodo);
+        }
+        return liquidaciones.get(0);
+    }
+
+    /**
+     * Obtiene todas las liquidaciones de un agente, el mes mas reciente primero.
+     *
+     * @param idAgente ID del agente
+     * @return liquidaciones del agente
+     */
+    public List<LiquidacionComision> obtenerLiquidacionesDeAgente(Integer idAgente) {
+        return jdbcTemplate.query(
+            SQL_LIQUIDACIONES + "WHERE id_agente = ? ORDER BY periodo DESC",
+            MAPEO_LIQUIDACION, idAgente);
+    }
+
+    /**
+     * Obtiene las liquidaciones de un mes, la comision mas alta primero.
+     *
+     * @param periodo mes liquidado
+     * @return liquidaciones del mes
+     */
+    public List<LiquidacionComision> obtenerLiquidacionesDePeriodo(YearMonth periodo) {
+        return jdbcTemplate.query(
+            SQL_LIQUIDACIONES + "WHERE periodo = ? ORDER BY comision_cent DESC",
+            MAPEO_LIQUIDACION, periodo.atDay(1));
+    }
+
+    /**
+     * Obtiene todas las reglas de comision.
+     *
+     * @return reglas ordenadas por agente y vigencia
+     */
+    @Transactional(readOnly = true)
+    public List<ReglaComision> obtenerReglas() {
+        return reglaComisionRepositorio.findAllByOrderByIdAgenteAscVigenteDesdeDesc();
+    }
+
+    /**
+     * Crea una regla de comision.
+     * Los limites deben ser positivos y crecientes, y debe haber una tasa
+     * por tramo (una mas que los limites) entre 0 y 1.000.000 ppm.
+     *
+     * @param regla regla a crear
+     * @return regla guardada con su ID generado
+     * @throws RuntimeException si los tramos no son validos o el agente no existe
+     */
+    @Transactional
+    public ReglaComision crearRegla(ReglaComision regla) {
+        long[] limites = regla.getLimitesCent();
+        int[] tasas = regla.getTasasPpm();
+        if (tasas.length != limites.length + 1) {
+            throw new RuntimeException("Debe haber una tasa mas que limites de tramo");
+        }
+        for (int i = 0; i < limites.length; i++) {
+            if (limites[i] <= 0 || (i > 0 && limites[i] <= limites[i - 1])) {
+                throw new RuntimeException("Los limites de tramo deben ser positivos y crecientes");
+            }
+        }
+        for (int tasa : tasas) {
+            if (tasa < 0 || tasa > CalculadoraAmortizacion.PPM) {
+                throw new RuntimeException("Las tasas deben estar entre 0 y 1000000 ppm");
+            }
+        }
+        if (regla.getIdAgente() != null) {
+            agenteServicio.obtenerAgentePorId(regla.getIdAgente());
+        }
+        regla.setIdRegla(null);
+        return reglaComisionRepositorio.save(regla);
+    }
+
+    /**
+     * Comision causada en cada tramo para un total vendido.
+     * Cada tramo paga su tasa sobre la parte del total que cae en el.
+     *
+     * @param limitesCent topes de los tramos en centavos
+     * @param tasasPpm tasa de cada tramo en ppm
+     * @param totalCent total vendido en centavos
+     * @return comision por tramo en centavos
+     */
+    static long[] comisionPorTramo(long[] limitesCent, int[] tasasPpm, long totalCent) {
+        long[] comisiones = new long[tasasPpm.length];
+        long inferior = 0;
+        for (int i = 0; i < tasasPpm.length && totalCent > inferior; i++) {
+            long superior = i < limitesCent.length ? limitesCent[i] : Long.MAX_VALUE;
+            long base = Math.min(totalCent, superior) - inferior;
+            comisiones[i] = CalculadoraAmortizacion.interes(base, tasasPpm[i]);
+            inferior = superior;
+        }
+        return comisiones;
+    }
+
+    /**
+     * Liquida un agente en su propia transaccion.
+     *
+     * @param idAgente ID del agente
+     * @param desde primer dia del mes
+     * @param hasta ultimo dia del mes
+     * @param regla regla aplicable al agente
+     * @param fechaCalculo fecha y hora de la liquidacion
+     */
+    private void liquidarAgente(Integer idAgente, LocalDate desde, LocalDate hasta,
+                                ReglaComision regla, LocalDateTime fechaCalculo) {
+        transaccionAgente.executeWithoutResult(estado -> {
+            int cantidad = 0;
+            long totalCent = 0;
+            try (Stream<BigDecimal> precios =
+                     ventaRepositorio.recorrerPreciosDeAgente(idAgente, desde, hasta)) {
+                for (BigDecimal precio : (Iterable<BigDecimal>) precios::iterator) {
+                    cantidad++;
+                    totalCent += precio.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+                }
+            }
+
+            long[] tramos = comisionPorTramo(regla.getLimitesCent(), regla.getTasasPpm(), totalCent);
+            long comisionCent = 0;
+            for (long tramo : tramos) {
+                comisionCent += tramo;
+            }
+
+            jdbcTemplate.update(SQL_GUARDAR_LIQUIDACION,
+                idAgente, desde, regla.getIdRegla(), cantidad, totalCent, comisionCent,
+                tramos, Timestamp.valueOf(fechaCalculo));
+        });
+    }
+}
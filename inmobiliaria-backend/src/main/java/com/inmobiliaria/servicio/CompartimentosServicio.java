@@ -0,0 +1,296 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EstadoCompartimento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compartimentos (bulkheads) que separan el uso del pool de conexiones
+ * en cuatro clases para que una clase saturada no deje sin conexiones a
+ * las demas: ESCRITURA (POST/PUT/PATCH/DELETE), LECTURA (consultas
+ * interactivas), MASIVA (listados completos, rangos amplios, archivo y
+ * las tareas de reportes) y FONDO (todo hilo sin compartimento que toma
+ * una conexion: tareas programadas, hilos de las liquidaciones y de la
+ * mora, escritor de auditoria, catalogo publico, cargas de caches).
+ *
+ * Las solicitudes y los reportes ocupan su lugar mientras duran (con
+ * open-in-view cada solicitud retiene una conexion); FONDO se ocupa al
+ * tomar la conexion (ocuparConexion) y nunca rechaza, solo espera. Como
+ * el constructor exige que la suma de los lugares quepa en el pool, las
+ * conexiones de ESCRITURA siempre estan disponibles para registrar
+ * ventas, aunque haya reportes y liquidaciones en curso.
+ *
+ * Las rutas MASIVA se configuran en inmobiliaria.compartimentos.rutas-masivas
+ * como "METODO /patron"; los POST que solo consultan se listan en
+ * inmobiliaria.compartimentos.rutas-lectura.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class CompartimentosServicio {
+
+    /** Clases de trafico; FONDO no corresponde a ninguna ruta */
+    public enum Compartimento { ESCRITURA, LECTURA, MASIVA, FONDO }
+
+    /** Compartimento de la solicitud o tarea que corre en el hilo */
+    private static final ThreadLocal<Compartimento> ACTUAL = new ThreadLocal<>();
+
+    /** Conexiones abiertas por un hilo sin compartimento; la primera ocupa un lugar de FONDO */
+    private static final ThreadLocal<AtomicInteger> CONEXIONES_FONDO =
+        ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final Map<Compartimento, Estado> estados = new EnumMap<>(Compartimento.class);
+    private final ReglasRuta rutasMasivas;
+    private final ReglasRuta rutasLectura;
+
+    /** statement_timeout fuera de cualquier compartimento (0 = sin limite) */
+    private final int tiempoLimitePorDefectoMs;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param entorno propiedades de cada compartimento
+     * @param rutasMasivas rutas de la clase MASIVA ("GET /api/ventas")
+     * @param rutasLectura POST que solo consultan ("POST /api/lotes/por-ids")
+     * @param tiempoLimitePorDefectoMs statement_timeout fuera de los compartimentos
+     * @throws IllegalArgumentException si los compartimentos suman mas
+     *         conexiones que spring.datasource.hikari.maximum-pool-size
+     */
+    public CompartimentosServicio(Environment entorno,
+                                  @Value("${inmobiliaria.compartimentos.rutas-masivas:}") List<String> rutasMasivas,
+                                  @Value("${inmobiliaria.compartimentos.rutas-lectura:}") List<String> rutasLectura,
+                                  @Value("${inmobiliaria.compartimentos.tiempo-limite-ms:0}") int tiempoLimitePorDefectoMs) {
+        for (Compartimento compartimento : Compartimento.values()) {
+            String prefijo = "inmobiliaria.compartimentos." + compartimento.name().toLowerCase(Locale.ROOT) + ".";
+            estados.put(compartimento, new Estado(
+                entorno.getProperty(prefijo + "concurrentes", Integer.class, 10),
+                entorno.getProperty(prefijo + "cola", Integer.class, 50),
+                entorno.getProperty(prefijo + "espera-ms", Long.class, 1000L),
+                entorno.getProperty(prefijo + "tiempo-limite-ms", Integer.class, 0)));
+        }
+        this.rutasMasivas = new ReglasRuta(rutasMasivas);
+        this.rutasLectura = new ReglasRuta(rutasLectura);
+        this.tiempoLimitePorDefectoMs = tiempoLimitePorDefectoMs;
+
+        Integer pool = entorno.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+        int total = estados.values().stream().mapToInt(estado -> estado.concurrentes).sum();
+        if (pool != null && total > pool) {
+            throw new IllegalArgumentException("Los compartimentos suman " + total +
+                " conexiones y spring.datasource.hikari.maximum-pool-size es " + pool);
+        }
+    }
+
+    /**
+     * Clasifica una solicitud por metodo y ruta (sin el context path).
+     *
+     * @param metodo metodo HTTP
+     * @param ruta ruta de la solicitud
+     * @return compartimento que le corresponde
+     */
+    public Compartimento clasificar(String metodo, String ruta) {
+        PathContainer camino = PathContainer.parsePath(ruta);
+        if (rutasMasivas.coincide(metodo, camino)) {
+            return Compartimento.MASIVA;
+        }
+        if ("GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo)
+                || rutasLectura.coincide(metodo, camino)) {
+            return Compartimento.LECTURA;
+        }
+        return Compartimento.ESCRITURA;
+    }
+
+    /**
+     * Ocupa un lugar del compartimento. Si no hay lugar libre espera en la
+     * cola hasta espera-ms; con la cola llena rechaza de inmediato.
+     *
+     * @param compartimento compartimento de la solicitud
+     * @return true si entro; false si se rechaza (hay que responder 503)
+     */
+    public boolean entrar(Compartimento compartimento) {
+        Estado estado = estados.get(compartimento);
+        if (estado.permisos.tryAcquire()) {
+            return true;
+        }
+        if (estado.enEspera.incrementAndGet() > estado.cola) {
+            estado.enEspera.decrementAndGet();
+            estado.rechazadas.incrementAndGet();
+            return false;
+        }
+        boolean entro;
+        try {
+            entro = estado.permisos.tryAcquire(estado.esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entro = false;
+        } finally {
+            estado.enEspera.decrementAndGet();
+        }
+        if (!entro) {
+            estado.rechazadas.incrementAndGet();
+        }
+        return entro;
+    }
+
+    /**
+     * Libera el lugar ocupado con entrar.
+     *
+     * @param compartimento compartimento de la solicitud
+     */
+    public void salir(Compartimento compartimento) {
+        estados.get(compartimento).permisos.release();
+    }
+
+    /**
+     * Marca el hilo actual como parte de un compartimento; las conexiones
+     * que tome aplicaran su statement_timeout.
+     *
+     * @param compartimento compartimento o null para quitar la marca
+     */
+    public static void establecer(Compartimento compartimento) {
+        if (compartimento == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(compartimento);
+        }
+    }
+
+    /**
+     * Envuelve una tarea para que corra dentro de un compartimento (por
+     * ejemplo, los reportes en MASIVA): antes de empezar espera un lugar
+     * libre, sin limite de cola, y lo libera al terminar. Mientras corre,
+     * el hilo queda marcado con el compartimento.
+     *
+     * @param compartimento compartimento de la tarea
+     * @param tarea tarea original
+     * @return tarea que ocupa su lugar
+     */
+    public Runnable enCompartimento(Compartimento compartimento, Runnable tarea) {
+        return () -> {
+            Estado estado = estados.get(compartimento);
+            esperarPermiso(estado);
+            Compartimento anterior = ACTUAL.get();
+            establecer(compartimento);
+            try {
+                tarea.run();
+            } finally {
+                establecer(anterior);
+                estado.permisos.release();
+            }
+        };
+    }
+
+    /**
+     * Cuenta una conexion que se toma del pool. Un hilo que ya esta en un
+     * compartimento (una solicitud o un reporte) la cubre con su lugar; un
+     * hilo sin compartimento ocupa un lugar de FONDO con su primera
+     * conexion y lo libera al cerrar la ultima, de modo que un hilo de
+     * fondo nunca espera un segundo lugar teniendo ya uno.
+     *
+     * @return accion a ejecutar al cerrar la conexion, o null si no ocupo lugar
+     * @throws InterruptedException si el hilo se interrumpe mientras espera
+     */
+    public Runnable ocuparConexion() throws InterruptedException {
+        if (ACTUAL.get() != null) {
+            return null;
+        }
+        Estado fondo = estados.get(Compartimento.FONDO);
+        AtomicInteger abiertas = CONEXIONES_FONDO.get();
+        if (abiertas.get() == 0) {
+            fondo.enEspera.incrementAndGet();
+            try {
+                fondo.permisos.acquire();
+            } finally {
+                fondo.enEspera.decrementAndGet();
+            }
+        }
+        abiertas.incrementAndGet();
+        return () -> {
+            if (abiertas.decrementAndGet() == 0) {
+                fondo.permisos.release();
+            }
+        };
+    }
+
+    /**
+     * statement_timeout que corresponde al hilo actual.
+     *
+     * @return milisegundos (0 = sin limite)
+     */
+    public int tiempoLimiteActualMs() {
+        Compartimento compartimento = ACTUAL.get();
+        return compartimento == null ? tiempoLimitePorDefectoMs : estados.get(compartimento).tiempoLimiteMs;
+    }
+
+    /**
+     * Espera maxima en cola de un compartimento, para el Retry-After.
+     *
+     * @param compartimento compartimento
+     * @return segundos (al menos 1)
+     */
+    public long segundosReintento(Compartimento compartimento) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(estados.get(compartimento).esperaMs));
+    }
+
+    /**
+     * Ocupacion actual de cada compartimento.
+     *
+     * @return un estado por compartimento
+     */
+    public List<EstadoCompartimento> obtenerEstado() {
+        List<EstadoCompartimento> resultado = new ArrayList<>();
+        estados.forEach((compartimento, estado) -> resultado.add(new EstadoCompartimento(
+            compartimento.name(),
+            estado.concurrentes,
+            estado.concurrentes - estado.permisos.availablePermits(),
+            estado.enEspera.get(),
+            estado.cola,
+            estado.rechazadas.get(),
+            estado.tiempoLimiteMs)));
+        return resultado;
+    }
+
+    /** Espera sin limite un lugar para una tarea de fondo */
+    private static void esperarPermiso(Estado estado) {
+        estado.enEspera.incrementAndGet();
+        try {
+            estado.permisos.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Tarea interrumpida mientras esperaba lugar en su compartimento", e);
+        } finally {
+            estado.enEspera.decrementAndGet();
+        }
+    }
+
+    /** Limites y contadores de un compartimento */
+    private static final class Estado {
+        final int concurrentes;
+        final int cola;
+        final long esperaMs;
+        final int tiempoLimiteMs;
+        final Semaphore permisos;
+        final AtomicInteger enEspera = new AtomicInteger();
+        final AtomicLong rechazadas = new AtomicLong();
+
+        Estado(int concurrentes, int cola, long esperaMs, int tiempoLimiteMs) {
+            this.concurrentes = concurrentes;
+            this.cola = cola;
+            this.esperaMs = esperaMs;
+            this.tiempoLimiteMs = tiempoLimiteMs;
+            this.permisos = new Semaphore(concurrentes, true);
+        }
+    }
+}
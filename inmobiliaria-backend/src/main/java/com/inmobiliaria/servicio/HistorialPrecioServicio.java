@@ -0,0 +1,131 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.TendenciaPrecio;
+import com.inmobiliaria.modelo.HistorialPrecioLote;
+import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.repositorio.HistorialPrecioRepositorio;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio que registra y consulta el historial de precios de los lotes.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class HistorialPrecioServicio {
+
+    /** Intervalos aceptados para agrupar las tendencias (unidades de date_trunc) */
+    private static final Set<String> INTERVALOS = Set.of("week", "month", "quarter", "year");
+
+    /** Anios que se consultan cuando no se indica fecha de inicio */
+    private static final int ANIOS_POR_DEFECTO = 5;
+
+    /** Repositorio para acceder al historial de precios */
+    private final HistorialPrecioRepositorio historialPrecioRepositorio;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param historialPrecioRepositorio repositorio del historial
+     */
+    public HistorialPrecioServicio(HistorialPrecioRepositorio historialPrecioRepositorio) {
+        this.historialPrecioRepositorio = historialPrecioRepositorio;
+    }
+
+    /**
+     * Agrega una fila al historial con el precio actual del lote.
+     * Debe llamarse dentro de la transaccion que cambia el precio.
+     *
+     * @param lote lote con el precio nuevo ya asignado
+     */
+    @Transactional
+    public void registrarPrecio(Lote lote) {
+        historialPrecioRepositorio.save(new HistorialPrecioLote(lote));
+    }
+
+    /**
+     * Obtiene la serie de precios de un lote.
+     *
+     * @param idLote ID del lote
+     * @param desde fecha inicial (incluida), o null para los ultimos 5 anios
+     * @param hasta fecha final (incluida), o null para hoy
+     * @return cambios de precio ordenados por fecha
+     */
+    @Transactional(readOnly = true)
+    public List<HistorialPrecioLote> obtenerSerieDeLote(
+            Integer idLote, LocalDate desde, LocalDate hasta) {
+        return historialPrecioRepositorio.buscarSerieDeLote(
+            idLote, inicioRango(desde), finRango(hasta));
+    }
+
+    /**
+     * Calcula la tendencia del precio por m2 de un municipio.
+     *
+     * @param municipio nombre del municipio
+     * @param intervalo week, month, quarter o year
+     * @param desde fecha inicial (incluida), o null para los ultimos 5 anios
+     * @param hasta fecha final (incluida), o null para hoy
+     * @return un registro por periodo ordenado por fecha
+     * @throws RuntimeException si el intervalo no es valido
+     */
+    @Transactional(readOnly = true)
+    public List<TendenciaPrecio> obtenerTendenciaMunicipio(
+            String municipio, String intervalo, LocalDate desde, LocalDate hasta) {
+
+        String unidad = intervalo.toLowerCase();
+        if (!INTERVALOS.contains(unidad)) {
+            throw new RuntimeException(
+                "Intervalo no valido: " + intervalo + ". Use week, month, quarter o year");
+        }
+
+        List<Object[]> filas = historialPrecioRepositorio.obtenerTendenciaPrecioM2(
+            municipio, unidad, inicioRango(desde), finRango(hasta));
+
+        List<TendenciaPrecio> tendencia = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            tendencia.add(new TendenciaPrecio(
+                aFecha(fila[0]),
+                ((Number) fila[1]).longValue(),
+                redondear(fila[2]),
+                redondear(fila[3]),
+                redondear(fila[4])));
+        }
+        return tendencia;
+    }
+
+    /** Convierte la fecha inicial opcional en el limite inferior del rango */
+    private static LocalDateTime inicioRango(LocalDate desde) {
+        LocalDate fecha = desde != null ? desde : LocalDate.now().minusYears(ANIOS_POR_DEFECTO);
+        return fecha.atStartOfDay();
+    }
+
+    /** Convierte la fecha final opcional (incluida) en el limite superior excluido */
+    private static LocalDateTime finRango(LocalDate hasta) {
+        LocalDate fecha = hasta != null ? hasta : LocalDate.now();
+        return fecha.plusDays(1).atStartOfDay();
+    }
+
+    /** El driver puede entregar el periodo como Timestamp o LocalDateTime */
+    private static LocalDate aFecha(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        return ((LocalDateTime) valor).toLocalDate();
+    }
+
+    /** Redondea a centavos el resultado numerico de la consulta */
+    private static BigDecimal redondear(Object valor) {
+        return new BigDecimal(valor.toString()).setScale(2, RoundingMode.HALF_UP);
+    }
+}
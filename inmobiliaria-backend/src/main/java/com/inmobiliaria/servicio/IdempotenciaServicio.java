@@ -0,0 +1,203 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.modelo.ClaveIdempotencia;
+import com.inmobiliaria.repositorio.ClaveIdempotenciaRepositorio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Servicio que hace idempotentes las operaciones de creacion.
+ * La respuesta de cada operacion con Idempotency-Key se guarda en la
+ * misma transaccion que los datos de negocio, asi un reintento con la
+ * misma clave recibe la respuesta guardada sin tocar las tablas de negocio.
+ * Las claves recientes se mantienen tambien en una cache en memoria
+ * de tamano limitado (LRU) para no consultar la base en cada reintento.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class IdempotenciaServicio {
+
+    /** Longitud maxima aceptada para la clave */
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    /** Repositorio de claves guardadas */
+    private final ClaveIdempotenciaRepositorio claveRepositorio;
+
+    /** Transaccion que agrupa la operacion y el registro de la clave */
+    private final TransactionTemplate transaccion;
+
+    /** Serializador JSON configurado por Spring */
+    private final JsonMapper jsonMapper;
+
+    /** Tiempo de vida de una clave */
+    private final Duration vigencia;
+
+    /** Cache LRU de claves recientes */
+    private final Map<String, ClaveIdempotencia> cache;
+
+    /** Claves cuya operacion se esta ejecutando en este momento */
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param claveRepositorio repositorio de claves
+     * @param transactionManager administrador de transacciones
+     * @param jsonMapper serializador JSON
+     * @param vigenciaHoras horas que se conserva cada clave
+     * @param capacidadMemoria cantidad maxima de claves en memoria
+     */
+    public IdempotenciaServicio(ClaveIdempotenciaRepositorio claveRepositorio,
+                                PlatformTransactionManager transactionManager,
+                                JsonMapper jsonMapper,
+                                @Value("${inmobiliaria.idempotencia.vigencia-horas:24}") long vigenciaHoras,
+                                @Value("${inmobiliaria.idempotencia.capacidad-memoria:10000}") int capacidadMemoria) {
+        this.claveRepositorio = claveRepositorio;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.vigencia = Duration.ofHours(vigenciaHoras);
+        this.cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ClaveIdempotencia> mayor) {
+                    return size() > capacidadMemoria;
+                }
+            });
+    }
+
+    /**
+     * Ejecuta una operacion de creacion una sola vez por clave.
+     * Sin clave la operacion se ejecuta normalmente.
+     *
+     * @param clave valor del encabezado Idempotency-Key, puede ser null
+     * @param operacion nombre de la operacion, por ejemplo POST /api/ventas
+     * @param solicitud cuerpo recibido, para detectar reuso de la clave
+     * @param tipoRespuesta clase de la respuesta para reconstruirla
+     * @param accion operacion a ejecutar
+     * @param <T> tipo de la respuesta
+     * @return respuesta nueva o la guardada del primer intento
+     * @throws ResponseStatusException 409 si la clave esta en curso,
+     *         422 si la clave se uso con otra operacion u otro cuerpo
+     */
+    public <T> T ejecutar(String clave, String operacion, Object solicitud,
+                          Class<T> tipoRespuesta, Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "La Idempotency-Key no puede tener mas de " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+
+        String huella = huella(solicitud);
+
+        /* Reintento: responder con lo guardado sin tocar las tablas de negocio */
+        ClaveIdempotencia guardada = buscarVigente(clave);
+        if (guardada != null) {
+            return repetirRespuesta(guardada, operacion, huella, tipoRespuesta);
+        }
+
+        /* Un reintento que llega mientras el primero sigue en curso */
+        if (!enCurso.add(clave)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Ya hay una solicitud en curso con la Idempotency-Key: " + clave);
+        }
+
+        try {
+            ClaveIdempotencia registro = transaccion.execute(estado -> {
+                T resultado = accion.get();
+                return claveRepositorio.save(new ClaveIdempotencia(
+                    clave, operacion, huella,
+                    jsonMapper.writeValueAsString(resultado),
+                    LocalDateTime.now().plus(vigencia)));
+            });
+            cache.put(clave, registro);
+            return jsonMapper.readValue(registro.getRespuesta(), tipoRespuesta);
+        } finally {
+            enCurso.remove(clave);
+        }
+    }
+
+    /**
+     * Borra de la base las claves vencidas.
+     */
+    @Scheduled(fixedDelayString = "${inmobiliaria.idempotencia.limpieza-ms:3600000}")
+    @Transactional
+    public void limpiarClavesVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        claveRepositorio.borrarVencidas(ahora);
+        synchronized (cache) {
+            cache.values().removeIf(c -> c.getFechaExpiracion().isBefore(ahora));
+        }
+    }
+
+    /**
+     * Busca la clave en memoria y luego en la base de datos.
+     *
+     * @param clave clave enviada por el cliente
+     * @return registro vigente o null
+     */
+    private ClaveIdempotencia buscarVigente(String clave) {
+        ClaveIdempotencia guardada = cache.get(clave);
+        if (guardada == null) {
+            guardada = claveRepositorio.findById(clave).orElse(null);
+            if (guardada != null) {
+                cache.put(clave, guardada);
+            }
+        }
+        if (guardada != null && guardada.getFechaExpiracion().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return guardada;
+    }
+
+    /**
+     * Reconstruye la respuesta guardada validando que el reintento
+     * sea exactamente la misma solicitud.
+     */
+    private <T> T repetirRespuesta(ClaveIdempotencia guardada, String operacion,
+                                   String huella, Class<T> tipoRespuesta) {
+        if (!guardada.getOperacion().equals(operacion)
+                || !guardada.getHuellaSolicitud().equals(huella)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT,
+                "La Idempotency-Key " + guardada.getClave() +
+                " ya se uso con una solicitud diferente");
+        }
+        return jsonMapper.readValue(guardada.getRespuesta(), tipoRespuesta);
+    }
+
+    /**
+     * SHA-256 en hexadecimal del cuerpo de la solicitud serializado.
+     */
+    private String huella(Object solicitud) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] json = jsonMapper.writeValueAsString(solicitud).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(sha256.digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
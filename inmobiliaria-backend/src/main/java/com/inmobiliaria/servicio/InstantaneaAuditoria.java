@@ -0,0 +1,134 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.modelo.Agente;
+import com.inmobiliaria.modelo.Cliente;
+import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.modelo.Venta;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Campos auditados de cada entidad y diferencia entre dos instantaneas.
+ * La instantanea se toma antes de modificar la entidad y otra despues;
+ * la auditoria solo guarda los campos que cambiaron.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public final class InstantaneaAuditoria {
+
+    private InstantaneaAuditoria() {
+    }
+
+    /**
+     * Campos auditados de un lote.
+     *
+     * @param lote lote
+     * @return valor de cada campo
+     */
+    public static Map<String, Object> de(Lote lote) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("referencia", lote.getReferencia());
+        campos.put("ubicacion", lote.getUbicacion());
+        campos.put("municipio", lote.getMunicipio());
+        campos.put("departamento", lote.getDepartamento());
+        campos.put("areaM2", lote.getAreaM2());
+        campos.put("precio", lote.getPrecio());
+        campos.put("descripcion", lote.getDescripcion());
+        campos.put("estado", lote.getEstado());
+        return campos;
+    }
+
+    /**
+     * Campos auditados de un cliente.
+     *
+     * @param cliente cliente
+     * @return valor de cada campo
+     */
+    public static Map<String, Object> de(Cliente cliente) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("cedula", cliente.getCedula());
+        campos.put("nombre", cliente.getNombre());
+        campos.put("apellido", cliente.getApellido());
+        campos.put("correo", cliente.getCorreo());
+        campos.put("telefono", cliente.getTelefono());
+        campos.put("direccion", cliente.getDireccion());
+        campos.put("activo", cliente.getActivo());
+        return campos;
+    }
+
+    /**
+     * Campos auditados de un agente.
+     *
+     * @param agente agente
+     * @return valor de cada campo
+     */
+    public static Map<String, Object> de(Agente agente) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("cedula", agente.getCedula());
+        campos.put("nombre", agente.getNombre());
+        campos.put("apellido", agente.getApellido());
+        campos.put("correo", agente.getCorreo());
+        campos.put("telefono", agente.getTelefono());
+        campos.put("activo", agente.getActivo());
+        return campos;
+    }
+
+    /**
+     * Campos auditados de una venta.
+     *
+     * @param venta venta
+     * @return valor de cada campo
+     */
+    public static Map<String, Object> de(Venta venta) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("idCliente", venta.getCliente() == null ? null : venta.getCliente().getIdCliente());
+        campos.put("idLote", venta.getLote() == null ? null : venta.getLote().getIdLote());
+        campos.put("idAgente", venta.getAgente() == null ? null : venta.getAgente().getIdAgente());
+        campos.put("fechaVenta", venta.getFechaVenta());
+        campos.put("precioFinal", venta.getPrecioFinal());
+        campos.put("formaPago", venta.getFormaPago());
+        campos.put("observaciones", venta.getObservaciones());
+        campos.put("estado", venta.getEstado());
+        return campos;
+    }
+
+    /**
+     * Campos que difieren entre dos instantaneas. Con antes nulo (alta)
+     * se toman todos los campos de despues, y con despues nulo (baja)
+     * todos los de antes. Los importes se comparan con compareTo.
+     *
+     * @param antes instantanea previa o null
+     * @param despues instantanea posterior o null
+     * @return por campo cambiado, {"antes": valor, "despues": valor}
+     */
+    public static Map<String, Map<String, Object>> diferencias(Map<String, Object> antes,
+                                                                Map<String, Object> despues) {
+        Map<String, Map<String, Object>> cambios = new LinkedHashMap<>();
+        Map<String, Object> campos = despues != null ? despues : antes;
+        if (campos == null) {
+            return cambios;
+        }
+        for (String campo : campos.keySet()) {
+            Object anterior = antes == null ? null : antes.get(campo);
+            Object nuevo = despues == null ? null : despues.get(campo);
+            if (!iguales(anterior, nuevo)) {
+                Map<String, Object> cambio = new LinkedHashMap<>();
+                cambio.put("antes", anterior);
+                cambio.put("despues", nuevo);
+                cambios.put(campo, cambio);
+            }
+        }
+        return cambios;
+    }
+
+    private static boolean iguales(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
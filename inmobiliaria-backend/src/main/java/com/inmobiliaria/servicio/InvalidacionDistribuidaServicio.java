@@ -0,0 +1,355 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.evento.AgentesModificadosEvento;
+import com.inmobiliaria.evento.CachesDesincronizadasEvento;
+import com.inmobiliaria.evento.ClientesModificadosEvento;
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.evento.VentasModificadasEvento;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidacion de caches entre varias instancias del backend usando
+ * LISTEN/NOTIFY de PostgreSQL, sin un broker externo.
+ *
+ * Envio: cada evento local de lotes, agentes, clientes o ventas se
+ * convierte en un NOTIFY dentro de la misma transaccion que hizo el
+ * cambio, asi PostgreSQL solo lo entrega si la transaccion confirma.
+ * El mensaje es texto compacto: nodo|tipo|ids separados por coma
+ * (tipo L lotes, A agentes, C clientes, V ventas); listas largas se
+ * parten para no pasar el limite de 8000 bytes de NOTIFY.
+ *
+ * Recepcion: un hilo con su propia conexion (fuera del pool) hace LISTEN
+ * y vuelve a publicar los mensajes de otros nodos como eventos locales,
+ * que las caches ya escuchan. Los mensajes del propio nodo se ignoran.
+ * Si la conexion se cae, se reintenta con espera creciente y, al volver,
+ * se publica CachesDesincronizadasEvento para recargar todo, porque los
+ * NOTIFY enviados mientras no se escuchaba se pierden.
+ *
+ * Para probarlo basta con dos instancias en la misma maquina apuntando a
+ * la misma base (por ejemplo, la segunda con --server.port=8081): un
+ * cambio de lote en una se ve en /api/lotes/sugerencias de la otra.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class InvalidacionDistribuidaServicio {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidacionDistribuidaServicio.class);
+
+    /** Tipos de mensaje */
+    static final char TIPO_LOTES = 'L';
+    static final char TIPO_AGENTES = 'A';
+    static final char TIPO_CLIENTES = 'C';
+    static final char TIPO_VENTAS = 'V';
+
+    /** Tamano maximo de un mensaje, por debajo del limite de NOTIFY */
+    static final int MAXIMO_BYTES = 7900;
+
+    private static final long ESPERA_MAXIMA_RECONEXION_MS = 30_000;
+
+    /** Acceso JDBC para enviar NOTIFY en la transaccion actual */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Publicador de los eventos recibidos de otros nodos */
+    private final ApplicationEventPublisher eventos;
+
+    private final boolean habilitada;
+    private final String canal;
+    private final long esperaMs;
+    private final long esperaReconexionMs;
+    private final String url;
+    private final String usuario;
+    private final String clave;
+
+    /** Identificador de esta instancia, distinto en cada arranque */
+    private final String nodo = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile boolean activo = true;
+    private volatile Connection conexion;
+    private Thread escucha;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param jdbcTemplate acceso JDBC
+     * @param eventos publicador de eventos de Spring
+     * @param habilitada false para no enviar ni escuchar
+     * @param canal canal de LISTEN/NOTIFY
+     * @param esperaMs cada cuanto se comprueba la conexion sin mensajes
+     * @param esperaReconexionMs primera espera antes de reconectar
+     * @param url URL JDBC de la base de datos
+     * @param usuario usuario de la base de datos
+     * @param clave clave de la base de datos
+     */
+    public InvalidacionDistribuidaServicio(JdbcTemplate jdbcTemplate,
+                                           ApplicationEventPublisher eventos,
+                                           @Value("${inmobiliaria.invalidacion.habilitada:true}") boolean habilitada,
+                                           @Value("${inmobiliaria.invalidacion.canal:inmobiliaria_invalidacion}") String canal,
+                                           @Value("${inmobiliaria.invalidacion.espera-ms:10000}") long esperaMs,
+                                           @Value("${inmobiliaria.invalidacion.espera-reconexion-ms:1000}") long esperaReconexionMs,
+                                           @Value("${spring.datasource.url}") String url,
+                                           @Value("${spring.datasource.username}") String usuario,
+                                           @Value("${spring.datasource.password}") String clave) {
+        if (!canal.matches("[a-z_][a-z0-9_]*")) {
+            throw new RuntimeException("Canal de invalidacion no valido: " + canal);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventos = eventos;
+        this.habilitada = habilitada;
+        this.canal = canal;
+        this.esperaMs = esperaMs;
+        this.esperaReconexionMs = esperaReconexionMs;
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+    }
+
+    /**
+     * Inicia el hilo de escucha. Arranca antes que las caches se carguen
+     * (ApplicationReadyEvent), asi no hay hueco entre la carga y el LISTEN.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitada) {
+            return;
+        }
+        escucha = new Thread(this::escuchar, "invalidacion-escucha");
+        escucha.setDaemon(true);
+        escucha.start();
+    }
+
+    /**
+     * Detiene la escucha cerrando su conexion.
+     */
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (escucha == null) {
+            return;
+        }
+        cerrar(conexion);
+        escucha.interrupt();
+        try {
+            escucha.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Avisa a los demas nodos de los lotes modificados.
+     *
+     * @param evento lotes afectados
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void alModificarLotes(LotesModificadosEvento evento) {
+        notificar(TIPO_LOTES, evento.idsLotes());
+    }
+
+    /**
+     * Avisa a los demas nodos de los agentes modificados.
+     *
+     * @param evento agentes afectados
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void alModificarAgentes(AgentesModificadosEvento evento) {
+        notificar(TIPO_AGENTES, evento.idsAgentes());
+    }
+
+    /**
+     * Avisa a los demas nodos de los clientes modificados.
+     *
+     * @param evento clientes afectados
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void alModificarClientes(ClientesModificadosEvento evento) {
+        notificar(TIPO_CLIENTES, evento.idsClientes());
+    }
+
+    /**
+     * Avisa a los demas nodos de que hay ventas nuevas o canceladas. No
+     * lleva ids: cada nodo se pone al dia leyendo el libro de ventas.
+     *
+     * @param evento ventas afectadas
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void alModificarVentas(VentasModificadasEvento evento) {
+        notificar(TIPO_VENTAS, List.of());
+    }
+
+    /**
+     * Envia los mensajes con pg_notify en la transaccion actual. No se
+     * reenvian los eventos que el propio hilo de escucha publica.
+     */
+    private void notificar(char tipo, List<Integer> ids) {
+        if (!habilitada || Thread.currentThread() == escucha) {
+            return;
+        }
+        for (String mensaje : mensajes(nodo, tipo, ids)) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", canal, mensaje);
+        }
+    }
+
+    /**
+     * Arma los mensajes de un tipo partiendo la lista de ids para no
+     * pasar MAXIMO_BYTES (los ids son ASCII, un byte por caracter).
+     *
+     * @param nodo nodo que envia
+     * @param tipo tipo de entidad
+     * @param ids IDs afectados (vacio si el tipo no los necesita)
+     * @return uno o varios mensajes
+     */
+    static List<String> mensajes(String nodo, char tipo, List<Integer> ids) {
+        List<String> mensajes = new ArrayList<>();
+        String prefijo = nodo + "|" + tipo + "|";
+        StringBuilder actual = new StringBuilder(prefijo);
+        for (Integer id : ids) {
+            String texto = String.valueOf(id);
+            if (actual.length() > prefijo.length()
+                    && actual.length() + 1 + texto.length() > MAXIMO_BYTES) {
+                mensajes.add(actual.toString());
+                actual.setLength(prefijo.length());
+            }
+            if (actual.length() > prefijo.length()) {
+                actual.append(',');
+            }
+            actual.append(texto);
+        }
+        if (ids.isEmpty() || actual.length() > prefijo.length()) {
+            mensajes.add(actual.toString());
+        }
+        return mensajes;
+    }
+
+    /**
+     * Bucle del hilo de escucha: conecta, hace LISTEN y espera mensajes;
+     * cada espera sin mensajes comprueba la conexion con un SELECT 1.
+     */
+    private void escuchar() {
+        long espera = esperaReconexionMs;
+        boolean reconexion = false;
+        while (activo) {
+            try (Connection nueva = conectar()) {
+                conexion = nueva;
+                try (Statement sentencia = nueva.createStatement()) {
+                    sentencia.execute("LISTEN " + canal);
+                }
+                if (reconexion) {
+                    log.info("Escucha de invalidaciones reconectada; se recargan las caches");
+                    eventos.publishEvent(new CachesDesincronizadasEvento());
+                }
+                reconexion = true;
+                espera = esperaReconexionMs;
+
+                PGConnection pg = nueva.unwrap(PGConnection.class);
+                while (activo) {
+                    PGNotification[] notificaciones = pg.getNotifications((int) esperaMs);
+                    if (notificaciones == null || notificaciones.length == 0) {
+                        try (Statement sentencia = nueva.createStatement()) {
+                            sentencia.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notificacion : notificaciones) {
+                        try {
+                            recibir(notificacion.getParameter());
+                        } catch (RuntimeException e) {
+                            log.warn("No se pudo aplicar la invalidacion {}: {}",
+                                notificacion.getParameter(), e.getMessage());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!activo) {
+                    break;
+                }
+                reconexion = true;
+                log.warn("Escucha de invalidaciones caida, reintento en {} ms: {}", espera, e.getMessage());
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_RECONEXION_MS);
+            } finally {
+                conexion = null;
+            }
+        }
+    }
+
+    private Connection conectar() throws SQLException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("user", usuario);
+        propiedades.setProperty("password", clave);
+        propiedades.setProperty("tcpKeepAlive", "true");
+        propiedades.setProperty("ApplicationName", "inmobiliaria-invalidacion");
+        return DriverManager.getConnection(url, propiedades);
+    }
+
+    /**
+     * Convierte un mensaje de otro nodo en el evento local que corresponde.
+     * Los mensajes mal formados se registran y se ignoran.
+     */
+    private void recibir(String mensaje) {
+        String[] partes = mensaje.split("\\|", -1);
+        if (partes.length != 3 || partes[1].length() != 1) {
+            log.warn("Mensaje de invalidacion no valido: {}", mensaje);
+            return;
+        }
+        if (partes[0].equals(nodo)) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        try {
+            for (String id : partes[2].split(",")) {
+                if (!id.isEmpty()) {
+                    ids.add(Integer.valueOf(id));
+                }
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Mensaje de invalidacion no valido: {}", mensaje);
+            return;
+        }
+
+        switch (partes[1].charAt(0)) {
+            case TIPO_LOTES -> eventos.publishEvent(LotesModificadosEvento.de(ids));
+            case TIPO_AGENTES -> eventos.publishEvent(AgentesModificadosEvento.de(ids));
+            case TIPO_CLIENTES -> eventos.publishEvent(ClientesModificadosEvento.de(ids));
+            case TIPO_VENTAS -> eventos.publishEvent(new VentasModificadasEvento(List.of()));
+            default -> log.warn("Tipo de invalidacion desconocido: {}", mensaje);
+        }
+    }
+
+    private static void cerrar(Connection conexion) {
+        if (conexion == null) {
+            return;
+        }
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            log.debug("No se pudo cerrar la conexion de escucha: {}", e.getMessage());
+        }
+    }
+}
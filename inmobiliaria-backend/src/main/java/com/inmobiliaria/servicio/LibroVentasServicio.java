@@ -0,0 +1,177 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EventoVenta;
+import com.inmobiliaria.dto.PaginaEventosVenta;
+import com.inmobiliaria.modelo.TipoEventoVenta;
+import com.inmobiliaria.modelo.Venta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Libro de eventos de venta de solo insercion (tabla eventos_venta).
+ * Los eventos de una transaccion se acumulan en memoria y se insertan
+ * en un solo lote JDBC justo antes del commit, con un bloqueo
+ * consultivo que se libera al confirmar. Asi id_evento crece en el
+ * orden en que confirman las transacciones y quien lee el libro desde
+ * una posicion nunca encuentra despues un evento anterior a ella:
+ * los acumulados y caches se ponen al dia leyendo desde la ultima
+ * posicion que aplicaron, sin recorrer la tabla ventas.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class LibroVentasServicio {
+
+    /** Maximo de eventos por lectura */
+    public static final int MAXIMO_EVENTOS = 1000;
+
+    /** Clave del bloqueo consultivo que ordena las escrituras del libro */
+    private static final long CLAVE_BLOQUEO = 0x4C4942524FL;
+
+    /** Filas por lote JDBC */
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO eventos_venta (id_venta, tipo, id_agente, fecha_venta, precio_cent, observaciones) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_LEER =
+        "SELECT id_evento, id_venta, tipo, fecha_registro, id_agente, fecha_venta, precio_cent, " +
+        "observaciones FROM eventos_venta ";
+
+    /** Convierte una fila de eventos_venta en su DTO */
+    private static final RowMapper<EventoVenta> FILA = (rs, n) -> new EventoVenta(
+        rs.getLong(1),
+        rs.getInt(2),
+        TipoEventoVenta.desdeCodigo(rs.getShort(3)),
+        rs.getObject(4, LocalDateTime.class),
+        rs.getInt(5),
+        rs.getDate(6).toLocalDate(),
+        BigDecimal.valueOf(rs.getLong(7), 2),
+        rs.getString(8));
+
+    /** Acceso JDBC; comparte la conexion de la transaccion JPA */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param jdbcTemplate acceso JDBC
+     */
+    public LibroVentasServicio(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Agrega un evento por venta a la transaccion en curso. Se escriben
+     * al confirmarla; si se revierte, no queda ninguno.
+     *
+     * @param tipo tipo de evento
+     * @param ventas ventas afectadas (con ID, agente, fecha y precio)
+     * @throws IllegalStateException si no hay una transaccion activa
+     */
+    public void registrar(TipoEventoVenta tipo, Collection<Venta> ventas) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los eventos de venta se registran dentro de una transaccion");
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pendientes = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(new Escritura(pendientes));
+        }
+        for (Venta venta : ventas) {
+            pendientes.add(new Object[] {
+                venta.getIdVenta(),
+                tipo.codigo(),
+                venta.getAgente().getIdAgente(),
+                Date.valueOf(venta.getFechaVenta()),
+                venta.getPrecioFinal().movePointRight(2).longValue(),
+                venta.getObservaciones()
+            });
+        }
+    }
+
+    /**
+     * Lee eventos posteriores a una posicion del libro.
+     *
+     * @param desde ultima posicion ya procesada (0 para el inicio)
+     * @param limite cantidad maxima de eventos (1 a 1000)
+     * @return eventos en orden y posicion para el siguiente tramo
+     * @throws RuntimeException si la posicion o el limite no son validos
+     */
+    public PaginaEventosVenta leerDesde(long desde, int limite) {
+        if (desde < 0) {
+            throw new RuntimeException("La posicion del libro no puede ser negativa");
+        }
+        if (limite < 1 || limite > MAXIMO_EVENTOS) {
+            throw new RuntimeException("El limite debe estar entre 1 y " + MAXIMO_EVENTOS);
+        }
+        List<EventoVenta> eventos = jdbcTemplate.query(
+            SQL_LEER + "WHERE id_evento > ? ORDER BY id_evento LIMIT ?", FILA, desde, limite);
+        long siguiente = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).idEvento();
+        return new PaginaEventosVenta(eventos, siguiente);
+    }
+
+    /**
+     * Eventos de una venta en orden.
+     *
+     * @param idVenta ID de la venta
+     * @return historial de la venta
+     */
+    public List<EventoVenta> obtenerHistorial(Integer idVenta) {
+        return jdbcTemplate.query(SQL_LEER + "WHERE id_venta = ? ORDER BY id_evento", FILA, idVenta);
+    }
+
+    /**
+     * Ultima posicion escrita en el libro.
+     *
+     * @return id_evento mas alto, o 0 si el libro esta vacio
+     */
+    public long obtenerUltimaPosicion() {
+        Long ultima = jdbcTemplate.queryForObject(
+            "SELECT coalesce(max(id_evento), 0) FROM eventos_venta", Long.class);
+        return ultima == null ? 0 : ultima;
+    }
+
+    /** Inserta los eventos pendientes antes del commit y libera el recurso al terminar */
+    private final class Escritura implements TransactionSynchronization {
+
+        private final List<Object[]> pendientes;
+
+        Escritura(List<Object[]> pendientes) {
+            this.pendientes = pendientes;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            /* Se libera al confirmar: las posiciones quedan en orden de commit */
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, CLAVE_BLOQUEO);
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, pendientes, TAMANO_LOTE, (ps, evento) -> {
+                for (int i = 0; i < evento.length; i++) {
+                    ps.setObject(i + 1, evento[i]);
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LibroVentasServicio.this);
+        }
+    }
+}
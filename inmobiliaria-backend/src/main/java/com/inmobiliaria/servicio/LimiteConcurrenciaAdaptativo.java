@@ -0,0 +1,144 @@
+package com.inmobiliaria.servicio;
+
+/**
+ * Limite de solicitudes simultaneas que se ajusta solo segun la latencia
+ * observada (algoritmo de gradiente, como Gradient2 de concurrency-limits
+ * de Netflix).
+ *
+ * Se llevan dos promedios moviles de la duracion de las solicitudes: uno
+ * corto (las ultimas decenas) y uno largo (las ultimas centenas). Mientras
+ * el corto no supere al largo por mas de la tolerancia, el gradiente es 1
+ * y el limite crece un poco (raiz del limite) si se esta usando; cuando
+ * la latencia reciente sube, el gradiente baja hasta 0.5 y el limite se
+ * reduce en proporcion. Comparar con un promedio largo, y no con la
+ * latencia minima, evita que una mezcla de rutas rapidas y lentas
+ * parezca una sobrecarga.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public class LimiteConcurrenciaAdaptativo {
+
+    private static final double PESO_CORTO = 0.1;
+    private static final double PESO_LARGO = 0.005;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double suavizado;
+
+    private double limite;
+    private int enCurso;
+    private double promedioCortoMs;
+    private double promedioLargoMs;
+
+    /**
+     * Crea el limitador.
+     *
+     * @param inicial limite al arrancar
+     * @param minimo limite minimo
+     * @param maximo limite maximo
+     * @param tolerancia cuanto puede subir la latencia reciente sobre la
+     *                   habitual sin reducir el limite (por ejemplo 1.5)
+     * @param suavizado peso de cada ajuste entre 0 y 1 (por ejemplo 0.2)
+     */
+    public LimiteConcurrenciaAdaptativo(int inicial, int minimo, int maximo,
+                                        double tolerancia, double suavizado) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new RuntimeException("Limites de concurrencia no validos: "
+                + minimo + " <= " + inicial + " <= " + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+        this.limite = inicial;
+    }
+
+    /**
+     * Ocupa un lugar si hay menos solicitudes en curso que el limite.
+     *
+     * @return true si se admite la solicitud
+     */
+    public synchronized boolean adquirir() {
+        if (enCurso >= (int) limite) {
+            return false;
+        }
+        enCurso++;
+        return true;
+    }
+
+    /**
+     * Ocupa un lugar sin mirar el limite (solicitudes que no se descartan
+     * pero que si cuentan en la carga).
+     */
+    public synchronized void adquirirSiempre() {
+        enCurso++;
+    }
+
+    /**
+     * Libera el lugar y ajusta el limite con la duracion de la solicitud.
+     *
+     * @param duracionMs duracion de la solicitud; negativa si no se mide
+     */
+    public synchronized void liberar(double duracionMs) {
+        int enCursoAntes = enCurso;
+        enCurso--;
+        if (duracionMs < 0) {
+            return;
+        }
+        if (promedioLargoMs == 0) {
+            promedioCortoMs = duracionMs;
+            promedioLargoMs = duracionMs;
+            return;
+        }
+        promedioCortoMs += (duracionMs - promedioCortoMs) * PESO_CORTO;
+        promedioLargoMs += (duracionMs - promedioLargoMs) * PESO_LARGO;
+
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * promedioLargoMs / promedioCortoMs));
+        double nuevo;
+        if (gradiente >= 1.0 && enCursoAntes < limite / 2) {
+            /* Sin carga no hay evidencia para subir el limite */
+            nuevo = limite;
+        } else {
+            nuevo = limite * gradiente + Math.sqrt(limite);
+        }
+        limite = Math.max(minimo, Math.min(maximo, limite * (1 - suavizado) + nuevo * suavizado));
+    }
+
+    /**
+     * Limite actual.
+     *
+     * @return solicitudes simultaneas admitidas
+     */
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * Solicitudes en curso.
+     *
+     * @return cantidad actual
+     */
+    public synchronized int getEnCurso() {
+        return enCurso;
+    }
+
+    /**
+     * Latencia reciente (promedio corto).
+     *
+     * @return milisegundos
+     */
+    public synchronized double getLatenciaRecienteMs() {
+        return promedioCortoMs;
+    }
+
+    /**
+     * Latencia habitual (promedio largo).
+     *
+     * @return milisegundos
+     */
+    public synchronized double getLatenciaHabitualMs() {
+        return promedioLargoMs;
+    }
+}
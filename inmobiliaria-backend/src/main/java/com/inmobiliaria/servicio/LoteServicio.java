@@ -1,12 +1,29 @@
 package com.inmobiliaria.servicio;
 
+import com.inmobiliaria.dto.CambioEstadoMasivo;
+import com.inmobiliaria.dto.ResultadoCambioEstado;
+import com.inmobiliaria.dto.ResultadoBusquedaLote;
+import com.inmobiliaria.dto.ResultadoCambioEstadoMasivo;
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.modelo.EstadoLote;
 import com.inmobiliaria.modelo.Lote;
 import com.inmobiliaria.repositorio.LoteRepositorio;
+import com.inmobiliaria.repositorio.VentaRepositorio;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Servicio que implementa la logica de negocio para lotes inmobiliarios.
@@ -17,16 +34,55 @@ import java.util.List;
 @Service
 public class LoteServicio {
 
+    /** Maximo de ids aceptados en una consulta por lote */
+    public static final int MAXIMO_IDS_POR_CONSULTA = 500;
+
+    /** Maximo de resultados de la busqueda de texto */
+    public static final int MAXIMO_RESULTADOS_BUSQUEDA = 100;
+
+    /** Maximo de lotes que puede tocar un cambio de estado masivo */
+    public static final int MAXIMO_LOTES_CAMBIO_MASIVO = 2000;
+
+    /** Origen permitido de un cambio masivo a DISPONIBLE */
+    private static final List<EstadoLote> ORIGEN_MASIVO_DISPONIBLE = List.of(EstadoLote.RESERVADO);
+
+    /** Origen permitido de un cambio masivo a RESERVADO */
+    private static final List<EstadoLote> ORIGEN_MASIVO_RESERVADO = List.of(EstadoLote.DISPONIBLE);
+
     /** Repositorio para acceder a los datos de lotes */
     private final LoteRepositorio loteRepositorio;
 
+    /** Servicio que guarda cada cambio de precio */
+    private final HistorialPrecioServicio historialPrecioServicio;
+
+    /** Repositorio de ventas, para no eliminar lotes con ventas */
+    private final VentaRepositorio ventaRepositorio;
+
+    /** Auditoria de los cambios de lotes */
+    private final AuditoriaServicio auditoriaServicio;
+
+    /** Publicador de eventos para avisar a las caches de lotes */
+    private final ApplicationEventPublisher eventos;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param loteRepositorio repositorio de lotes
+     * @param historialPrecioServicio servicio del historial de precios
+     * @param ventaRepositorio repositorio de ventas
+     * @param auditoriaServicio servicio de auditoria
+     * @param eventos publicador de eventos de Spring
      */
-    public LoteServicio(LoteRepositorio loteRepositorio) {
+    public LoteServicio(LoteRepositorio loteRepositorio,
+                        HistorialPrecioServicio historialPrecioServicio,
+                        VentaRepositorio ventaRepositorio,
+                        AuditoriaServicio auditoriaServicio,
+                        ApplicationEventPublisher eventos) {
         this.loteRepositorio = loteRepositorio;
+        this.historialPrecioServicio = historialPrecioServicio;
+        this.ventaRepositorio = ventaRepositorio;
+        this.auditoriaServicio = auditoriaServicio;
+        this.eventos = eventos;
     }
 
     /**
@@ -45,7 +101,15 @@ public class LoteServicio {
                 "Ya existe un lote con la referencia: " + lote.getReferencia());
         }
 
-        return loteRepositorio.save(lote);
+        Lote loteGuardado = loteRepositorio.save(lote);
+
+        /* Primer punto de la serie de precios del lote */
+        historialPrecioServicio.registrarPrecio(loteGuardado);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_LOTE, loteGuardado.getIdLote(),
+            AuditoriaServicio.OPERACION_CREAR, null, InstantaneaAuditoria.de(loteGuardado));
+
+        eventos.publishEvent(LotesModificadosEvento.de(loteGuardado.getIdLote()));
+        return loteGuardado;
     }
 
     /**
@@ -72,6 +136,40 @@ public class LoteServicio {
                 "Lote no encontrado con ID: " + idLote));
     }
 
+    /**
+     * Busca varios lotes en una sola consulta (IN sobre la llave primaria).
+     * Los ids repetidos o inexistentes se ignoran.
+     *
+     * @param ids IDs de los lotes a buscar
+     * @return mapa id -> lote, en el orden de los ids solicitados
+     * @throws RuntimeException si se piden mas de {@value #MAXIMO_IDS_POR_CONSULTA} ids
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Lote> obtenerLotesPorIds(Collection<Integer> ids) {
+        Set<Integer> idsUnicos = new LinkedHashSet<>(ids);
+
+        if (idsUnicos.size() > MAXIMO_IDS_POR_CONSULTA) {
+            throw new RuntimeException(
+                "No se pueden consultar mas de " + MAXIMO_IDS_POR_CONSULTA +
+                " lotes a la vez. Solicitados: " + idsUnicos.size());
+        }
+
+        Map<Integer, Lote> encontrados = new LinkedHashMap<>();
+        for (Lote lote : loteRepositorio.findAllById(idsUnicos)) {
+            encontrados.put(lote.getIdLote(), lote);
+        }
+
+        /* Reordenar segun el orden de la solicitud */
+        Map<Integer, Lote> resultado = new LinkedHashMap<>();
+        for (Integer id : idsUnicos) {
+            Lote lote = encontrados.get(id);
+            if (lote != null) {
+                resultado.put(id, lote);
+            }
+        }
+        return resultado;
+    }
+
     /**
      * Filtra lotes por su estado actual.
      *
@@ -79,8 +177,58 @@ public class LoteServicio {
      * @return lista de lotes con ese estado ordenados por precio
      */
     @Transactional(readOnly = true)
-    public List<Lote> obtenerLotesPorEstado(String estado) {
-        return loteRepositorio.findByEstadoOrderByPrecioAsc(estado.toUpperCase());
+    public List<Lote> obtenerLotesPorEstado(EstadoLote estado) {
+        return loteRepositorio.findByEstadoOrderByPrecioAsc(estado);
+    }
+
+    /**
+     * Busqueda de texto completo en referencia, municipio, departamento,
+     * ubicacion y descripcion, opcionalmente filtrada por estado y precio.
+     * Los resultados vienen ordenados por relevancia con un fragmento del
+     * texto donde se resaltan las coincidencias.
+     *
+     * @param texto texto a buscar (admite "frase", OR y -palabra)
+     * @param estado estado del lote o null para todos
+     * @param precioMin precio minimo o null
+     * @param precioMax precio maximo o null
+     * @param limite maximo de resultados (1 a 100)
+     * @return resultados en orden de relevancia
+     * @throws RuntimeException si el texto esta vacio o el limite no es valido
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBusquedaLote> buscarLotes(String texto, EstadoLote estado,
+                                                   BigDecimal precioMin, BigDecimal precioMax,
+                                                   int limite) {
+        if (texto == null || texto.isBlank()) {
+            throw new RuntimeException("El texto de busqueda es obligatorio");
+        }
+        if (limite < 1 || limite > MAXIMO_RESULTADOS_BUSQUEDA) {
+            throw new RuntimeException(
+                "El limite debe estar entre 1 y " + MAXIMO_RESULTADOS_BUSQUEDA);
+        }
+
+        List<Object[]> filas = loteRepositorio.buscarTextoCompleto(
+            texto.trim(), estado == null ? null : estado.codigo(),
+            precioMin, precioMax, limite);
+        if (filas.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> ids = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            ids.add(((Number) fila[0]).intValue());
+        }
+        Map<Integer, Lote> lotes = obtenerLotesPorIds(ids);
+
+        List<ResultadoBusquedaLote> resultados = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Lote lote = lotes.get(((Number) fila[0]).intValue());
+            if (lote != null) {
+                resultados.add(new ResultadoBusquedaLote(
+                    lote, ((Number) fila[1]).floatValue(), resaltar((String) fila[2])));
+            }
+        }
+        return resultados;
     }
 
     /**
@@ -107,6 +255,10 @@ public class LoteServicio {
 
         /* Verificar que el lote existe antes de actualizar */
         Lote loteExistente = obtenerLotePorId(idLote);
+        Map<String, Object> antes = InstantaneaAuditoria.de(loteExistente);
+
+        /* Comparar con compareTo: 100.0 y 100.00 son el mismo precio */
+        boolean cambioPrecio = loteExistente.getPrecio().compareTo(datosNuevos.getPrecio()) != 0;
 
         /* Actualizar los campos del lote */
         loteExistente.setUbicacion(datosNuevos.getUbicacion());
@@ -115,9 +267,22 @@ public class LoteServicio {
         loteExistente.setAreaM2(datosNuevos.getAreaM2());
         loteExistente.setPrecio(datosNuevos.getPrecio());
         loteExistente.setDescripcion(datosNuevos.getDescripcion());
-        loteExistente.setEstado(datosNuevos.getEstado());
+        if (datosNuevos.getEstado() != null) {
+            validarTransicion(loteExistente, datosNuevos.getEstado());
+            loteExistente.setEstado(datosNuevos.getEstado());
+        }
+
+        Lote loteGuardado = loteRepositorio.save(loteExistente);
 
-        return loteRepositorio.save(loteExistente);
+        /* Solo se agrega historial cuando el precio realmente cambia */
+        if (cambioPrecio) {
+            historialPrecioServicio.registrarPrecio(loteGuardado);
+        }
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_LOTE, idLote,
+            AuditoriaServicio.OPERACION_ACTUALIZAR, antes, InstantaneaAuditoria.de(loteGuardado));
+
+        eventos.publishEvent(LotesModificadosEvento.de(idLote));
+        return loteGuardado;
     }
 
     /**
@@ -127,32 +292,248 @@ public class LoteServicio {
      * @param idLote ID del lote
      * @param nuevoEstado nuevo estado a asignar
      * @return lote con el estado actualizado
+     * @throws RuntimeException si la transicion no esta permitida
      */
     @Transactional
-    public Lote cambiarEstado(Integer idLote, String nuevoEstado) {
+    public Lote cambiarEstado(Integer idLote, EstadoLote nuevoEstado) {
         Lote lote = obtenerLotePorId(idLote);
-        lote.setEstado(nuevoEstado.toUpperCase());
-        return loteRepositorio.save(lote);
+        validarTransicion(lote, nuevoEstado);
+        auditarEstado(idLote, lote.getEstado(), nuevoEstado);
+        lote.setEstado(nuevoEstado);
+        Lote loteGuardado = loteRepositorio.save(lote);
+        eventos.publishEvent(LotesModificadosEvento.de(idLote));
+        return loteGuardado;
+    }
+
+    /**
+     * Cambia el estado de muchos lotes en una sola operacion, por ejemplo
+     * para liberar o congelar una manzana completa.
+     * Primero bloquea los lotes en orden de ID (un SELECT ... FOR UPDATE)
+     * y luego aplica un unico UPDATE cuya clausula WHERE solo deja pasar
+     * los estados de origen permitidos para la transicion.
+     *
+     * @param solicitud IDs o filtro de los lotes y el nuevo estado
+     * @return resultado por lote y total de lotes actualizados
+     * @throws RuntimeException si la solicitud no trae IDs ni filtro,
+     *         si el estado destino no se permite en modo masivo o si
+     *         se seleccionan mas de {@value #MAXIMO_LOTES_CAMBIO_MASIVO} lotes
+     */
+    @Transactional
+    public ResultadoCambioEstadoMasivo cambiarEstadoMasivo(CambioEstadoMasivo solicitud) {
+        EstadoLote nuevoEstado = solicitud.nuevoEstado();
+        List<EstadoLote> estadosOrigen = estadosOrigenMasivo(nuevoEstado);
+
+        /* Seleccionar y bloquear los lotes afectados */
+        List<Lote> lotes;
+        if (solicitud.porIds()) {
+            if (solicitud.ids().size() > MAXIMO_LOTES_CAMBIO_MASIVO) {
+                throw new RuntimeException(
+                    "No se pueden cambiar mas de " + MAXIMO_LOTES_CAMBIO_MASIVO +
+                    " lotes a la vez. Solicitados: " + solicitud.ids().size());
+            }
+            lotes = loteRepositorio.bloquearPorIds(new LinkedHashSet<>(solicitud.ids()));
+        } else if (solicitud.porFiltro()) {
+            /* Se bloquea uno de mas solo para saber si el filtro se pasa del maximo */
+            String prefijo = vacioComoNulo(solicitud.prefijoReferencia());
+            lotes = loteRepositorio.bloquearPorFiltro(
+                vacioComoNulo(solicitud.municipio()),
+                prefijo == null ? null : escaparLike(prefijo),
+                Limit.of(MAXIMO_LOTES_CAMBIO_MASIVO + 1));
+            if (lotes.size() > MAXIMO_LOTES_CAMBIO_MASIVO) {
+                throw new RuntimeException(
+                    "El filtro selecciona mas de " + MAXIMO_LOTES_CAMBIO_MASIVO + " lotes. " +
+                    "El maximo por operacion es " + MAXIMO_LOTES_CAMBIO_MASIVO);
+            }
+        } else {
+            throw new RuntimeException(
+                "Debe indicar los IDs de los lotes o un filtro por municipio o referencia");
+        }
+
+        /* Clasificar cada lote segun la misma regla que aplica el UPDATE */
+        List<ResultadoCambioEstado> resultados = new ArrayList<>(lotes.size());
+        List<Integer> idsActualizables = new ArrayList<>();
+        Set<Integer> idsEncontrados = new LinkedHashSet<>();
+        for (Lote lote : lotes) {
+            idsEncontrados.add(lote.getIdLote());
+            String resultado;
+            if (nuevoEstado == lote.getEstado()) {
+                resultado = ResultadoCambioEstado.SIN_CAMBIO;
+            } else if (estadosOrigen.contains(lote.getEstado())) {
+                resultado = ResultadoCambioEstado.ACTUALIZADO;
+                idsActualizables.add(lote.getIdLote());
+                auditarEstado(lote.getIdLote(), lote.getEstado(), nuevoEstado);
+            } else {
+                resultado = ResultadoCambioEstado.RECHAZADO;
+            }
+            resultados.add(new ResultadoCambioEstado(
+                lote.getIdLote(), lote.getReferencia(), lote.getEstado(), resultado));
+        }
+
+        if (solicitud.porIds()) {
+            for (Integer id : new LinkedHashSet<>(solicitud.ids())) {
+                if (!idsEncontrados.contains(id)) {
+                    resultados.add(new ResultadoCambioEstado(
+                        id, null, null, ResultadoCambioEstado.NO_ENCONTRADO));
+                }
+            }
+        }
+
+        /* Un solo UPDATE para todos los lotes que pueden cambiar */
+        int actualizados = 0;
+        if (!idsActualizables.isEmpty()) {
+            actualizados = loteRepositorio.cambiarEstadoMasivo(
+                idsActualizables, estadosOrigen, nuevoEstado);
+            eventos.publishEvent(LotesModificadosEvento.de(idsActualizables));
+        }
+
+        return new ResultadoCambioEstadoMasivo(nuevoEstado, actualizados, resultados);
+    }
+
+    /**
+     * Bloquea (SELECT ... FOR UPDATE) varios lotes en orden de ID para
+     * que la transaccion actual pueda validarlos y venderlos sin que otra
+     * operacion los cambie en medio.
+     *
+     * @param ids IDs de los lotes
+     * @return lotes encontrados ordenados por ID
+     */
+    @Transactional
+    public List<Lote> bloquearLotes(Collection<Integer> ids) {
+        return loteRepositorio.bloquearPorIds(ids);
+    }
+
+    /**
+     * Marca como VENDIDO varios lotes DISPONIBLE con un solo UPDATE.
+     *
+     * @param ids IDs de los lotes ya validados y bloqueados
+     * @throws RuntimeException si alguno ya no estaba DISPONIBLE
+     */
+    @Transactional
+    public void marcarVendidos(Collection<Integer> ids) {
+        int actualizados = loteRepositorio.cambiarEstadoMasivo(
+            ids, List.of(EstadoLote.DISPONIBLE), EstadoLote.VENDIDO);
+
+        if (actualizados != ids.size()) {
+            throw new RuntimeException(
+                "Solo " + actualizados + " de " + ids.size() +
+                " lotes estaban disponibles. No se registro ninguna venta");
+        }
+        for (Integer idLote : ids) {
+            auditarEstado(idLote, EstadoLote.DISPONIBLE, EstadoLote.VENDIDO);
+        }
+
+        eventos.publishEvent(LotesModificadosEvento.de(ids));
+    }
+
+    /**
+     * Estados desde los que se permite llegar al estado destino en un
+     * cambio masivo. VENDIDO queda excluido porque siempre debe pasar
+     * por el registro de una venta.
+     *
+     * @param nuevoEstado estado destino
+     * @return estados de origen permitidos
+     */
+    private static List<EstadoLote> estadosOrigenMasivo(EstadoLote nuevoEstado) {
+        return switch (nuevoEstado) {
+            case DISPONIBLE -> ORIGEN_MASIVO_DISPONIBLE;
+            case RESERVADO -> ORIGEN_MASIVO_RESERVADO;
+            case VENDIDO -> throw new RuntimeException(
+                "El cambio masivo solo admite DISPONIBLE o RESERVADO. " +
+                "Estado recibido: " + nuevoEstado);
+        };
+    }
+
+    /**
+     * Audita un cambio de estado; el registro solo se escribe si la
+     * transaccion confirma.
+     */
+    private void auditarEstado(Integer idLote, EstadoLote anterior, EstadoLote nuevo) {
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_LOTE, idLote,
+            AuditoriaServicio.OPERACION_CAMBIAR_ESTADO,
+            Collections.singletonMap("estado", anterior), Collections.singletonMap("estado", nuevo));
+    }
+
+    /**
+     * Valida el cambio de estado con la tabla de transiciones de EstadoLote.
+     *
+     * @param lote lote con su estado actual
+     * @param nuevoEstado estado destino
+     * @throws RuntimeException si la transicion no esta permitida
+     */
+    private static void validarTransicion(Lote lote, EstadoLote nuevoEstado) {
+        if (lote.getEstado() != null && !lote.getEstado().puedeCambiarA(nuevoEstado)) {
+            throw new RuntimeException(
+                "El lote " + lote.getReferencia() + " no puede pasar de " +
+                lote.getEstado() + " a " + nuevoEstado);
+        }
+    }
+
+    /**
+     * Convierte un texto vacio en null para que no filtre.
+     *
+     * @param texto texto recibido
+     * @return texto recortado o null
+     */
+    private static String vacioComoNulo(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+
+    /**
+     * Escapa el fragmento para HTML y cambia los marcadores de control
+     * que pone ts_headline por etiquetas mark.
+     *
+     * @param fragmento fragmento devuelto por ts_headline, o null
+     * @return fragmento listo para insertar como HTML, o null
+     */
+    private static String resaltar(String fragmento) {
+        if (fragmento == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(fragmento, "UTF-8")
+            .replace("\u0002", "<mark>")
+            .replace("\u0003", "</mark>");
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el texto se compare literal.
+     *
+     * @param texto texto a buscar
+     * @return texto con la barra invertida, % y _ escapados con una barra invertida
+     */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
      * Elimina un lote fisicamente de la base de datos.
-     * Solo se permite eliminar lotes en estado DISPONIBLE.
+     * Solo se permite eliminar lotes en estado DISPONIBLE y que no
+     * figuren en ninguna venta: una venta cancelada devuelve el lote a
+     * DISPONIBLE pero su fila sigue apuntando a el, y las ventas de
+     * meses archivados se buscan en lotes_ventas_archivadas.
      *
      * @param idLote ID del lote a eliminar
-     * @throws RuntimeException si el lote no esta disponible
+     * @throws RuntimeException si el lote no esta disponible o tiene ventas
      */
     @Transactional
     public void eliminarLote(Integer idLote) {
         Lote lote = obtenerLotePorId(idLote);
 
         /* Regla de negocio: solo se eliminan lotes disponibles */
-        if (!Lote.ESTADO_DISPONIBLE.equals(lote.getEstado())) {
+        if (lote.getEstado() != EstadoLote.DISPONIBLE) {
             throw new RuntimeException(
                 "Solo se pueden eliminar lotes en estado DISPONIBLE. " +
                 "Estado actual: " + lote.getEstado());
         }
+        if (ventaRepositorio.existsByLoteIdLote(idLote)
+                || ventaRepositorio.existeVentaArchivadaDeLote(idLote)) {
+            throw new RuntimeException(
+                "No se puede eliminar el lote " + lote.getReferencia() +
+                " porque tiene ventas registradas (aunque esten canceladas)");
+        }
 
         loteRepositorio.deleteById(idLote);
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_LOTE, idLote,
+            AuditoriaServicio.OPERACION_ELIMINAR, InstantaneaAuditoria.de(lote), null);
+        eventos.publishEvent(LotesModificadosEvento.de(idLote));
     }
 }
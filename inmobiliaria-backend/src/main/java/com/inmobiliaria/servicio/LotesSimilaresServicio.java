@@ -0,0 +1,203 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.LoteSimilar;
+import com.inmobiliaria.evento.CachesDesincronizadasEvento;
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.modelo.EstadoLote;
+import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.repositorio.LoteRepositorio;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recomendacion de lotes disponibles parecidos a otro lote: mismo
+ * municipio y area y precio cercanos.
+ * Mantiene en memoria un arbol KD por municipio con el logaritmo del
+ * area y del precio de cada lote disponible, de modo que la distancia
+ * mide diferencias relativas y no depende de las unidades. Se carga al
+ * arrancar y se actualiza con los lotes que entran o salen de DISPONIBLE.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class LotesSimilaresServicio {
+
+    /** Maximo de lotes similares por consulta */
+    public static final int MAXIMO_SIMILARES = 50;
+
+    /** Ubicacion de un lote en los indices, para poder quitarlo */
+    private record Ubicacion(String municipio, double x, double y) {
+    }
+
+    /** Repositorio de lotes */
+    private final LoteRepositorio loteRepositorio;
+
+    /** Servicio de lotes (lectura de los lotes recomendados) */
+    private final LoteServicio loteServicio;
+
+    /** Un arbol por municipio normalizado */
+    private final Map<String, ArbolKd> porMunicipio = new HashMap<>();
+
+    /** Lotes disponibles indexados */
+    private final Map<Integer, Ubicacion> indexados = new HashMap<>();
+
+    /** Lecturas concurrentes; cargas y cambios exclusivos */
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param loteRepositorio repositorio de lotes
+     * @param loteServicio servicio de lotes
+     */
+    public LotesSimilaresServicio(LoteRepositorio loteRepositorio, LoteServicio loteServicio) {
+        this.loteRepositorio = loteRepositorio;
+        this.loteServicio = loteServicio;
+    }
+
+    /**
+     * Carga los indices con los lotes disponibles al arrancar, o de nuevo
+     * si se pudieron perder invalidaciones de otros nodos.
+     */
+    @EventListener({ApplicationReadyEvent.class, CachesDesincronizadasEvento.class})
+    public void cargar() {
+        bloqueo.writeLock().lock();
+        try {
+            porMunicipio.clear();
+            indexados.clear();
+            for (Object[] fila : loteRepositorio.obtenerCaracteristicasDisponibles()) {
+                aplicar((Integer) fila[0], ubicacion(fila));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica los cambios de lotes confirmados: los que quedan disponibles
+     * se (re)indexan y los demas, o los eliminados, salen del indice.
+     * Las filas se leen con el bloqueo de escritura tomado: si dos eventos
+     * del mismo lote se solapan, el que lee despues tambien escribe despues
+     * y el indice no se queda con la version vieja.
+     *
+     * @param evento lotes modificados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarLotes(LotesModificadosEvento evento) {
+        bloqueo.writeLock().lock();
+        try {
+            Map<Integer, Ubicacion> actuales = new HashMap<>();
+            for (Object[] fila : loteRepositorio.obtenerCaracteristicasPorIds(evento.idsLotes())) {
+                if (fila[4] == EstadoLote.DISPONIBLE) {
+                    actuales.put((Integer) fila[0], ubicacion(fila));
+                }
+            }
+            for (Integer idLote : evento.idsLotes()) {
+                aplicar(idLote, actuales.get(idLote));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lotes disponibles del mismo municipio mas parecidos en area y precio.
+     * El lote de referencia puede estar en cualquier estado (por ejemplo
+     * recien vendido); nunca se incluye en el resultado.
+     *
+     * @param idLote ID del lote de referencia
+     * @param limite cantidad de lotes (1 a 50)
+     * @return lotes similares del mas al menos parecido
+     * @throws RuntimeException si el lote no existe o el limite no es valido
+     */
+    public List<LoteSimilar> obtenerSimilares(Integer idLote, int limite) {
+        if (limite < 1 || limite > MAXIMO_SIMILARES) {
+            throw new RuntimeException("El limite debe estar entre 1 y " + MAXIMO_SIMILARES);
+        }
+        Lote referencia = loteServicio.obtenerLotePorId(idLote);
+        Ubicacion ubicacion = ubicacion(referencia.getMunicipio(), referencia.getAreaM2(), referencia.getPrecio());
+        if (ubicacion == null) {
+            return List.of();
+        }
+
+        ArbolKd.Vecino[] vecinos;
+        bloqueo.readLock().lock();
+        try {
+            ArbolKd arbol = porMunicipio.get(ubicacion.municipio());
+            if (arbol == null) {
+                return List.of();
+            }
+            vecinos = arbol.buscar(ubicacion.x(), ubicacion.y(), limite, idLote);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+
+        List<Integer> ids = new ArrayList<>(vecinos.length);
+        for (ArbolKd.Vecino vecino : vecinos) {
+            ids.add(vecino.id());
+        }
+        Map<Integer, Lote> lotes = loteServicio.obtenerLotesPorIds(ids);
+
+        List<LoteSimilar> similares = new ArrayList<>(vecinos.length);
+        for (ArbolKd.Vecino vecino : vecinos) {
+            Lote lote = lotes.get(vecino.id());
+            /* Puede haberse vendido entre la busqueda y la lectura */
+            if (lote != null && lote.getEstado() == EstadoLote.DISPONIBLE) {
+                similares.add(new LoteSimilar(lote, vecino.distancia()));
+            }
+        }
+        return similares;
+    }
+
+    /**
+     * Reemplaza la ubicacion de un lote en los indices.
+     * Debe llamarse con el bloqueo de escritura.
+     *
+     * @param idLote ID del lote
+     * @param nueva ubicacion actual o null si no debe estar indexado
+     */
+    private void aplicar(Integer idLote, Ubicacion nueva) {
+        Ubicacion anterior = nueva == null ? indexados.remove(idLote) : indexados.put(idLote, nueva);
+        if (anterior != null && (nueva == null || !anterior.municipio().equals(nueva.municipio()))) {
+            ArbolKd arbol = porMunicipio.get(anterior.municipio());
+            arbol.quitar(idLote);
+            if (arbol.tamano() == 0) {
+                porMunicipio.remove(anterior.municipio());
+            }
+        }
+        if (nueva != null) {
+            porMunicipio.computeIfAbsent(nueva.municipio(), m -> new ArbolKd())
+                .agregar(idLote, nueva.x(), nueva.y());
+        }
+    }
+
+    private static Ubicacion ubicacion(Object[] fila) {
+        return ubicacion((String) fila[1], (BigDecimal) fila[2], (BigDecimal) fila[3]);
+    }
+
+    /**
+     * Caracteristicas normalizadas: logaritmo natural del area y del precio.
+     *
+     * @return ubicacion o null si faltan datos o no son positivos
+     */
+    private static Ubicacion ubicacion(String municipio, BigDecimal areaM2, BigDecimal precio) {
+        if (municipio == null || areaM2 == null || precio == null
+                || areaM2.signum() <= 0 || precio.signum() <= 0) {
+            return null;
+        }
+        return new Ubicacion(municipio.trim().toUpperCase(Locale.ROOT),
+            Math.log(areaM2.doubleValue()), Math.log(precio.doubleValue()));
+    }
+}
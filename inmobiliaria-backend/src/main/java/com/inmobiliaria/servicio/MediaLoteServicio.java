@@ -0,0 +1,456 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.modelo.MediaLote;
+import com.inmobiliaria.repositorio.MediaLoteRepositorio;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de imagenes de lotes.
+ * Guarda los archivos en disco con el SHA-256 del contenido como nombre
+ * (la misma imagen subida dos veces ocupa un solo archivo) y genera las
+ * miniaturas en segundo plano en un ejecutor acotado.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class MediaLoteServicio {
+
+    /** Tipos de imagen aceptados */
+    public static final Set<String> TIPOS_PERMITIDOS =
+        Set.of("image/jpeg", "image/png", "image/gif", "image/webp");
+
+    /** Sufijo del archivo de miniatura */
+    private static final String SUFIJO_MINIATURA = "-miniatura.jpg";
+
+    /** Repositorio de imagenes */
+    private final MediaLoteRepositorio mediaLoteRepositorio;
+
+    /** Servicio de lotes para validar que el lote existe */
+    private final LoteServicio loteServicio;
+
+    /** Publicador de eventos para avisar a las caches de lotes */
+    private final ApplicationEventPublisher eventos;
+
+    /** Transaccion corta que solo registra los metadatos de una carga */
+    private final TransactionTemplate transaccion;
+
+    /** Ejecutor acotado donde se generan las miniaturas */
+    private final ThreadPoolTaskExecutor ejecutorMiniaturas;
+
+    /** Carpeta de los archivos */
+    private final Path directorio;
+
+    /** Lado mayor de la miniatura en pixeles */
+    private final int ladoMiniatura;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param mediaLoteRepositorio repositorio de imagenes
+     * @param loteServicio servicio de lotes
+     * @param eventos publicador de eventos de Spring
+     * @param transactionManager administrador de transacciones
+     * @param ejecutorMiniaturas ejecutor de miniaturas
+     * @param directorio carpeta de los archivos
+     * @param ladoMiniatura lado mayor de la miniatura en pixeles
+     */
+    public MediaLoteServicio(MediaLoteRepositorio mediaLoteRepositorio,
+                             LoteServicio loteServicio,
+                             ApplicationEventPublisher eventos,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("ejecutorMiniaturas") ThreadPoolTaskExecutor ejecutorMiniaturas,
+                             @Value("${inmobiliaria.media.directorio}") String directorio,
+                             @Value("${inmobiliaria.media.lado-miniatura:320}") int ladoMiniatura) {
+        this.mediaLoteRepositorio = mediaLoteRepositorio;
+        this.loteServicio = loteServicio;
+        this.eventos = eventos;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.ejecutorMiniaturas = ejecutorMiniaturas;
+        this.directorio = Paths.get(directorio);
+        this.ladoMiniatura = ladoMiniatura;
+        try {
+            Files.createDirectories(this.directorio);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                "No se pudo crear el directorio de imagenes: " + directorio, e);
+        }
+    }
+
+    /**
+     * Guarda una imagen de un lote. El archivo se copia de la parte
+     * multipart (que el contenedor ya dejo en disco) al directorio de
+     * imagenes calculando el hash al vuelo, sin cargarlo en memoria.
+     * La copia se hace sin transaccion, para no tener una conexion
+     * ocupada mientras dura; despues una transaccion corta valida el
+     * lote e inserta los metadatos. Si el lote no existe, el archivo
+     * copiado queda huerfano y lo borra la limpieza programada.
+     * La miniatura se programa al confirmar la transaccion.
+     *
+     * @param idLote ID del lote
+     * @param archivo imagen recibida
+     * @return metadatos de la imagen guardada
+     * @throws RuntimeException si el lote no existe o el archivo no es una imagen aceptada
+     */
+    public MediaLote cargar(Integer idLote, MultipartFile archivo) {
+        String tipo = archivo.getContentType() == null ? "" : archivo.getContentType().toLowerCase();
+        if (archivo.isEmpty() || !TIPOS_PERMITIDOS.contains(tipo)) {
+            throw new RuntimeException(
+                "El archivo debe ser una imagen no vacia de tipo " + TIPOS_PERMITIDOS);
+        }
+
+        String hash;
+        long tamano;
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile(directorio, "carga-", ".tmp");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            try (InputStream entrada = new DigestInputStream(archivo.getInputStream(), sha256)) {
+                tamano = Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hash = HexFormat.of().formatHex(sha256.digest());
+            Path destino = directorio.resolve(hash);
+            if (Files.exists(destino)) {
+                /* Contenido repetido: se renueva la fecha para que la limpieza no lo borre */
+                Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+            } else {
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("No se pudo guardar la imagen: " + e.getMessage(), e);
+        } finally {
+            eliminarSilencioso(temporal);
+        }
+
+        String nombreOriginal = nombreSeguro(archivo.getOriginalFilename());
+        return transaccion.execute(estado ->
+            registrarCarga(idLote, nombreOriginal, tipo, tamano, hash));
+    }
+
+    /**
+     * Inserta los metadatos de una imagen ya copiada al directorio.
+     * Se ejecuta dentro de la transaccion de cargar.
+     */
+    private MediaLote registrarCarga(Integer idLote, String nombreOriginal, String tipo,
+                                     long tamano, String hash) {
+        loteServicio.obtenerLotePorId(idLote);
+
+        MediaLote media = new MediaLote();
+        media.setIdLote(idLote);
+        media.setNombreOriginal(nombreOriginal);
+        media.setTipoContenido(tipo);
+        media.setTamano(tamano);
+        media.setHashContenido(hash);
+        media.setOrden(mediaLoteRepositorio.obtenerSiguienteOrden(idLote));
+
+        /* Si el mismo contenido ya tiene miniatura se reutiliza */
+        mediaLoteRepositorio.findFirstByHashContenido(hash).ifPresent(existente -> {
+            media.setEstadoMiniatura(existente.getEstadoMiniatura());
+            media.setAncho(existente.getAncho());
+            media.setAlto(existente.getAlto());
+            media.setTamanoMiniatura(existente.getTamanoMiniatura());
+        });
+
+        MediaLote guardada = mediaLoteRepositorio.save(media);
+        if (MediaLote.MINIATURA_PENDIENTE.equals(guardada.getEstadoMiniatura())) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    programarMiniatura(hash);
+                }
+            });
+        }
+        eventos.publishEvent(LotesModificadosEvento.de(idLote));
+        return guardada;
+    }
+
+    /**
+     * Obtiene las imagenes de un lote en orden de galeria.
+     *
+     * @param idLote ID del lote
+     * @return imagenes del lote
+     */
+    @Transactional(readOnly = true)
+    public List<MediaLote> obtenerMediaDeLote(Integer idLote) {
+        return mediaLoteRepositorio.findByIdLoteOrderByOrdenAscIdMediaAsc(idLote);
+    }
+
+    /**
+     * Busca una imagen de un lote.
+     *
+     * @param idLote ID del lote
+     * @param idMedia ID de la imagen
+     * @return imagen encontrada
+     * @throws ResponseStatusException 404 si la imagen no existe en ese lote
+     */
+    @Transactional(readOnly = true)
+    public MediaLote obtenerMedia(Integer idLote, Integer idMedia) {
+        return mediaLoteRepositorio.findByIdMediaAndIdLote(idMedia, idLote)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Imagen no encontrada con ID: " + idMedia));
+    }
+
+    /**
+     * Elimina una imagen de un lote. El archivo se borra en la limpieza
+     * programada cuando ninguna otra imagen usa el mismo contenido.
+     *
+     * @param idLote ID del lote
+     * @param idMedia ID de la imagen
+     */
+    @Transactional
+    public void eliminarMedia(Integer idLote, Integer idMedia) {
+        mediaLoteRepositorio.delete(obtenerMedia(idLote, idMedia));
+        eventos.publishEvent(LotesModificadosEvento.de(idLote));
+    }
+
+    /**
+     * Ruta del archivo original de una imagen.
+     *
+     * @param media imagen
+     * @return ruta en disco
+     */
+    public Path archivo(MediaLote media) {
+        return directorio.resolve(media.getHashContenido());
+    }
+
+    /**
+     * Ruta de la miniatura de una imagen.
+     *
+     * @param media imagen
+     * @return ruta en disco
+     */
+    public Path archivoMiniatura(MediaLote media) {
+        return directorio.resolve(media.getHashContenido() + SUFIJO_MINIATURA);
+    }
+
+    /**
+     * Reintenta las miniaturas que quedaron pendientes (cola llena o
+     * reinicio de la aplicacion antes de generarlas).
+     */
+    @Scheduled(fixedDelayString = "${inmobiliaria.media.reintento-ms:60000}")
+    public void reintentarMiniaturasPendientes() {
+        List<MediaLote> pendientes = mediaLoteRepositorio
+            .findTop100ByEstadoMiniaturaAndFechaCargaBeforeOrderByIdMediaAsc(
+                MediaLote.MINIATURA_PENDIENTE, LocalDateTime.now().minusMinutes(1));
+        for (MediaLote media : pendientes) {
+            if (!programarMiniatura(media.getHashContenido())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Borra los archivos que ya no usa ninguna imagen. Solo toca archivos
+     * con mas de una hora para no borrar cargas en curso.
+     */
+    @Scheduled(cron = "${inmobiliaria.media.cron-limpieza:0 15 * * * *}")
+    public void limpiarArchivosHuerfanos() {
+        Set<String> enUso = mediaLoteRepositorio.obtenerHashesEnUso();
+        Instant limite = Instant.now().minus(1, ChronoUnit.HOURS);
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                String hash = nombre.endsWith(SUFIJO_MINIATURA)
+                    ? nombre.substring(0, nombre.length() - SUFIJO_MINIATURA.length())
+                    : nombre;
+                if (!enUso.contains(hash)
+                        && Files.getLastModifiedTime(archivo).toInstant().isBefore(limite)) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo limpiar el directorio de imagenes", e);
+        }
+    }
+
+    /**
+     * Encola la generacion de la miniatura de un contenido.
+     *
+     * @param hash SHA-256 del contenido
+     * @return false si la cola esta llena (queda pendiente para el reintento)
+     */
+    private boolean programarMiniatura(String hash) {
+        try {
+            ejecutorMiniaturas.execute(() -> generarMiniatura(hash));
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Genera la miniatura JPEG de un contenido y registra el resultado en
+     * todas las imagenes que lo usan. Las imagenes grandes se leen con
+     * submuestreo para no decodificar todos sus pixeles.
+     *
+     * @param hash SHA-256 del contenido
+     */
+    private void generarMiniatura(String hash) {
+        Path original = directorio.resolve(hash);
+        Path miniatura = directorio.resolve(hash + SUFIJO_MINIATURA);
+        Integer ancho = null;
+        Integer alto = null;
+        String estado = MediaLote.MINIATURA_FALLIDA;
+        Long tamanoMiniatura = null;
+
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> lectores = entrada == null
+                ? Collections.<ImageReader>emptyIterator()
+                : ImageIO.getImageReaders(entrada);
+            if (lectores.hasNext()) {
+                ImageReader lector = lectores.next();
+                try {
+                    lector.setInput(entrada, true, true);
+                    ancho = lector.getWidth(0);
+                    alto = lector.getHeight(0);
+
+                    ImageReadParam parametros = lector.getDefaultReadParam();
+                    int paso = Math.max(1, Math.max(ancho, alto) / (ladoMiniatura * 2));
+                    parametros.setSourceSubsampling(paso, paso, 0, 0);
+                    BufferedImage imagen = lector.read(0, parametros);
+
+                    escribirMiniatura(escalar(imagen), miniatura);
+                    tamanoMiniatura = Files.size(miniatura);
+                    estado = MediaLote.MINIATURA_LISTA;
+                } finally {
+                    lector.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            /* Imagen danada o en un formato que ImageIO no sabe leer */
+            estado = MediaLote.MINIATURA_FALLIDA;
+        }
+
+        mediaLoteRepositorio.registrarMiniatura(hash, estado, ancho, alto, tamanoMiniatura);
+        eventos.publishEvent(LotesModificadosEvento.de(
+            mediaLoteRepositorio.obtenerLotesConContenido(hash)));
+    }
+
+    /**
+     * Reduce la imagen para que su lado mayor mida ladoMiniatura, sobre
+     * fondo blanco (JPEG no tiene transparencia).
+     */
+    private BufferedImage escalar(BufferedImage imagen) {
+        double factor = Math.min(1.0,
+            (double) ladoMiniatura / Math.max(imagen.getWidth(), imagen.getHeight()));
+        int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * factor));
+        int alto = Math.max(1, (int) Math.round(imagen.getHeight() * factor));
+
+        BufferedImage reducida = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = reducida.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            grafico.setColor(Color.WHITE);
+            grafico.fillRect(0, 0, ancho, alto);
+            grafico.drawImage(imagen, 0, 0, ancho, alto, null);
+        } finally {
+            grafico.dispose();
+        }
+        return reducida;
+    }
+
+    /**
+     * Escribe la miniatura en JPEG con calidad 0.8 mediante un archivo
+     * temporal y un movimiento atomico.
+     */
+    private void escribirMiniatura(BufferedImage imagen, Path destino) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temporal = Files.createTempFile(directorio, "miniatura-", ".tmp");
+        try {
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(0.8f);
+            try (ImageOutputStream salida = ImageIO.createImageOutputStream(temporal.toFile())) {
+                escritor.setOutput(salida);
+                escritor.write(null, new IIOImage(imagen, null, null), parametros);
+            }
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            escritor.dispose();
+            eliminarSilencioso(temporal);
+        }
+    }
+
+    /**
+     * Deja solo el nombre del archivo, sin rutas, y lo recorta a 255 caracteres.
+     * Si no queda nombre (por ejemplo "/") o no es una ruta valida usa "imagen".
+     */
+    private static String nombreSeguro(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            return "imagen";
+        }
+        Path archivo;
+        try {
+            archivo = Paths.get(nombre.replace('\\', '/')).getFileName();
+        } catch (InvalidPathException e) {
+            return "imagen";
+        }
+        String limpio = archivo == null ? "" : archivo.toString().strip();
+        if (limpio.isEmpty()) {
+            return "imagen";
+        }
+        return limpio.length() > 255 ? limpio.substring(limpio.length() - 255) : limpio;
+    }
+
+    private static void eliminarSilencioso(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException ignorada) {
+            /* El archivo temporal lo borra la limpieza programada */
+        }
+    }
+}
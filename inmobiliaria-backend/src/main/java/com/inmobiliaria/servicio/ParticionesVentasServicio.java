@@ -0,0 +1,333 @@
+package com.inmobiliaria.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantenimiento de la tabla ventas particionada por mes de fecha_venta
+ * (V11__particiones_ventas.sql).
+ * Crea por adelantado las particiones de los proximos meses y archiva
+ * las de meses cerrados mas antiguos que la ventana activa: exporta el
+ * mes a un archivo columnar, verifica el archivo y separa la particion
+ * de ventas, de modo que las consultas diarias solo recorren los meses
+ * recientes. La particion separada se conserva como tabla suelta salvo
+ * que se configure eliminarla.
+ *
+ * Las ventas de un mes sin particion caen en ventas_default
+ * (V14__particion_default_ventas.sql); al crear la particion que
+ * faltaba se mueven a ella.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class ParticionesVentasServicio {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionesVentasServicio.class);
+
+    /** Nombre de la particion de un mes: ventas_2024_05 */
+    private static final DateTimeFormatter FORMATO_PARTICION = DateTimeFormatter.ofPattern("'ventas_'yyyy_MM");
+
+    /** Particion que recibe las ventas de meses sin particion propia */
+    private static final String PARTICION_DEFAULT = "ventas_default";
+
+    /** Clave del bloqueo consultivo que evita archivar en dos instancias a la vez */
+    private static final long CLAVE_BLOQUEO = 0x56454E544153L;
+
+    /** Acceso JDBC para DDL y exportacion */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Escritura y lectura de los archivos columnares */
+    private final ArchivoVentasServicio archivoVentasServicio;
+
+    /** Una transaccion por particion archivada */
+    private final TransactionTemplate transaccion;
+
+    /** Meses futuros con particion creada */
+    private final int mesesAdelante;
+
+    /** Meses que permanecen en la tabla ventas, contando el actual */
+    private final int mesesActivos;
+
+    /** Si se elimina la particion despues de archivarla */
+    private final boolean eliminarParticion;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param jdbcTemplate acceso JDBC
+     * @param archivoVentasServicio archivos columnares de ventas
+     * @param transactionManager administrador de transacciones
+     * @param mesesAdelante meses futuros con particion creada
+     * @param mesesActivos meses que permanecen en la tabla ventas
+     * @param eliminarParticion si se elimina la particion ya archivada
+     */
+    public ParticionesVentasServicio(JdbcTemplate jdbcTemplate,
+                                     ArchivoVentasServicio archivoVentasServicio,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${inmobiliaria.ventas.particiones.meses-adelante:3}") int mesesAdelante,
+                                     @Value("${inmobiliaria.ventas.archivo.meses-activos:36}") int mesesActivos,
+                                     @Value("${inmobiliaria.ventas.archivo.eliminar-particion:false}") boolean eliminarParticion) {
+        if (mesesActivos < 2) {
+            throw new IllegalArgumentException("inmobiliaria.ventas.archivo.meses-activos debe ser al menos 2");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.archivoVentasServicio = archivoVentasServicio;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.mesesAdelante = mesesAdelante;
+        this.mesesActivos = mesesActivos;
+        this.eliminarParticion = eliminarParticion;
+    }
+
+    /**
+     * Crea las particiones que falten al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        crearParticiones();
+    }
+
+    /**
+     * Mantenimiento diario: crea particiones y archiva meses cerrados.
+     */
+    @Scheduled(cron = "${inmobiliaria.ventas.particiones.cron:0 15 0 * * *}")
+    public void mantenerParticiones() {
+        crearParticiones();
+        archivarMesesCerrados();
+    }
+
+    /**
+     * Crea la particion del mes actual y de los proximos meses si no existen.
+     *
+     * @return cantidad de particiones creadas
+     */
+    public int crearParticiones() {
+        YearMonth actual = YearMonth.now();
+        int creadas = 0;
+        for (int i = 0; i <= mesesAdelante; i++) {
+            YearMonth mes = actual.plusMonths(i);
+            String tabla = nombreParticion(mes);
+            if (existeTabla(tabla)) {
+                continue;
+            }
+            try {
+                transaccion.executeWithoutResult(estado -> crearParticion(mes, tabla));
+                creadas++;
+            } catch (RuntimeException e) {
+                /* Otra instancia pudo crearla al mismo tiempo */
+                if (!existeTabla(tabla)) {
+                    throw e;
+                }
+            }
+        }
+        return creadas;
+    }
+
+    /**
+     * Crea la particion de un mes. Si ventas_default ya tiene ventas de
+     * ese mes, PostgreSQL no deja crearla directamente: se crea como
+     * tabla suelta, se mueven las filas y se adjunta. Se bloquean las
+     * escrituras en ventas hasta terminar para que no entren nuevas
+     * filas del mes entre el traslado y el ATTACH; la tabla padre se
+     * bloquea primero, en el mismo orden que un INSERT, para no caer en
+     * un deadlock con las ventas en curso.
+     */
+    private void crearParticion(YearMonth mes, String tabla) {
+        String desde = mes.atDay(1).toString();
+        String hasta = mes.plusMonths(1).atDay(1).toString();
+        jdbcTemplate.execute("LOCK TABLE ONLY ventas IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("LOCK TABLE " + PARTICION_DEFAULT + " IN EXCLUSIVE MODE");
+        Integer pendientes = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM " + PARTICION_DEFAULT + " WHERE fecha_venta >= ?::date AND fecha_venta < ?::date",
+            Integer.class, desde, hasta);
+        if (pendientes == null || pendientes == 0) {
+            jdbcTemplate.execute("CREATE TABLE " + tabla + " PARTITION OF ventas " +
+                "FOR VALUES FROM ('" + desde + "') TO ('" + hasta + "')");
+            return;
+        }
+        log.error("Habia {} ventas de {} en {} porque faltaba su particion; se mueven a {}",
+            pendientes, mes, PARTICION_DEFAULT, tabla);
+        jdbcTemplate.execute("CREATE TABLE " + tabla + " (LIKE ventas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update(
+            "WITH movidas AS (DELETE FROM " + PARTICION_DEFAULT + " " +
+            "WHERE fecha_venta >= ?::date AND fecha_venta < ?::date RETURNING *) " +
+            "INSERT INTO " + tabla + " SELECT * FROM movidas", desde, hasta);
+        jdbcTemplate.execute("ALTER TABLE ventas ATTACH PARTITION " + tabla +
+            " FOR VALUES FROM ('" + desde + "') TO ('" + hasta + "')");
+    }
+
+    /**
+     * Archiva todas las particiones de meses anteriores a la ventana activa.
+     *
+     * @return meses archivados
+     */
+    public List<YearMonth> archivarMesesCerrados() {
+        YearMonth limite = YearMonth.now().minusMonths(mesesActivos - 1L);
+        List<YearMonth> archivados = new ArrayList<>();
+        for (YearMonth mes : obtenerMesesParticionados()) {
+            if (mes.isBefore(limite)) {
+                try {
+                    if (archivarMes(mes)) {
+                        archivados.add(mes);
+                    }
+                } catch (RuntimeException e) {
+                    /* Se reintenta en la siguiente ejecucion */
+                    log.error("No se pudo archivar la particion de ventas de {}", mes, e);
+                }
+            }
+        }
+        return archivados;
+    }
+
+    /**
+     * Meses con particion adjunta a la tabla ventas, en orden
+     * (sin contar ventas_default).
+     *
+     * @return meses particionados
+     */
+    public List<YearMonth> obtenerMesesParticionados() {
+        List<String> tablas = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'ventas'::regclass AND c.relname <> ? ORDER BY c.relname",
+            String.class, PARTICION_DEFAULT);
+        List<YearMonth> meses = new ArrayList<>(tablas.size());
+        for (String tabla : tablas) {
+            meses.add(YearMonth.parse(tabla, FORMATO_PARTICION));
+        }
+        return meses;
+    }
+
+    /**
+     * Exporta la particion de un mes, verifica el archivo y la separa de
+     * la tabla ventas (y la elimina si asi se configuro), todo en una
+     * transaccion con bloqueo consultivo. La particion se bloquea en modo
+     * SHARE antes de exportar: una cancelacion en curso termina antes, y
+     * las que lleguen despues esperan al DETACH, asi el archivo no queda
+     * con un estado viejo. Si una de esas esperas termina en deadlock con
+     * el DETACH, PostgreSQL aborta esta transaccion y el mes se reintenta
+     * en la siguiente ejecucion. El archivo se escribe con otro nombre y
+     * solo se publica despues del DETACH, para que un intento fallido no
+     * deje a la vista el archivo de un mes que sigue en la tabla.
+     *
+     * No se archiva un mes con planes de pago abiertos: esas ventas
+     * todavia se consultan, se pagan y se cancelan desde la tabla. Los
+     * lotes del mes se anotan en lotes_ventas_archivadas para que no se
+     * puedan eliminar despues.
+     *
+     * @return true si se archivo; false si otra instancia estaba
+     *         archivando o si el mes tiene planes de pago abiertos
+     */
+    private boolean archivarMes(YearMonth mes) {
+        String tabla = nombreParticion(mes);
+        Boolean archivado = transaccion.execute(estado -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, CLAVE_BLOQUEO))) {
+                return false;
+            }
+            jdbcTemplate.execute("LOCK TABLE " + tabla + " IN SHARE MODE");
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM planes_pago p JOIN " + tabla + " v " +
+                    "ON v.id_venta = p.id_venta WHERE p.abierto)", Boolean.class))) {
+                log.warn("La particion {} tiene planes de pago abiertos; no se archiva", tabla);
+                return false;
+            }
+            ArchivoColumnarVentas.Ventas ventas = exportar(tabla);
+            Path destino = archivoVentasServicio.archivoDeMes(mes);
+            Path pendiente = destino.resolveSibling(destino.getFileName() + ".pendiente");
+            try {
+                ArchivoColumnarVentas.escribir(pendiente, ventas);
+                verificar(mes, pendiente, ventas);
+                jdbcTemplate.update("INSERT INTO lotes_ventas_archivadas (id_lote) " +
+                    "SELECT DISTINCT id_lote FROM " + tabla + " ON CONFLICT DO NOTHING");
+                jdbcTemplate.execute("ALTER TABLE ventas DETACH PARTITION " + tabla);
+                if (eliminarParticion) {
+                    jdbcTemplate.execute("DROP TABLE " + tabla);
+                }
+                Files.move(pendiente, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new RuntimeException("No se pudo escribir el archivo de ventas de " + mes, e);
+            } finally {
+                try {
+                    Files.deleteIfExists(pendiente);
+                } catch (IOException ignorada) {
+                    /* Se sobrescribe en el siguiente intento */
+                }
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(archivado)) {
+            log.info("Particion {} archivada en {}", tabla, archivoVentasServicio.archivoDeMes(mes));
+        }
+        return Boolean.TRUE.equals(archivado);
+    }
+
+    /** Lee la particion completa en arreglos por columna */
+    private ArchivoColumnarVentas.Ventas exportar(String tabla) {
+        Integer total = jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabla, Integer.class);
+        int filas = total == null ? 0 : total;
+        ArchivoColumnarVentas.Ventas ventas = new ArchivoColumnarVentas.Ventas(
+            new int[filas], new int[filas], new int[filas], new int[filas],
+            new int[filas], new long[filas], new short[filas], new String[filas], new short[filas]);
+        int[] fila = {0};
+        jdbcTemplate.query(
+            "SELECT id_venta, id_cliente, id_lote, id_agente, fecha_venta, precio_final, " +
+            "forma_pago, observaciones, estado FROM " + tabla + " ORDER BY id_venta",
+            rs -> {
+                int i = fila[0]++;
+                ventas.idVenta()[i] = rs.getInt(1);
+                ventas.idCliente()[i] = rs.getInt(2);
+                ventas.idLote()[i] = rs.getInt(3);
+                ventas.idAgente()[i] = rs.getInt(4);
+                ventas.fechaEpochDia()[i] = (int) rs.getDate(5).toLocalDate().toEpochDay();
+                ventas.precioCent()[i] = rs.getBigDecimal(6).movePointRight(2).longValue();
+                ventas.formaPago()[i] = rs.getShort(7);
+                ventas.observaciones()[i] = rs.getString(8);
+                ventas.estado()[i] = rs.getShort(9);
+            });
+        if (fila[0] != filas) {
+            throw new RuntimeException("La particion " + tabla + " cambio durante la exportacion");
+        }
+        return ventas;
+    }
+
+    /** Relee filas y precios del archivo y los compara con lo exportado */
+    private void verificar(YearMonth mes, Path archivo, ArchivoColumnarVentas.Ventas ventas) throws IOException {
+        long[] precios = ArchivoColumnarVentas.leerPrecios(archivo);
+        long esperado = 0;
+        long leido = 0;
+        for (int i = 0; i < ventas.filas(); i++) {
+            esperado += ventas.precioCent()[i];
+        }
+        for (long precio : precios) {
+            leido += precio;
+        }
+        if (precios.length != ventas.filas() || leido != esperado) {
+            throw new RuntimeException("El archivo de ventas de " + mes + " no coincide con la particion");
+        }
+    }
+
+    private boolean existeTabla(String tabla) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, tabla);
+    }
+
+    private static String nombreParticion(YearMonth mes) {
+        return FORMATO_PARTICION.format(mes);
+    }
+}
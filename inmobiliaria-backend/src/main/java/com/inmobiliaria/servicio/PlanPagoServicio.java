@@ -0,0 +1,389 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.CuotaPlan;
+import com.inmobiliaria.dto.DetallePlanPago;
+import com.inmobiliaria.modelo.FormaPago;
+import com.inmobiliaria.modelo.PlanPago;
+import com.inmobiliaria.modelo.Venta;
+import com.inmobiliaria.repositorio.PlanPagoRepositorio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Servicio de planes de pago para ventas a CREDITO y FINANCIADO.
+ * Genera el plan al registrar la venta, registra pagos y calcula cada
+ * noche el saldo vencido de todos los creditos abiertos.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class PlanPagoServicio {
+
+    /** Lectura de un tramo de creditos abiertos por rango de id */
+    private static final String SQL_TRAMO =
+        "SELECT id_venta, numero_cuotas, cuota_cent, ultima_cuota_cent, " +
+        "fecha_primera_cuota, pagado_cent, saldo_vencido_cent, cuotas_vencidas " +
+        "FROM planes_pago WHERE abierto AND id_venta BETWEEN ? AND ?";
+
+    /**
+     * Escritura del resultado de mora de un credito. Solo aplica si el
+     * credito sigue abierto con el mismo pagado que se leyo, para no pisar
+     * un pago registrado mientras corria el calculo.
+     */
+    private static final String SQL_ACTUALIZAR_MORA =
+        "UPDATE planes_pago SET saldo_vencido_cent = ?, cuotas_vencidas = ?, " +
+        "fecha_calculo_mora = ? WHERE id_venta = ? AND pagado_cent = ? AND abierto";
+
+    /** Repositorio de planes de pago */
+    private final PlanPagoRepositorio planPagoRepositorio;
+
+    /** Acceso JDBC para el calculo masivo de mora */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Cuotas y tasa por forma de pago: {cuotas, tasa ppm} */
+    private final Map<FormaPago, int[]> condiciones;
+
+    /** Porcentaje del precio que se paga como cuota inicial */
+    private final int cuotaInicialPorcentaje;
+
+    /** Hilos del calculo de mora */
+    private final int paralelismo;
+
+    /** Cantidad de ids que procesa cada tramo */
+    private final int tamanoTramo;
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param planPagoRepositorio repositorio de planes de pago
+     * @param jdbcTemplate acceso JDBC
+     * @param cuotasCredito numero de cuotas para CREDITO
+     * @param tasaCredito tasa mensual en ppm para CREDITO
+     * @param cuotasFinanciado numero de cuotas para FINANCIADO
+     * @param tasaFinanciado tasa mensual en ppm para FINANCIADO
+     * @param cuotaInicialPorcentaje porcentaje de cuota inicial
+     * @param paralelismo hilos del calculo de mora
+     * @param tamanoTramo ids por tramo del calculo de mora
+     */
+    public PlanPagoServicio(PlanPagoRepositorio planPagoRepositorio,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${inmobiliaria.creditos.credito.cuotas:36}") int cuotasCredito,
+                            @Value("${inmobiliaria.creditos.credito.tasa-mensual-ppm:15000}") int tasaCredito,
+                            @Value("${inmobiliaria.creditos.financiado.cuotas:120}") int cuotasFinanciado,
+                            @Value("${inmobiliaria.creditos.financiado.tasa-mensual-ppm:10000}") int tasaFinanciado,
+                            @Value("${inmobiliaria.creditos.cuota-inicial-porcentaje:30}") int cuotaInicialPorcentaje,
+                            @Value("${inmobiliaria.creditos.paralelismo:4}") int paralelismo,
+                            @Value("${inmobiliaria.creditos.tamano-tramo:5000}") int tamanoTramo) {
+        this.planPagoRepositorio = planPagoRepositorio;
+        this.jdbcTemplate = jdbcTemplate;
+        this.condiciones = new EnumMap<>(FormaPago.class);
+        this.condiciones.put(FormaPago.CREDITO, new int[] {cuotasCredito, tasaCredito});
+        this.condiciones.put(FormaPago.FINANCIADO, new int[] {cuotasFinanciado, tasaFinanciado});
+        this.cuotaInicialPorcentaje = cuotaInicialPorcentaje;
+        this.paralelismo = paralelismo;
+        this.tamanoTramo = tamanoTramo;
+    }
+
+    /**
+     * Indica si la forma de pago requiere plan de cuotas.
+     *
+     * @param formaPago forma de pago de la venta
+     * @return true para CREDITO y FINANCIADO
+     */
+    public boolean requierePlan(FormaPago formaPago) {
+        return formaPago != null && condiciones.containsKey(formaPago);
+    }
+
+    /**
+     * Crea (sin guardar) el plan de pagos de una venta ya registrada.
+     * La primera cuota vence un mes despues de la fecha de la venta.
+     *
+     * @param venta venta a credito o financiada con su ID asignado
+     * @return plan listo para guardar
+     */
+    public PlanPago construirPlan(Venta venta) {
+        int[] condicion = condiciones.get(venta.getFormaPago());
+        int cuotas = condicion[0];
+        int tasaPpm = condicion[1];
+
+        long precioCent = aCentavos(venta.getPrecioFinal());
+        long financiadoCent = precioCent - precioCent * cuotaInicialPorcentaje / 100;
+        long cuotaCent = CalculadoraAmortizacion.cuotaFija(financiadoCent, tasaPpm, cuotas);
+
+        PlanPago plan = new PlanPago();
+        plan.setIdVenta(venta.getIdVenta());
+        plan.setMontoFinanciadoCent(financiadoCent);
+        plan.setTasaMensualPpm(tasaPpm);
+        plan.setNumeroCuotas((short) cuotas);
+        plan.setCuotaCent(cuotaCent);
+        plan.setUltimaCuotaCent(
+            CalculadoraAmortizacion.ultimaCuota(financiadoCent, tasaPpm, cuotas, cuotaCent));
+        LocalDate fechaVenta = venta.getFechaVenta() != null ? venta.getFechaVenta() : LocalDate.now();
+        plan.setFechaPrimeraCuota(fechaVenta.plusMonths(1));
+        return plan;
+    }
+
+    /**
+     * Genera y guarda los planes de las ventas que lo requieren.
+     * Con varias ventas los INSERT se envian en un solo lote JDBC.
+     *
+     * @param ventas ventas recien registradas
+     */
+    @Transactional
+    public void crearPlanes(List<Venta> ventas) {
+        List<PlanPago> planes = new ArrayList<>();
+        for (Venta venta : ventas) {
+            if (requierePlan(venta.getFormaPago())) {
+                planes.add(construirPlan(venta));
+            }
+        }
+        if (!planes.isEmpty()) {
+            planPagoRepositorio.saveAll(planes);
+        }
+    }
+
+    /**
+     * Cierra el plan de pagos de una venta cancelada, si lo tiene.
+     * El plan se conserva con lo pagado hasta la cancelacion.
+     *
+     * @param idVenta ID de la venta
+     */
+    @Transactional
+    public void cerrarPlan(Integer idVenta) {
+        planPagoRepositorio.findById(idVenta).ifPresent(plan -> plan.setAbierto(false));
+    }
+
+    /**
+     * Obtiene el plan de una venta con el cronograma cuota por cuota.
+     *
+     * @param idVenta ID de la venta
+     * @return detalle del plan
+     * @throws RuntimeException si la venta no tiene plan de pagos
+     */
+    @Transactional(readOnly = true)
+    public DetallePlanPago obtenerDetalle(Integer idVenta) {
+        PlanPago plan = planPagoRepositorio.findById(idVenta)
+            .orElseThrow(() -> new RuntimeException(
+                "La venta " + idVenta + " no tiene plan de pagos"));
+
+        int cuotas = plan.getNumeroCuotas();
+        List<CuotaPlan> cronograma = new ArrayList<>(cuotas);
+        long saldo = plan.getMontoFinanciadoCent();
+        for (int numero = 1; numero <= cuotas; numero++) {
+            long valor = numero < cuotas ? plan.getCuotaCent() : plan.getUltimaCuotaCent();
+            long interes = CalculadoraAmortizacion.interes(saldo, plan.getTasaMensualPpm());
+            long capital = valor - interes;
+            saldo -= capital;
+            cronograma.add(new CuotaPlan(numero,
+                plan.getFechaPrimeraCuota().plusMonths(numero - 1L),
+                aPesos(valor), aPesos(interes), aPesos(capital), aPesos(saldo)));
+        }
+
+        return new DetallePlanPago(
+            plan.getIdVenta(),
+            aPesos(plan.getMontoFinanciadoCent()),
+            BigDecimal.valueOf(plan.getTasaMensualPpm(), 4),
+            cuotas,
+            aPesos(CalculadoraAmortizacion.totalAPagar(
+                cuotas, plan.getCuotaCent(), plan.getUltimaCuotaCent())),
+            aPesos(plan.getPagadoCent()),
+            aPesos(plan.getSaldoVencidoCent()),
+            plan.getCuotasVencidas(),
+            plan.getFechaCalculoMora(),
+            plan.isAbierto(),
+            cronograma);
+    }
+
+    /**
+     * Registra un pago y cierra el credito cuando queda saldado.
+     *
+     * @param idVenta ID de la venta
+     * @param monto valor pagado
+     * @return detalle actualizado del plan
+     * @throws RuntimeException si el monto no es positivo o el credito esta cerrado
+     */
+    @Transactional
+    public DetallePlanPago registrarPago(Integer idVenta, BigDecimal monto) {
+        if (monto == null || monto.signum() <= 0) {
+            throw new RuntimeException("El monto del pago debe ser positivo");
+        }
+
+        PlanPago plan = planPagoRepositorio.bloquearPorId(idVenta)
+            .orElseThrow(() -> new RuntimeException(
+                "La venta " + idVenta + " no tiene plan de pagos"));
+        if (!plan.isAbierto()) {
+            throw new RuntimeException("El credito de la venta " + idVenta + " ya esta pagado");
+        }
+
+        long pagado = plan.getPagadoCent() + aCentavos(monto);
+        plan.setPagadoCent(pagado);
+        recalcularMora(plan, LocalDate.now());
+        if (pagado >= CalculadoraAmortizacion.totalAPagar(
+                plan.getNumeroCuotas(), plan.getCuotaCent(), plan.getUltimaCuotaCent())) {
+            plan.setAbierto(false);
+        }
+
+        planPagoRepositorio.save(plan);
+        return obtenerDetalle(idVenta);
+    }
+
+    /**
+     * Calcula el saldo vencido de todos los creditos abiertos.
+     * El rango de ids se divide en tramos que se procesan en paralelo:
+     * cada tramo lee sus creditos con una consulta, hace las cuentas en
+     * centavos sobre arreglos primitivos y escribe con un UPDATE en lote
+     * solo las filas cuyo resultado cambio. Los creditos que recibieron un
+     * pago entre la lectura y la escritura se vuelven a leer y calcular.
+     *
+     * @return cantidad de creditos actualizados
+     */
+    @Scheduled(cron = "${inmobiliaria.creditos.cron-mora:0 30 2 * * *}")
+    public long calcularMora() {
+        LocalDate hoy = LocalDate.now();
+        Map<String, Object> rango = jdbcTemplate.queryForMap(
+            "SELECT min(id_venta) AS minimo, max(id_venta) AS maximo FROM planes_pago WHERE abierto");
+        if (rango.get("minimo") == null) {
+            return 0;
+        }
+        long minimo = ((Number) rango.get("minimo")).longValue();
+        long maximo = ((Number) rango.get("maximo")).longValue();
+
+        AtomicLong actualizados = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.submit(() -> LongStream
+                    .rangeClosed(0, (maximo - minimo) / tamanoTramo)
+                    .parallel()
+                    .forEach(i -> {
+                        long desde = minimo + i * tamanoTramo;
+                        long hasta = Math.min(maximo, desde + tamanoTramo - 1);
+                        actualizados.addAndGet(procesarTramo(desde, hasta, hoy));
+                    }))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Calculo de mora interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Fallo el calculo de mora: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return actualizados.get();
+    }
+
+    /**
+     * Procesa los creditos abiertos de un rango de ids.
+     *
+     * @param desde primer id del tramo
+     * @param hasta ultimo id del tramo
+     * @param hoy fecha de corte
+     * @return creditos cuyo saldo vencido cambio
+     */
+    private int procesarTramo(long desde, long hasta, LocalDate hoy) {
+        int capacidad = (int) (hasta - desde + 1);
+        int[] ids = new int[capacidad];
+        long[] pagados = new long[capacidad];
+        long[] saldos = new long[capacidad];
+        int[] vencidas = new int[capacidad];
+        int[] cantidad = {0};
+
+        jdbcTemplate.query(SQL_TRAMO, rs -> {
+            int cuotas = rs.getInt(2);
+            long cuota = rs.getLong(3);
+            long ultima = rs.getLong(4);
+            LocalDate primera = rs.getObject(5, LocalDate.class);
+            long pagado = rs.getLong(6);
+
+            int exigibles = CalculadoraAmortizacion.cuotasExigibles(primera, cuotas, hoy);
+            long exigible = CalculadoraAmortizacion.montoExigible(exigibles, cuotas, cuota, ultima);
+            long saldo = CalculadoraAmortizacion.saldoVencido(exigible, pagado);
+            int cuotasVencidas = CalculadoraAmortizacion.cuotasVencidas(exigibles, pagado, cuota);
+
+            /* Solo se reescribe la fila si el resultado cambio */
+            if (saldo != rs.getLong(7) || cuotasVencidas != rs.getInt(8)) {
+                int n = cantidad[0]++;
+                ids[n] = rs.getInt(1);
+                pagados[n] = pagado;
+                saldos[n] = saldo;
+                vencidas[n] = cuotasVencidas;
+            }
+        }, desde, hasta);
+
+        int total = cantidad[0];
+        if (total == 0) {
+            return 0;
+        }
+
+        Date fecha = Date.valueOf(hoy);
+        int[] filas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_MORA,
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, saldos[i]);
+                    ps.setInt(2, vencidas[i]);
+                    ps.setDate(3, fecha);
+                    ps.setInt(4, ids[i]);
+                    ps.setLong(5, pagados[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return total;
+                }
+            });
+
+        /* Un pago concurrente cambio el credito: se recalcula con lo nuevo */
+        int escritos = 0;
+        for (int i = 0; i < total; i++) {
+            escritos += filas[i] == 0 ? procesarTramo(ids[i], ids[i], hoy) : 1;
+        }
+        return escritos;
+    }
+
+    /**
+     * Recalcula la mora de un plan individual (por ejemplo tras un pago).
+     *
+     * @param plan plan a recalcular
+     * @param hoy fecha de corte
+     */
+    private static void recalcularMora(PlanPago plan, LocalDate hoy) {
+        int cuotas = plan.getNumeroCuotas();
+        int exigibles = CalculadoraAmortizacion.cuotasExigibles(plan.getFechaPrimeraCuota(), cuotas, hoy);
+        long exigible = CalculadoraAmortizacion.montoExigible(
+            exigibles, cuotas, plan.getCuotaCent(), plan.getUltimaCuotaCent());
+        plan.setSaldoVencidoCent(CalculadoraAmortizacion.saldoVencido(exigible, plan.getPagadoCent()));
+        plan.setCuotasVencidas((short) CalculadoraAmortizacion.cuotasVencidas(
+            exigibles, plan.getPagadoCent(), plan.getCuotaCent()));
+        plan.setFechaCalculoMora(hoy);
+    }
+
+    /** Convierte pesos a centavos redondeando al centavo */
+    private static long aCentavos(BigDecimal pesos) {
+        return pesos.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /** Convierte centavos a pesos con dos decimales */
+    private static BigDecimal aPesos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
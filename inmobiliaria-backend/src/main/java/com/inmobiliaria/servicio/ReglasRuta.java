@@ -0,0 +1,61 @@
+package com.inmobiliaria.servicio;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lista de reglas "METODO /patron" leida de las propiedades, por ejemplo
+ * "GET /api/ventas/archivo/**". Los patrones siguen la sintaxis de
+ * PathPattern de Spring ({variable}, * y **).
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+final class ReglasRuta {
+
+    private final List<Regla> reglas = new ArrayList<>();
+
+    /**
+     * Interpreta las reglas; los textos vacios se ignoran.
+     *
+     * @param textos reglas "METODO /patron"
+     * @throws RuntimeException si una regla no tiene metodo y patron
+     */
+    ReglasRuta(List<String> textos) {
+        for (String texto : textos) {
+            String[] partes = texto.trim().split("\\s+");
+            if (partes.length == 1 && partes[0].isEmpty()) {
+                continue;
+            }
+            if (partes.length != 2) {
+                throw new RuntimeException("Regla de ruta no valida: " + texto);
+            }
+            reglas.add(new Regla(partes[0].toUpperCase(Locale.ROOT),
+                PathPatternParser.defaultInstance.parse(partes[1])));
+        }
+    }
+
+    /**
+     * Indica si alguna regla coincide con el metodo y la ruta.
+     *
+     * @param metodo metodo HTTP
+     * @param camino ruta ya interpretada con PathContainer.parsePath
+     * @return true si coincide alguna
+     */
+    boolean coincide(String metodo, PathContainer camino) {
+        for (Regla regla : reglas) {
+            if (regla.metodo().equals(metodo) && regla.patron().matches(camino)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Regla(String metodo, PathPattern patron) {
+    }
+}
@@ -0,0 +1,510 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.EstadoReporte;
+import com.inmobiliaria.repositorio.LoteRepositorio;
+import com.inmobiliaria.repositorio.VentaRepositorio;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Servicio que genera reportes de gestion en segundo plano.
+ * Las solicitudes se encolan en un ejecutor acotado, los datos se leen
+ * con cursores (sin cargar tablas completas en memoria) y el archivo
+ * resultante se guarda en disco con su hash SHA-256 como nombre.
+ * Un reporte reciente del mismo tipo se reutiliza sin recalcularlo.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class ReporteServicio {
+
+    /** Reporte: detalle y subtotal de ventas por agente */
+    public static final String VENTAS_POR_AGENTE = "VENTAS_POR_AGENTE";
+
+    /** Reporte: lotes disponibles con subtotal por municipio */
+    public static final String INVENTARIO_POR_MUNICIPIO = "INVENTARIO_POR_MUNICIPIO";
+
+    /** Unico formato de salida soportado */
+    public static final String FORMATO_CSV = "CSV";
+
+    /** Repositorio de ventas para el reporte por agente */
+    private final VentaRepositorio ventaRepositorio;
+
+    /** Repositorio de lotes para el reporte de inventario */
+    private final LoteRepositorio loteRepositorio;
+
+    /** Transaccion de solo lectura que mantiene abierto el cursor */
+    private final TransactionTemplate transaccionLectura;
+
+    /** Ejecutor acotado donde corren los reportes */
+    private final ThreadPoolTaskExecutor ejecutor;
+
+    /** Carpeta donde se guardan los archivos generados */
+    private final Path directorio;
+
+    /** Tiempo durante el cual un reporte terminado se reutiliza */
+    private final Duration vigencia;
+
+    /** Tiempo que se conserva un trabajo terminado antes de olvidarlo */
+    private final Duration retencion;
+
+    /** Trabajos conocidos por su identificador */
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+    /** Ultimo trabajo de cada tipo y formato, para reutilizar resultados */
+    private final Map<String, Trabajo> ultimoPorClave = new ConcurrentHashMap<>();
+
+    /**
+     * Cerrojo entre la limpieza y la publicacion de un resultado: el
+     * archivo se mueve y se asigna al trabajo sin que la limpieza corra
+     * en medio y lo borre por no tener dueno todavia.
+     */
+    private final Object cerrojoArchivos = new Object();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param ventaRepositorio repositorio de ventas
+     * @param loteRepositorio repositorio de lotes
+     * @param transactionManager administrador de transacciones
+     * @param ejecutor ejecutor acotado de reportes
+     * @param directorio carpeta de salida de los archivos
+     * @param vigenciaMinutos minutos que se reutiliza un reporte terminado
+     * @param retencionMinutos minutos que se conserva un reporte terminado
+     */
+    public ReporteServicio(VentaRepositorio ventaRepositorio,
+                           LoteRepositorio loteRepositorio,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("ejecutorReportes") ThreadPoolTaskExecutor ejecutor,
+                           @Value("${inmobiliaria.reportes.directorio}") String directorio,
+                           @Value("${inmobiliaria.reportes.vigencia-minutos:10}") long vigenciaMinutos,
+                           @Value("${inmobiliaria.reportes.retencion-minutos:60}") long retencionMinutos) {
+        this.ventaRepositorio = ventaRepositorio;
+        this.loteRepositorio = loteRepositorio;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.ejecutor = ejecutor;
+        this.directorio = Paths.get(directorio);
+        this.vigencia = Duration.ofMinutes(vigenciaMinutos);
+        this.retencion = Duration.ofMinutes(Math.max(retencionMinutos, vigenciaMinutos));
+
+        try {
+            Files.createDirectories(this.directorio);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                "No se pudo crear el directorio de reportes: " + directorio, e);
+        }
+    }
+
+    /**
+     * Encola la generacion de un reporte y retorna de inmediato.
+     * Si ya hay uno igual en curso o terminado hace menos de la vigencia,
+     * se retorna ese trabajo en lugar de crear otro.
+     *
+     * @param tipo VENTAS_POR_AGENTE o INVENTARIO_POR_MUNICIPIO
+     * @param formato formato de salida (CSV)
+     * @param refrescar true para ignorar el resultado reutilizable
+     * @return estado del trabajo
+     * @throws RuntimeException si el tipo o formato no son validos o la cola esta llena
+     */
+    public EstadoReporte solicitarReporte(String tipo, String formato, boolean refrescar) {
+        String tipoReporte = validarTipo(tipo);
+        String formatoReporte = validarFormato(formato);
+        String clave = tipoReporte + ":" + formatoReporte;
+
+        Trabajo nuevo = new Trabajo(tipoReporte, formatoReporte);
+        Trabajo elegido = ultimoPorClave.compute(clave, (k, actual) ->
+            actual != null && !refrescar && actual.reutilizable(vigencia) ? actual : nuevo);
+
+        if (elegido != nuevo) {
+            return elegido.estado();
+        }
+
+        trabajos.put(nuevo.id, nuevo);
+        try {
+            ejecutor.execute(() -> generar(nuevo));
+        } catch (TaskRejectedException e) {
+            trabajos.remove(nuevo.id);
+            ultimoPorClave.remove(clave, nuevo);
+            throw new RuntimeException(
+                "La cola de reportes esta llena. Intente de nuevo en unos minutos");
+        }
+        return nuevo.estado();
+    }
+
+    /**
+     * Consulta el estado de un trabajo.
+     *
+     * @param idTrabajo identificador del trabajo
+     * @return estado actual
+     * @throws RuntimeException si el trabajo no existe
+     */
+    public EstadoReporte obtenerEstado(String idTrabajo) {
+        return buscarTrabajo(idTrabajo).estado();
+    }
+
+    /**
+     * Retorna el archivo de un reporte terminado.
+     *
+     * @param idTrabajo identificador del trabajo
+     * @return ruta del archivo en disco
+     * @throws RuntimeException si el reporte no ha terminado correctamente
+     */
+    public Path obtenerArchivo(String idTrabajo) {
+        Trabajo trabajo = buscarTrabajo(idTrabajo);
+        if (!EstadoReporte.COMPLETADO.equals(trabajo.estado)) {
+            throw new RuntimeException(
+                "El reporte " + idTrabajo + " no esta listo. Estado actual: " + trabajo.estado);
+        }
+        return trabajo.archivo;
+    }
+
+    /**
+     * Registra una accion que se ejecuta cuando el trabajo termina
+     * (de inmediato si ya termino).
+     *
+     * @param idTrabajo identificador del trabajo
+     * @param alTerminar accion que recibe el estado final
+     */
+    public void suscribir(String idTrabajo, Consumer<EstadoReporte> alTerminar) {
+        Trabajo trabajo = buscarTrabajo(idTrabajo);
+        trabajo.terminado.thenRun(() -> alTerminar.accept(trabajo.estado()));
+    }
+
+    /**
+     * Olvida los trabajos terminados hace mas del tiempo de retencion y
+     * borra los archivos que ya no pertenecen a ningun trabajo.
+     */
+    @Scheduled(fixedDelayString = "${inmobiliaria.reportes.limpieza-ms:300000}")
+    public void limpiarReportesVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        trabajos.values().removeIf(t -> t.fechaFin != null && t.fechaFin.isBefore(limite));
+        ultimoPorClave.values().removeIf(t -> !trabajos.containsKey(t.id));
+
+        synchronized (cerrojoArchivos) {
+            Set<Path> enUso = new HashSet<>();
+            for (Trabajo trabajo : trabajos.values()) {
+                if (trabajo.archivo != null) {
+                    enUso.add(trabajo.archivo);
+                }
+            }
+
+            try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*.csv")) {
+                for (Path archivo : archivos) {
+                    if (!enUso.contains(archivo)) {
+                        Files.deleteIfExists(archivo);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Genera el archivo del reporte en el hilo del ejecutor.
+     * Se escribe a un temporal mientras se calcula el hash y al final
+     * se renombra a hash.csv; si ya existia un archivo identico se reutiliza.
+     * El renombre y el registro en el trabajo van bajo el cerrojo de la
+     * limpieza, para que esta no vea el archivo sin dueno.
+     *
+     * @param trabajo trabajo a procesar
+     */
+    private void generar(Trabajo trabajo) {
+        trabajo.estado = EstadoReporte.EN_PROCESO;
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile(directorio, "reporte-", ".tmp");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+
+            try (Writer salida = new BufferedWriter(new OutputStreamWriter(
+                    new DigestOutputStream(Files.newOutputStream(temporal), sha256),
+                    StandardCharsets.UTF_8))) {
+                transaccionLectura.executeWithoutResult(estado -> escribir(trabajo.tipo, salida));
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path destino = directorio.resolve(hash + ".csv");
+            synchronized (cerrojoArchivos) {
+                if (Files.exists(destino)) {
+                    Files.delete(temporal);
+                } else {
+                    Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+                }
+                trabajo.completar(destino, hash, Files.size(destino));
+            }
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            borrarSilencioso(temporal);
+            trabajo.fallar(e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe las filas del reporte segun su tipo.
+     *
+     * @param tipo tipo de reporte
+     * @param salida destino del CSV
+     */
+    private void escribir(String tipo, Writer salida) {
+        try {
+            if (VENTAS_POR_AGENTE.equals(tipo)) {
+                escribirVentasPorAgente(salida);
+            } else {
+                escribirInventarioPorMunicipio(salida);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Detalle de ventas por agente con una fila SUBTOTAL al cambiar de agente.
+     *
+     * @param salida destino del CSV
+     * @throws IOException si falla la escritura
+     */
+    private void escribirVentasPorAgente(Writer salida) throws IOException {
+        salida.write("tipo_fila,id_agente,agente,id_venta,fecha_venta,referencia," +
+                     "municipio,forma_pago,precio_final\n");
+
+        try (Stream<Object[]> filas = ventaRepositorio.recorrerVentasPorAgente()) {
+            Iterator<Object[]> cursor = filas.iterator();
+            Integer agenteActual = null;
+            String nombreActual = null;
+            long cantidad = 0;
+            BigDecimal total = BigDecimal.ZERO;
+
+            while (cursor.hasNext()) {
+                Object[] fila = cursor.next();
+                Integer idAgente = (Integer) fila[0];
+                String nombre = fila[1] + " " + fila[2];
+
+                if (agenteActual != null && !agenteActual.equals(idAgente)) {
+                    escribirFila(salida, "SUBTOTAL", agenteActual, nombreActual,
+                                 cantidad, null, null, null, null, total);
+                    cantidad = 0;
+                    total = BigDecimal.ZERO;
+                }
+
+                agenteActual = idAgente;
+                nombreActual = nombre;
+                cantidad++;
+                total = total.add((BigDecimal) fila[8]);
+                escribirFila(salida, "DETALLE", idAgente, nombre,
+                             fila[3], fila[4], fila[5], fila[6], fila[7], fila[8]);
+            }
+
+            if (agenteActual != null) {
+                escribirFila(salida, "SUBTOTAL", agenteActual, nombreActual,
+                             cantidad, null, null, null, null, total);
+            }
+        }
+    }
+
+    /**
+     * Inventario disponible con una fila SUBTOTAL al cambiar de municipio.
+     *
+     * @param salida destino del CSV
+     * @throws IOException si falla la escritura
+     */
+    private void escribirInventarioPorMunicipio(Writer salida) throws IOException {
+        salida.write("tipo_fila,departamento,municipio,referencia,area_m2,precio\n");
+
+        try (Stream<Object[]> filas = loteRepositorio.recorrerInventarioDisponible()) {
+            Iterator<Object[]> cursor = filas.iterator();
+            String departamentoActual = null;
+            String municipioActual = null;
+            long cantidad = 0;
+            BigDecimal area = BigDecimal.ZERO;
+            BigDecimal total = BigDecimal.ZERO;
+
+            while (cursor.hasNext()) {
+                Object[] fila = cursor.next();
+                String departamento = (String) fila[0];
+                String municipio = (String) fila[1];
+
+                if (municipioActual != null
+                        && !(municipioActual.equals(municipio)
+                             && Objects.equals(departamentoActual, departamento))) {
+                    escribirFila(salida, "SUBTOTAL", departamentoActual, municipioActual,
+                                 cantidad, area, total);
+                    cantidad = 0;
+                    area = BigDecimal.ZERO;
+                    total = BigDecimal.ZERO;
+                }
+
+                departamentoActual = departamento;
+                municipioActual = municipio;
+                cantidad++;
+                area = area.add((BigDecimal) fila[3]);
+                total = total.add((BigDecimal) fila[4]);
+                escribirFila(salida, "DETALLE", departamento, municipio, fila[2], fila[3], fila[4]);
+            }
+
+            if (municipioActual != null) {
+                escribirFila(salida, "SUBTOTAL", departamentoActual, municipioActual,
+                             cantidad, area, total);
+            }
+        }
+    }
+
+    /**
+     * Escribe una fila CSV escapando comillas, comas y saltos de linea.
+     *
+     * @param salida destino del CSV
+     * @param valores valores de las columnas (null se escribe vacio)
+     * @throws IOException si falla la escritura
+     */
+    private static void escribirFila(Writer salida, Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            if (valores[i] == null) {
+                continue;
+            }
+            String texto = valores[i].toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                    || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                salida.write('"');
+                salida.write(texto.replace("\"", "\"\""));
+                salida.write('"');
+            } else {
+                salida.write(texto);
+            }
+        }
+        salida.write('\n');
+    }
+
+    /** Busca un trabajo o lanza excepcion si no existe */
+    private Trabajo buscarTrabajo(String idTrabajo) {
+        Trabajo trabajo = trabajos.get(idTrabajo);
+        if (trabajo == null) {
+            throw new RuntimeException("Reporte no encontrado con ID: " + idTrabajo);
+        }
+        return trabajo;
+    }
+
+    /** Normaliza y valida el tipo de reporte */
+    private static String validarTipo(String tipo) {
+        String tipoReporte = tipo.toUpperCase();
+        if (!VENTAS_POR_AGENTE.equals(tipoReporte) && !INVENTARIO_POR_MUNICIPIO.equals(tipoReporte)) {
+            throw new RuntimeException(
+                "Tipo de reporte no valido: " + tipo +
+                ". Use " + VENTAS_POR_AGENTE + " o " + INVENTARIO_POR_MUNICIPIO);
+        }
+        return tipoReporte;
+    }
+
+    /** Normaliza y valida el formato de salida */
+    private static String validarFormato(String formato) {
+        String formatoReporte = formato.toUpperCase();
+        if (!FORMATO_CSV.equals(formatoReporte)) {
+            throw new RuntimeException(
+                "Formato de reporte no soportado: " + formato + ". Formatos disponibles: CSV");
+        }
+        return formatoReporte;
+    }
+
+    /** Borra un archivo temporal ignorando errores */
+    private static void borrarSilencioso(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException ignorada) {
+            /* El archivo temporal se elimina en la siguiente limpieza */
+        }
+    }
+
+    /**
+     * Estado mutable de un trabajo de reporte.
+     * Lo escribe el hilo del ejecutor y lo leen los hilos de peticiones.
+     */
+    private static final class Trabajo {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String tipo;
+        private final String formato;
+        private final LocalDateTime fechaSolicitud = LocalDateTime.now();
+        private final CompletableFuture<Void> terminado = new CompletableFuture<>();
+
+        private volatile String estado = EstadoReporte.EN_COLA;
+        private volatile LocalDateTime fechaFin;
+        private volatile Path archivo;
+        private volatile String hash;
+        private volatile Long tamanoBytes;
+        private volatile String error;
+
+        private Trabajo(String tipo, String formato) {
+            this.tipo = tipo;
+            this.formato = formato;
+        }
+
+        private void completar(Path archivo, String hash, long tamanoBytes) {
+            this.archivo = archivo;
+            this.hash = hash;
+            this.tamanoBytes = tamanoBytes;
+            this.fechaFin = LocalDateTime.now();
+            this.estado = EstadoReporte.COMPLETADO;
+            terminado.complete(null);
+        }
+
+        private void fallar(String error) {
+            this.error = error;
+            this.fechaFin = LocalDateTime.now();
+            this.estado = EstadoReporte.FALLIDO;
+            terminado.complete(null);
+        }
+
+        /** En curso, o terminado bien hace menos que la vigencia */
+        private boolean reutilizable(Duration vigencia) {
+            if (EstadoReporte.FALLIDO.equals(estado)) {
+                return false;
+            }
+            return fechaFin == null || fechaFin.plus(vigencia).isAfter(LocalDateTime.now());
+        }
+
+        private EstadoReporte estado() {
+            return new EstadoReporte(id, tipo, formato, estado, fechaSolicitud,
+                                     fechaFin, hash, tamanoBytes, error);
+        }
+    }
+}
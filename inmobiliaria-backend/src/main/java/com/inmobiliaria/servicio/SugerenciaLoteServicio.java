@@ -0,0 +1,186 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.dto.SugerenciaLote;
+import com.inmobiliaria.evento.CachesDesincronizadasEvento;
+import com.inmobiliaria.evento.LotesModificadosEvento;
+import com.inmobiliaria.modelo.EstadoLote;
+import com.inmobiliaria.repositorio.LoteRepositorio;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocompletado de municipio, departamento y referencia de lotes.
+ * Mantiene en memoria un trie por campo con la cantidad de lotes
+ * disponibles de cada valor. Se carga al arrancar y despues solo se
+ * aplica la diferencia de los lotes que cambian.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+@Service
+public class SugerenciaLoteServicio {
+
+    /** Campo: municipio del lote */
+    public static final String CAMPO_MUNICIPIO = "municipio";
+
+    /** Campo: departamento del lote */
+    public static final String CAMPO_DEPARTAMENTO = "departamento";
+
+    /** Campo: referencia del lote */
+    public static final String CAMPO_REFERENCIA = "referencia";
+
+    /** Maximo de sugerencias por consulta */
+    public static final int MAXIMO_SUGERENCIAS = 50;
+
+    /** Valores de un lote que aportan a las sugerencias */
+    private record DatosLote(String referencia, String municipio, String departamento, boolean disponible) {
+    }
+
+    /** Repositorio de lotes */
+    private final LoteRepositorio loteRepositorio;
+
+    /** Un trie por campo, en el orden en que se combinan los resultados */
+    private final Map<String, TriePrefijos> tries = new LinkedHashMap<>();
+
+    /** Ultimos datos aplicados de cada lote, para calcular la diferencia */
+    private final Map<Integer, DatosLote> porLote = new HashMap<>();
+
+    /** Lecturas concurrentes; cargas y cambios exclusivos */
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor con inyeccion de dependencias.
+     *
+     * @param loteRepositorio repositorio de lotes
+     */
+    public SugerenciaLoteServicio(LoteRepositorio loteRepositorio) {
+        this.loteRepositorio = loteRepositorio;
+        tries.put(CAMPO_MUNICIPIO, new TriePrefijos());
+        tries.put(CAMPO_DEPARTAMENTO, new TriePrefijos());
+        tries.put(CAMPO_REFERENCIA, new TriePrefijos());
+    }
+
+    /**
+     * Carga los tries con todos los lotes al arrancar, o de nuevo si se
+     * pudieron perder invalidaciones de otros nodos.
+     */
+    @EventListener({ApplicationReadyEvent.class, CachesDesincronizadasEvento.class})
+    public void cargar() {
+        bloqueo.writeLock().lock();
+        try {
+            porLote.clear();
+            tries.replaceAll((campo, trie) -> new TriePrefijos());
+            for (Object[] fila : loteRepositorio.obtenerDatosSugerencias()) {
+                aplicar((Integer) fila[0], datos(fila));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica los cambios de lotes confirmados: resta los datos anteriores
+     * de cada lote y suma los nuevos (o solo resta si se elimino).
+     *
+     * @param evento lotes modificados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarLotes(LotesModificadosEvento evento) {
+        bloqueo.writeLock().lock();
+        try {
+            Map<Integer, DatosLote> actuales = new HashMap<>();
+            for (Object[] fila : loteRepositorio.obtenerDatosSugerenciasPorIds(evento.idsLotes())) {
+                actuales.put((Integer) fila[0], datos(fila));
+            }
+            for (Integer idLote : evento.idsLotes()) {
+                aplicar(idLote, actuales.get(idLote));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sugerencias que empiezan por el texto, mas lotes disponibles primero.
+     *
+     * @param texto texto escrito por el usuario
+     * @param campo municipio, departamento, referencia o null para todos
+     * @param limite cantidad de sugerencias (1 a 50)
+     * @return sugerencias ordenadas
+     * @throws RuntimeException si el campo o el limite no son validos
+     */
+    public List<SugerenciaLote> sugerir(String texto, String campo, int limite) {
+        if (limite < 1 || limite > MAXIMO_SUGERENCIAS) {
+            throw new RuntimeException("El limite debe estar entre 1 y " + MAXIMO_SUGERENCIAS);
+        }
+        if (campo != null && !tries.containsKey(campo.toLowerCase())) {
+            throw new RuntimeException(
+                "Campo no valido: " + campo + ". Use municipio, departamento o referencia");
+        }
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+
+        List<SugerenciaLote> sugerencias = new ArrayList<>();
+        bloqueo.readLock().lock();
+        try {
+            for (Map.Entry<String, TriePrefijos> trie : tries.entrySet()) {
+                if (campo == null || trie.getKey().equalsIgnoreCase(campo)) {
+                    for (TriePrefijos.Coincidencia coincidencia : trie.getValue().buscar(texto, limite)) {
+                        sugerencias.add(new SugerenciaLote(
+                            trie.getKey(), coincidencia.valor(), coincidencia.conteo()));
+                    }
+                }
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+
+        if (campo == null && sugerencias.size() > limite) {
+            /* Orden estable: a igual conteo se conserva el orden de los campos */
+            sugerencias.sort(Comparator.comparingInt(SugerenciaLote::disponibles).reversed());
+            return List.copyOf(sugerencias.subList(0, limite));
+        }
+        return sugerencias;
+    }
+
+    /**
+     * Reemplaza los datos de un lote en los tries.
+     * Debe llamarse con el bloqueo de escritura.
+     *
+     * @param idLote ID del lote
+     * @param nuevos datos actuales o null si el lote ya no existe
+     */
+    private void aplicar(Integer idLote, DatosLote nuevos) {
+        DatosLote anteriores = nuevos == null ? porLote.remove(idLote) : porLote.put(idLote, nuevos);
+        if (anteriores != null) {
+            sumar(anteriores, -1);
+        }
+        if (nuevos != null) {
+            sumar(nuevos, 1);
+        }
+    }
+
+    private void sumar(DatosLote datos, int signo) {
+        int disponibles = datos.disponible() ? signo : 0;
+        tries.get(CAMPO_MUNICIPIO).sumar(datos.municipio(), disponibles, signo);
+        tries.get(CAMPO_DEPARTAMENTO).sumar(datos.departamento(), disponibles, signo);
+        tries.get(CAMPO_REFERENCIA).sumar(datos.referencia(), disponibles, signo);
+    }
+
+    private static DatosLote datos(Object[] fila) {
+        return new DatosLote((String) fila[1], (String) fila[2], (String) fila[3],
+            fila[4] == EstadoLote.DISPONIBLE);
+    }
+}
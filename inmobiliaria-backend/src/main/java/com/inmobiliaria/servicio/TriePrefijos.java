@@ -0,0 +1,286 @@
+package com.inmobiliaria.servicio;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Trie comprimido (radix) de valores de texto con un conteo por valor.
+ * Las claves se normalizan (minusculas y sin tildes) para que "mede"
+ * encuentre "Medellin" y "Medellín"; se muestra el primer valor
+ * registrado para cada clave.
+ * Cada nodo guarda el conteo maximo de su subarbol, de modo que la
+ * busqueda de los K valores con mas conteo para un prefijo recorre solo
+ * las ramas que pueden aportar resultados.
+ * No es seguro para hilos: quien lo use debe sincronizar el acceso.
+ *
+ * @author [Tu nombre]
+ * @version 1.0
+ */
+public class TriePrefijos {
+
+    /**
+     * Valor encontrado por prefijo.
+     *
+     * @param valor texto tal como se registro
+     * @param conteo conteo del valor (p. ej. lotes disponibles)
+     */
+    public record Coincidencia(String valor, int conteo) {
+    }
+
+    /** Valor registrado en un nodo terminal */
+    private static final class Entrada {
+        private final String valor;
+        private int conteo;
+        private int referencias;
+
+        private Entrada(String valor) {
+            this.valor = valor;
+        }
+    }
+
+    /** Nodo del trie; la etiqueta es el tramo de clave desde el padre */
+    private static final class Nodo {
+        private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+        private String etiqueta;
+        private Nodo[] hijos = SIN_HIJOS;
+        private Entrada entrada;
+        private int maximo = -1;
+
+        private Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    /** Candidato de la busqueda: un subarbol pendiente o un valor listo */
+    private record Candidato(Nodo nodo, Entrada entrada, int puntaje) {
+    }
+
+    /** Mayor puntaje primero; a igual puntaje, valores antes que subarboles */
+    private static final Comparator<Candidato> ORDEN = Comparator
+        .comparingInt(Candidato::puntaje).reversed()
+        .thenComparing(candidato -> candidato.entrada() == null)
+        .thenComparing(candidato -> candidato.entrada() == null ? "" : candidato.entrada().valor);
+
+    private final Nodo raiz = new Nodo("");
+
+    private int tamano;
+
+    /**
+     * Normaliza un texto como clave: minusculas, sin tildes y sin espacios
+     * repetidos.
+     *
+     * @param texto texto original
+     * @return clave normalizada
+     */
+    public static String normalizar(String texto) {
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "");
+        return sinTildes.toLowerCase().trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Suma al conteo de un valor y a sus referencias. Un valor nuevo se
+     * agrega; un valor cuyas referencias llegan a cero se elimina.
+     *
+     * @param valor texto a registrar
+     * @param deltaConteo cambio del conteo
+     * @param deltaReferencias cambio de la cantidad de registros con este valor
+     */
+    public void sumar(String valor, int deltaConteo, int deltaReferencias) {
+        if (valor == null || valor.isBlank()) {
+            return;
+        }
+        String clave = normalizar(valor);
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = ubicar(clave, camino);
+
+        if (nodo.entrada == null) {
+            nodo.entrada = new Entrada(valor.trim());
+            tamano++;
+        }
+        nodo.entrada.conteo += deltaConteo;
+        nodo.entrada.referencias += deltaReferencias;
+
+        if (nodo.entrada.referencias <= 0) {
+            nodo.entrada = null;
+            tamano--;
+            podar(camino);
+        }
+        for (int k = camino.size() - 1; k >= 0; k--) {
+            recalcularMaximo(camino.get(k));
+        }
+    }
+
+    /**
+     * Busca los valores que empiezan por el prefijo, mayor conteo primero.
+     *
+     * @param prefijo texto escrito por el usuario
+     * @param limite cantidad maxima de resultados
+     * @return coincidencias ordenadas por conteo y luego alfabeticamente
+     */
+    public List<Coincidencia> buscar(String prefijo, int limite) {
+        String clave = normalizar(prefijo);
+        Nodo nodo = raiz;
+        int i = 0;
+        while (i < clave.length()) {
+            int posicion = buscarHijo(nodo, clave.charAt(i));
+            if (posicion < 0) {
+                return List.of();
+            }
+            Nodo hijo = nodo.hijos[posicion];
+            int comun = prefijoComun(hijo.etiqueta, clave, i);
+            if (i + comun == clave.length()) {
+                nodo = hijo;
+                break;
+            }
+            if (comun < hijo.etiqueta.length()) {
+                return List.of();
+            }
+            nodo = hijo;
+            i += comun;
+        }
+
+        List<Coincidencia> resultado = new ArrayList<>(Math.min(limite, tamano));
+        if (nodo.maximo < 0) {
+            return resultado;
+        }
+        PriorityQueue<Candidato> cola = new PriorityQueue<>(ORDEN);
+        cola.add(new Candidato(nodo, null, nodo.maximo));
+        while (!cola.isEmpty() && resultado.size() < limite) {
+            Candidato candidato = cola.poll();
+            if (candidato.entrada() != null) {
+                resultado.add(new Coincidencia(candidato.entrada().valor, candidato.entrada().conteo));
+                continue;
+            }
+            Nodo actual = candidato.nodo();
+            if (actual.entrada != null) {
+                cola.add(new Candidato(null, actual.entrada, actual.entrada.conteo));
+            }
+            for (Nodo hijo : actual.hijos) {
+                cola.add(new Candidato(hijo, null, hijo.maximo));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de valores distintos registrados.
+     *
+     * @return valores en el trie
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Baja por el trie hasta el nodo de la clave, creandolo (y partiendo
+     * aristas) si no existe. Deja en camino los nodos recorridos.
+     */
+    private Nodo ubicar(String clave, List<Nodo> camino) {
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int i = 0;
+        while (i < clave.length()) {
+            int posicion = buscarHijo(nodo, clave.charAt(i));
+            if (posicion < 0) {
+                Nodo nuevo = new Nodo(clave.substring(i));
+                insertarHijo(nodo, -(posicion + 1), nuevo);
+                camino.add(nuevo);
+                return nuevo;
+            }
+            Nodo hijo = nodo.hijos[posicion];
+            int comun = prefijoComun(hijo.etiqueta, clave, i);
+            if (comun < hijo.etiqueta.length()) {
+                /* La clave se separa a mitad de la arista: se parte en dos */
+                Nodo intermedio = new Nodo(hijo.etiqueta.substring(0, comun));
+                hijo.etiqueta = hijo.etiqueta.substring(comun);
+                intermedio.hijos = new Nodo[] {hijo};
+                intermedio.maximo = hijo.maximo;
+                nodo.hijos[posicion] = intermedio;
+                hijo = intermedio;
+            }
+            nodo = hijo;
+            camino.add(nodo);
+            i += comun;
+        }
+        return nodo;
+    }
+
+    /**
+     * Quita los nodos que quedaron sin valor ni hijos y une con su hijo
+     * los que quedaron sin valor y con un solo hijo.
+     */
+    private static void podar(List<Nodo> camino) {
+        for (int k = camino.size() - 1; k >= 1; k--) {
+            Nodo nodo = camino.get(k);
+            if (nodo.entrada != null) {
+                continue;
+            }
+            if (nodo.hijos.length == 0) {
+                quitarHijo(camino.get(k - 1), nodo);
+            } else if (nodo.hijos.length == 1) {
+                Nodo hijo = nodo.hijos[0];
+                nodo.etiqueta = nodo.etiqueta + hijo.etiqueta;
+                nodo.hijos = hijo.hijos;
+                nodo.entrada = hijo.entrada;
+                nodo.maximo = hijo.maximo;
+            }
+        }
+    }
+
+    private static void recalcularMaximo(Nodo nodo) {
+        int maximo = nodo.entrada != null ? nodo.entrada.conteo : -1;
+        for (Nodo hijo : nodo.hijos) {
+            maximo = Math.max(maximo, hijo.maximo);
+        }
+        nodo.maximo = maximo;
+    }
+
+    /** Busqueda binaria del hijo cuya etiqueta empieza por c */
+    private static int buscarHijo(Nodo nodo, char c) {
+        int bajo = 0;
+        int alto = nodo.hijos.length - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            char actual = nodo.hijos[medio].etiqueta.charAt(0);
+            if (actual < c) {
+                bajo = medio + 1;
+            } else if (actual > c) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private static void insertarHijo(Nodo nodo, int posicion, Nodo hijo) {
+        Nodo[] hijos = Arrays.copyOf(nodo.hijos, nodo.hijos.length + 1);
+        System.arraycopy(hijos, posicion, hijos, posicion + 1, nodo.hijos.length - posicion);
+        hijos[posicion] = hijo;
+        nodo.hijos = hijos;
+    }
+
+    private static void quitarHijo(Nodo nodo, Nodo hijo) {
+        int posicion = buscarHijo(nodo, hijo.etiqueta.charAt(0));
+        Nodo[] hijos = new Nodo[nodo.hijos.length - 1];
+        System.arraycopy(nodo.hijos, 0, hijos, 0, posicion);
+        System.arraycopy(nodo.hijos, posicion + 1, hijos, posicion, hijos.length - posicion);
+        nodo.hijos = hijos.length == 0 ? Nodo.SIN_HIJOS : hijos;
+    }
+
+    /** Largo del prefijo comun entre la etiqueta y la clave desde la posicion i */
+    private static int prefijoComun(String etiqueta, String clave, int i) {
+        int limite = Math.min(etiqueta.length(), clave.length() - i);
+        int n = 0;
+        while (n < limite && etiqueta.charAt(n) == clave.charAt(i + n)) {
+            n++;
+        }
+        return n;
+    }
+}
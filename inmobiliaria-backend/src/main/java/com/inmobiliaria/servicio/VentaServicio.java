@@ -1,17 +1,35 @@
 package com.inmobiliaria.servicio;
 
+import com.inmobiliaria.dto.CompraMultiple;
+import com.inmobiliaria.dto.ResultadoCompraMultiple;
+import com.inmobiliaria.evento.VentasModificadasEvento;
+import com.inmobiliaria.modelo.Agente;
+import com.inmobiliaria.modelo.Cliente;
+import com.inmobiliaria.modelo.EstadoLote;
+import com.inmobiliaria.modelo.EstadoVenta;
 import com.inmobiliaria.modelo.Lote;
+import com.inmobiliaria.modelo.TipoEventoVenta;
 import com.inmobiliaria.modelo.Venta;
 import com.inmobiliaria.repositorio.VentaRepositorio;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Servicio que implementa la logica de negocio para ventas.
  * Garantiza que no se venda un lote que no este disponible.
  * Usa transacciones para mantener la integridad de los datos.
+ * Las ventas no se borran: cancelar cambia su estado, y cada registro,
+ * cancelacion o cambio de observaciones queda en el libro de eventos.
  *
  * @author [Tu nombre]
  * @version 1.0
@@ -19,21 +37,59 @@ import java.util.List;
 @Service
 public class VentaServicio {
 
+    /** Meses que puede abarcar la consulta de ventas de un cliente */
+    static final int MAXIMO_MESES_CONSULTA = 36;
+
     /** Repositorio para acceder a los datos de ventas */
     private final VentaRepositorio ventaRepositorio;
 
     /** Servicio de lotes para verificar disponibilidad y cambiar estado */
     private final LoteServicio loteServicio;
 
+    /** Servicio de clientes para validar al comprador */
+    private final ClienteServicio clienteServicio;
+
+    /** Servicio de agentes para validar al agente de la venta */
+    private final AgenteServicio agenteServicio;
+
+    /** Servicio de planes de pago para ventas a credito o financiadas */
+    private final PlanPagoServicio planPagoServicio;
+
+    /** Libro de eventos de venta */
+    private final LibroVentasServicio libroVentasServicio;
+
+    /** Auditoria de los cambios de ventas */
+    private final AuditoriaServicio auditoriaServicio;
+
+    /** Publicador de eventos para avisar a los acumulados de ventas */
+    private final ApplicationEventPublisher eventos;
+
     /**
      * Constructor con inyeccion de dependencias.
      *
      * @param ventaRepositorio repositorio de ventas
      * @param loteServicio servicio de lotes
+     * @param clienteServicio servicio de clientes
+     * @param agenteServicio servicio de agentes
+     * @param planPagoServicio servicio de planes de pago
+     * @param libroVentasServicio libro de eventos de venta
+     * @param auditoriaServicio servicio de auditoria
+     * @param eventos publicador de eventos de Spring
      */
-    public VentaServicio(VentaRepositorio ventaRepositorio, LoteServicio loteServicio) {
+    public VentaServicio(VentaRepositorio ventaRepositorio, LoteServicio loteServicio,
+                         ClienteServicio clienteServicio, AgenteServicio agenteServicio,
+                         PlanPagoServicio planPagoServicio,
+                         LibroVentasServicio libroVentasServicio,
+                         AuditoriaServicio auditoriaServicio,
+                         ApplicationEventPublisher eventos) {
         this.ventaRepositorio = ventaRepositorio;
         this.loteServicio = loteServicio;
+        this.clienteServicio = clienteServicio;
+        this.agenteServicio = agenteServicio;
+        this.planPagoServicio = planPagoServicio;
+        this.libroVentasServicio = libroVentasServicio;
+        this.auditoriaServicio = auditoriaServicio;
+        this.eventos = eventos;
     }
 
     /**
@@ -53,7 +109,7 @@ public class VentaServicio {
             venta.getLote().getIdLote());
 
         /* Regla de negocio: solo se venden lotes disponibles */
-        if (!Lote.ESTADO_DISPONIBLE.equals(lote.getEstado())) {
+        if (lote.getEstado() != EstadoLote.DISPONIBLE) {
             throw new RuntimeException(
                 "El lote " + lote.getReferencia() +
                 " no esta disponible. Estado actual: " + lote.getEstado());
@@ -63,11 +119,95 @@ public class VentaServicio {
         Venta ventaGuardada = ventaRepositorio.save(venta);
 
         /* Actualizar el estado del lote a VENDIDO */
-        loteServicio.cambiarEstado(lote.getIdLote(), Lote.ESTADO_VENDIDO);
+        loteServicio.cambiarEstado(lote.getIdLote(), EstadoLote.VENDIDO);
+
+        /* Generar el plan de cuotas si la venta es a credito o financiada */
+        planPagoServicio.crearPlanes(List.of(ventaGuardada));
+        libroVentasServicio.registrar(TipoEventoVenta.REGISTRADA, List.of(ventaGuardada));
+        auditarCreacion(ventaGuardada);
+        eventos.publishEvent(VentasModificadasEvento.registradas(List.of(ventaGuardada)));
 
         return ventaGuardada;
     }
 
+    /**
+     * Registra la compra de varios lotes para un mismo cliente.
+     * Todo ocurre en una transaccion: o se venden todos o ninguno.
+     * Los lotes se bloquean con una sola consulta en orden de ID (evita
+     * deadlocks entre compras que comparten lotes), las ventas se insertan
+     * en un lote JDBC y los lotes pasan a VENDIDO con un solo UPDATE.
+     *
+     * @param compra cliente, agente, forma de pago y lotes a comprar
+     * @return ventas registradas y total de la compra
+     * @throws RuntimeException si un lote se repite, no existe o no esta disponible
+     */
+    @Transactional
+    public ResultadoCompraMultiple registrarCompraMultiple(CompraMultiple compra) {
+
+        /* Precio por lote ordenado por ID; un lote repetido es un error */
+        Map<Integer, BigDecimal> precioPorLote = new TreeMap<>();
+        for (CompraMultiple.LoteCompra item : compra.lotes()) {
+            if (precioPorLote.put(item.idLote(), item.precioFinal()) != null) {
+                throw new RuntimeException(
+                    "El lote " + item.idLote() + " aparece mas de una vez en la compra");
+            }
+        }
+
+        Cliente cliente = clienteServicio.obtenerClientePorId(compra.idCliente());
+        Agente agente = agenteServicio.obtenerAgentePorId(compra.idAgente());
+
+        /* Bloquear todos los lotes y validar disponibilidad en memoria */
+        List<Lote> lotes = loteServicio.bloquearLotes(precioPorLote.keySet());
+        List<String> problemas = new ArrayList<>();
+        if (lotes.size() != precioPorLote.size()) {
+            List<Integer> encontrados = lotes.stream().map(Lote::getIdLote).toList();
+            for (Integer idLote : precioPorLote.keySet()) {
+                if (!encontrados.contains(idLote)) {
+                    problemas.add("lote " + idLote + " no existe");
+                }
+            }
+        }
+        for (Lote lote : lotes) {
+            if (lote.getEstado() != EstadoLote.DISPONIBLE) {
+                problemas.add("lote " + lote.getReferencia() + " esta " + lote.getEstado());
+            }
+        }
+        if (!problemas.isEmpty()) {
+            throw new RuntimeException(
+                "No se registro la compra: " + String.join(", ", problemas));
+        }
+
+        /* Crear las ventas; se insertan en lote al hacer flush */
+        List<Venta> ventas = new ArrayList<>(lotes.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Lote lote : lotes) {
+            Venta venta = new Venta();
+            venta.setCliente(cliente);
+            venta.setAgente(agente);
+            venta.setLote(lote);
+            venta.setPrecioFinal(precioPorLote.get(lote.getIdLote()));
+            venta.setFormaPago(compra.formaPago());
+            venta.setObservaciones(compra.observaciones());
+            ventas.add(venta);
+            total = total.add(venta.getPrecioFinal());
+        }
+        List<Venta> ventasGuardadas = ventaRepositorio.saveAll(ventas);
+        planPagoServicio.crearPlanes(ventasGuardadas);
+        libroVentasServicio.registrar(TipoEventoVenta.REGISTRADA, ventasGuardadas);
+        for (Venta venta : ventasGuardadas) {
+            auditarCreacion(venta);
+        }
+        eventos.publishEvent(VentasModificadasEvento.registradas(ventasGuardadas));
+
+        /* Un solo UPDATE para todos los lotes (hace flush de las ventas antes) */
+        loteServicio.marcarVendidos(precioPorLote.keySet());
+        for (Lote lote : lotes) {
+            lote.setEstado(EstadoLote.VENDIDO);
+        }
+
+        return new ResultadoCompraMultiple(ventasGuardadas.size(), total, ventasGuardadas);
+    }
+
     /**
      * Obtiene todas las ventas registradas en el sistema.
      *
@@ -93,15 +233,24 @@ public class VentaServicio {
     }
 
     /**
-     * Obtiene todas las ventas realizadas por un cliente especifico.
+     * Obtiene las ventas de un cliente de los ultimos meses, incluido el
+     * actual. Las ventas mas antiguas quedan en el archivo de ventas.
      *
      * @param idCliente ID del cliente
+     * @param meses cantidad de meses hacia atras, incluido el actual
      * @return lista de ventas del cliente ordenadas por fecha
+     * @throws RuntimeException si la cantidad de meses no es valida
      */
     @Transactional(readOnly = true)
-    public List<Venta> obtenerVentasPorCliente(Integer idCliente) {
+    public List<Venta> obtenerVentasPorCliente(Integer idCliente, int meses) {
+        if (meses < 1 || meses > MAXIMO_MESES_CONSULTA) {
+            throw new RuntimeException(
+                "Los meses deben estar entre 1 y " + MAXIMO_MESES_CONSULTA);
+        }
+        LocalDate desde = YearMonth.now().minusMonths(meses - 1L).atDay(1);
         return ventaRepositorio
-            .findByClienteIdClienteOrderByFechaVentaDesc(idCliente);
+            .findByClienteIdClienteAndFechaVentaGreaterThanEqualOrderByFechaVentaDesc(
+                idCliente, desde);
     }
 
     /**
@@ -114,25 +263,51 @@ public class VentaServicio {
     @Transactional
     public Venta actualizarObservaciones(Integer idVenta, String observaciones) {
         Venta venta = obtenerVentaPorId(idVenta);
-        venta.setObservaciones(observaciones);
+        if (!Objects.equals(venta.getObservaciones(), observaciones)) {
+            Map<String, Object> antes = InstantaneaAuditoria.de(venta);
+            venta.setObservaciones(observaciones);
+            libroVentasServicio.registrar(TipoEventoVenta.OBSERVACIONES, List.of(venta));
+            auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_VENTA, idVenta,
+                AuditoriaServicio.OPERACION_ACTUALIZAR, antes, InstantaneaAuditoria.de(venta));
+        }
         return ventaRepositorio.save(venta);
     }
 
     /**
      * Cancela una venta y libera el lote como DISPONIBLE.
-     * Ambas operaciones se realizan en una sola transaccion.
+     * La venta no se borra: queda CANCELADA, su plan de pagos se cierra
+     * y la cancelacion se registra en el libro de eventos.
+     * Todo se realiza en una sola transaccion.
      *
      * @param idVenta ID de la venta a cancelar
+     * @throws RuntimeException si la venta ya estaba cancelada
      */
     @Transactional
     public void cancelarVenta(Integer idVenta) {
         Venta venta = obtenerVentaPorId(idVenta);
+        Map<String, Object> antes = InstantaneaAuditoria.de(venta);
         Integer idLote = venta.getLote().getIdLote();
 
-        /* Eliminar la venta de la base de datos */
-        ventaRepositorio.deleteById(idVenta);
+        /* UPDATE condicionado al estado: una cancelacion concurrente espera y no encuentra la fila */
+        if (ventaRepositorio.cancelar(idVenta) == 0) {
+            throw new RuntimeException("La venta " + idVenta + " ya esta cancelada");
+        }
+        venta.setEstado(EstadoVenta.CANCELADA);
+
+        /* Cerrar el plan de pagos (si existe) */
+        planPagoServicio.cerrarPlan(idVenta);
+        libroVentasServicio.registrar(TipoEventoVenta.CANCELADA, List.of(venta));
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_VENTA, idVenta,
+            AuditoriaServicio.OPERACION_CAMBIAR_ESTADO, antes, InstantaneaAuditoria.de(venta));
 
         /* Liberar el lote para que quede disponible nuevamente */
-        loteServicio.cambiarEstado(idLote, Lote.ESTADO_DISPONIBLE);
+        loteServicio.cambiarEstado(idLote, EstadoLote.DISPONIBLE);
+
+        eventos.publishEvent(VentasModificadasEvento.cancelada(venta));
+    }
+
+    private void auditarCreacion(Venta venta) {
+        auditoriaServicio.registrar(AuditoriaServicio.ENTIDAD_VENTA, venta.getIdVenta(),
+            AuditoriaServicio.OPERACION_CREAR, null, InstantaneaAuditoria.de(venta));
     }
 }
@@ -0,0 +1,41 @@
+-- =============================================================
+-- V10: ESTADO DEL LOTE Y FORMA DE PAGO COMO SMALLINT
+-- lotes.estado y ventas.forma_pago pasan de VARCHAR(20) a un
+-- codigo de 2 bytes (ver EstadoLote y FormaPago). Filas e indices
+-- mas pequenos y comparaciones de enteros en lugar de texto.
+--   estado:     1 DISPONIBLE, 2 RESERVADO, 3 VENDIDO
+--   forma_pago: 1 CONTADO,    2 CREDITO,   3 FINANCIADO
+-- Un valor no reconocido queda NULL y la migracion falla en el
+-- SET NOT NULL: hay que corregirlo antes de aplicarla.
+-- =============================================================
+
+-- El predicado del indice parcial compara con texto: se recrea
+DROP INDEX IF EXISTS idx_lotes_disponibles_precio;
+
+-- Un estado NULL se trata como DISPONIBLE, igual que Lote.antesDeInsertar
+ALTER TABLE lotes
+    ALTER COLUMN estado TYPE SMALLINT USING
+        CASE upper(trim(coalesce(estado, 'DISPONIBLE')))
+            WHEN 'DISPONIBLE' THEN 1
+            WHEN 'RESERVADO'  THEN 2
+            WHEN 'VENDIDO'    THEN 3
+        END,
+    ALTER COLUMN estado SET DEFAULT 1,
+    ALTER COLUMN estado SET NOT NULL,
+    ADD CONSTRAINT ck_lotes_estado CHECK (estado BETWEEN 1 AND 3);
+
+ALTER TABLE ventas
+    ALTER COLUMN forma_pago TYPE SMALLINT USING
+        CASE upper(trim(forma_pago))
+            WHEN 'CONTADO'    THEN 1
+            WHEN 'CREDITO'    THEN 2
+            WHEN 'FINANCIADO' THEN 3
+        END,
+    ALTER COLUMN forma_pago SET NOT NULL,
+    ADD CONSTRAINT ck_ventas_forma_pago CHECK (forma_pago BETWEEN 1 AND 3);
+
+-- LoteRepositorio.buscarDisponiblesPorRangoPrecio y
+-- recorrerInventarioDisponible: estado = 1 (DISPONIBLE)
+CREATE INDEX IF NOT EXISTS idx_lotes_disponibles_precio
+    ON lotes (precio)
+    WHERE estado = 1;
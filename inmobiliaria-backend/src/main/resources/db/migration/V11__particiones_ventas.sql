@@ -0,0 +1,74 @@
+-- =============================================================
+-- V11: VENTAS PARTICIONADAS POR MES
+-- ventas pasa a ser una tabla particionada por rango de
+-- fecha_venta, con una particion por mes (ventas_AAAA_MM).
+-- Las consultas con rango de fechas solo recorren los meses que
+-- tocan, y los meses antiguos se archivan en archivos columnares
+-- y se separan de la tabla (ParticionesVentasServicio).
+--   * La clave primaria incluye fecha_venta, como exige
+--     PostgreSQL en tablas particionadas.
+--   * planes_pago ya no puede referenciar ventas (id_venta) con
+--     clave foranea: el id sigue viniendo de la misma secuencia
+--     y la integridad la mantiene VentaServicio.
+--   * No hay particion DEFAULT: Venta.antesDeInsertar siempre
+--     asigna la fecha del dia y las particiones de los proximos
+--     meses se crean por adelantado.
+-- =============================================================
+
+ALTER TABLE planes_pago DROP CONSTRAINT IF EXISTS planes_pago_id_venta_fkey;
+
+DROP INDEX IF EXISTS idx_ventas_cliente_fecha;
+DROP INDEX IF EXISTS idx_ventas_agente_fecha;
+DROP INDEX IF EXISTS idx_ventas_lote;
+
+ALTER TABLE ventas RENAME TO ventas_sin_particionar;
+ALTER TABLE ventas_sin_particionar RENAME CONSTRAINT ventas_pkey TO ventas_sin_particionar_pkey;
+ALTER SEQUENCE ventas_id_venta_seq OWNED BY NONE;
+
+CREATE TABLE ventas (
+    id_venta      INTEGER        NOT NULL DEFAULT nextval('ventas_id_venta_seq'),
+    id_cliente    INTEGER        NOT NULL REFERENCES clientes (id_cliente),
+    id_lote       INTEGER        NOT NULL REFERENCES lotes (id_lote),
+    id_agente     INTEGER        NOT NULL REFERENCES agentes (id_agente),
+    fecha_venta   DATE           NOT NULL,
+    precio_final  NUMERIC(15, 2) NOT NULL,
+    forma_pago    SMALLINT       NOT NULL CONSTRAINT ck_ventas_forma_pago CHECK (forma_pago BETWEEN 1 AND 3),
+    observaciones TEXT,
+    PRIMARY KEY (id_venta, fecha_venta)
+) PARTITION BY RANGE (fecha_venta);
+
+ALTER SEQUENCE ventas_id_venta_seq OWNED BY ventas.id_venta;
+
+-- Mismos indices que V2; cada particion recibe el suyo
+CREATE INDEX idx_ventas_cliente_fecha ON ventas (id_cliente, fecha_venta DESC);
+CREATE INDEX idx_ventas_agente_fecha ON ventas (id_agente, fecha_venta DESC);
+CREATE INDEX idx_ventas_lote ON ventas (id_lote);
+
+-- Una particion por mes desde la venta mas antigua hasta tres meses adelante
+DO $$
+DECLARE
+    mes DATE;
+BEGIN
+    SELECT date_trunc('month', coalesce(min(fecha_venta), current_date))::date
+      INTO mes
+      FROM ventas_sin_particionar;
+    IF mes > date_trunc('month', current_date)::date THEN
+        mes := date_trunc('month', current_date)::date;
+    END IF;
+    WHILE mes <= (date_trunc('month', current_date) + interval '3 months')::date LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF ventas FOR VALUES FROM (%L) TO (%L)',
+                       'ventas_' || to_char(mes, 'YYYY_MM'),
+                       mes,
+                       (mes + interval '1 month')::date);
+        mes := (mes + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Una venta sin fecha se registra con la fecha de la migracion
+INSERT INTO ventas (id_venta, id_cliente, id_lote, id_agente, fecha_venta,
+                    precio_final, forma_pago, observaciones)
+SELECT id_venta, id_cliente, id_lote, id_agente, coalesce(fecha_venta, current_date),
+       precio_final, forma_pago, observaciones
+  FROM ventas_sin_particionar;
+
+DROP TABLE ventas_sin_particionar;
@@ -0,0 +1,48 @@
+-- =============================================================
+-- V12: VENTAS CANCELADAS Y LIBRO DE EVENTOS DE VENTA
+-- Cancelar una venta ya no la borra: ventas.estado pasa de
+-- 1 (ACTIVA) a 2 (CANCELADA) y los acumulados filtran estado = 1.
+-- eventos_venta es un libro de solo insercion con cada venta
+-- registrada (1), cancelada (2) o con observaciones cambiadas (3).
+-- id_evento crece en el orden en que confirman las transacciones
+-- (LibroVentasServicio inserta con un bloqueo consultivo justo
+-- antes del commit), asi un consumidor puede seguir el libro
+-- desde el ultimo id_evento que proceso sin saltarse eventos.
+-- =============================================================
+
+ALTER TABLE ventas
+    ADD COLUMN estado SMALLINT NOT NULL DEFAULT 1
+        CONSTRAINT ck_ventas_estado CHECK (estado BETWEEN 1 AND 2);
+
+CREATE TABLE eventos_venta (
+    id_evento      BIGSERIAL   PRIMARY KEY,
+    id_venta       INTEGER     NOT NULL,
+    tipo           SMALLINT    NOT NULL CONSTRAINT ck_eventos_venta_tipo CHECK (tipo BETWEEN 1 AND 3),
+    fecha_registro TIMESTAMP   NOT NULL DEFAULT now(),
+    id_agente      INTEGER     NOT NULL,
+    fecha_venta    DATE        NOT NULL,
+    precio_cent    BIGINT      NOT NULL,
+    observaciones  TEXT
+);
+
+-- Historial de una venta
+CREATE INDEX idx_eventos_venta_venta ON eventos_venta (id_venta, id_evento);
+
+-- Solo insercion: se rechaza cualquier UPDATE, DELETE o TRUNCATE
+CREATE FUNCTION rechazar_cambio_eventos_venta() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'eventos_venta es de solo insercion';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tr_eventos_venta_solo_insercion
+    BEFORE UPDATE OR DELETE OR TRUNCATE ON eventos_venta
+    FOR EACH STATEMENT EXECUTE FUNCTION rechazar_cambio_eventos_venta();
+
+-- Las ventas existentes entran al libro como registradas
+INSERT INTO eventos_venta (id_venta, tipo, fecha_registro, id_agente, fecha_venta,
+                           precio_cent, observaciones)
+SELECT id_venta, 1, fecha_venta, id_agente, fecha_venta,
+       (precio_final * 100)::bigint, observaciones
+  FROM ventas
+ ORDER BY id_venta;
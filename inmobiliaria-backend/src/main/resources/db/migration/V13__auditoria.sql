@@ -0,0 +1,20 @@
+-- =============================================================
+-- V13: AUDITORIA DE CAMBIOS
+-- Un registro por cambio confirmado sobre lotes, clientes,
+-- agentes y ventas, con los campos que cambiaron en JSON:
+--   {"precio": {"antes": 100.00, "despues": 120.00}}
+-- Lo escribe en lotes el hilo de AuditoriaServicio.
+-- =============================================================
+
+CREATE TABLE auditoria (
+    id_registro  BIGSERIAL    PRIMARY KEY,
+    fecha        TIMESTAMP    NOT NULL,
+    usuario      VARCHAR(100) NOT NULL,
+    entidad      VARCHAR(30)  NOT NULL,
+    id_entidad   VARCHAR(50)  NOT NULL,
+    operacion    VARCHAR(30)  NOT NULL,
+    cambios      JSONB        NOT NULL
+);
+
+-- AuditoriaServicio.consultar por entidad, del mas reciente al mas antiguo
+CREATE INDEX idx_auditoria_entidad ON auditoria (entidad, id_entidad, id_registro DESC);
@@ -0,0 +1,23 @@
+-- =============================================================
+-- V14: PARTICION DEFAULT DE VENTAS
+-- Si el mantenimiento diario no llego a crear la particion de un
+-- mes (la aplicacion estuvo detenida, fallo el DDL), una venta de
+-- ese mes iria a parar a ventas_default en lugar de fallar.
+-- ParticionesVentasServicio, al crear la particion que faltaba,
+-- mueve esas filas a ella y lo registra como error.
+--
+-- Notas sobre V11 que se dejan aqui por escrito:
+--   * La clave primaria es (id_venta, fecha_venta) y PostgreSQL no
+--     puede exigir que id_venta sea unico en toda la tabla. La
+--     unicidad la da solo la secuencia ventas_id_venta_seq: no se
+--     deben insertar ventas con id_venta explicito.
+--   * findById y los listados por cliente o por agente no llevan
+--     fecha y revisan el indice de cada particion adjunta. El costo
+--     esta acotado por inmobiliaria.ventas.archivo.meses-activos,
+--     porque los meses archivados se separan de la tabla.
+-- =============================================================
+
+CREATE TABLE ventas_default PARTITION OF ventas DEFAULT;
+
+COMMENT ON COLUMN ventas.id_venta IS
+    'Unico solo por la secuencia ventas_id_venta_seq; la clave primaria incluye fecha_venta';
@@ -0,0 +1,12 @@
+-- =============================================================
+-- V15: LOTES CON VENTAS ARCHIVADAS
+-- Al archivar un mes, su particion sale de la tabla ventas y con
+-- ella las filas que impedian borrar los lotes vendidos. Aqui se
+-- guarda el id de cada lote con alguna venta archivada: lo
+-- consulta LoteServicio.eliminarLote y la clave foranea impide
+-- borrar el lote aunque se salte esa validacion.
+-- =============================================================
+
+CREATE TABLE lotes_ventas_archivadas (
+    id_lote INTEGER PRIMARY KEY REFERENCES lotes (id_lote)
+);
@@ -0,0 +1,52 @@
+-- =============================================================
+-- V1: ESQUEMA INICIAL
+-- Crea las tablas base tal como las mapean las entidades JPA.
+-- En bases existentes Flyway toma esta version como linea base
+-- (spring.flyway.baseline-on-migrate) y no la vuelve a ejecutar.
+-- =============================================================
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id_cliente      SERIAL PRIMARY KEY,
+    cedula          VARCHAR(20)  NOT NULL UNIQUE,
+    nombre          VARCHAR(100) NOT NULL,
+    apellido        VARCHAR(100) NOT NULL,
+    correo          VARCHAR(150) NOT NULL UNIQUE,
+    telefono        VARCHAR(20),
+    direccion       VARCHAR(200),
+    fecha_registro  DATE,
+    activo          BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS agentes (
+    id_agente  SERIAL PRIMARY KEY,
+    cedula     VARCHAR(20)  NOT NULL UNIQUE,
+    nombre     VARCHAR(100) NOT NULL,
+    apellido   VARCHAR(100) NOT NULL,
+    correo     VARCHAR(150) NOT NULL UNIQUE,
+    telefono   VARCHAR(20),
+    activo     BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS lotes (
+    id_lote         SERIAL PRIMARY KEY,
+    referencia      VARCHAR(50)    NOT NULL UNIQUE,
+    ubicacion       VARCHAR(200)   NOT NULL,
+    municipio       VARCHAR(100)   NOT NULL,
+    departamento    VARCHAR(100)   NOT NULL,
+    area_m2         NUMERIC(10, 2) NOT NULL,
+    precio          NUMERIC(15, 2) NOT NULL,
+    descripcion     TEXT,
+    estado          VARCHAR(20),
+    fecha_registro  DATE
+);
+
+CREATE TABLE IF NOT EXISTS ventas (
+    id_venta      SERIAL PRIMARY KEY,
+    id_cliente    INTEGER        NOT NULL REFERENCES clientes (id_cliente),
+    id_lote       INTEGER        NOT NULL REFERENCES lotes (id_lote),
+    id_agente     INTEGER        NOT NULL REFERENCES agentes (id_agente),
+    fecha_venta   DATE,
+    precio_final  NUMERIC(15, 2) NOT NULL,
+    forma_pago    VARCHAR(20)    NOT NULL,
+    observaciones TEXT
+);
@@ -0,0 +1,33 @@
+-- =============================================================
+-- V2: INDICES PARA LAS CONSULTAS DE LOS REPOSITORIOS
+-- Cada indice corresponde a la forma exacta de una consulta de
+-- LoteRepositorio o VentaRepositorio (filtro + orden).
+-- =============================================================
+
+-- LoteRepositorio.findByEstadoOrderByPrecioAsc
+-- WHERE estado = ? ORDER BY precio: igualdad primero, orden despues
+CREATE INDEX IF NOT EXISTS idx_lotes_estado_precio
+    ON lotes (estado, precio);
+
+-- LoteRepositorio.buscarDisponiblesPorRangoPrecio
+-- Indice parcial: solo los lotes DISPONIBLE, ordenados por precio
+CREATE INDEX IF NOT EXISTS idx_lotes_disponibles_precio
+    ON lotes (precio)
+    WHERE estado = 'DISPONIBLE';
+
+-- LoteRepositorio.findByMunicipioIgnoreCaseAndEstado
+-- Spring Data traduce IgnoreCase a upper(municipio) = upper(?)
+CREATE INDEX IF NOT EXISTS idx_lotes_upper_municipio_estado
+    ON lotes (upper(municipio), estado);
+
+-- VentaRepositorio.findByClienteIdClienteOrderByFechaVentaDesc
+CREATE INDEX IF NOT EXISTS idx_ventas_cliente_fecha
+    ON ventas (id_cliente, fecha_venta DESC);
+
+-- VentaRepositorio.findByAgenteIdAgenteOrderByFechaVentaDesc
+CREATE INDEX IF NOT EXISTS idx_ventas_agente_fecha
+    ON ventas (id_agente, fecha_venta DESC);
+
+-- VentaRepositorio.existsByLoteIdLote
+CREATE INDEX IF NOT EXISTS idx_ventas_lote
+    ON ventas (id_lote);
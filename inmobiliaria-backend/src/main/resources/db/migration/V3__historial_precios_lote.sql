@@ -0,0 +1,53 @@
+-- =============================================================
+-- V3: HISTORIAL DE PRECIOS DE LOTES (SOLO INSERCION)
+-- Tabla particionada por anio sobre fecha_cambio: las consultas por
+-- rango de fechas solo recorren las particiones del periodo pedido.
+-- =============================================================
+
+CREATE TABLE historial_precios_lote (
+    id_historial  BIGSERIAL,
+    id_lote       INTEGER        NOT NULL,
+    municipio     VARCHAR(100)   NOT NULL,
+    precio        NUMERIC(15, 2) NOT NULL,
+    area_m2       NUMERIC(10, 2) NOT NULL,
+    fecha_cambio  TIMESTAMP      NOT NULL DEFAULT now(),
+    PRIMARY KEY (id_historial, fecha_cambio)
+) PARTITION BY RANGE (fecha_cambio);
+
+-- Una particion por anio y una por defecto para fechas fuera de rango
+DO $$
+BEGIN
+    FOR anio IN 2015..2040 LOOP
+        EXECUTE format(
+            'CREATE TABLE historial_precios_lote_%s PARTITION OF historial_precios_lote ' ||
+            'FOR VALUES FROM (%L) TO (%L)',
+            anio, make_date(anio, 1, 1), make_date(anio + 1, 1, 1));
+    END LOOP;
+END $$;
+
+CREATE TABLE historial_precios_lote_otros
+    PARTITION OF historial_precios_lote DEFAULT;
+
+-- Serie de precios de un lote
+CREATE INDEX idx_historial_lote_fecha
+    ON historial_precios_lote (id_lote, fecha_cambio);
+
+-- Tendencias por municipio (mismo upper() que usa la consulta)
+CREATE INDEX idx_historial_municipio_fecha
+    ON historial_precios_lote (upper(municipio), fecha_cambio);
+
+-- Solo insercion: se rechaza cualquier UPDATE o DELETE
+CREATE FUNCTION historial_precios_solo_insercion() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'historial_precios_lote es de solo insercion';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_historial_precios_solo_insercion
+    BEFORE UPDATE OR DELETE ON historial_precios_lote
+    FOR EACH ROW EXECUTE FUNCTION historial_precios_solo_insercion();
+
+-- Punto inicial: el precio actual de cada lote existente
+INSERT INTO historial_precios_lote (id_lote, municipio, precio, area_m2, fecha_cambio)
+SELECT id_lote, municipio, precio, area_m2, COALESCE(fecha_registro, CURRENT_DATE)
+FROM lotes;
@@ -0,0 +1,17 @@
+-- =============================================================
+-- V4: CLAVES DE IDEMPOTENCIA
+-- Respuesta guardada de cada POST con encabezado Idempotency-Key.
+-- Las filas vencidas se borran con una tarea programada.
+-- =============================================================
+
+CREATE TABLE claves_idempotencia (
+    clave             VARCHAR(100) PRIMARY KEY,
+    operacion         VARCHAR(50)  NOT NULL,
+    huella_solicitud  CHAR(64)     NOT NULL,
+    respuesta         TEXT         NOT NULL,
+    fecha_creacion    TIMESTAMP    NOT NULL,
+    fecha_expiracion  TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_claves_idempotencia_expiracion
+    ON claves_idempotencia (fecha_expiracion);
@@ -0,0 +1,11 @@
+-- =============================================================
+-- V5: SECUENCIA DE VENTAS POR BLOQUES DE 50
+-- Hibernate reserva 50 ids por cada nextval (allocationSize = 50)
+-- para poder insertar varias ventas en un solo lote JDBC.
+-- =============================================================
+
+DO $$
+BEGIN
+    EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50',
+                   pg_get_serial_sequence('ventas', 'id_venta'));
+END $$;
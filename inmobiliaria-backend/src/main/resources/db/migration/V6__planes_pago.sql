@@ -0,0 +1,26 @@
+-- =============================================================
+-- V6: PLANES DE PAGO PARA VENTAS A CREDITO Y FINANCIADAS
+-- Una fila por venta con los parametros del credito; el cronograma
+-- de cuotas se recalcula a partir de ellos y no se guarda fila por
+-- cuota. Los montos se guardan en centavos (BIGINT).
+-- =============================================================
+
+CREATE TABLE planes_pago (
+    id_venta                INTEGER  PRIMARY KEY REFERENCES ventas (id_venta),
+    monto_financiado_cent   BIGINT   NOT NULL,
+    tasa_mensual_ppm        INTEGER  NOT NULL,
+    numero_cuotas           SMALLINT NOT NULL,
+    cuota_cent              BIGINT   NOT NULL,
+    ultima_cuota_cent       BIGINT   NOT NULL,
+    fecha_primera_cuota     DATE     NOT NULL,
+    pagado_cent             BIGINT   NOT NULL DEFAULT 0,
+    saldo_vencido_cent      BIGINT   NOT NULL DEFAULT 0,
+    cuotas_vencidas         SMALLINT NOT NULL DEFAULT 0,
+    fecha_calculo_mora      DATE,
+    abierto                 BOOLEAN  NOT NULL DEFAULT TRUE
+);
+
+-- El calculo nocturno de mora recorre solo los creditos abiertos por rangos de id
+CREATE INDEX idx_planes_pago_abiertos
+    ON planes_pago (id_venta)
+    WHERE abierto;
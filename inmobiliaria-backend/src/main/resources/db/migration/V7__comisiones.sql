@@ -0,0 +1,43 @@
+-- =============================================================
+-- V7: REGLAS Y LIQUIDACIONES DE COMISIONES DE AGENTES
+-- Las reglas son escalonadas (marginales) sobre el total vendido
+-- en el mes: limites_cent[i] es el tope del tramo i y tasas_ppm
+-- tiene un elemento mas que limites_cent (el ultimo tramo no tiene
+-- tope). Una regla con id_agente NULL aplica a todos los agentes
+-- que no tengan regla propia vigente.
+-- =============================================================
+
+CREATE TABLE reglas_comision (
+    id_regla        SERIAL    PRIMARY KEY,
+    id_agente       INTEGER   REFERENCES agentes (id_agente),
+    vigente_desde   DATE      NOT NULL,
+    limites_cent    BIGINT[]  NOT NULL,
+    tasas_ppm       INTEGER[] NOT NULL,
+    fecha_creacion  TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT ck_reglas_comision_tramos
+        CHECK (cardinality(tasas_ppm) = cardinality(limites_cent) + 1)
+);
+
+-- Una sola regla por agente (o general) y fecha de inicio
+CREATE UNIQUE INDEX uq_reglas_comision_agente_desde
+    ON reglas_comision (coalesce(id_agente, 0), vigente_desde);
+
+-- Regla general inicial: 2% hasta 200 M, 2.5% hasta 500 M y 3% en adelante
+INSERT INTO reglas_comision (id_agente, vigente_desde, limites_cent, tasas_ppm)
+VALUES (NULL, DATE '2000-01-01', '{20000000000,50000000000}', '{20000,25000,30000}');
+
+-- Una liquidacion por agente y mes; el calculo la reescribe con ON CONFLICT
+CREATE TABLE liquidaciones_comision (
+    id_agente           INTEGER   NOT NULL REFERENCES agentes (id_agente),
+    periodo             DATE      NOT NULL,
+    id_regla            INTEGER   NOT NULL REFERENCES reglas_comision (id_regla),
+    cantidad_ventas     INTEGER   NOT NULL,
+    total_ventas_cent   BIGINT    NOT NULL,
+    comision_cent       BIGINT    NOT NULL,
+    comision_tramos_cent BIGINT[] NOT NULL,
+    fecha_calculo       TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_agente, periodo)
+);
+
+CREATE INDEX idx_liquidaciones_comision_periodo
+    ON liquidaciones_comision (periodo);
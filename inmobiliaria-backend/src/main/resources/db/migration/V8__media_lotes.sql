@@ -0,0 +1,31 @@
+-- =============================================================
+-- V8: IMAGENES DE LOTES
+-- Los archivos se guardan en disco con el SHA-256 del contenido
+-- como nombre; aqui solo van los metadatos. Al borrar un lote se
+-- borran sus filas y un proceso programado elimina los archivos
+-- que ya no usa ninguna fila.
+-- =============================================================
+
+CREATE TABLE media_lotes (
+    id_media           SERIAL       PRIMARY KEY,
+    id_lote            INTEGER      NOT NULL REFERENCES lotes (id_lote) ON DELETE CASCADE,
+    nombre_original    VARCHAR(255) NOT NULL,
+    tipo_contenido     VARCHAR(100) NOT NULL,
+    tamano             BIGINT       NOT NULL,
+    hash_contenido     CHAR(64)     NOT NULL,
+    ancho              INTEGER,
+    alto               INTEGER,
+    estado_miniatura   VARCHAR(20)  NOT NULL DEFAULT 'PENDIENTE',
+    tamano_miniatura   BIGINT,
+    orden              INTEGER      NOT NULL DEFAULT 0,
+    fecha_carga        TIMESTAMP    NOT NULL
+);
+
+-- Carga de la galeria de varios lotes a la vez (@BatchSize en Lote.media)
+CREATE INDEX idx_media_lotes_lote_orden
+    ON media_lotes (id_lote, orden);
+
+-- Reintento de miniaturas que quedaron pendientes
+CREATE INDEX idx_media_lotes_pendientes
+    ON media_lotes (id_media)
+    WHERE estado_miniatura = 'PENDIENTE';
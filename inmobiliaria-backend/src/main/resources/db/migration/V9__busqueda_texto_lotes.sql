@@ -0,0 +1,18 @@
+-- =============================================================
+-- V9: BUSQUEDA DE TEXTO COMPLETO EN LOTES
+-- Columna tsvector generada con la configuracion 'spanish' (quita
+-- palabras vacias y reduce a la raiz: "casas" encuentra "casa").
+-- Pesos: A referencia y municipio/departamento, B ubicacion,
+-- C descripcion; ts_rank_cd los usa para ordenar resultados.
+-- =============================================================
+
+ALTER TABLE lotes
+    ADD COLUMN busqueda tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('spanish', coalesce(referencia, '')), 'A') ||
+        setweight(to_tsvector('spanish', coalesce(municipio, '') || ' ' || coalesce(departamento, '')), 'A') ||
+        setweight(to_tsvector('spanish', coalesce(ubicacion, '')), 'B') ||
+        setweight(to_tsvector('spanish', coalesce(descripcion, '')), 'C')
+    ) STORED;
+
+CREATE INDEX idx_lotes_busqueda
+    ON lotes USING gin (busqueda);
@@ -0,0 +1,119 @@
+package com.inmobiliaria;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de humo del ejecutable nativo (perfil Maven native) contra
+ * PostgreSQL con el esquema migrado. Arranca el binario, y si se indica
+ * tambien el jar, consulta los endpoints de lectura y reporta tiempo
+ * hasta la primera respuesta y memoria residente de cada uno:
+ *
+ *   ./mvnw test -Dtest=BinarioNativoTests -Dinmobiliaria.humo.nativo=target/inmobiliaria-backend
+ *       -Dinmobiliaria.humo.jar=target/inmobiliaria-backend-0.0.1-SNAPSHOT.jar
+ */
+@EnabledIfSystemProperty(named = "inmobiliaria.humo.nativo", matches = ".+")
+class BinarioNativoTests {
+
+	private static final int PUERTO = Integer.getInteger("inmobiliaria.humo.puerto", 8091);
+
+	private static final List<String> RUTAS = List.of(
+		"/api/lotes", "/api/lotes/estado/DISPONIBLE", "/api/lotes/buscar?q=lote",
+		"/api/lotes/sugerencias?q=a", "/api/clientes", "/api/agentes", "/api/ventas",
+		"/api/clasificacion-agentes?ventana=TOTAL");
+
+	private final HttpClient cliente = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(1))
+		.build();
+
+	@Test
+	void respondeYReportaArranqueYMemoria() throws Exception {
+		List<String> reporte = new ArrayList<>();
+		reporte.add(medir("nativo", List.of(System.getProperty("inmobiliaria.humo.nativo"))));
+
+		String jar = System.getProperty("inmobiliaria.humo.jar");
+		if (jar != null) {
+			String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+			reporte.add(medir("jvm", List.of(java, "-jar", jar)));
+		}
+		reporte.forEach(System.out::println);
+	}
+
+	/**
+	 * Arranca el proceso, espera la primera respuesta, valida las rutas
+	 * de lectura y lo detiene.
+	 *
+	 * @return linea del reporte
+	 */
+	private String medir(String nombre, List<String> comando) throws Exception {
+		List<String> completo = new ArrayList<>(comando);
+		completo.add("--server.port=" + PUERTO);
+		Path log = Files.createTempFile("humo-" + nombre, ".log");
+		long inicio = System.nanoTime();
+		Process proceso = new ProcessBuilder(completo)
+			.redirectErrorStream(true)
+			.redirectOutput(log.toFile())
+			.start();
+		try {
+			long arranqueMs = esperarPrimeraRespuesta(proceso, log, inicio);
+			for (String ruta : RUTAS) {
+				HttpResponse<String> respuesta = get(ruta);
+				assertThat(respuesta.statusCode()).as(nombre + " " + ruta).isEqualTo(200);
+				assertThat(respuesta.body()).as(nombre + " " + ruta).startsWith("[");
+			}
+			return String.format("%-6s arranque hasta primera respuesta: %6d ms, RSS: %7d KB",
+				nombre, arranqueMs, memoriaResidenteKb(proceso.pid()));
+		} finally {
+			proceso.destroy();
+			proceso.waitFor();
+		}
+	}
+
+	private long esperarPrimeraRespuesta(Process proceso, Path log, long inicio) throws Exception {
+		long limite = inicio + Duration.ofMinutes(2).toNanos();
+		while (System.nanoTime() < limite) {
+			assertThat(proceso.isAlive()).as("el proceso termino; ver " + log).isTrue();
+			try {
+				get(RUTAS.getFirst());
+				return (System.nanoTime() - inicio) / 1_000_000;
+			} catch (IOException e) {
+				Thread.sleep(20);
+			}
+		}
+		throw new AssertionError("Sin respuesta tras 2 minutos; ver " + log);
+	}
+
+	private HttpResponse<String> get(String ruta) throws IOException, InterruptedException {
+		HttpRequest solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + PUERTO + ruta))
+			.timeout(Duration.ofSeconds(10))
+			.build();
+		return cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+	}
+
+	/** VmRSS de /proc (solo Linux); -1 si no esta disponible */
+	private static long memoriaResidenteKb(long pid) throws IOException {
+		Path estado = Path.of("/proc", Long.toString(pid), "status");
+		if (!Files.exists(estado)) {
+			return -1;
+		}
+		for (String linea : Files.readAllLines(estado)) {
+			if (linea.startsWith("VmRSS:")) {
+				return Long.parseLong(linea.replaceAll("\\D", ""));
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,31 @@
+package com.inmobiliaria.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de la tabla de transiciones y los codigos de EstadoLote.
+ */
+class EstadoLoteTest {
+
+	@Test
+	void validaTransiciones() {
+		assertThat(EstadoLote.DISPONIBLE.puedeCambiarA(EstadoLote.RESERVADO)).isTrue();
+		assertThat(EstadoLote.DISPONIBLE.puedeCambiarA(EstadoLote.VENDIDO)).isTrue();
+		assertThat(EstadoLote.RESERVADO.puedeCambiarA(EstadoLote.DISPONIBLE)).isTrue();
+		assertThat(EstadoLote.VENDIDO.puedeCambiarA(EstadoLote.DISPONIBLE)).isTrue();
+		assertThat(EstadoLote.VENDIDO.puedeCambiarA(EstadoLote.RESERVADO)).isFalse();
+		assertThat(EstadoLote.VENDIDO.puedeCambiarA(EstadoLote.VENDIDO)).isTrue();
+	}
+
+	@Test
+	void convierteTextoYCodigo() {
+		assertThat(EstadoLote.desdeTexto("reservado")).isEqualTo(EstadoLote.RESERVADO);
+		for (EstadoLote estado : EstadoLote.values()) {
+			assertThat(EstadoLote.desdeCodigo(estado.codigo())).isEqualTo(estado);
+		}
+		assertThatThrownBy(() -> EstadoLote.desdeTexto("PERDIDO")).hasMessageContaining("PERDIDO");
+	}
+}
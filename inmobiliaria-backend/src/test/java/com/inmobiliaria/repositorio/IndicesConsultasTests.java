@@ -0,0 +1,104 @@
+package com.inmobiliaria.repositorio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las consultas de los repositorios usan los
+ * indices creados en las migraciones (V2__indices_consultas.sql,
+ * V9__busqueda_texto_lotes.sql, V10__estado_forma_pago_smallint.sql y
+ * V11__particiones_ventas.sql).
+ * El estado se compara por codigo: 1 DISPONIBLE, 2 RESERVADO.
+ * En ventas el plan muestra el indice de cada particion, que PostgreSQL
+ * nombra con la tabla y las columnas (ventas_2024_05_id_cliente_...).
+ * Se desactiva el seq scan en la transaccion para que el planificador
+ * no prefiera recorrer la tabla cuando hay pocas filas de prueba.
+ */
+@SpringBootTest
+@Transactional
+class IndicesConsultasTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void desactivarSeqScan() {
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+	}
+
+	@Test
+	void lotesPorEstadoOrdenadosPorPrecio() {
+		assertThat(plan("SELECT * FROM lotes WHERE estado = 2 ORDER BY precio"))
+			.contains("idx_lotes_estado_precio");
+	}
+
+	@Test
+	void lotesDisponiblesPorRangoPrecio() {
+		assertThat(plan("SELECT * FROM lotes " +
+				"WHERE precio BETWEEN 1000 AND 90000000 AND estado = 1 " +
+				"ORDER BY precio"))
+			.contains("idx_lotes_disponibles_precio");
+	}
+
+	@Test
+	void lotesPorMunicipioSinMayusculas() {
+		assertThat(plan("SELECT * FROM lotes " +
+				"WHERE upper(municipio) = upper('Medellin') AND estado = 1"))
+			.contains("idx_lotes_upper_municipio_estado");
+	}
+
+	@Test
+	void lotesPorTextoCompleto() {
+		assertThat(plan("SELECT * FROM lotes " +
+				"WHERE busqueda @@ websearch_to_tsquery('spanish', 'casa campestre')"))
+			.contains("idx_lotes_busqueda");
+	}
+
+	@Test
+	void ventasPorClienteOrdenadasPorFecha() {
+		assertThat(plan("SELECT * FROM ventas WHERE id_cliente = 1 ORDER BY fecha_venta DESC"))
+			.contains("_id_cliente_fecha_venta_idx");
+	}
+
+	@Test
+	void ventasPorAgenteOrdenadasPorFecha() {
+		assertThat(plan("SELECT * FROM ventas WHERE id_agente = 1 ORDER BY fecha_venta DESC"))
+			.contains("_id_agente_fecha_venta_idx");
+	}
+
+	@Test
+	void ventasPorRangoDeFechasSoloRecorrenSuMes() {
+		YearMonth mes = YearMonth.now();
+		assertThat(plan("SELECT * FROM ventas WHERE id_agente = 1 " +
+				"AND fecha_venta >= '" + mes.atDay(1) + "' AND fecha_venta < '" + mes.plusMonths(1).atDay(1) + "'"))
+			.contains(particion(mes))
+			.doesNotContain(particion(mes.plusMonths(1)));
+	}
+
+	private static String particion(YearMonth mes) {
+		return String.format("ventas_%d_%02d", mes.getYear(), mes.getMonthValue());
+	}
+
+	/**
+	 * Ejecuta EXPLAIN y valida que el plan sea un recorrido por indice.
+	 *
+	 * @param sql consulta a analizar
+	 * @return texto completo del plan
+	 */
+	private String plan(String sql) {
+		List<String> lineas = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+		String plan = String.join("\n", lineas);
+		assertThat(plan).containsAnyOf("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+		assertThat(plan).doesNotContain("Seq Scan");
+		return plan;
+	}
+}
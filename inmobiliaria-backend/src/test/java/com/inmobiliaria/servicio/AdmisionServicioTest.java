@@ -0,0 +1,97 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.servicio.AdmisionServicio.ClaseRuta;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del control de admision: clasificacion de rutas, cubos de
+ * fichas por cliente y limite adaptativo segun la latencia.
+ */
+class AdmisionServicioTest {
+
+	private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+	private final AdmisionServicio servicio = new AdmisionServicio(
+		new MockEnvironment()
+			.withProperty("inmobiliaria.admision.busqueda.rafaga", "2")
+			.withProperty("inmobiliaria.admision.busqueda.por-segundo", "1"),
+		List.of("GET /api/lotes", "GET /api/lotes/{id}"),
+		List.of("GET /api/lotes/buscar"),
+		32,
+		0);
+
+	@Test
+	void clasificaBusquedaAntesQueCatalogo() {
+		assertThat(servicio.clasificar("GET", "/api/lotes/buscar")).isEqualTo(ClaseRuta.BUSQUEDA);
+		assertThat(servicio.clasificar("GET", "/api/lotes/5")).isEqualTo(ClaseRuta.CATALOGO);
+		assertThat(servicio.clasificar("POST", "/api/ventas")).isEqualTo(ClaseRuta.ESCRITURA);
+		assertThat(servicio.clasificar("GET", "/api/ventas/5")).isEqualTo(ClaseRuta.GENERAL);
+	}
+
+	@Test
+	void cadaClienteTieneSuRafagaYSeRecarga() {
+		assertThat(servicio.consumirFicha("10.0.0.1", ClaseRuta.BUSQUEDA, 0)).isZero();
+		assertThat(servicio.consumirFicha("10.0.0.1", ClaseRuta.BUSQUEDA, 0)).isZero();
+		long espera = servicio.consumirFicha("10.0.0.1", ClaseRuta.BUSQUEDA, 0);
+		assertThat(espera).isEqualTo(SEGUNDO);
+		assertThat(AdmisionServicio.segundosReintento(espera)).isEqualTo(1);
+
+		assertThat(servicio.consumirFicha("10.0.0.2", ClaseRuta.BUSQUEDA, 0)).isZero();
+		assertThat(servicio.consumirFicha("10.0.0.1", ClaseRuta.CATALOGO, 0)).isZero();
+		assertThat(servicio.consumirFicha("10.0.0.1", ClaseRuta.BUSQUEDA, SEGUNDO)).isZero();
+	}
+
+	@Test
+	void elClienteSeCuentaDesdeLaDerechaDeXForwardedFor() {
+		AdmisionServicio detrasDeDos = new AdmisionServicio(
+			new MockEnvironment(), List.of(), List.of(), 32, 2);
+		String cabecera = "1.2.3.4, 203.0.113.7, 10.0.0.9";
+
+		assertThat(detrasDeDos.identificarCliente("10.0.0.10", cabecera)).isEqualTo("203.0.113.7");
+		assertThat(detrasDeDos.identificarCliente("10.0.0.10", "203.0.113.7")).isEqualTo("203.0.113.7");
+		assertThat(servicio.identificarCliente("10.0.0.10", cabecera)).isEqualTo("10.0.0.10");
+	}
+
+	@Test
+	void laMemoriaDeCubosEstaAcotada() {
+		for (int i = 0; i < 1000; i++) {
+			servicio.consumirFicha("10.0.1." + i, ClaseRuta.GENERAL, 0);
+		}
+		assertThat(servicio.obtenerEstado().clientesEnMemoria()).isLessThanOrEqualTo(32);
+	}
+
+	@Test
+	void elLimiteBajaConLatenciaAltaYSubeConCargaRapida() {
+		LimiteConcurrenciaAdaptativo limite = new LimiteConcurrenciaAdaptativo(20, 5, 200, 1.5, 0.2);
+		for (int i = 0; i < 200; i++) {
+			ocupar(limite, 20, 10);
+		}
+		int conCargaRapida = limite.getLimite();
+		assertThat(conCargaRapida).isGreaterThan(20);
+
+		for (int i = 0; i < 3; i++) {
+			ocupar(limite, limite.getLimite(), 100);
+		}
+		assertThat(limite.getLimite()).isLessThan(conCargaRapida);
+
+		for (int i = 0; i < limite.getLimite(); i++) {
+			assertThat(limite.adquirir()).isTrue();
+		}
+		assertThat(limite.adquirir()).isFalse();
+	}
+
+	private static void ocupar(LimiteConcurrenciaAdaptativo limite, int solicitudes, double duracionMs) {
+		for (int i = 0; i < solicitudes; i++) {
+			limite.adquirirSiempre();
+		}
+		for (int i = 0; i < solicitudes; i++) {
+			limite.liberar(duracionMs);
+		}
+	}
+}
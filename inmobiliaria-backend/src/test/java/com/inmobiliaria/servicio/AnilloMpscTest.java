@@ -0,0 +1,87 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la cola circular de la auditoria: rechaza cuando esta
+ * llena y, con varios productores, entrega cada elemento una sola vez
+ * y en el orden en que lo agrego cada productor.
+ */
+class AnilloMpscTest {
+
+	@Test
+	void rechazaCuandoEstaLlenaYLiberaAlDrenar() {
+		AnilloMpsc<Integer> anillo = new AnilloMpsc<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(anillo.ofrecer(i)).isTrue();
+		}
+		assertThat(anillo.ofrecer(4)).isFalse();
+		assertThat(anillo.tamano()).isEqualTo(4);
+
+		List<Integer> sacados = new ArrayList<>();
+		assertThat(anillo.drenar(sacados, 3)).isEqualTo(3);
+		assertThat(sacados).containsExactly(0, 1, 2);
+		assertThat(anillo.ofrecer(4)).isTrue();
+		assertThat(anillo.ofrecer(5)).isTrue();
+		assertThat(anillo.ofrecer(6)).isTrue();
+		assertThat(anillo.ofrecer(7)).isFalse();
+
+		sacados.clear();
+		assertThat(anillo.drenar(sacados, 10)).isEqualTo(4);
+		assertThat(sacados).containsExactly(3, 4, 5, 6);
+		assertThat(anillo.tamano()).isZero();
+	}
+
+	@Test
+	void variosProductoresUnConsumidor() throws Exception {
+		int productores = 4;
+		int porProductor = 200_000;
+		AnilloMpsc<long[]> anillo = new AnilloMpsc<>(1024);
+		CountDownLatch inicio = new CountDownLatch(1);
+		List<Thread> hilos = new ArrayList<>();
+		for (int p = 0; p < productores; p++) {
+			long productor = p;
+			Thread hilo = new Thread(() -> {
+				try {
+					inicio.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (long i = 0; i < porProductor; i++) {
+					long[] elemento = {productor, i};
+					while (!anillo.ofrecer(elemento)) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+			hilo.start();
+			hilos.add(hilo);
+		}
+
+		long[] siguiente = new long[productores];
+		List<long[]> lote = new ArrayList<>();
+		long recibidos = 0;
+		inicio.countDown();
+		while (recibidos < (long) productores * porProductor) {
+			lote.clear();
+			anillo.drenar(lote, 256);
+			for (long[] elemento : lote) {
+				int productor = (int) elemento[0];
+				assertThat(elemento[1]).isEqualTo(siguiente[productor]);
+				siguiente[productor]++;
+			}
+			recibidos += lote.size();
+		}
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+		assertThat(siguiente).containsOnly(porProductor);
+		assertThat(anillo.tamano()).isZero();
+	}
+}
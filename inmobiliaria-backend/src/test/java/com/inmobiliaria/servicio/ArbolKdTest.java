@@ -0,0 +1,80 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del arbol KD usado para recomendar lotes similares,
+ * comparando contra una busqueda por fuerza bruta.
+ */
+class ArbolKdTest {
+
+	@Test
+	void coincideConFuerzaBrutaTrasAgregarMoverYQuitar() {
+		Random azar = new Random(42);
+		ArbolKd arbol = new ArbolKd();
+		Map<Integer, double[]> puntos = new HashMap<>();
+
+		for (int paso = 0; paso < 5000; paso++) {
+			int id = azar.nextInt(1500);
+			if (azar.nextInt(4) == 0) {
+				arbol.quitar(id);
+				puntos.remove(id);
+			} else {
+				double[] punto = {azar.nextGaussian(), azar.nextInt(20) / 4.0};
+				arbol.agregar(id, punto[0], punto[1]);
+				puntos.put(id, punto);
+			}
+
+			if (paso % 250 == 0) {
+				assertThat(arbol.tamano()).isEqualTo(puntos.size());
+				for (int consulta = 0; consulta < 20; consulta++) {
+					double x = azar.nextGaussian();
+					double y = azar.nextDouble() * 5;
+					int excluido = azar.nextInt(1500);
+					int k = 1 + azar.nextInt(10);
+					assertThat(distancias(arbol.buscar(x, y, k, excluido)))
+						.containsExactlyElementsOf(fuerzaBruta(puntos, x, y, k, excluido));
+				}
+			}
+		}
+	}
+
+	@Test
+	void retornaMenosVecinosSiNoHaySuficientes() {
+		ArbolKd arbol = new ArbolKd();
+		arbol.agregar(1, 0, 0);
+		arbol.agregar(2, 1, 1);
+
+		ArbolKd.Vecino[] vecinos = arbol.buscar(0, 0, 5, 1);
+		assertThat(vecinos).hasSize(1);
+		assertThat(vecinos[0].id()).isEqualTo(2);
+		assertThat(vecinos[0].distancia()).isEqualTo(Math.sqrt(2));
+	}
+
+	private static List<Double> distancias(ArbolKd.Vecino[] vecinos) {
+		List<Double> distancias = new ArrayList<>();
+		for (ArbolKd.Vecino vecino : vecinos) {
+			distancias.add(vecino.distancia());
+		}
+		return distancias;
+	}
+
+	private static List<Double> fuerzaBruta(Map<Integer, double[]> puntos, double x, double y, int k, int excluido) {
+		return puntos.entrySet().stream()
+			.filter(e -> e.getKey() != excluido)
+			.map(e -> Math.sqrt((e.getValue()[0] - x) * (e.getValue()[0] - x)
+				+ (e.getValue()[1] - y) * (e.getValue()[1] - y)))
+			.sorted(Comparator.naturalOrder())
+			.limit(k)
+			.toList();
+	}
+}
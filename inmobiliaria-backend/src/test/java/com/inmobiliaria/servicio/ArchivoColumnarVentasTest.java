@@ -0,0 +1,72 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del formato columnar de ventas archivadas: cada columna se
+ * relee igual a como se escribio, sin leer las demas.
+ */
+class ArchivoColumnarVentasTest {
+
+	@TempDir
+	Path carpeta;
+
+	@Test
+	void releeCadaColumnaEscrita() throws Exception {
+		Random azar = new Random(7);
+		int filas = 20_000;
+		ArchivoColumnarVentas.Ventas ventas = new ArchivoColumnarVentas.Ventas(
+			new int[filas], new int[filas], new int[filas], new int[filas],
+			new int[filas], new long[filas], new short[filas], new String[filas], new short[filas]);
+		for (int i = 0; i < filas; i++) {
+			ventas.idVenta()[i] = i * 3 + 1;
+			ventas.idCliente()[i] = azar.nextInt(5000);
+			ventas.idLote()[i] = azar.nextInt(100_000);
+			ventas.idAgente()[i] = azar.nextInt(40);
+			ventas.fechaEpochDia()[i] = 19_000 + azar.nextInt(31);
+			ventas.precioCent()[i] = azar.nextLong(1, 500_000_000_00L);
+			ventas.formaPago()[i] = (short) (1 + azar.nextInt(3));
+			ventas.observaciones()[i] = azar.nextInt(5) == 0 ? null : "Observacion ñ " + i;
+			ventas.estado()[i] = (short) (azar.nextInt(10) == 0 ? 2 : 1);
+		}
+		Path archivo = carpeta.resolve("ventas-2022-01.vcol");
+
+		ArchivoColumnarVentas.escribir(archivo, ventas);
+
+		assertThat(ArchivoColumnarVentas.filas(archivo)).isEqualTo(filas);
+		assertThat(ArchivoColumnarVentas.leerEnteros(archivo, ArchivoColumnarVentas.ID_VENTA))
+			.containsExactly(ventas.idVenta());
+		assertThat(ArchivoColumnarVentas.leerEnteros(archivo, ArchivoColumnarVentas.ID_CLIENTE))
+			.containsExactly(ventas.idCliente());
+		assertThat(ArchivoColumnarVentas.leerEnteros(archivo, ArchivoColumnarVentas.ID_LOTE))
+			.containsExactly(ventas.idLote());
+		assertThat(ArchivoColumnarVentas.leerEnteros(archivo, ArchivoColumnarVentas.ID_AGENTE))
+			.containsExactly(ventas.idAgente());
+		assertThat(ArchivoColumnarVentas.leerEnteros(archivo, ArchivoColumnarVentas.FECHA_VENTA))
+			.containsExactly(ventas.fechaEpochDia());
+		assertThat(ArchivoColumnarVentas.leerPrecios(archivo)).containsExactly(ventas.precioCent());
+		assertThat(ArchivoColumnarVentas.leerFormasPago(archivo)).containsExactly(ventas.formaPago());
+		assertThat(ArchivoColumnarVentas.leerObservaciones(archivo)).containsExactly(ventas.observaciones());
+		assertThat(ArchivoColumnarVentas.leerEstados(archivo)).containsExactly(ventas.estado());
+	}
+
+	@Test
+	void archivoVacio() throws Exception {
+		ArchivoColumnarVentas.Ventas ventas = new ArchivoColumnarVentas.Ventas(
+			new int[0], new int[0], new int[0], new int[0],
+			new int[0], new long[0], new short[0], new String[0], new short[0]);
+		Path archivo = carpeta.resolve("ventas-2022-02.vcol");
+
+		ArchivoColumnarVentas.escribir(archivo, ventas);
+
+		assertThat(ArchivoColumnarVentas.filas(archivo)).isZero();
+		assertThat(ArchivoColumnarVentas.leerPrecios(archivo)).isEmpty();
+		assertThat(ArchivoColumnarVentas.leerObservaciones(archivo)).isEmpty();
+	}
+}
@@ -0,0 +1,57 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la aritmetica en centavos de los planes de pago.
+ */
+class CalculadoraAmortizacionTest {
+
+	@Test
+	void cuotaFijaDeCreditoConocido() {
+		/* 1.000.000,00 al 1% mensual en 12 cuotas: 88.848,79 */
+		assertThat(CalculadoraAmortizacion.cuotaFija(100_000_000L, 10_000, 12))
+			.isEqualTo(8_884_879L);
+	}
+
+	@Test
+	void ultimaCuotaDejaElSaldoEnCero() {
+		long capital = 123_456_789L;
+		int tasa = 15_000;
+		int cuotas = 36;
+		long cuota = CalculadoraAmortizacion.cuotaFija(capital, tasa, cuotas);
+		long ultima = CalculadoraAmortizacion.ultimaCuota(capital, tasa, cuotas, cuota);
+
+		long saldo = capital;
+		for (int i = 1; i <= cuotas; i++) {
+			long valor = i < cuotas ? cuota : ultima;
+			saldo -= valor - CalculadoraAmortizacion.interes(saldo, tasa);
+		}
+		assertThat(saldo).isZero();
+		assertThat(Math.abs(ultima - cuota)).isLessThan(cuotas);
+	}
+
+	@Test
+	void cuotasExigiblesSegunFechaDeCorte() {
+		LocalDate primera = LocalDate.of(2024, 1, 31);
+		assertThat(CalculadoraAmortizacion.cuotasExigibles(primera, 12, LocalDate.of(2024, 1, 30))).isZero();
+		assertThat(CalculadoraAmortizacion.cuotasExigibles(primera, 12, LocalDate.of(2024, 1, 31))).isEqualTo(1);
+		assertThat(CalculadoraAmortizacion.cuotasExigibles(primera, 12, LocalDate.of(2024, 2, 29))).isEqualTo(2);
+		assertThat(CalculadoraAmortizacion.cuotasExigibles(primera, 12, LocalDate.of(2030, 1, 1))).isEqualTo(12);
+	}
+
+	@Test
+	void saldoYCuotasVencidas() {
+		long cuota = 10_000L;
+		int exigibles = 3;
+		long exigible = CalculadoraAmortizacion.montoExigible(exigibles, 12, cuota, cuota);
+		assertThat(CalculadoraAmortizacion.saldoVencido(exigible, 15_000L)).isEqualTo(15_000L);
+		assertThat(CalculadoraAmortizacion.cuotasVencidas(exigibles, 15_000L, cuota)).isEqualTo(2);
+		assertThat(CalculadoraAmortizacion.saldoVencido(exigible, 50_000L)).isZero();
+		assertThat(CalculadoraAmortizacion.cuotasVencidas(exigibles, 50_000L, cuota)).isZero();
+	}
+}
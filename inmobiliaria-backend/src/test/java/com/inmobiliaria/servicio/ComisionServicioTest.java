@@ -0,0 +1,43 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del reparto de la comision por tramos, en centavos.
+ */
+class ComisionServicioTest {
+
+	/* Tramos: hasta 100.000,00 al 1%, hasta 500.000,00 al 2%, el resto al 3% */
+	private static final long[] LIMITES = {10_000_000L, 50_000_000L};
+	private static final int[] TASAS = {10_000, 20_000, 30_000};
+
+	@Test
+	void totalJustoEnUnLimiteNoPasaAlTramoSiguiente() {
+		assertThat(ComisionServicio.comisionPorTramo(LIMITES, TASAS, 10_000_000L))
+			.containsExactly(100_000L, 0L, 0L);
+		assertThat(ComisionServicio.comisionPorTramo(LIMITES, TASAS, 50_000_000L))
+			.containsExactly(100_000L, 800_000L, 0L);
+	}
+
+	@Test
+	void totalPorEncimaDelUltimoLimiteUsaLaUltimaTasa() {
+		assertThat(ComisionServicio.comisionPorTramo(LIMITES, TASAS, 80_000_000L))
+			.containsExactly(100_000L, 800_000L, 900_000L);
+	}
+
+	@Test
+	void sinTramosNoHayComision() {
+		assertThat(ComisionServicio.comisionPorTramo(new long[0], new int[0], 80_000_000L)).isEmpty();
+		assertThat(ComisionServicio.comisionPorTramo(LIMITES, TASAS, 0L))
+			.containsExactly(0L, 0L, 0L);
+	}
+
+	@Test
+	void tasaUnicaSinLimitesRedondeaAlCentavo() {
+		/* 123.456,78 al 5% = 6.172,839 */
+		assertThat(ComisionServicio.comisionPorTramo(new long[0], new int[] {50_000}, 12_345_678L))
+			.containsExactly(617_284L);
+	}
+}
@@ -0,0 +1,109 @@
+package com.inmobiliaria.servicio;
+
+import com.inmobiliaria.servicio.CompartimentosServicio.Compartimento;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de los compartimentos: clasificacion por metodo y ruta,
+ * rechazo con la cola llena, statement_timeout segun el hilo y lugares
+ * de las tareas y de los hilos de fondo.
+ */
+class CompartimentosServicioTest {
+
+	private final CompartimentosServicio servicio = new CompartimentosServicio(
+		new MockEnvironment()
+			.withProperty("inmobiliaria.compartimentos.masiva.concurrentes", "1")
+			.withProperty("inmobiliaria.compartimentos.masiva.cola", "0")
+			.withProperty("inmobiliaria.compartimentos.masiva.tiempo-limite-ms", "60000")
+			.withProperty("inmobiliaria.compartimentos.escritura.tiempo-limite-ms", "5000")
+			.withProperty("inmobiliaria.compartimentos.fondo.concurrentes", "1"),
+		List.of("GET /api/ventas", "GET /api/ventas/archivo/**"),
+		List.of("POST /api/lotes/por-ids"),
+		0);
+
+	@Test
+	void clasificaPorMetodoYRuta() {
+		assertThat(servicio.clasificar("GET", "/api/ventas")).isEqualTo(Compartimento.MASIVA);
+		assertThat(servicio.clasificar("GET", "/api/ventas/archivo/resumen-meses")).isEqualTo(Compartimento.MASIVA);
+		assertThat(servicio.clasificar("GET", "/api/ventas/7")).isEqualTo(Compartimento.LECTURA);
+		assertThat(servicio.clasificar("POST", "/api/lotes/por-ids")).isEqualTo(Compartimento.LECTURA);
+		assertThat(servicio.clasificar("POST", "/api/ventas")).isEqualTo(Compartimento.ESCRITURA);
+	}
+
+	@Test
+	void rechazaSinLugarNiColaSinAfectarOtrasClases() {
+		assertThat(servicio.entrar(Compartimento.MASIVA)).isTrue();
+		assertThat(servicio.entrar(Compartimento.MASIVA)).isFalse();
+		assertThat(servicio.entrar(Compartimento.ESCRITURA)).isTrue();
+
+		servicio.salir(Compartimento.MASIVA);
+		assertThat(servicio.entrar(Compartimento.MASIVA)).isTrue();
+		assertThat(servicio.obtenerEstado())
+			.filteredOn(estado -> estado.compartimento().equals("MASIVA"))
+			.singleElement()
+			.satisfies(estado -> assertThat(estado.rechazadas()).isEqualTo(1));
+	}
+
+	@Test
+	void tiempoLimiteSegunElCompartimentoDelHilo() {
+		assertThat(servicio.tiempoLimiteActualMs()).isZero();
+		servicio.enCompartimento(Compartimento.MASIVA,
+			() -> assertThat(servicio.tiempoLimiteActualMs()).isEqualTo(60000)).run();
+		CompartimentosServicio.establecer(Compartimento.ESCRITURA);
+		try {
+			assertThat(servicio.tiempoLimiteActualMs()).isEqualTo(5000);
+		} finally {
+			CompartimentosServicio.establecer(null);
+		}
+		assertThat(servicio.tiempoLimiteActualMs()).isZero();
+	}
+
+	@Test
+	void tareaOcupaSuLugarMientrasCorre() {
+		servicio.enCompartimento(Compartimento.MASIVA,
+			() -> assertThat(servicio.entrar(Compartimento.MASIVA)).isFalse()).run();
+		assertThat(servicio.entrar(Compartimento.MASIVA)).isTrue();
+		servicio.salir(Compartimento.MASIVA);
+	}
+
+	@Test
+	void hiloDeFondoOcupaUnSoloLugarPorVariasConexiones() throws Exception {
+		Runnable primera = servicio.ocuparConexion();
+		Runnable segunda = servicio.ocuparConexion();
+		assertThat(disponiblesFondo()).isZero();
+
+		segunda.run();
+		assertThat(disponiblesFondo()).isZero();
+		primera.run();
+		assertThat(disponiblesFondo()).isEqualTo(1);
+
+		/* Dentro de un compartimento la conexion la cubre su lugar */
+		CompartimentosServicio.establecer(Compartimento.LECTURA);
+		try {
+			assertThat(servicio.ocuparConexion()).isNull();
+		} finally {
+			CompartimentosServicio.establecer(null);
+		}
+	}
+
+	@Test
+	void rechazaCompartimentosQueNoCabenEnElPool() {
+		assertThatThrownBy(() -> new CompartimentosServicio(
+			new MockEnvironment().withProperty("spring.datasource.hikari.maximum-pool-size", "10"),
+			List.of(), List.of(), 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private int disponiblesFondo() {
+		return servicio.obtenerEstado().stream()
+			.filter(estado -> estado.compartimento().equals("FONDO"))
+			.mapToInt(estado -> estado.concurrentes() - estado.enCurso())
+			.sum();
+	}
+}
@@ -0,0 +1,41 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del formato de los mensajes de invalidacion: nodo|tipo|ids,
+ * partidos por debajo del limite de NOTIFY sin perder ni repetir ids.
+ */
+class InvalidacionDistribuidaServicioTest {
+
+	@Test
+	void armaUnMensajeCompacto() {
+		assertThat(InvalidacionDistribuidaServicio.mensajes("a1b2c3d4", 'L', List.of(7, 42, 300)))
+			.containsExactly("a1b2c3d4|L|7,42,300");
+		assertThat(InvalidacionDistribuidaServicio.mensajes("a1b2c3d4", 'V', List.of()))
+			.containsExactly("a1b2c3d4|V|");
+	}
+
+	@Test
+	void parteListasLargasSinPerderIds() {
+		List<Integer> ids = IntStream.range(1_000_000, 1_005_000).boxed().toList();
+		List<String> mensajes = InvalidacionDistribuidaServicio.mensajes("a1b2c3d4", 'A', ids);
+
+		assertThat(mensajes).hasSizeGreaterThan(1);
+		List<Integer> leidos = new ArrayList<>();
+		for (String mensaje : mensajes) {
+			assertThat(mensaje.length()).isLessThanOrEqualTo(InvalidacionDistribuidaServicio.MAXIMO_BYTES);
+			assertThat(mensaje).startsWith("a1b2c3d4|A|");
+			for (String id : mensaje.split("\\|")[2].split(",")) {
+				leidos.add(Integer.valueOf(id));
+			}
+		}
+		assertThat(leidos).isEqualTo(ids);
+	}
+}
@@ -0,0 +1,74 @@
+package com.inmobiliaria.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del trie de prefijos usado en el autocompletado.
+ */
+class TriePrefijosTest {
+
+	@Test
+	void buscaPorPrefijoSinTildesNiMayusculas() {
+		TriePrefijos trie = new TriePrefijos();
+		trie.sumar("Medellín", 3, 3);
+		trie.sumar("Mesitas", 1, 1);
+		trie.sumar("Rionegro", 5, 5);
+
+		assertThat(valores(trie.buscar("ME", 10))).containsExactly("Medellín", "Mesitas");
+		assertThat(valores(trie.buscar("medellin", 10))).containsExactly("Medellín");
+		assertThat(trie.buscar("mx", 10)).isEmpty();
+	}
+
+	@Test
+	void ordenaPorConteoYRespetaElLimite() {
+		TriePrefijos trie = new TriePrefijos();
+		trie.sumar("La Ceja", 1, 1);
+		trie.sumar("La Estrella", 7, 7);
+		trie.sumar("La Union", 4, 4);
+		trie.sumar("Labateca", 4, 4);
+
+		List<TriePrefijos.Coincidencia> coincidencias = trie.buscar("la", 3);
+		assertThat(valores(coincidencias)).containsExactly("La Estrella", "La Union", "Labateca");
+		assertThat(coincidencias.get(0).conteo()).isEqualTo(7);
+	}
+
+	@Test
+	void actualizaConteosYEliminaValoresSinReferencias() {
+		TriePrefijos trie = new TriePrefijos();
+		trie.sumar("Guarne", 1, 1);
+		trie.sumar("Guatape", 1, 1);
+		trie.sumar("Guatape", 1, 1);
+		assertThat(trie.tamano()).isEqualTo(2);
+
+		assertThat(valores(trie.buscar("gua", 5))).containsExactly("Guatape", "Guarne");
+
+		/* Un lote de Guatape deja de estar disponible: empate, orden alfabetico */
+		trie.sumar("Guatape", -1, 0);
+		assertThat(trie.buscar("gua", 5))
+			.containsExactly(new TriePrefijos.Coincidencia("Guarne", 1),
+				new TriePrefijos.Coincidencia("Guatape", 1));
+
+		trie.sumar("Guarne", -1, -1);
+		assertThat(trie.tamano()).isEqualTo(1);
+		assertThat(valores(trie.buscar("g", 5))).containsExactly("Guatape");
+		assertThat(trie.buscar("guar", 5)).isEmpty();
+	}
+
+	@Test
+	void prefijoQueTerminaDentroDeUnaArista() {
+		TriePrefijos trie = new TriePrefijos();
+		trie.sumar("L-000123", 0, 1);
+		trie.sumar("L-000124", 1, 1);
+
+		assertThat(valores(trie.buscar("l-0001", 5))).containsExactly("L-000124", "L-000123");
+		assertThat(valores(trie.buscar("l-000123", 5))).containsExactly("L-000123");
+	}
+
+	private static List<String> valores(List<TriePrefijos.Coincidencia> coincidencias) {
+		return coincidencias.stream().map(TriePrefijos.Coincidencia::valor).toList();
+	}
+}